@@ -0,0 +1,569 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package net.tourbook.ant;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ShortBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Creates the resource for <code>net.tourbook.common.time.TimeZoneGrid</code> from the source code of
+ * <code>com.skedgo.converter.TimezoneMapper</code>.
+ * <p>
+ * The decision tree and the polygons of the mapper are parsed and evaluated for each grid cell. A
+ * cell gets a time zone only when the mapper returns the same time zone for all positions in the
+ * cell, otherwise the mapper is used for this cell.
+ * <p>
+ * Usage: TimeZoneGridGenerator &lt;path to TimezoneMapper.java&gt; &lt;output file&gt;
+ * <p>
+ * The output file is
+ * bundles/net.tourbook.common/src/net/tourbook/common/time/timezone-grid.bin
+ */
+public class TimeZoneGridGenerator {
+
+   /*
+    * File format, must be the same as in net.tourbook.common.time.TimeZoneGrid
+    */
+   private static final int     FILE_MAGIC          = 0x545a4731; // TZG1
+   private static final int     FILE_VERSION        = 1;
+   private static final int     CELLS_PER_DEGREE    = 10;
+
+   /**
+    * The cells are enlarged by this margin (in degrees) that the float conversion and rounding in
+    * the mapper cannot return a different time zone than the evaluated cell
+    */
+   private static final double  CELL_MARGIN         = 0.001;
+
+   private static final int     MIXED               = -1;
+
+   private static final Pattern PATTERN_SPLIT       = Pattern.compile("if \\((lat|lng) < ([-0-9.]+)f\\)"); //$NON-NLS-1$
+   private static final Pattern PATTERN_RETURN      = Pattern.compile("(?:else )?return (\\d+);");        //$NON-NLS-1$
+   private static final Pattern PATTERN_CALL        = Pattern.compile("return call(\\d+)\\(lat,lng\\);"); //$NON-NLS-1$
+   private static final Pattern PATTERN_POLY_TEST   = Pattern.compile(
+         "if \\(poly\\[(\\d+)\\]\\.contains\\(lat,lng\\)\\) return (\\d+);");                            //$NON-NLS-1$
+   private static final Pattern PATTERN_FUNCTION    = Pattern.compile("private static int (\\w+)\\(float lat, float lng\\)"); //$NON-NLS-1$
+   private static final Pattern PATTERN_POLY_START  = Pattern.compile("poly\\[(\\d+)\\] = new TzPolygon\\(");                 //$NON-NLS-1$
+   private static final Pattern PATTERN_ZONE_STRING = Pattern.compile("^\"([^\"]+)\",?$");                                   //$NON-NLS-1$
+   private static final Pattern PATTERN_FLOAT       = Pattern.compile("[-0-9.]+(?=f)");                                      //$NON-NLS-1$
+
+   private List<String>          _allLines;
+   private int                   _lineIndex;
+
+   private Map<String, Node>     _allFunctions = new HashMap<>();
+   private List<CallNode>        _allCallNodes = new ArrayList<>();
+   private Map<Integer, Polygon> _allPolygons  = new HashMap<>();
+   private List<String>          _allZoneIds   = new ArrayList<>();
+
+   private static class CallNode extends Node {
+
+      private final String functionName;
+      private Node         function;
+
+      private CallNode(final String functionName) {
+         this.functionName = functionName;
+      }
+   }
+
+   private static class LeafNode extends Node {
+
+      private final int zoneIndex;
+
+      private LeafNode(final int zoneIndex) {
+         this.zoneIndex = zoneIndex;
+      }
+   }
+
+   private abstract static class Node {}
+
+   /**
+    * Sequence of polygon tests, the first polygon which contains the position returns its zone
+    */
+   private static class PolygonNode extends Node {
+
+      private final List<Integer> allPolygonIndices = new ArrayList<>();
+      private final List<Integer> allPolygonZones   = new ArrayList<>();
+
+      private int                 otherZone         = MIXED;
+   }
+
+   private static class Polygon {
+
+      private final float[] pts;
+
+      private double        minLat = Double.MAX_VALUE;
+      private double        maxLat = -Double.MAX_VALUE;
+      private double        minLon = Double.MAX_VALUE;
+      private double        maxLon = -Double.MAX_VALUE;
+
+      private Polygon(final float[] pts) {
+
+         this.pts = pts;
+
+         for (int ptIndex = 0; ptIndex < pts.length; ptIndex += 2) {
+
+            minLat = Math.min(minLat, pts[ptIndex]);
+            maxLat = Math.max(maxLat, pts[ptIndex]);
+            minLon = Math.min(minLon, pts[ptIndex + 1]);
+            maxLon = Math.max(maxLon, pts[ptIndex + 1]);
+         }
+      }
+
+      /**
+       * Same code as in the mapper
+       */
+      private boolean contains(final float testy, final float testx) {
+
+         boolean inside = false;
+         final int n = pts.length;
+         float yj = pts[n - 2];
+         float xj = pts[n - 1];
+         for (int i = 0; i < n;) {
+            final float yi = pts[i++];
+            final float xi = pts[i++];
+            if (((yi > testy) != (yj > testy)) && (testx < (xj - xi) * (testy - yi) / (yj - yi) + xi - 0.0001f)) {
+               inside = !inside;
+            }
+            xj = xi;
+            yj = yi;
+         }
+         return inside;
+      }
+
+      /**
+       * @return Returns <code>true</code> when an edge of the polygon crosses the rectangle
+       */
+      private boolean isCrossing(final double minY, final double maxY, final double minX, final double maxX) {
+
+         final int n = pts.length;
+         double yj = pts[n - 2];
+         double xj = pts[n - 1];
+
+         for (int i = 0; i < n;) {
+
+            final double yi = pts[i++];
+            final double xi = pts[i++];
+
+            if (isSegmentCrossing(yi, xi, yj, xj, minY, maxY, minX, maxX)) {
+               return true;
+            }
+
+            xj = xi;
+            yj = yi;
+         }
+
+         return false;
+      }
+   }
+
+   private static class SplitNode extends Node {
+
+      private final boolean isLat;
+      private final double  threshold;
+
+      private Node          less;
+      private Node          greaterOrEqual;
+
+      private SplitNode(final boolean isLat, final double threshold) {
+
+         this.isLat = isLat;
+         this.threshold = threshold;
+      }
+   }
+
+   /**
+    * Liang-Barsky clipping of a segment with a rectangle
+    */
+   private static boolean isSegmentCrossing(final double y1,
+                                            final double x1,
+                                            final double y2,
+                                            final double x2,
+                                            final double minY,
+                                            final double maxY,
+                                            final double minX,
+                                            final double maxX) {
+
+      final double dx = x2 - x1;
+      final double dy = y2 - y1;
+
+      final double[] p = { -dx, dx, -dy, dy };
+      final double[] q = { x1 - minX, maxX - x1, y1 - minY, maxY - y1 };
+
+      double t0 = 0;
+      double t1 = 1;
+
+      for (int i = 0; i < 4; i++) {
+
+         if (p[i] == 0) {
+
+            if (q[i] < 0) {
+               return false;
+            }
+
+         } else {
+
+            final double t = q[i] / p[i];
+
+            if (p[i] < 0) {
+               t0 = Math.max(t0, t);
+            } else {
+               t1 = Math.min(t1, t);
+            }
+
+            if (t0 > t1) {
+               return false;
+            }
+         }
+      }
+
+      return true;
+   }
+
+   public static void main(final String[] args) throws IOException {
+
+      final TimeZoneGridGenerator generator = new TimeZoneGridGenerator();
+
+      generator.parse(Paths.get(args[0]));
+      generator.write(Paths.get(args[1]));
+   }
+
+   private int evaluate(final Node node, final double minLat, final double maxLat, final double minLon, final double maxLon) {
+
+      if (node instanceof LeafNode) {
+
+         return ((LeafNode) node).zoneIndex;
+
+      } else if (node instanceof CallNode) {
+
+         return evaluate(((CallNode) node).function, minLat, maxLat, minLon, maxLon);
+
+      } else if (node instanceof SplitNode) {
+
+         final SplitNode splitNode = (SplitNode) node;
+
+         final double min = splitNode.isLat ? minLat : minLon;
+         final double max = splitNode.isLat ? maxLat : maxLon;
+
+         final boolean isLess = min < splitNode.threshold;
+         final boolean isGreaterOrEqual = max >= splitNode.threshold;
+
+         int zoneLess = MIXED;
+         int zoneGreaterOrEqual = MIXED;
+
+         if (isLess) {
+
+            zoneLess = evaluate(splitNode.less, minLat, maxLat, minLon, maxLon);
+
+            if (zoneLess == MIXED || isGreaterOrEqual == false) {
+               return zoneLess;
+            }
+         }
+
+         zoneGreaterOrEqual = evaluate(splitNode.greaterOrEqual, minLat, maxLat, minLon, maxLon);
+
+         if (isLess == false || zoneLess == zoneGreaterOrEqual) {
+            return zoneGreaterOrEqual;
+         }
+
+         return MIXED;
+
+      } else {
+
+         final PolygonNode polygonNode = (PolygonNode) node;
+
+         for (int testIndex = 0; testIndex < polygonNode.allPolygonIndices.size(); testIndex++) {
+
+            final Polygon polygon = _allPolygons.get(polygonNode.allPolygonIndices.get(testIndex));
+
+            if (maxLat < polygon.minLat || minLat > polygon.maxLat || maxLon < polygon.minLon || minLon > polygon.maxLon) {
+
+               // cell is outside of the polygon bounds
+               continue;
+            }
+
+            if (polygon.isCrossing(minLat, maxLat, minLon, maxLon)) {
+               return MIXED;
+            }
+
+            // the polygon is not crossing the cell -> the center is inside when the whole cell is inside
+            final float centerLat = (float) ((minLat + maxLat) / 2);
+            final float centerLon = (float) ((minLon + maxLon) / 2);
+
+            if (polygon.contains(centerLat, centerLon)) {
+               return polygonNode.allPolygonZones.get(testIndex);
+            }
+         }
+
+         return polygonNode.otherZone;
+      }
+   }
+
+   private int evaluateCell(final Node root, final double lat, final double lon, final double cellSize) {
+
+      return evaluate(root,
+            lat - CELL_MARGIN,
+            lat + cellSize + CELL_MARGIN,
+            lon - CELL_MARGIN,
+            lon + cellSize + CELL_MARGIN);
+   }
+
+   private String nextLine() {
+      return _allLines.get(_lineIndex++).trim();
+   }
+
+   private void parse(final Path mapperFile) throws IOException {
+
+      _allLines = Files.readAllLines(mapperFile, StandardCharsets.UTF_8);
+
+      parse_ZoneIds();
+      parse_Polygons();
+
+      for (_lineIndex = 0; _lineIndex < _allLines.size();) {
+
+         final Matcher matcher = PATTERN_FUNCTION.matcher(nextLine());
+
+         if (matcher.find()) {
+
+            // skip {
+            nextLine();
+
+            _allFunctions.put(matcher.group(1), parseNode());
+         }
+      }
+
+      for (final CallNode callNode : _allCallNodes) {
+         callNode.function = _allFunctions.get(callNode.functionName);
+      }
+   }
+
+   private Node parseNode() {
+
+      final String line = nextLine();
+
+      Matcher matcher = PATTERN_SPLIT.matcher(line);
+      if (matcher.matches()) {
+
+         final SplitNode splitNode = new SplitNode(matcher.group(1).equals("lat"), Float.parseFloat(matcher.group(2))); //$NON-NLS-1$
+
+         splitNode.less = parseNode();
+
+         if (nextLine().equals("else") == false) { //$NON-NLS-1$
+            throw new IllegalStateException("Missing else in line " + _lineIndex); //$NON-NLS-1$
+         }
+
+         splitNode.greaterOrEqual = parseNode();
+
+         return splitNode;
+      }
+
+      matcher = PATTERN_RETURN.matcher(line);
+      if (matcher.matches()) {
+         return new LeafNode(Integer.parseInt(matcher.group(1)));
+      }
+
+      matcher = PATTERN_CALL.matcher(line);
+      if (matcher.matches()) {
+
+         final CallNode callNode = new CallNode("call" + matcher.group(1)); //$NON-NLS-1$
+         _allCallNodes.add(callNode);
+
+         return callNode;
+      }
+
+      if (line.equals("{")) { //$NON-NLS-1$
+
+         final PolygonNode polygonNode = new PolygonNode();
+
+         for (String blockLine = nextLine(); blockLine.equals("}") == false; blockLine = nextLine()) { //$NON-NLS-1$
+
+            final Matcher polyMatcher = PATTERN_POLY_TEST.matcher(blockLine);
+            final Matcher returnMatcher = PATTERN_RETURN.matcher(blockLine);
+
+            if (polyMatcher.matches()) {
+
+               polygonNode.allPolygonIndices.add(Integer.parseInt(polyMatcher.group(1)));
+               polygonNode.allPolygonZones.add(Integer.parseInt(polyMatcher.group(2)));
+
+            } else if (returnMatcher.matches()) {
+
+               polygonNode.otherZone = Integer.parseInt(returnMatcher.group(1));
+
+            } else {
+               throw new IllegalStateException("Unexpected line " + _lineIndex + ": " + blockLine); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+         }
+
+         return polygonNode;
+      }
+
+      throw new IllegalStateException("Unexpected line " + _lineIndex + ": " + line); //$NON-NLS-1$ //$NON-NLS-2$
+   }
+
+   private void parse_Polygons() {
+
+      for (_lineIndex = 0; _lineIndex < _allLines.size();) {
+
+         final String line = nextLine();
+         final Matcher matcher = PATTERN_POLY_START.matcher(line);
+
+         if (matcher.find() == false) {
+            continue;
+         }
+
+         final StringBuilder sb = new StringBuilder(line);
+         while (sb.toString().endsWith(");") == false) { //$NON-NLS-1$
+            sb.append(' ').append(nextLine());
+         }
+
+         final List<Float> allValues = new ArrayList<>();
+         final Matcher floatMatcher = PATTERN_FLOAT.matcher(sb.substring(matcher.end()));
+         while (floatMatcher.find()) {
+            allValues.add(Float.parseFloat(floatMatcher.group()));
+         }
+
+         final float[] pts = new float[allValues.size()];
+         for (int valueIndex = 0; valueIndex < pts.length; valueIndex++) {
+            pts[valueIndex] = allValues.get(valueIndex);
+         }
+
+         _allPolygons.put(Integer.parseInt(matcher.group(1)), new Polygon(pts));
+      }
+   }
+
+   private void parse_ZoneIds() {
+
+      for (_lineIndex = 0; _lineIndex < _allLines.size();) {
+
+         if (nextLine().startsWith("static String[] timezoneStrings")) { //$NON-NLS-1$
+
+            for (String line = nextLine(); line.equals("};") == false; line = nextLine()) { //$NON-NLS-1$
+
+               final Matcher matcher = PATTERN_ZONE_STRING.matcher(line);
+               if (matcher.matches()) {
+                  _allZoneIds.add(matcher.group(1));
+               }
+            }
+
+            return;
+         }
+      }
+   }
+
+   private void write(final Path outputFile) throws IOException {
+
+      final Node root = _allFunctions.get("getTzInt"); //$NON-NLS-1$
+
+      final int cellsPerDegree = CELLS_PER_DEGREE;
+      final double cellSize = 1.0 / cellsPerDegree;
+
+      final short[] allDegreeCells = new short[180 * 360];
+      final List<short[]> allBlocks = new ArrayList<>();
+
+      // many blocks have the same cells, e.g. along a straight border
+      final Map<ShortBuffer, Integer> allBlockIndices = new HashMap<>();
+
+      int numFallbackCells = 0;
+
+      for (int latIndex = 0; latIndex < 180; latIndex++) {
+         for (int lonIndex = 0; lonIndex < 360; lonIndex++) {
+
+            final double lat = latIndex - 90;
+            final double lon = lonIndex - 180;
+
+            final int degreeZone = evaluateCell(root, lat, lon, 1);
+
+            if (degreeZone != MIXED) {
+
+               allDegreeCells[latIndex * 360 + lonIndex] = (short) degreeZone;
+
+               continue;
+            }
+
+            // split degree cell into smaller cells
+            final short[] block = new short[cellsPerDegree * cellsPerDegree];
+
+            for (int blockLat = 0; blockLat < cellsPerDegree; blockLat++) {
+               for (int blockLon = 0; blockLon < cellsPerDegree; blockLon++) {
+
+                  final int zone = evaluateCell(root, lat + blockLat * cellSize, lon + blockLon * cellSize, cellSize);
+
+                  if (zone == MIXED) {
+                     numFallbackCells++;
+                  }
+
+                  block[blockLat * cellsPerDegree + blockLon] = (short) zone;
+               }
+            }
+
+            final Integer blockIndex = allBlockIndices.computeIfAbsent(ShortBuffer.wrap(block), key -> {
+
+               allBlocks.add(block);
+
+               return allBlocks.size() - 1;
+            });
+
+            if (allBlocks.size() > Short.MAX_VALUE) {
+               throw new IllegalStateException("Too many blocks"); //$NON-NLS-1$
+            }
+
+            // negative values are the block index
+            allDegreeCells[latIndex * 360 + lonIndex] = (short) -(blockIndex + 1);
+         }
+      }
+
+      try (OutputStream fileStream = Files.newOutputStream(outputFile);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileStream))) {
+
+         out.writeInt(FILE_MAGIC);
+         out.writeInt(FILE_VERSION);
+         out.writeInt(cellsPerDegree);
+
+         out.writeInt(_allZoneIds.size());
+         for (final String zoneId : _allZoneIds) {
+            out.writeUTF(zoneId);
+         }
+
+         out.writeInt(allBlocks.size());
+
+         for (final short degreeCell : allDegreeCells) {
+            out.writeShort(degreeCell);
+         }
+
+         for (final short[] block : allBlocks) {
+            for (final short cell : block) {
+               out.writeShort(cell);
+            }
+         }
+      }
+
+      System.out.println(String.format("%d zones  %d blocks  %d fallback cells  %d bytes", //$NON-NLS-1$
+            _allZoneIds.size(),
+            allBlocks.size(),
+            numFallbackCells,
+            Files.size(outputFile)));
+   }
+}
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package net.tourbook.cloud;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+import net.tourbook.common.util.StatusUtil;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * Runs asynchronous requests of a cloud service with a limited number of concurrent requests. The
+ * result of each request is processed in the calling thread as soon as the request is finished.
+ * <p>
+ * Running requests are canceled when the monitor is canceled or when no request was finished
+ * within {@link #REQUEST_TIMEOUT}, so that a request which never finishes is not blocking the
+ * caller.
+ */
+public final class ConcurrentRequests {
+
+   private static final int  POLL_INTERVAL   = 100;
+
+   /**
+    * Time in ms how long is waited for the next finished request when all requests are started
+    */
+   private static final long REQUEST_TIMEOUT = 5 * 60 * 1000;
+
+   private ConcurrentRequests() {}
+
+   private static boolean isWaiting(final LongSupplier waitUntil) {
+      return waitUntil != null && System.currentTimeMillis() < waitUntil.getAsLong();
+   }
+
+   private static <R> void processResult(final CompletableFuture<R> finishedRequest, final Consumer<R> resultProcessor) {
+
+      try {
+
+         resultProcessor.accept(finishedRequest.join());
+
+      } catch (final CompletionException e) {
+         StatusUtil.log(e);
+      }
+   }
+
+   /**
+    * @param numRequests
+    * @param maxConcurrentRequests
+    * @param requestStarter
+    *           Starts the request with the request index
+    * @param resultProcessor
+    *           Processes the result of a finished request in the calling thread
+    * @param waitUntil
+    *           Returns the time in milliseconds until new requests are not started, e.g. after a
+    *           rate limit response, or <code>null</code> when new requests are started
+    *           immediately
+    * @param monitor
+    *           New requests are not started when the monitor is canceled, requests which are
+    *           already running are canceled and their results are not processed
+    * @throws InterruptedException
+    */
+   public static <R> void run(final int numRequests,
+                              final int maxConcurrentRequests,
+                              final IntFunction<CompletableFuture<R>> requestStarter,
+                              final Consumer<R> resultProcessor,
+                              final LongSupplier waitUntil,
+                              final IProgressMonitor monitor) throws InterruptedException {
+
+      final Semaphore requestPermits = new Semaphore(Math.max(1, maxConcurrentRequests));
+
+      final BlockingQueue<CompletableFuture<R>> allFinishedRequests = new LinkedBlockingQueue<>();
+
+      // is accessed only in the calling thread
+      final Set<CompletableFuture<R>> allRunningRequests = new HashSet<>();
+
+      int numStarted = 0;
+      int numProcessed = 0;
+
+      for (int requestIndex = 0; requestIndex < numRequests; requestIndex++) {
+
+         // wait until a request can be started, meanwhile process finished requests
+         while (isWaiting(waitUntil)
+               || requestPermits.tryAcquire(POLL_INTERVAL, TimeUnit.MILLISECONDS) == false) {
+
+            CompletableFuture<R> finishedRequest;
+            while ((finishedRequest = allFinishedRequests.poll()) != null) {
+
+               allRunningRequests.remove(finishedRequest);
+               processResult(finishedRequest, resultProcessor);
+
+               ++numProcessed;
+            }
+
+            if (monitor.isCanceled()) {
+               break;
+            }
+
+            if (isWaiting(waitUntil)) {
+               Thread.sleep(POLL_INTERVAL);
+            }
+         }
+
+         if (monitor.isCanceled()) {
+            break;
+         }
+
+         final CompletableFuture<R> request = requestStarter.apply(requestIndex);
+
+         allRunningRequests.add(request);
+
+         request.whenComplete((result, throwable) -> {
+
+            requestPermits.release();
+            allFinishedRequests.add(request);
+         });
+
+         ++numStarted;
+      }
+
+      // wait until all started requests are finished
+      long lastFinishedTime = System.currentTimeMillis();
+
+      while (numProcessed < numStarted) {
+
+         final CompletableFuture<R> finishedRequest = allFinishedRequests.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+
+         if (finishedRequest != null) {
+
+            allRunningRequests.remove(finishedRequest);
+            processResult(finishedRequest, resultProcessor);
+
+            ++numProcessed;
+
+            lastFinishedTime = System.currentTimeMillis();
+
+            continue;
+         }
+
+         final boolean isTimeout = System.currentTimeMillis() - lastFinishedTime > REQUEST_TIMEOUT;
+
+         if (monitor.isCanceled() || isTimeout) {
+
+            if (isTimeout) {
+               StatusUtil.logError(String.format("%d requests are canceled, they are not finished after %d ms", //$NON-NLS-1$
+                     allRunningRequests.size(),
+                     REQUEST_TIMEOUT));
+            }
+
+            for (final CompletableFuture<R> runningRequest : allRunningRequests) {
+               runningRequest.cancel(true);
+            }
+
+            // canceled requests have no result
+            return;
+         }
+      }
+   }
+}
@@ -65,6 +65,7 @@ public class Messages extends NLS {
    public static String Log_UploadToursToStrava_003_UploadStatus;
    public static String Log_UploadToursToStrava_004_UploadError;
    public static String Log_UploadToursToStrava_005_TourTypeMappedMultipleTimes;
+   public static String Log_UploadToursToStrava_006_RetryUpload;
    public static String PrefPage_AccountInformation_Label_AthleteName;
    public static String PrefPage_AccountInformation_Label_AthleteWebPage;
    public static String PrefPage_TourTypeFilter_Link_StravaTourTypes;
@@ -74,6 +75,8 @@ public class Messages extends NLS {
    public static String PrefPage_UploadConfiguration_Button_SendWeatherDataInDescription_Tooltip;
    public static String PrefPage_UploadConfiguration_Button_UseTourTypeMapping;
    public static String PrefPage_UploadConfiguration_Button_UseTourTypeMapping_Tooltip;
+   public static String PrefPage_UploadConfiguration_Label_MaxConcurrentUploads;
+   public static String PrefPage_UploadConfiguration_Label_MaxConcurrentUploads_Tooltip;
    public static String VendorName_Strava;
 
    //SUUNTO
@@ -51,6 +51,7 @@ public class PreferenceInitializer extends AbstractPreferenceInitializer {
       store.setDefault(Preferences.STRAVA_SENDDESCRIPTION, true);
       store.setDefault(Preferences.STRAVA_SENDWEATHERDATA_IN_DESCRIPTION, false);
       store.setDefault(Preferences.STRAVA_USETOURTYPEMAPPING, false);
+      store.setDefault(Preferences.STRAVA_MAX_CONCURRENT_UPLOADS, 4);
 
       initializeDefaultSuuntoPreferences(store);
       store.setDefault(Preferences.SUUNTO_SELECTED_PERSON_INDEX, 0);
@@ -47,6 +47,7 @@ public final class Preferences {
    public static final String STRAVA_SENDDESCRIPTION                = "STRAVA_SENDDESCRIPTION";                //$NON-NLS-1$
    public static final String STRAVA_SENDWEATHERDATA_IN_DESCRIPTION = "STRAVA_SENDWEATHERDATA_IN_DESCRIPTION"; //$NON-NLS-1$
    public static final String STRAVA_USETOURTYPEMAPPING             = "STRAVA_USETOURTYPEMAPPING";             //$NON-NLS-1$
+   public static final String STRAVA_MAX_CONCURRENT_UPLOADS         = "STRAVA_MAX_CONCURRENT_UPLOADS";         //$NON-NLS-1$
 
    /*
     * Suunto preferences
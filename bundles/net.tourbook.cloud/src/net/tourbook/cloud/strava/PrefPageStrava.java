@@ -48,6 +48,7 @@ import org.eclipse.swt.widgets.Group;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Link;
 import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Spinner;
 import org.eclipse.swt.widgets.Text;
 import org.eclipse.ui.IWorkbench;
 import org.eclipse.ui.IWorkbenchPreferencePage;
@@ -90,10 +91,12 @@ public class PrefPageStrava extends FieldEditorPreferencePage implements IWorkbe
    private Label              _labelAthleteWebPage;
    private Label              _labelExpiresAt;
    private Label              _labelExpiresAt_Value;
+   private Label              _labelMaxConcurrentUploads;
    private Label              _labelRefreshToken;
    private Link               _linkAthleteWebPage;
    private Link               _linkRevokeAccess;
    private PreferenceLinkArea _linkTourTypeFilters;
+   private Spinner            _spinnerMaxConcurrentUploads;
    private Text               _txtAccessToken_Value;
    private Text               _txtRefreshToken_Value;
 
@@ -339,6 +342,24 @@ public class PrefPageStrava extends FieldEditorPreferencePage implements IWorkbe
                   .grab(true, false)
                   .applyTo(_linkTourTypeFilters.getControl());
          }
+         {
+            /*
+             * Spinner: Maximum number of concurrent uploads
+             */
+            final Composite container = new Composite(group, SWT.NONE);
+            GridDataFactory.fillDefaults().applyTo(container);
+            GridLayoutFactory.fillDefaults().numColumns(2).applyTo(container);
+            {
+               _labelMaxConcurrentUploads = new Label(container, SWT.NONE);
+               _labelMaxConcurrentUploads.setText(Messages.PrefPage_UploadConfiguration_Label_MaxConcurrentUploads);
+               _labelMaxConcurrentUploads.setToolTipText(Messages.PrefPage_UploadConfiguration_Label_MaxConcurrentUploads_Tooltip);
+
+               _spinnerMaxConcurrentUploads = new Spinner(container, SWT.BORDER);
+               _spinnerMaxConcurrentUploads.setMinimum(1);
+               _spinnerMaxConcurrentUploads.setMaximum(10);
+               _spinnerMaxConcurrentUploads.setToolTipText(Messages.PrefPage_UploadConfiguration_Label_MaxConcurrentUploads_Tooltip);
+            }
+         }
       }
    }
 
@@ -370,6 +391,8 @@ public class PrefPageStrava extends FieldEditorPreferencePage implements IWorkbe
       _chkSendDescription.setEnabled(isAuthorized);
       _chkSendWeatherDataInDescription.setEnabled(isAuthorized);
       _chkUseTourTypeMapping.setEnabled(isAuthorized);
+      _labelMaxConcurrentUploads.setEnabled(isAuthorized);
+      _spinnerMaxConcurrentUploads.setEnabled(isAuthorized);
       _btnCleanup.setEnabled(isAuthorized);
 
       _linkTourTypeFilters.getControl().setEnabled(_chkUseTourTypeMapping.getSelection());
@@ -462,6 +485,7 @@ public class PrefPageStrava extends FieldEditorPreferencePage implements IWorkbe
       _chkSendDescription.setSelection(_prefStore.getDefaultBoolean(Preferences.STRAVA_SENDDESCRIPTION));
       _chkSendWeatherDataInDescription.setSelection(_prefStore.getDefaultBoolean(Preferences.STRAVA_SENDWEATHERDATA_IN_DESCRIPTION));
       _chkUseTourTypeMapping.setSelection(_prefStore.getDefaultBoolean(Preferences.STRAVA_USETOURTYPEMAPPING));
+      _spinnerMaxConcurrentUploads.setSelection(_prefStore.getDefaultInt(Preferences.STRAVA_MAX_CONCURRENT_UPLOADS));
 
       enableControls();
 
@@ -483,6 +507,7 @@ public class PrefPageStrava extends FieldEditorPreferencePage implements IWorkbe
          _prefStore.setValue(Preferences.STRAVA_ADDWEATHERICON_IN_TITLE, _chkAddWeatherIconInTitle.getSelection());
          _prefStore.setValue(Preferences.STRAVA_SENDDESCRIPTION, _chkSendDescription.getSelection());
          _prefStore.setValue(Preferences.STRAVA_SENDWEATHERDATA_IN_DESCRIPTION, _chkSendWeatherDataInDescription.getSelection());
+         _prefStore.setValue(Preferences.STRAVA_MAX_CONCURRENT_UPLOADS, _spinnerMaxConcurrentUploads.getSelection());
 
          final boolean prefUseTourTypeMapping = _prefStore.getBoolean(Preferences.STRAVA_USETOURTYPEMAPPING);
          final boolean currentUseTourTypeMapping = _chkUseTourTypeMapping.getSelection();
@@ -536,6 +561,7 @@ public class PrefPageStrava extends FieldEditorPreferencePage implements IWorkbe
       _chkSendDescription.setSelection(_prefStore.getBoolean(Preferences.STRAVA_SENDDESCRIPTION));
       _chkSendWeatherDataInDescription.setSelection(_prefStore.getBoolean(Preferences.STRAVA_SENDWEATHERDATA_IN_DESCRIPTION));
       _chkUseTourTypeMapping.setSelection(_prefStore.getBoolean(Preferences.STRAVA_USETOURTYPEMAPPING));
+      _spinnerMaxConcurrentUploads.setSelection(_prefStore.getInt(Preferences.STRAVA_MAX_CONCURRENT_UPLOADS));
    }
 
    private void showOrHideAllPasswords(final boolean showPasswords) {
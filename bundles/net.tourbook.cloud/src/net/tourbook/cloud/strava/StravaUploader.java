@@ -18,35 +18,37 @@ package net.tourbook.cloud.strava;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.lang.reflect.InvocationTargetException;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.nio.file.Paths;
 import java.time.Duration;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.zip.GZIPOutputStream;
 
 import net.tourbook.cloud.Activator;
+import net.tourbook.cloud.ConcurrentRequests;
 import net.tourbook.cloud.Messages;
 import net.tourbook.cloud.Preferences;
 import net.tourbook.cloud.oauth2.MultiPartBodyPublisher;
 import net.tourbook.cloud.oauth2.OAuth2Constants;
 import net.tourbook.cloud.oauth2.OAuth2Utils;
 import net.tourbook.common.UI;
-import net.tourbook.common.util.FileUtils;
 import net.tourbook.common.util.StatusUtil;
 import net.tourbook.common.util.StringUtils;
 import net.tourbook.data.TourData;
@@ -76,12 +78,30 @@ public class StravaUploader extends TourbookCloudUploader {
 
    private static final String     StravaBaseUrl     = "https://www.strava.com/api/v3";                                      //$NON-NLS-1$
 
+   private static final int        HTTP_TOO_MANY_REQUESTS = 429;
+
+   /**
+    * Number of retries when Strava responds with {@link #HTTP_TOO_MANY_REQUESTS}
+    */
+   private static final int        MAX_RETRIES            = 3;
+
+   /**
+    * Waiting time in seconds before the first retry when the response do not contain a
+    * "Retry-After" header, it is doubled for each retry
+    */
+   private static final int        BACKOFF_DELAY          = 15;
+
    private static HttpClient       _httpClient       = HttpClient.newBuilder().connectTimeout(Duration.ofMinutes(5)).build();
    private static IPreferenceStore _prefStore        = Activator.getDefault().getPreferenceStore();
-   private static TourExporter     _tourExporter     = new TourExporter(ExportTourTCX.TCX_2_0_TEMPLATE);
 
    private static String           CLOUD_UPLOADER_ID = "Strava";                                                             //$NON-NLS-1$
 
+   /**
+    * Time in ms until no new uploads are started because Strava responded with
+    * {@link #HTTP_TOO_MANY_REQUESTS}
+    */
+   private volatile long           _backoffUntil;
+
    // Source : https://developers.strava.com/docs/reference/#api-models-ActivityType
    private static final List<String> StravaManualActivityTypes       = List.of(
          "InlineSkate",                                                                                    //$NON-NLS-1$
@@ -160,27 +180,6 @@ public class StravaUploader extends TourbookCloudUploader {
       return stravaTokens;
    }
 
-   private static String gzipFile(final String file) {
-
-      final String compressedFilePath = file + ".gz"; //$NON-NLS-1$
-
-      try (final FileInputStream fileInputStream = new FileInputStream(file);
-            final FileOutputStream fileOutputStream = new FileOutputStream(compressedFilePath);
-            final GZIPOutputStream gzipOS = new GZIPOutputStream(fileOutputStream)) {
-
-         final byte[] buffer = new byte[1024];
-         int length;
-         while ((length = fileInputStream.read(buffer)) != -1) {
-            gzipOS.write(buffer, 0, length);
-         }
-      } catch (final IOException e) {
-         StatusUtil.log(e);
-         return UI.EMPTY_STRING;
-      }
-
-      return compressedFilePath;
-   }
-
    private String buildFormattedDescription(final TourData tourData) {
 
       final StringBuilder description = new StringBuilder();
@@ -213,25 +212,6 @@ public class StravaUploader extends TourbookCloudUploader {
       return title;
    }
 
-   private void createCompressedTcxTourFile(final IProgressMonitor monitor,
-                                            final Map<String, TourData> toursWithTimeSeries,
-                                            final TourData tourData) {
-
-      final String absoluteTourFilePath = FileUtils.createTemporaryFile(
-            String.valueOf(tourData.getTourId()),
-            "tcx"); //$NON-NLS-1$
-
-      final String exportedTcxGzFile = exportTcxGzFile(tourData, absoluteTourFilePath);
-      if (StringUtils.hasContent(exportedTcxGzFile)) {
-
-         toursWithTimeSeries.put(exportedTcxGzFile, tourData);
-      }
-
-      FileUtils.deleteIfExists(Paths.get(absoluteTourFilePath));
-
-      monitor.worked(1);
-   }
-
    private List<TourTypeFilter> createStravaTourTypeFilters() {
 
       final List<TourTypeFilter> stravaTourTypeFilters = new ArrayList<>();
@@ -246,17 +226,68 @@ public class StravaUploader extends TourbookCloudUploader {
       return stravaTourTypeFilters;
    }
 
-   private void deleteTemporaryTourFiles(final Map<String, TourData> tourFiles) {
+   /**
+    * Exports the tour as compressed .tcx file into memory, the tour is exported when the request
+    * body is sent, so that only the tours which are currently uploaded are in memory.
+    * <p>
+    * When the tour cannot be exported, an {@link UncheckedIOException} is thrown which fails the
+    * upload of this tour.
+    *
+    * @param tourData
+    * @param stravaActivityType
+    *           Strava activity type or <code>null</code> when it is not mapped
+    * @return
+    */
+   private InputStream exportCompressedTcx(final TourData tourData, final String stravaActivityType) {
+
+      final TourExporter tourExporter = new TourExporter(ExportTourTCX.TCX_2_0_TEMPLATE);
+
+      tourExporter.setUseActivityType(stravaActivityType != null);
+
+      if (stravaActivityType != null) {
+         tourExporter.setActivityType(stravaActivityType);
+      }
+
+      final ByteArrayOutputStream compressedTour = new ByteArrayOutputStream();
+
+      try (final GZIPOutputStream gzipOS = new GZIPOutputStream(compressedTour)) {
+
+         if (tourExporter.useTourData(tourData).export(gzipOS) == false) {
+
+            throw new IOException(NLS.bind(
+                  "Tour \"{0}\" cannot be exported", //$NON-NLS-1$
+                  TourManager.getTourDateTimeShort(tourData)));
+         }
+
+      } catch (final IOException e) {
+
+         StatusUtil.log(e);
 
-      tourFiles.keySet().forEach(tourFilePath -> FileUtils.deleteIfExists(Paths.get(
-            tourFilePath)));
+         throw new UncheckedIOException(e);
+      }
+
+      return new ByteArrayInputStream(compressedTour.toByteArray());
    }
 
-   private String exportTcxGzFile(final TourData tourData, final String absoluteTourFilePath) {
+   /**
+    * @param response
+    * @param numRetries
+    * @return Returns the waiting time in seconds before the request is retried
+    */
+   private long getBackoffDelay(final HttpResponse<String> response, final int numRetries) {
+
+      final String retryAfter = response.headers().firstValue("Retry-After").orElse(null); //$NON-NLS-1$
 
-      _tourExporter.useTourData(tourData).export(absoluteTourFilePath);
+      if (StringUtils.hasContent(retryAfter)) {
 
-      return gzipFile(absoluteTourFilePath);
+         try {
+            return Math.max(0, Long.parseLong(retryAfter.trim()));
+         } catch (final NumberFormatException e) {
+            // use default delay
+         }
+      }
+
+      return (long) BACKOFF_DELAY << numRetries;
    }
 
    private String getAccessToken() {
@@ -417,7 +448,7 @@ public class StravaUploader extends TourbookCloudUploader {
 
    private void processTours(final List<TourData> selectedTours,
                              final IProgressMonitor monitor,
-                             final Map<String, TourData> toursWithTimeSeries,
+                             final Map<TourData, String> toursWithTimeSeries,
                              final Map<TourData, String> manualTours) {
 
       for (final TourData tourData : selectedTours) {
@@ -426,6 +457,8 @@ public class StravaUploader extends TourbookCloudUploader {
             return;
          }
 
+         String stravaActivityType = null;
+
          if (_prefStore.getBoolean(Preferences.STRAVA_USETOURTYPEMAPPING)) {
 
             final TourType tourType = tourData.getTourType();
@@ -445,10 +478,9 @@ public class StravaUploader extends TourbookCloudUploader {
 
                continue;
             }
-            _tourExporter.setUseActivityType(useActivityType);
 
             if (useActivityType) {
-               _tourExporter.setActivityType(stravaActivityNames.get(0));
+               stravaActivityType = stravaActivityNames.get(0);
             }
          }
 
@@ -457,7 +489,10 @@ public class StravaUploader extends TourbookCloudUploader {
             processManualTour(monitor, tourData, manualTours);
          } else {
 
-            createCompressedTcxTourFile(monitor, toursWithTimeSeries, tourData);
+            // the tour is exported when it is uploaded
+            toursWithTimeSeries.put(tourData, stravaActivityType);
+
+            monitor.worked(1);
          }
       }
    }
@@ -466,8 +501,7 @@ public class StravaUploader extends TourbookCloudUploader {
 
       final String tourDate = TourManager.getTourDateTimeShort(tour);
 
-      final CompletableFuture<ActivityUpload> activityUpload = _httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-            .thenApply(name -> convertResponseToUpload(name, tourDate))
+      final CompletableFuture<ActivityUpload> activityUpload = sendAsyncRequest(request, tourDate, 0)
             .exceptionally(e -> {
                final ActivityUpload errorUpload = new ActivityUpload();
                errorUpload.setTourDate(tourDate);
@@ -478,6 +512,43 @@ public class StravaUploader extends TourbookCloudUploader {
       return activityUpload;
    }
 
+   /**
+    * Sends the request, when Strava responds with {@link #HTTP_TOO_MANY_REQUESTS} then the request
+    * is sent again after a backoff delay.
+    *
+    * @param request
+    * @param tourDate
+    * @param numRetries
+    * @return
+    */
+   private CompletableFuture<ActivityUpload> sendAsyncRequest(final HttpRequest request,
+                                                              final String tourDate,
+                                                              final int numRetries) {
+
+      return _httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            .thenCompose(response -> {
+
+               if (response.statusCode() == HTTP_TOO_MANY_REQUESTS && numRetries < MAX_RETRIES) {
+
+                  final long backoffDelay = getBackoffDelay(response, numRetries);
+
+                  // delay also all other uploads which are not yet started
+                  _backoffUntil = Math.max(_backoffUntil, System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(backoffDelay));
+
+                  TourLogManager.log_INFO(NLS.bind(
+                        Messages.Log_UploadToursToStrava_006_RetryUpload,
+                        tourDate,
+                        backoffDelay));
+
+                  return CompletableFuture
+                        .runAsync(() -> {}, CompletableFuture.delayedExecutor(backoffDelay, TimeUnit.SECONDS))
+                        .thenCompose(result -> sendAsyncRequest(request, tourDate, numRetries + 1));
+               }
+
+               return CompletableFuture.completedFuture(convertResponseToUpload(response, tourDate));
+            });
+   }
+
    private void setAccessToken(final String accessToken) {
       _prefStore.setValue(Preferences.STRAVA_ACCESSTOKEN, accessToken);
    }
@@ -493,18 +564,21 @@ public class StravaUploader extends TourbookCloudUploader {
    /**
     * https://developers.strava.com/playground/#/Uploads/createUpload
     *
-    * @param compressedTourAbsoluteFilePath
     * @param tourData
+    * @param stravaActivityType
     * @return
     */
-   private CompletableFuture<ActivityUpload> uploadFile(final String compressedTourAbsoluteFilePath, final TourData tourData) {
+   private CompletableFuture<ActivityUpload> uploadFile(final TourData tourData, final String stravaActivityType) {
 
       final String title = buildFormattedTitle(tourData);
 
       final MultiPartBodyPublisher publisher = new MultiPartBodyPublisher()
             .addPart("data_type", "tcx.gz") //$NON-NLS-1$ //$NON-NLS-2$
             .addPart("name", title) //$NON-NLS-1$
-            .addPart("file", Paths.get(compressedTourAbsoluteFilePath)); //$NON-NLS-1$
+            .addPart("file", //$NON-NLS-1$
+                  () -> exportCompressedTcx(tourData, stravaActivityType),
+                  tourData.getTourId() + ".tcx.gz", //$NON-NLS-1$
+                  "application/gzip"); //$NON-NLS-1$
 
       final String description = buildFormattedDescription(tourData);
       publisher.addPart("description", description); //$NON-NLS-1$
@@ -580,22 +654,16 @@ public class StravaUploader extends TourbookCloudUploader {
 
             monitor.subTask(NLS.bind(Messages.Dialog_UploadToursToStrava_SubTask, UI.SYMBOL_HOURGLASS_WITH_FLOWING_SAND, UI.EMPTY_STRING));
 
-            final Map<String, TourData> toursWithTimeSeries = new HashMap<>();
-            final Map<TourData, String> manualTours = new HashMap<>();
+            final Map<TourData, String> toursWithTimeSeries = new LinkedHashMap<>();
+            final Map<TourData, String> manualTours = new LinkedHashMap<>();
             processTours(selectedTours, monitor, toursWithTimeSeries, manualTours);
 
-            if (monitor.isCanceled()) {
-               deleteTemporaryTourFiles(toursWithTimeSeries);
-            }
-
             monitor.subTask(NLS.bind(Messages.Dialog_UploadToursToStrava_SubTask,
                   UI.SYMBOL_WHITE_HEAVY_CHECK_MARK,
                   UI.SYMBOL_HOURGLASS_WITH_FLOWING_SAND));
 
             numberOfUploadedTours[0] = uploadTours(toursWithTimeSeries, manualTours, monitor);
 
-            monitor.worked(toursWithTimeSeries.size() + manualTours.size());
-
             monitor.subTask(NLS.bind(Messages.Dialog_UploadToursToStrava_SubTask,
                   UI.SYMBOL_WHITE_HEAVY_CHECK_MARK,
                   UI.SYMBOL_WHITE_HEAVY_CHECK_MARK));
@@ -623,44 +691,66 @@ public class StravaUploader extends TourbookCloudUploader {
       }
    }
 
-   private int uploadTours(final Map<String, TourData> toursWithTimeSeries,
+   /**
+    * Uploads the tours, the number of concurrent uploads is limited by
+    * {@link Preferences#STRAVA_MAX_CONCURRENT_UPLOADS}. The upload result of each tour is logged
+    * when the upload is finished.
+    *
+    * @param toursWithTimeSeries
+    * @param manualTours
+    * @param monitor
+    * @return Returns the number of uploaded tours
+    */
+   private int uploadTours(final Map<TourData, String> toursWithTimeSeries,
                            final Map<TourData, String> manualTours,
                            final IProgressMonitor monitor) {
 
-      final List<CompletableFuture<ActivityUpload>> activityUploads = new ArrayList<>();
+      final int maxConcurrentUploads = _prefStore.getInt(Preferences.STRAVA_MAX_CONCURRENT_UPLOADS);
 
-      for (final Map.Entry<String, TourData> tourToUpload : toursWithTimeSeries.entrySet()) {
+      final List<Entry<TourData, String>> allToursToUpload = new ArrayList<>(toursWithTimeSeries.entrySet());
+      final int numFileTours = allToursToUpload.size();
+      allToursToUpload.addAll(manualTours.entrySet());
 
-         if (monitor.isCanceled()) {
-            return 0;
-         }
+      final int[] numUploaded = new int[1];
 
-         final String compressedTourAbsoluteFilePath = tourToUpload.getKey();
-         final TourData tourData = tourToUpload.getValue();
+      _backoffUntil = 0;
 
-         activityUploads.add(uploadFile(compressedTourAbsoluteFilePath, tourData));
-      }
+      try {
 
-      for (final Map.Entry<TourData, String> manualTourToUpload : manualTours.entrySet()) {
+         ConcurrentRequests.run(
+               allToursToUpload.size(),
+               maxConcurrentUploads,
 
-         if (monitor.isCanceled()) {
-            return 0;
-         }
+               // start upload
+               tourIndex -> {
 
-         activityUploads.add(uploadManualTour(manualTourToUpload));
-      }
+                  final Entry<TourData, String> tourToUpload = allToursToUpload.get(tourIndex);
 
-      final int[] numberOfUploadedTours = new int[1];
-      activityUploads.stream().map(CompletableFuture::join).forEach(activityUpload -> {
-         if (monitor.isCanceled()) {
-            return;
-         } else if (logUploadResult(activityUpload)) {
-            ++numberOfUploadedTours[0];
-         }
-      });
+                  return tourIndex < numFileTours
+                        ? uploadFile(tourToUpload.getKey(), tourToUpload.getValue())
+                        : uploadManualTour(tourToUpload);
+               },
+
+               // process finished upload
+               activityUpload -> {
+
+                  if (logUploadResult(activityUpload)) {
+                     ++numUploaded[0];
+                  }
 
-      deleteTemporaryTourFiles(toursWithTimeSeries);
+                  monitor.worked(1);
+               },
+
+               // delay new uploads after a rate limit response
+               () -> _backoffUntil,
+
+               monitor);
+
+      } catch (final InterruptedException e) {
+         StatusUtil.log(e);
+         Thread.currentThread().interrupt();
+      }
 
-      return numberOfUploadedTours[0];
+      return numUploaded[0];
    }
 }
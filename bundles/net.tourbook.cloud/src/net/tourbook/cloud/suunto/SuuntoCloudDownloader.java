@@ -17,31 +17,41 @@ package net.tourbook.cloud.suunto;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-import java.io.FileOutputStream;
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.lang.reflect.InvocationTargetException;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import net.tourbook.application.TourbookPlugin;
 import net.tourbook.cloud.Activator;
 import net.tourbook.cloud.CloudImages;
+import net.tourbook.cloud.ConcurrentRequests;
 import net.tourbook.cloud.Messages;
 import net.tourbook.cloud.Preferences;
 import net.tourbook.cloud.oauth2.OAuth2Constants;
@@ -49,6 +59,7 @@ import net.tourbook.cloud.oauth2.OAuth2Utils;
 import net.tourbook.cloud.suunto.workouts.Payload;
 import net.tourbook.cloud.suunto.workouts.Workouts;
 import net.tourbook.common.UI;
+import net.tourbook.common.util.FileUtils;
 import net.tourbook.common.util.SQL;
 import net.tourbook.common.util.StatusUtil;
 import net.tourbook.common.util.StringUtils;
@@ -71,6 +82,21 @@ public class SuuntoCloudDownloader extends TourbookCloudDownloader {
    private static final String     LOG_CLOUDACTION_END           = net.tourbook.cloud.Messages.Log_CloudAction_End;
    private static final String     LOG_CLOUDACTION_INVALIDTOKENS = net.tourbook.cloud.Messages.Log_CloudAction_InvalidTokens;
 
+   private static final int        MAX_CONCURRENT_DOWNLOADS      = 4;
+
+   /**
+    * Workouts are downloaded into this subfolder of the download folder and then moved into the
+    * download folder, which could be watched by the easy import
+    */
+   private static final String     TEMP_FOLDER_NAME              = ".download";                                     //$NON-NLS-1$
+   private static final String     TEMP_FILE_EXTENSION           = ".download";                                     //$NON-NLS-1$
+
+   /**
+    * Contains the workout key and the file path of all downloaded workouts, one tab separated
+    * workout per line
+    */
+   private static final String     DOWNLOADED_WORKOUTS_FILE_NAME = "suunto-downloaded-workouts.txt";                //$NON-NLS-1$
+
    private static HttpClient       _httpClient                   = HttpClient.newBuilder().connectTimeout(Duration.ofMinutes(5)).build();
    private static IPreferenceStore _prefStore                    = Activator.getDefault().getPreferenceStore();
    private int[]                   _numberOfAvailableTours;
@@ -97,28 +123,52 @@ public class SuuntoCloudDownloader extends TourbookCloudDownloader {
       return sendAsyncRequest(workoutPayload, request);
    }
 
-   private int downloadFiles(final List<Payload> newWorkouts, final IProgressMonitor monitor) {
+   /**
+    * Downloads the workouts with a limited number of concurrent downloads. The result of each
+    * download is logged as soon as it is finished, so that the downloaded files can already be
+    * imported while the other workouts are still downloading.
+    *
+    * @param newWorkouts
+    * @param downloadedWorkouts
+    *           Is updated with the downloaded workouts
+    * @param monitor
+    * @return Returns the number of downloaded workouts
+    */
+   private int downloadFiles(final List<Payload> newWorkouts,
+                             final Map<String, String> downloadedWorkouts,
+                             final IProgressMonitor monitor) {
+
+      final int[] numDownloaded = new int[1];
 
-      final List<CompletableFuture<WorkoutDownload>> workoutDownloads = new ArrayList<>();
+      try {
 
-      newWorkouts.stream().forEach(workout -> {
-         if (monitor.isCanceled()) {
-            return;
-         } else {
-            workoutDownloads.add(downloadFile(workout));
-         }
-      });
+         ConcurrentRequests.run(
+               newWorkouts.size(),
+               MAX_CONCURRENT_DOWNLOADS,
 
-      final int[] numberOfDownloadedTours = new int[1];
-      workoutDownloads.stream().map(CompletableFuture::join).forEach(workoutDownload -> {
-         if (monitor.isCanceled()) {
-            return;
-         } else if (logDownloadResult(workoutDownload)) {
-            ++numberOfDownloadedTours[0];
-         }
-      });
+               // start download
+               workoutIndex -> downloadFile(newWorkouts.get(workoutIndex)),
+
+               // process finished download
+               workoutDownload -> {
+
+                  if (logDownloadResult(workoutDownload)) {
 
-      return numberOfDownloadedTours[0];
+                     downloadedWorkouts.put(workoutDownload.getWorkoutKey(), workoutDownload.getAbsoluteFilePath());
+
+                     ++numDownloaded[0];
+                  }
+               },
+
+               null,
+               monitor);
+
+      } catch (final InterruptedException e) {
+         StatusUtil.log(e);
+         Thread.currentThread().interrupt();
+      }
+
+      return numDownloaded[0];
    }
 
    @Override
@@ -179,11 +229,16 @@ public class SuuntoCloudDownloader extends TourbookCloudDownloader {
                return;
             }
 
-            final List<Long> tourStartTimes = retrieveAllTourStartTimes();
+            final Set<Long> tourStartTimes = new HashSet<>();
+            retrieveExistingTours(tourStartTimes);
+
+            final Map<String, String> downloadedWorkouts = loadDownloadedWorkouts();
 
             //Identifying the workouts that have not yet been imported in the tour database
+            //or downloaded into the download folder
             final List<Payload> newWorkouts = workouts.payload.stream()
                   .filter(suuntoWorkout -> !tourStartTimes.contains(suuntoWorkout.startTime / 1000L * 1000L))
+                  .filter(suuntoWorkout -> !downloadedWorkouts.containsKey(suuntoWorkout.workoutKey))
                   .collect(Collectors.toList());
 
             final int numNewWorkouts = newWorkouts.size();
@@ -202,7 +257,9 @@ public class SuuntoCloudDownloader extends TourbookCloudDownloader {
                         _numberOfAvailableTours[0],
                         UI.SYMBOL_HOURGLASS_WITH_FLOWING_SAND }));
 
-            numberOfDownloadedTours[0] = downloadFiles(newWorkouts, monitor);
+            numberOfDownloadedTours[0] = downloadFiles(newWorkouts, downloadedWorkouts, monitor);
+
+            saveDownloadedWorkouts(downloadedWorkouts);
 
             monitor.worked(1);
          }
@@ -243,6 +300,10 @@ public class SuuntoCloudDownloader extends TourbookCloudDownloader {
       return UI.EMPTY_STRING;
    }
 
+   private Path getDownloadedWorkoutsFile() {
+      return Activator.getDefault().getStateLocation().toFile().toPath().resolve(DOWNLOADED_WORKOUTS_FILE_NAME);
+   }
+
    private String getDownloadFolder() {
 
       if (_useActivePerson) {
@@ -303,6 +364,40 @@ public class SuuntoCloudDownloader extends TourbookCloudDownloader {
       return false;
    }
 
+   /**
+    * Loads the workouts which were downloaded, a workout is ignored when its downloaded file do
+    * not exist any more, e.g. when it was deleted without importing it.
+    *
+    * @return Returns the file paths of the downloaded workouts, key is the workout key
+    */
+   private Map<String, String> loadDownloadedWorkouts() {
+
+      final Map<String, String> downloadedWorkouts = new LinkedHashMap<>();
+
+      final Path downloadedWorkoutsFile = getDownloadedWorkoutsFile();
+
+      if (Files.exists(downloadedWorkoutsFile) == false) {
+         return downloadedWorkouts;
+      }
+
+      try {
+
+         for (final String line : Files.readAllLines(downloadedWorkoutsFile, StandardCharsets.UTF_8)) {
+
+            final String[] workout = line.split(UI.TAB1, 2);
+
+            if (workout.length == 2 && Files.exists(Paths.get(workout[1]))) {
+               downloadedWorkouts.put(workout[0], workout[1]);
+            }
+         }
+
+      } catch (final IOException | UncheckedIOException e) {
+         StatusUtil.log(e);
+      }
+
+      return downloadedWorkouts;
+   }
+
    private boolean logDownloadResult(final WorkoutDownload workoutDownload) {
 
       boolean isTourDownloaded = false;
@@ -323,12 +418,13 @@ public class SuuntoCloudDownloader extends TourbookCloudDownloader {
    }
 
    /**
-    * Retrieves a list of all the tour start times currently in the database the current person
-    * (if not "All People" is selected).
+    * Retrieves all the tour start times currently in the database for the current person (if not
+    * "All People" is selected).
+    *
+    * @param tourStartTimes
     */
-   private List<Long> retrieveAllTourStartTimes() {
+   private void retrieveExistingTours(final Set<Long> tourStartTimes) {
 
-      final List<Long> tourStartTimes = new ArrayList<>();
       try (Connection conn = TourDatabase.getInstance().getConnection();
             Statement stmt = conn.createStatement()) {
 
@@ -343,14 +439,12 @@ public class SuuntoCloudDownloader extends TourbookCloudDownloader {
          final ResultSet result = stmt.executeQuery(sqlQuery.toString());
 
          while (result.next()) {
-
             tourStartTimes.add(result.getLong(1));
          }
 
       } catch (final SQLException e) {
          SQL.showException(e);
       }
-      return tourStartTimes;
    }
 
    private Workouts retrieveWorkoutsList() {
@@ -401,6 +495,28 @@ public class SuuntoCloudDownloader extends TourbookCloudDownloader {
       return new Workouts();
    }
 
+   /**
+    * Saves the workouts which were downloaded, so that they are not downloaded again
+    *
+    * @param downloadedWorkouts
+    */
+   private void saveDownloadedWorkouts(final Map<String, String> downloadedWorkouts) {
+
+      final List<String> allLines = new ArrayList<>();
+
+      for (final Entry<String, String> workout : downloadedWorkouts.entrySet()) {
+         allLines.add(workout.getKey() + UI.TAB1 + workout.getValue());
+      }
+
+      try {
+
+         Files.write(getDownloadedWorkoutsFile(), allLines, StandardCharsets.UTF_8);
+
+      } catch (final IOException e) {
+         StatusUtil.log(e);
+      }
+   }
+
    private CompletableFuture<WorkoutDownload> sendAsyncRequest(final Payload workoutPayload,
                                                                final HttpRequest request) {
 
@@ -451,17 +567,28 @@ public class SuuntoCloudDownloader extends TourbookCloudDownloader {
          return workoutDownload;
       }
 
-      try (InputStream inputStream = response.body();
-            FileOutputStream fileOutputStream = new FileOutputStream(filePath.toFile())) {
+      // the file is written into a temp file in a subfolder and then moved, that a partly
+      // downloaded file is never visible in the download folder, e.g. for the easy import
+      Path tempFilePath = null;
 
-         int inputStreamByte;
-         while ((inputStreamByte = inputStream.read()) != -1) {
-            fileOutputStream.write(inputStreamByte);
-         }
+      try (InputStream inputStream = new BufferedInputStream(response.body())) {
+
+         final Path tempFolder = Files.createDirectories(filePath.getParent().resolve(TEMP_FOLDER_NAME));
+
+         tempFilePath = Files.createTempFile(tempFolder, null, TEMP_FILE_EXTENSION);
+
+         Files.copy(inputStream, tempFilePath, StandardCopyOption.REPLACE_EXISTING);
+         Files.move(tempFilePath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
 
       } catch (final IOException e) {
+
          StatusUtil.log(e);
          workoutDownload.setError(e.getMessage());
+
+         if (tempFilePath != null) {
+            FileUtils.deleteIfExists(tempFilePath);
+         }
+
          return workoutDownload;
       }
 
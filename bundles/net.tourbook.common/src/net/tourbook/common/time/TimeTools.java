@@ -17,8 +17,6 @@ package net.tourbook.common.time;
 
 import static java.time.temporal.ChronoField.DAY_OF_WEEK;
 
-import com.skedgo.converter.TimezoneMapper;
-
 import java.time.DayOfWeek;
 import java.time.Duration;
 import java.time.Instant;
@@ -617,7 +615,7 @@ public class TimeTools {
 
       if (latitude != Double.MIN_VALUE) {
 
-         final String timeZoneIdFromLatLon = TimezoneMapper.latLngToTimezoneString(latitude, longitude);
+         final String timeZoneIdFromLatLon = TimeZoneGrid.getTimeZoneId(latitude, longitude);
          final TimeZoneData timeZoneFromLatLon = getTimeZone(timeZoneIdFromLatLon);
 
          timeZoneData = timeZoneFromLatLon;
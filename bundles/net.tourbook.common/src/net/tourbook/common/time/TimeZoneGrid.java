@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package net.tourbook.common.time;
+
+import com.skedgo.converter.TimezoneMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import net.tourbook.common.util.StatusUtil;
+
+import org.eclipse.core.runtime.FileLocator;
+
+/**
+ * Fast lookup of the time zone for a geo position which returns the same time zone ID as
+ * {@link TimezoneMapper#latLngToTimezoneString(double, double)}.
+ * <p>
+ * The world is divided into cells of 1 degree, cells with more than one time zone are divided
+ * into {@link #CELLS_PER_DEGREE} x {@link #CELLS_PER_DEGREE} smaller cells. Only cells which are
+ * crossed by a time zone border are looked up with the {@link TimezoneMapper}.
+ * <p>
+ * The grid is created with <code>net.tourbook.ant.TimeZoneGridGenerator</code> in the build
+ * bundle build.net.tourbook.ant and is loaded from the resource {@link #GRID_RESOURCE_NAME} with memory mapping.
+ */
+public class TimeZoneGrid {
+
+   private static final int    FILE_MAGIC         = 0x545a4731;         // TZG1
+   private static final int    FILE_VERSION       = 1;
+
+   public static final int     CELLS_PER_DEGREE   = 10;
+
+   private static final String GRID_RESOURCE_NAME = "timezone-grid.bin"; //$NON-NLS-1$
+
+   /**
+    * Cell value for a cell which is crossed by a time zone border
+    */
+   private static final short  CELL_MIXED         = -1;
+
+   private static final int    NUM_DEGREE_CELLS   = 180 * 360;
+
+   private final String[]      _allZoneIds;
+
+   /**
+    * Contains the zone index for each 1 degree cell or <code>-(block index + 1)</code> when the cell is
+    * divided into smaller cells
+    */
+   private final ShortBuffer   _degreeCells;
+
+   /**
+    * Contains the zone index or {@link #CELL_MIXED} for each small cell
+    */
+   private final ShortBuffer   _blockCells;
+
+   private final int           _cellsPerDegree;
+
+   private static final class InstanceHolder {
+
+      private static final TimeZoneGrid INSTANCE = loadGrid();
+   }
+
+   private TimeZoneGrid(final ByteBuffer buffer) throws IOException {
+
+      if (buffer.getInt() != FILE_MAGIC || buffer.getInt() != FILE_VERSION) {
+         throw new IOException("Invalid time zone grid"); //$NON-NLS-1$
+      }
+
+      _cellsPerDegree = buffer.getInt();
+
+      final int numZones = buffer.getInt();
+      _allZoneIds = new String[numZones];
+
+      for (int zoneIndex = 0; zoneIndex < numZones; zoneIndex++) {
+
+         // same format as DataOutput.writeUTF() for ASCII strings
+         final byte[] zoneIdBytes = new byte[buffer.getShort()];
+         buffer.get(zoneIdBytes);
+
+         _allZoneIds[zoneIndex] = new String(zoneIdBytes, StandardCharsets.UTF_8);
+      }
+
+      final int numBlocks = buffer.getInt();
+
+      _degreeCells = buffer.slice().asShortBuffer();
+      _degreeCells.limit(NUM_DEGREE_CELLS);
+
+      buffer.position(buffer.position() + NUM_DEGREE_CELLS * 2);
+
+      _blockCells = buffer.slice().asShortBuffer();
+      _blockCells.limit(numBlocks * _cellsPerDegree * _cellsPerDegree);
+   }
+
+   /**
+    * @return Returns the time zone grid or <code>null</code> when it cannot be loaded
+    */
+   public static TimeZoneGrid getInstance() {
+      return InstanceHolder.INSTANCE;
+   }
+
+   /**
+    * @param latitude
+    * @param longitude
+    * @return Returns the time zone ID for the position, this is the same ID as
+    *         {@link TimezoneMapper#latLngToTimezoneString(double, double)}
+    */
+   public static String getTimeZoneId(final double latitude, final double longitude) {
+
+      final TimeZoneGrid grid = getInstance();
+
+      if (grid == null) {
+         return TimezoneMapper.latLngToTimezoneString(latitude, longitude);
+      }
+
+      return grid.getZoneId(latitude, longitude);
+   }
+
+   private static TimeZoneGrid loadGrid() {
+
+      final URL gridUrl = TimeZoneGrid.class.getResource(GRID_RESOURCE_NAME);
+
+      if (gridUrl == null) {
+         return null;
+      }
+
+      try {
+
+         return new TimeZoneGrid(loadGrid_Buffer(gridUrl));
+
+      } catch (final IOException | URISyntaxException e) {
+         StatusUtil.log(e);
+      }
+
+      return null;
+   }
+
+   private static ByteBuffer loadGrid_Buffer(final URL gridUrl) throws IOException, URISyntaxException {
+
+      URL fileUrl = gridUrl;
+
+      if ("file".equals(fileUrl.getProtocol()) == false) { //$NON-NLS-1$
+
+         try {
+
+            // extract bundle resource into a file
+            fileUrl = FileLocator.toFileURL(gridUrl);
+
+         } catch (final IOException | RuntimeException e) {
+
+            // ignore, OSGi is not running
+         }
+      }
+
+      if ("file".equals(fileUrl.getProtocol())) { //$NON-NLS-1$
+
+         final Path gridFile = Paths.get(fileUrl.toURI());
+
+         try (FileChannel fileChannel = FileChannel.open(gridFile, StandardOpenOption.READ)) {
+
+            // the mapping is valid after the channel is closed
+            return fileChannel.map(MapMode.READ_ONLY, 0, fileChannel.size());
+         }
+      }
+
+      // resource is within a jar file
+      try (InputStream inputStream = gridUrl.openStream()) {
+
+         return ByteBuffer.wrap(inputStream.readAllBytes());
+      }
+   }
+
+   /**
+    * @param latitude
+    * @param longitude
+    * @return Returns the zone index or {@link #CELL_MIXED} when the position is in a cell which is
+    *         crossed by a time zone border
+    */
+   private int getZoneIndex(final double latitude, final double longitude) {
+
+      if (latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180) {
+
+         final int latCell = Math.min((int) ((latitude + 90) * _cellsPerDegree), 180 * _cellsPerDegree - 1);
+         final int lonCell = Math.min((int) ((longitude + 180) * _cellsPerDegree), 360 * _cellsPerDegree - 1);
+
+         final int latDegree = latCell / _cellsPerDegree;
+         final int lonDegree = lonCell / _cellsPerDegree;
+
+         final short degreeCell = _degreeCells.get(latDegree * 360 + lonDegree);
+
+         if (degreeCell >= 0) {
+            return degreeCell;
+         }
+
+         final int blockIndex = -degreeCell - 1;
+
+         final int blockLat = latCell - latDegree * _cellsPerDegree;
+         final int blockLon = lonCell - lonDegree * _cellsPerDegree;
+
+         return _blockCells.get((blockIndex * _cellsPerDegree + blockLat) * _cellsPerDegree + blockLon);
+      }
+
+      // NaN or out of range
+      return CELL_MIXED;
+   }
+
+   /**
+    * @param latitude
+    * @param longitude
+    * @return Returns the time zone ID for the position
+    */
+   public String getZoneId(final double latitude, final double longitude) {
+
+      final int zoneIndex = getZoneIndex(latitude, longitude);
+
+      if (zoneIndex == CELL_MIXED) {
+         return TimezoneMapper.latLngToTimezoneString(latitude, longitude);
+      }
+
+      return _allZoneIds[zoneIndex];
+   }
+}
@@ -15,8 +15,6 @@
  *******************************************************************************/
 package net.tourbook.device.nmea;
 
-import com.skedgo.converter.TimezoneMapper;
-
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
@@ -27,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Map;
 
+import net.tourbook.common.time.TimeZoneGrid;
 import net.tourbook.common.util.MtMath;
 import net.tourbook.common.util.StatusUtil;
 import net.tourbook.common.util.Util;
@@ -292,7 +291,7 @@ public class NmeaDataReader extends TourbookDevice {
        */
       if (_timeDataList.get(0).latitude != 0 && _timeDataList.get(0).longitude != 0) {
 
-         final String rawZoneId = TimezoneMapper.latLngToTimezoneString(
+         final String rawZoneId = TimeZoneGrid.getTimeZoneId(
                _timeDataList.get(0).latitude,
                _timeDataList.get(0).longitude);
          final ZoneId zoneId = ZoneId.of(rawZoneId);
@@ -17,9 +17,11 @@ package net.tourbook.export;
 
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
@@ -188,6 +190,34 @@ public class TourExporter {
                                    final List<TourMarker> tourMarkers,
                                    final GarminLap lap,
                                    final String exportFileName) throws IOException {
+
+      final File exportFile = new File(exportFileName);
+
+      try (final FileOutputStream fileOutputStream = new FileOutputStream(exportFile)) {
+
+         return doExport_10_Tour(tracks, wayPoints, tourMarkers, lap, fileOutputStream);
+
+      } catch (final FileNotFoundException e) {
+         StatusUtil.showStatus(e);
+         return false;
+      }
+   }
+
+   /**
+    * Exports the tour into a stream, the stream is not closed.
+    *
+    * @param tracks
+    * @param wayPoints
+    * @param tourMarkers
+    * @param lap
+    * @param outputStream
+    * @return Returns <code>true</code> when the tour is exported
+    */
+   private boolean doExport_10_Tour(final List<GarminTrack> tracks,
+                                    final List<TourWayPoint> wayPoints,
+                                    final List<TourMarker> tourMarkers,
+                                    final GarminLap lap,
+                                    final OutputStream outputStream) {
       /*
        * Create sorted lists that the comparison of before and after (export and import/export) can
        * be done easily
@@ -234,7 +264,6 @@ public class TourExporter {
       /*
        * Setup context
        */
-      final File exportFile = new File(exportFileName);
       final VelocityContext vc = new VelocityContext();
 
       // math tool to convert float into double
@@ -310,13 +339,15 @@ public class TourExporter {
 
       doExport_20_TourValues(vc);
 
-      try (final FileOutputStream fileOutputStream = new FileOutputStream(exportFile);
-            final OutputStreamWriter outputStreamWriter = new OutputStreamWriter(fileOutputStream, StandardCharsets.UTF_8);
-            final Writer exportWriter = new BufferedWriter(outputStreamWriter);
-            final Reader templateReader = new InputStreamReader(TourExporter.class.getClassLoader().getResourceAsStream(_formatTemplate))) {
+      final Writer exportWriter = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+      try (final Reader templateReader = new InputStreamReader(TourExporter.class.getClassLoader().getResourceAsStream(_formatTemplate))) {
 
          Velocity.evaluate(vc, exportWriter, "MyTourbook", templateReader); //$NON-NLS-1$
 
+         // the stream is closed by the caller
+         exportWriter.flush();
+
       } catch (final Exception e) {
          StatusUtil.showStatus(e);
          return false;
@@ -956,7 +987,14 @@ public class TourExporter {
       }
    }
 
-   public boolean export(final String exportFileName) {
+   /**
+    * Exports the tour into a stream, e.g. to upload it without creating a file. The stream is not
+    * closed.
+    *
+    * @param outputStream
+    * @return Returns <code>true</code> when the tour is exported
+    */
+   public boolean export(final OutputStream outputStream) {
 
       final ArrayList<GarminTrack> tracks = new ArrayList<>();
       final ArrayList<TourWayPoint> wayPoints = new ArrayList<>();
@@ -973,11 +1011,24 @@ public class TourExporter {
 
       doExport_70_WayPoints(wayPoints, tourMarkers, trackStartTime);
 
-      try {
-         return doExport_10_Tour(tracks, wayPoints, tourMarkers, tourLap, exportFileName);
+      return doExport_10_Tour(tracks, wayPoints, tourMarkers, tourLap, outputStream);
+   }
+
+   public boolean export(final String exportFileName) {
+
+      try (final FileOutputStream fileOutputStream = new FileOutputStream(new File(exportFileName))) {
+
+         return export(fileOutputStream);
+
+      } catch (final FileNotFoundException e) {
+
+         StatusUtil.showStatus(e);
+
       } catch (final IOException e) {
+
          StatusUtil.log(e);
       }
+
       return false;
    }
 
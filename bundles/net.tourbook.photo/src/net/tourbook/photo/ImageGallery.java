@@ -2293,12 +2293,12 @@ public abstract class ImageGallery implements IItemListener, IGalleryContextMenu
    /**
     * Get gps state and exif data
     *
-    * @return Returns <code>true</code> when exif data is already available from the cache and must
-    *         not be loaded.
+    * @return Returns <code>true</code> when exif data is already available from the cache or the exif
+    *         index and must not be loaded.
     */
    private boolean putInExifLoadingQueue(final Photo photo) {
 
-      final PhotoImageMetadata photoImageMetadata = ExifCache.get(photo.imageFilePathName);
+      final PhotoImageMetadata photoImageMetadata = ExifCache.get(photo);
 
       if (photoImageMetadata != null) {
 
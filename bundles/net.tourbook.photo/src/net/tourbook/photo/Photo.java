@@ -33,6 +33,7 @@ import net.tourbook.common.map.GeoPosition;
 import net.tourbook.common.time.TimeTools;
 import net.tourbook.common.util.StatusUtil;
 import net.tourbook.common.util.Util;
+import net.tourbook.photo.internal.manager.ExifCache;
 
 import org.apache.commons.imaging.Imaging;
 import org.apache.commons.imaging.ImagingConstants;
@@ -765,15 +766,22 @@ public class Photo implements Serializable {
    }
 
    /**
-    * Updates metadata from image file.
+    * Updates metadata from the exif index or from the image file.
     *
     * @return Returns photo image metadata, metadata is loaded from the image file when it's not
-    *         yet loaded.
+    *         yet loaded and not available in the exif index.
     */
    public PhotoImageMetadata getImageMetaData() {
 
       if (_photoImageMetadata == null) {
-         getImageMetaData(false);
+
+         final PhotoImageMetadata indexedMetadata = ExifCache.get(this);
+
+         if (indexedMetadata != null) {
+            updateImageMetadata(indexedMetadata);
+         } else {
+            getImageMetaData(false);
+         }
       }
 
       return _photoImageMetadata;
@@ -802,6 +810,7 @@ public class Photo implements Serializable {
       }
 
       ImageMetadata imageFileMetadata = null;
+      boolean isMetadataRead = false;
 
       try {
 
@@ -815,6 +824,7 @@ public class Photo implements Serializable {
 //         final long start = System.currentTimeMillis();
 
          imageFileMetadata = Imaging.getMetadata(imageFile, params);
+         isMetadataRead = true;
 
 //         System.out.println(UI.timeStamp()
 //               + Thread.currentThread().getName()
@@ -842,6 +852,12 @@ public class Photo implements Serializable {
          final PhotoImageMetadata photoImageMetadata = createPhotoMetadata(imageFileMetadata);
 
          updateImageMetadata(photoImageMetadata);
+
+         if (isMetadataRead) {
+
+            // keep metadata that the image file must not be read again, also after a restart
+            ExifCache.put(this, photoImageMetadata);
+         }
       }
 
       return imageFileMetadata;
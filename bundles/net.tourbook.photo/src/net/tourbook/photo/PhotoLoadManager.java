@@ -20,6 +20,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 
@@ -62,8 +63,9 @@ public class PhotoLoadManager {
    private static ThreadPoolExecutor                          _executorThumb;
 
    /**
-    * (H)igh(Q)ality executor is running only in one thread because multiple threads are slowing
-    * down the process loading of fullsize images.
+    * (H)igh(Q)ality executor is running with half of the processors, multiple threads were slowing
+    * down the loading of fullsize images. Images are now decoded subsampled and the decoded pixels
+    * are limited with {@link #_decodingPixelBudget}.
     */
    private static ThreadPoolExecutor                          _executorHQ;
    private static ThreadPoolExecutor                          _executorOriginal;
@@ -88,6 +90,16 @@ public class PhotoLoadManager {
    private static String                                  _imageFramework;
    private static int                                     _hqImageSize;
 
+   /**
+    * Limits the number of pixels (in kilo pixels) which are decoded at the same time, one pixel
+    * needs 4 bytes. A quarter of the max heap is used but at least one 24 MP image can be decoded.
+    */
+   private static final int                               DECODING_PIXEL_BUDGET    = (int) Math.max(
+         Runtime.getRuntime().maxMemory() / 4 / 4 / 1000,
+         24_000);
+
+   private static final Semaphore                         _decodingPixelBudget     = new Semaphore(DECODING_PIXEL_BUDGET, true);
+
    static {
 
       _display = Display.getDefault();
@@ -196,11 +208,30 @@ public class PhotoLoadManager {
 
       _executorExif = (ThreadPoolExecutor) Executors.newFixedThreadPool(numberOfProcessors, threadFactoryExif);
       _executorThumb = (ThreadPoolExecutor) Executors.newFixedThreadPool(numberOfProcessors, threadFactoryThumb);
-      _executorHQ = (ThreadPoolExecutor) Executors.newFixedThreadPool(1, threadFactoryHQ);
+      _executorHQ = (ThreadPoolExecutor) Executors.newFixedThreadPool(Math.max(1, numberOfProcessors / 2), threadFactoryHQ);
       _executorOriginal = (ThreadPoolExecutor) Executors.newFixedThreadPool(1, threadFactoryOriginal);
       _executorSql = (ThreadPoolExecutor) Executors.newFixedThreadPool(numberOfProcessors, threadFactorySql);
    }
 
+   /**
+    * Waits until the pixels can be decoded without exceeding the decoding pixel budget
+    *
+    * @param numPixels
+    *           Number of pixels which will be decoded
+    * @return Returns the number of acquired permits which must be released with
+    *         {@link #releaseDecodingPixels(int)}
+    * @throws InterruptedException
+    */
+   public static int acquireDecodingPixels(final long numPixels) throws InterruptedException {
+
+      // a very large image is using the whole budget, otherwise it would never be decoded
+      final int numPermits = (int) Math.min(Math.max(1, numPixels / 1000), DECODING_PIXEL_BUDGET);
+
+      _decodingPixelBudget.acquire(numPermits);
+
+      return numPermits;
+   }
+
    /**
     * Check if loading state is reset, it happend VERY OFTEN that it was NOT reset. It happened
     * when zoomed in and scrolled very quickly, then some images are never loaded until a folder
@@ -310,6 +341,30 @@ public class PhotoLoadManager {
       return _photoWithThumbSaveError.containsKey(imageFilePath);
    }
 
+   /**
+    * Retrieves the next image loader from the waiting queue which image is still visible. Loaders
+    * for images which are scrolled out of view are removed from the queue and their loading state
+    * is reset, so they are loaded again when they get visible.
+    *
+    * @param waitingQueue
+    * @return Returns <code>null</code> when a visible image is not available
+    */
+   private static PhotoImageLoader pollVisibleImageLoader(final LinkedBlockingDeque<PhotoImageLoader> waitingQueue) {
+
+      PhotoImageLoader imageLoader;
+
+      while ((imageLoader = waitingQueue.pollFirst()) != null) {
+
+         if (imageLoader.isImageVisible()) {
+            return imageLoader;
+         }
+
+         resetLoadingState(imageLoader.getPhoto(), imageLoader.getRequestedImageQuality());
+      }
+
+      return null;
+   }
+
    public static void putImageInLoadingQueueExif(final Photo photo, final ILoadCallBack imageLoadCallback) {
 
       // put image loading item into the waiting queue
@@ -343,50 +398,45 @@ public class PhotoLoadManager {
    }
 
    /**
-    * @param galleryItem
-    *           Gallery item is used to check if it is still visible. Can be <code>null</code>,
-    *           then the visibility is not checked.
-    * @param photo
-    * @param imageQuality
-    * @param loadCallBack
+    * @param thumbImageLoader
+    *           Loader which could not load the image in the requested quality, its visibility
+    *           check is also used for the HQ image
     */
-   private static void putImageInLoadingQueueHQ(final GalleryMT20Item galleryItem,
-                                                final Photo photo,
-                                                final ImageQuality imageQuality,
-                                                final ILoadCallBack loadCallBack) {
+   private static void putImageInLoadingQueueHQ(final PhotoImageLoader thumbImageLoader) {
+
+      final Photo photo = thumbImageLoader.getPhoto();
+      final ImageQuality imageQuality = thumbImageLoader.getRequestedImageQuality();
+
       // set state
       photo.setLoadingState(PhotoLoadingState.IMAGE_IS_IN_LOADING_QUEUE, imageQuality);
 
-      // set HQ image loading item into the waiting queue
-      _waitingQueueHQ.add(new PhotoImageLoader(
+      final PhotoImageLoader hqImageLoader = new PhotoImageLoader(
             _display,
             photo,
             imageQuality,
             _imageFramework,
             _hqImageSize,
-            loadCallBack));
+            thumbImageLoader.getLoadCallBack());
+
+      hqImageLoader.setImageVisibleCheck(thumbImageLoader.getImageVisibleCheck());
+
+      // set HQ image loading item into the waiting queue
+      _waitingQueueHQ.add(hqImageLoader);
 
       final Runnable executorTask = new Runnable() {
          @Override
          public void run() {
 
-            // get last added loader itme
-            final PhotoImageLoader imageLoader = _waitingQueueHQ.pollFirst();
+            // get the first loader which image is still visible
+            final PhotoImageLoader imageLoader = pollVisibleImageLoader(_waitingQueueHQ);
 
             if (imageLoader == null) {
                return;
             }
 
-            if (galleryItem != null && isImageVisible(galleryItem) == false) {
-
-               resetLoadingState(photo, imageQuality);
-
-               return;
-            }
-
             imageLoader.loadImageHQ(_waitingQueueThumb, _waitingQueueExif);
 
-            checkLoadingState(photo, imageQuality);
+            checkLoadingState(imageLoader.getPhoto(), imageLoader.getRequestedImageQuality());
          }
       };
       _executorHQ.submit(executorTask);
@@ -498,6 +548,10 @@ public class PhotoLoadManager {
             _hqImageSize,
             imageLoadCallback);
 
+      if (galleryItem != null) {
+         imageLoader.setImageVisibleCheck(() -> isImageVisible(galleryItem));
+      }
+
       final Runnable executorTask = new Runnable() {
          @Override
          public void run() {
@@ -514,40 +568,33 @@ public class PhotoLoadManager {
 //               e.printStackTrace();
 //            }
 
-            // get last added loader item
-            final PhotoImageLoader imageLoader = _waitingQueueThumb.pollFirst();
+            // get the first loader which image is still visible, images which are scrolled out of view are skipped
+            final PhotoImageLoader imageLoader = pollVisibleImageLoader(_waitingQueueThumb);
 
             if (imageLoader == null) {
                return;
             }
 
-            final String errorKey = imageLoader.getPhoto().imageFilePathName;
+            final Photo loaderPhoto = imageLoader.getPhoto();
+            final ImageQuality loaderImageQuality = imageLoader.getRequestedImageQuality();
+
+            final String errorKey = loaderPhoto.imageFilePathName;
 
             if (_photoWithLoadingError.containsKey(errorKey)) {
 
-               photo.setLoadingState(PhotoLoadingState.IMAGE_IS_INVALID, imageQuality);
+               loaderPhoto.setLoadingState(PhotoLoadingState.IMAGE_IS_INVALID, loaderImageQuality);
 
             } else {
 
-               if (galleryItem != null && isImageVisible(galleryItem) == false) {
-
-                  resetLoadingState(photo, imageQuality);
-
-                  return;
-               }
-
                if (imageLoader.loadImageThumb(_waitingQueueOriginal)) {
 
                   // HQ image is requested
 
-                  putImageInLoadingQueueHQ(//
-                        galleryItem,
-                        photo,
-                        imageQuality,
-                        imageLoadCallback);
+                  putImageInLoadingQueueHQ(imageLoader);
+
                } else {
 
-                  checkLoadingState(photo, imageQuality);
+                  checkLoadingState(loaderPhoto, loaderImageQuality);
                }
             }
 
@@ -633,6 +680,13 @@ public class PhotoLoadManager {
       _photoWithThumbSaveError.put(errorKey, new Object());
    }
 
+   public static void releaseDecodingPixels(final int numPermits) {
+
+      if (numPermits > 0) {
+         _decodingPixelBudget.release(numPermits);
+      }
+   }
+
    public static void removeInvalidImageFiles() {
       _photoWithLoadingError.clear();
       _photoWithThumbSaveError.clear();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (C) 2005, 2020 Wolfgang Schramm and Contributors
+ * Copyright (C) 2005, 2023 Wolfgang Schramm and Contributors
  *
  * This program is free software; you can redistribute it and/or modify it under
  * the terms of the GNU General Public License as published by the Free Software
@@ -18,10 +18,14 @@ package net.tourbook.photo.internal.manager;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 
+import net.tourbook.photo.Photo;
 import net.tourbook.photo.PhotoImageMetadata;
 
 /**
  * Cache for exif meta data.
+ * <p>
+ * Metadata are also saved in the {@link ExifIndexStore}, so that they are available after a
+ * restart without reading the image files.
  */
 public class ExifCache {
 
@@ -30,6 +34,11 @@ public class ExifCache {
     */
    private static final Cache<String, PhotoImageMetadata> _exifCache;
 
+   /**
+    * Persistent exif index, it is opened when it is used the first time
+    */
+   private static ExifIndexStore                          _exifIndexStore;
+
    static {
 
       _exifCache = Caffeine.newBuilder()
@@ -37,12 +46,69 @@ public class ExifCache {
             .build();
    }
 
+   /**
+    * Removes all cached metadata, also from the exif index
+    */
    public static void clear() {
-      _exifCache.cleanUp();
+
+      _exifCache.invalidateAll();
+
+      getExifIndexStore().clear();
    }
 
-   public static PhotoImageMetadata get(final String imageFilePathName) {
-      return _exifCache.getIfPresent(imageFilePathName);
+   /**
+    * @param photo
+    * @return Returns the metadata from the cache or the exif index or <code>null</code> when they
+    *         are not available or when the image file was modified after the metadata were saved
+    */
+   public static PhotoImageMetadata get(final Photo photo) {
+
+      final String imageFilePathName = photo.imageFilePathName;
+
+      PhotoImageMetadata metadata = _exifCache.getIfPresent(imageFilePathName);
+
+      if (metadata == null) {
+
+         metadata = getExifIndexStore().get(
+               imageFilePathName,
+               photo.imageFile.lastModified(),
+               photo.imageFileSize);
+
+         if (metadata != null) {
+            _exifCache.put(imageFilePathName, metadata);
+         }
+      }
+
+      return metadata;
+   }
+
+   private static synchronized ExifIndexStore getExifIndexStore() {
+
+      if (_exifIndexStore == null) {
+         _exifIndexStore = new ExifIndexStore(ThumbnailStore.getExifIndexFolder());
+      }
+
+      return _exifIndexStore;
+   }
+
+   /**
+    * Keeps the metadata in the cache and saves them in the exif index
+    *
+    * @param photo
+    * @param metadata
+    *           Metadata which are read from the image file of the photo
+    */
+   public static void put(final Photo photo, final PhotoImageMetadata metadata) {
+
+      final String imageFilePathName = photo.imageFilePathName;
+
+      _exifCache.put(imageFilePathName, metadata);
+
+      getExifIndexStore().save(
+            imageFilePathName,
+            photo.imageFile.lastModified(),
+            photo.imageFileSize,
+            metadata);
    }
 
    public static void put(final String imageFilePathName, final PhotoImageMetadata metadata) {
@@ -62,5 +128,20 @@ public class ExifCache {
             _exifCache.invalidate(cachedPath);
          }
       }
+
+      getExifIndexStore().removeFolder(folderPath);
+   }
+
+   /**
+    * The exif index is saved in the thumbnail store, it is opened in the new location when it is
+    * used the next time
+    */
+   static synchronized void updateStoreLocation() {
+
+      if (_exifIndexStore != null) {
+
+         _exifIndexStore.close();
+         _exifIndexStore = null;
+      }
    }
 }
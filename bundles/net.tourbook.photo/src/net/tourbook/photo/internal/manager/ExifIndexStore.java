@@ -0,0 +1,699 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package net.tourbook.photo.internal.manager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.tourbook.common.util.StatusUtil;
+import net.tourbook.photo.PhotoImageMetadata;
+
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Append-only index for the exif metadata of image files, so that the metadata of a folder can be
+ * displayed without reading the image files again after a restart.
+ * <p>
+ * The metadata are saved in a compact binary format and are keyed by the image file path, the
+ * file size and the file modified time. The index is kept in memory, it is rebuilt when the store
+ * is opened by reading only the record headers from the index file. Metadata are read from memory
+ * mapped segments of the index file, see {@link MappedRecordFile}.
+ * <p>
+ * Replaced or removed metadata are marked as deleted, the index file is rewritten into a new file
+ * when it is opened and mainly contains deleted records. A new file is also used when all metadata
+ * are removed, because a mapped file could not be deleted.
+ * <p>
+ * Record layout
+ *
+ * <pre>
+ * int      magic
+ * byte     state                 valid or deleted
+ * long     image file modified time
+ * long     image file size
+ * short    key length
+ * int      metadata length
+ * byte[]   key (UTF-8)
+ * byte[]   metadata
+ * </pre>
+ */
+class ExifIndexStore {
+
+   private static final int    RECORD_MAGIC            = 0x45584931;    // EXI1
+
+   private static final byte   STATE_DELETED           = 0;
+   private static final byte   STATE_VALID             = 1;
+
+   private static final int    OFFSET_STATE            = 4;
+
+   /**
+    * Size of the record header without the key and metadata
+    */
+   private static final int    HEADER_SIZE             = 4 + 1 + 8 + 8 + 2 + 4;
+
+   /**
+    * The index file is rewritten when this ratio of its size is not used any more
+    */
+   private static final double COMPACTION_UNUSED_RATIO = 0.5;
+
+   private static final String INDEX_FILE_PREFIX       = "exif-index-"; //$NON-NLS-1$
+   private static final String INDEX_FILE_EXTENSION    = ".dat";        //$NON-NLS-1$
+
+   private final File          _indexFolder;
+
+   /**
+    * Key is the image file path name
+    */
+   private final ConcurrentHashMap<String, IndexEntry> _index = new ConcurrentHashMap<>();
+
+   private int                                         _fileNumber;
+
+   /**
+    * Is <code>null</code> when the index file cannot be opened
+    */
+   private volatile MappedRecordFile                   _recordFile;
+
+   private long                                        _unusedSize;
+
+   private static class IndexEntry {
+
+      /**
+       * Index file which contains the record, the record cannot be read any more when the index
+       * file is replaced
+       */
+      private final MappedRecordFile recordFile;
+
+      private final long             recordPosition;
+      private final int              recordSize;
+      private final int              dataLength;
+
+      private final long             fileModified;
+      private final long             fileSize;
+
+      private IndexEntry(final MappedRecordFile recordFile,
+                         final long recordPosition,
+                         final int recordSize,
+                         final int dataLength,
+                         final long fileModified,
+                         final long fileSize) {
+
+         this.recordFile = recordFile;
+         this.recordPosition = recordPosition;
+         this.recordSize = recordSize;
+         this.dataLength = dataLength;
+         this.fileModified = fileModified;
+         this.fileSize = fileSize;
+      }
+
+      /**
+       * @return Returns the position of the metadata, they are at the end of the record
+       */
+      private long getDataPosition() {
+         return recordPosition + recordSize - dataLength;
+      }
+   }
+
+   ExifIndexStore(final File indexFolder) {
+
+      _indexFolder = indexFolder;
+
+      open();
+   }
+
+   private static byte[] encodeMetadata(final PhotoImageMetadata metadata) throws IOException {
+
+      final ByteArrayOutputStream byteStream = new ByteArrayOutputStream(128);
+
+      try (DataOutputStream out = new DataOutputStream(byteStream)) {
+
+         out.writeBoolean(metadata.isExifFromImage);
+
+         writeDateTime(out, metadata.fileDateTime);
+         writeDateTime(out, metadata.exifDateTime);
+
+         out.writeInt(metadata.imageWidth);
+         out.writeInt(metadata.imageHeight);
+         out.writeInt(metadata.orientation);
+
+         out.writeDouble(metadata.imageDirection);
+         out.writeDouble(metadata.altitude);
+         out.writeDouble(metadata.latitude);
+         out.writeDouble(metadata.longitude);
+
+         writeString(out, metadata.gpsAreaInfo);
+         writeString(out, metadata.objectName);
+         writeString(out, metadata.captionAbstract);
+         writeString(out, metadata.model);
+      }
+
+      return byteStream.toByteArray();
+   }
+
+   private static String getIndexFileName(final int fileNumber) {
+      return String.format("%s%05d%s", INDEX_FILE_PREFIX, fileNumber, INDEX_FILE_EXTENSION); //$NON-NLS-1$
+   }
+
+   private static int getIndexFileNumber(final String indexFileName) {
+
+      try {
+
+         return Integer.parseInt(indexFileName.substring(
+               INDEX_FILE_PREFIX.length(),
+               indexFileName.length() - INDEX_FILE_EXTENSION.length()));
+
+      } catch (final NumberFormatException e) {
+         return -1;
+      }
+   }
+
+   private static LocalDateTime readDateTime(final DataInputStream in) throws IOException {
+
+      if (in.readBoolean() == false) {
+         return null;
+      }
+
+      final long epochSecond = in.readLong();
+      final int nano = in.readInt();
+
+      return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+   }
+
+   private static PhotoImageMetadata readMetadata(final byte[] data) throws IOException {
+
+      try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+
+         final PhotoImageMetadata metadata = new PhotoImageMetadata();
+
+         metadata.isExifFromImage = in.readBoolean();
+
+         metadata.fileDateTime = readDateTime(in);
+         metadata.exifDateTime = readDateTime(in);
+
+         metadata.imageWidth = in.readInt();
+         metadata.imageHeight = in.readInt();
+         metadata.orientation = in.readInt();
+
+         metadata.imageDirection = in.readDouble();
+         metadata.altitude = in.readDouble();
+         metadata.latitude = in.readDouble();
+         metadata.longitude = in.readDouble();
+
+         metadata.gpsAreaInfo = readString(in);
+         metadata.objectName = readString(in);
+         metadata.captionAbstract = readString(in);
+         metadata.model = readString(in);
+
+         return metadata;
+      }
+   }
+
+   private static String readString(final DataInputStream in) throws IOException {
+
+      final int length = in.readInt();
+
+      if (length < 0) {
+         return null;
+      }
+
+      final byte[] bytes = new byte[length];
+      in.readFully(bytes);
+
+      return new String(bytes, StandardCharsets.UTF_8);
+   }
+
+   private static void writeDateTime(final DataOutputStream out, final LocalDateTime dateTime) throws IOException {
+
+      out.writeBoolean(dateTime != null);
+
+      if (dateTime != null) {
+         out.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+         out.writeInt(dateTime.getNano());
+      }
+   }
+
+   private static void writeString(final DataOutputStream out, final String text) throws IOException {
+
+      if (text == null) {
+
+         out.writeInt(-1);
+
+      } else {
+
+         final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+
+         out.writeInt(bytes.length);
+         out.write(bytes);
+      }
+   }
+
+   /**
+    * Append a record to the index file and replaces an existing entry for the key
+    */
+   private synchronized void appendRecord(final String key,
+                                          final long fileModified,
+                                          final long fileSize,
+                                          final byte[] data) throws IOException {
+
+      final MappedRecordFile recordFile = _recordFile;
+
+      if (recordFile == null) {
+         return;
+      }
+
+      final byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+      final int recordSize = HEADER_SIZE + keyBytes.length + data.length;
+
+      final ByteBuffer record = ByteBuffer.allocate(recordSize);
+
+      record.putInt(RECORD_MAGIC);
+      record.put(STATE_VALID);
+      record.putLong(fileModified);
+      record.putLong(fileSize);
+      record.putShort((short) keyBytes.length);
+      record.putInt(data.length);
+      record.put(keyBytes);
+      record.put(data);
+
+      record.flip();
+
+      final long recordPosition = recordFile.append(record);
+
+      final IndexEntry indexEntry = new IndexEntry(
+            recordFile,
+            recordPosition,
+            recordSize,
+            data.length,
+            fileModified,
+            fileSize);
+
+      final IndexEntry previousEntry = _index.put(key, indexEntry);
+
+      if (previousEntry != null) {
+         markAsDeleted(previousEntry);
+      }
+   }
+
+   /**
+    * Removes all metadata, deletes the index file and continues with a new index file
+    */
+   synchronized void clear() {
+
+      final MappedRecordFile oldRecordFile = _recordFile;
+
+      // an index file, which cannot be deleted because it is still mapped, do not contain used metadata
+      for (final IndexEntry indexEntry : _index.values()) {
+         markAsDeleted(indexEntry);
+      }
+
+      _index.clear();
+
+      close();
+
+      if (oldRecordFile != null && oldRecordFile.delete() == false) {
+
+         // it is deleted when the store is opened again
+         StatusUtil.logInfo(NLS.bind("Exif index \"{0}\" cannot be deleted", oldRecordFile.getFile())); //$NON-NLS-1$
+      }
+
+      try {
+
+         // the file name of the old index file is not reused, it could still exist
+         openIndexFile(_fileNumber + 1);
+
+      } catch (final IOException e) {
+
+         StatusUtil.log(NLS.bind("Cannot open exif index in \"{0}\"", _indexFolder), e); //$NON-NLS-1$
+
+         close();
+      }
+   }
+
+   synchronized void close() {
+
+      if (_recordFile != null) {
+
+         try {
+            _recordFile.close();
+         } catch (final IOException e) {
+            StatusUtil.log(e);
+         }
+      }
+
+      _recordFile = null;
+
+      _unusedSize = 0;
+   }
+
+   /**
+    * Writes all used records into a new index file and deletes the current index file
+    */
+   private synchronized void compact() {
+
+      final MappedRecordFile oldRecordFile = _recordFile;
+
+      // read all used metadata before the index file is closed
+      final HashMap<String, IndexEntry> allOldEntries = new HashMap<>(_index);
+      final HashMap<String, byte[]> allData = new HashMap<>();
+
+      for (final Entry<String, IndexEntry> indexEntry : allOldEntries.entrySet()) {
+
+         final byte[] data = readData(indexEntry.getValue());
+
+         if (data != null) {
+            allData.put(indexEntry.getKey(), data);
+         }
+      }
+
+      close();
+
+      _index.clear();
+
+      try {
+
+         openIndexFile(_fileNumber + 1);
+
+         for (final Entry<String, byte[]> dataEntry : allData.entrySet()) {
+
+            final String key = dataEntry.getKey();
+            final IndexEntry oldEntry = allOldEntries.get(key);
+
+            appendRecord(key, oldEntry.fileModified, oldEntry.fileSize, dataEntry.getValue());
+         }
+
+      } catch (final IOException e) {
+         StatusUtil.log(NLS.bind("Cannot compact exif index \"{0}\"", oldRecordFile.getFile()), e); //$NON-NLS-1$
+      }
+
+      if (oldRecordFile.delete() == false) {
+
+         // a mapped file cannot be deleted in some OS, it is deleted when the store is opened again
+         StatusUtil.logInfo(NLS.bind("Exif index \"{0}\" cannot be deleted", oldRecordFile.getFile())); //$NON-NLS-1$
+      }
+   }
+
+   /**
+    * @param imageFilePathName
+    * @param fileModified
+    *           Modified time of the image file
+    * @param fileSize
+    *           Size of the image file
+    * @return Returns the metadata or <code>null</code> when they are not available or when the
+    *         image file has changed
+    */
+   PhotoImageMetadata get(final String imageFilePathName, final long fileModified, final long fileSize) {
+
+      final IndexEntry indexEntry = _index.get(imageFilePathName);
+
+      if (indexEntry == null) {
+         return null;
+      }
+
+      if (indexEntry.fileModified != fileModified || indexEntry.fileSize != fileSize) {
+
+         // image file has changed, the metadata are outdated
+         remove(imageFilePathName);
+
+         return null;
+      }
+
+      final byte[] data = readData(indexEntry);
+
+      if (data == null) {
+         return null;
+      }
+
+      try {
+
+         return readMetadata(data);
+
+      } catch (final IOException e) {
+
+         StatusUtil.log(NLS.bind("Cannot read exif metadata of \"{0}\" from the exif index", imageFilePathName), e); //$NON-NLS-1$
+
+         remove(imageFilePathName);
+
+         return null;
+      }
+   }
+
+   private synchronized void markAsDeleted(final IndexEntry indexEntry) {
+
+      if (indexEntry.recordFile != _recordFile || indexEntry.recordFile.isOpen() == false) {
+
+         // the record is in a replaced index file
+         return;
+      }
+
+      _unusedSize += indexEntry.recordSize;
+
+      try {
+
+         indexEntry.recordFile.write(
+               ByteBuffer.wrap(new byte[] { STATE_DELETED }),
+               indexEntry.recordPosition + OFFSET_STATE);
+
+      } catch (final IOException e) {
+         StatusUtil.log(e);
+      }
+   }
+
+   /**
+    * Opens the newest index file, creates the index from the record headers and deletes older
+    * index files
+    */
+   private synchronized void open() {
+
+      if (_indexFolder.exists() == false && _indexFolder.mkdirs() == false) {
+
+         StatusUtil.logError(NLS.bind("Exif index folder \"{0}\" cannot be created", _indexFolder)); //$NON-NLS-1$
+         return;
+      }
+
+      final File[] allIndexFiles = _indexFolder.listFiles((dir, name) -> name.startsWith(INDEX_FILE_PREFIX)
+            && name.endsWith(INDEX_FILE_EXTENSION)
+            && getIndexFileNumber(name) >= 0);
+
+      if (allIndexFiles == null) {
+         return;
+      }
+
+      Arrays.sort(allIndexFiles, Comparator.comparingInt(indexFile -> getIndexFileNumber(indexFile.getName())));
+
+      // delete older index files, they could not be deleted after a compaction
+      for (int fileIndex = 0; fileIndex < allIndexFiles.length - 1; fileIndex++) {
+         allIndexFiles[fileIndex].delete();
+      }
+
+      final int fileNumber = allIndexFiles.length == 0
+            ? 0
+            : getIndexFileNumber(allIndexFiles[allIndexFiles.length - 1].getName());
+
+      try {
+
+         openIndexFile(fileNumber);
+
+         readIndex();
+
+      } catch (final IOException e) {
+
+         StatusUtil.log(NLS.bind("Cannot open exif index in \"{0}\"", _indexFolder), e); //$NON-NLS-1$
+
+         close();
+         return;
+      }
+
+      if (_unusedSize > _recordFile.size() * COMPACTION_UNUSED_RATIO) {
+         compact();
+      }
+   }
+
+   private void openIndexFile(final int fileNumber) throws IOException {
+
+      _fileNumber = fileNumber;
+
+      _recordFile = new MappedRecordFile(new File(_indexFolder, getIndexFileName(fileNumber)));
+
+      _unusedSize = 0;
+   }
+
+   private byte[] readData(final IndexEntry indexEntry) {
+
+      try {
+
+         return indexEntry.recordFile.read(indexEntry.getDataPosition(), indexEntry.dataLength);
+
+      } catch (final IOException e) {
+
+         // index file could have been closed by a compaction
+         return null;
+      }
+   }
+
+   /**
+    * Reads all record headers, a corrupted end of the index file, e.g. when the app was killed
+    * while saving, is truncated.
+    * <p>
+    * The headers are read with the file channel, so the index file is not mapped when it is
+    * truncated.
+    *
+    * @throws IOException
+    */
+   private void readIndex() throws IOException {
+
+      final MappedRecordFile recordFile = _recordFile;
+      final long indexSize = recordFile.size();
+
+      final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+      long recordPosition = 0;
+
+      while (recordPosition + HEADER_SIZE <= indexSize) {
+
+         header.clear();
+         recordFile.readFully(header, recordPosition);
+         header.flip();
+
+         if (header.getInt() != RECORD_MAGIC) {
+            break;
+         }
+
+         final byte state = header.get();
+         final long fileModified = header.getLong();
+         final long fileSize = header.getLong();
+         final int keyLength = header.getShort() & 0xffff;
+         final int dataLength = header.getInt();
+
+         final long recordSize = (long) HEADER_SIZE + keyLength + dataLength;
+
+         if (dataLength < 0 || recordPosition + recordSize > indexSize) {
+            break;
+         }
+
+         if (state == STATE_VALID) {
+
+            final ByteBuffer keyBytes = ByteBuffer.allocate(keyLength);
+            recordFile.readFully(keyBytes, recordPosition + HEADER_SIZE);
+
+            final IndexEntry indexEntry = new IndexEntry(
+                  recordFile,
+                  recordPosition,
+                  (int) recordSize,
+                  dataLength,
+                  fileModified,
+                  fileSize);
+
+            final IndexEntry previousEntry = _index.put(new String(keyBytes.array(), StandardCharsets.UTF_8), indexEntry);
+
+            if (previousEntry != null) {
+               markAsDeleted(previousEntry);
+            }
+
+         } else {
+
+            _unusedSize += recordSize;
+         }
+
+         recordPosition += recordSize;
+      }
+
+      if (recordPosition < indexSize) {
+
+         StatusUtil.logInfo(NLS.bind("Exif index \"{0}\" is truncated at {1}", recordFile.getFile(), recordPosition)); //$NON-NLS-1$
+
+         recordFile.truncate(recordPosition);
+      }
+   }
+
+   /**
+    * Removes the metadata of an image file
+    *
+    * @param imageFilePathName
+    */
+   void remove(final String imageFilePathName) {
+
+      final IndexEntry indexEntry = _index.remove(imageFilePathName);
+
+      if (indexEntry != null) {
+         markAsDeleted(indexEntry);
+      }
+   }
+
+   /**
+    * Removes the metadata of all image files which start with the folder path
+    *
+    * @param folderPath
+    */
+   void removeFolder(final String folderPath) {
+
+      for (final String imageFilePathName : _index.keySet()) {
+
+         if (imageFilePathName.startsWith(folderPath)) {
+            remove(imageFilePathName);
+         }
+      }
+   }
+
+   /**
+    * Saves the metadata of an image file, nothing is saved when the metadata for the same file
+    * modified time and file size are already available.
+    *
+    * @param imageFilePathName
+    * @param fileModified
+    * @param fileSize
+    * @param metadata
+    */
+   void save(final String imageFilePathName,
+             final long fileModified,
+             final long fileSize,
+             final PhotoImageMetadata metadata) {
+
+      final IndexEntry indexEntry = _index.get(imageFilePathName);
+
+      if (indexEntry != null
+            && indexEntry.fileModified == fileModified
+            && indexEntry.fileSize == fileSize) {
+
+         return;
+      }
+
+      try {
+
+         appendRecord(imageFilePathName, fileModified, fileSize, encodeMetadata(metadata));
+
+      } catch (final IOException e) {
+         StatusUtil.log(NLS.bind("Cannot append exif metadata in \"{0}\"", _indexFolder), e); //$NON-NLS-1$
+      }
+   }
+
+   /**
+    * @return Returns the number of image files in the index
+    */
+   int size() {
+      return _index.size();
+   }
+}
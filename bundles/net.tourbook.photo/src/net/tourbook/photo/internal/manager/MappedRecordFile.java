@@ -0,0 +1,252 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package net.tourbook.photo.internal.manager;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Append-only file with records which are read from memory mapped segments, it is used by the
+ * thumbnail pack store and the exif index.
+ * <p>
+ * The file is mapped in segments with a fixed size. A segment is mapped when it is read the first
+ * time after it was completely written, so appending a record never remaps the file. Records in
+ * the last, not yet completed segment, or records which overlap two segments, are read with the
+ * file channel.
+ * <p>
+ * A mapped segment cannot be unmapped explicitly, it is released by the garbage collector, and some
+ * OS cannot truncate or delete a mapped file. Therefore
+ * <ul>
+ * <li>record headers must be read with {@link #readFully(ByteBuffer, long)}, which do not map the
+ * file,</li>
+ * <li>{@link #truncate(long)} is only possible before a segment is mapped,</li>
+ * <li>a deleted file could still exist, the owner must not reuse its file name.</li>
+ * </ul>
+ */
+class MappedRecordFile {
+
+   private static final int                SEGMENT_SIZE = 4 * 1024 * 1024;
+
+   private static final MappedByteBuffer[] NO_SEGMENTS  = new MappedByteBuffer[0];
+
+   private final File                      _file;
+   private final FileChannel               _channel;
+
+   /**
+    * Is replaced when a segment is mapped, a segment is <code>null</code> when it is not yet mapped
+    */
+   private volatile MappedByteBuffer[]     _allSegments = NO_SEGMENTS;
+
+   private volatile long                   _size;
+
+   MappedRecordFile(final File file) throws IOException {
+
+      _file = file;
+
+      _channel = FileChannel.open(file.toPath(),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+
+      _size = _channel.size();
+   }
+
+   /**
+    * Appends a record at the end of the file
+    *
+    * @param record
+    * @return Returns the position of the appended record
+    * @throws IOException
+    */
+   synchronized long append(final ByteBuffer record) throws IOException {
+
+      final long recordPosition = _size;
+      final int recordSize = record.remaining();
+
+      write(record, recordPosition);
+
+      _size = recordPosition + recordSize;
+
+      return recordPosition;
+   }
+
+   /**
+    * Closes the file channel, mapped segments are released by the garbage collector when they are
+    * not used any more
+    */
+   synchronized void close() throws IOException {
+
+      _allSegments = NO_SEGMENTS;
+
+      _channel.close();
+   }
+
+   /**
+    * Closes and deletes the file
+    *
+    * @return Returns <code>true</code> when the file is deleted, this can fail when the file is
+    *         still mapped
+    */
+   boolean delete() {
+
+      try {
+         close();
+      } catch (final IOException e) {
+         // the file is deleted anyway
+      }
+
+      return _file.delete();
+   }
+
+   File getFile() {
+      return _file;
+   }
+
+   private MappedByteBuffer getSegment(final int segmentIndex) throws IOException {
+
+      MappedByteBuffer[] allSegments = _allSegments;
+
+      if (segmentIndex < allSegments.length && allSegments[segmentIndex] != null) {
+         return allSegments[segmentIndex];
+      }
+
+      synchronized (this) {
+
+         allSegments = _allSegments;
+
+         if (segmentIndex < allSegments.length && allSegments[segmentIndex] != null) {
+            return allSegments[segmentIndex];
+         }
+
+         final MappedByteBuffer segment = _channel.map(
+               MapMode.READ_ONLY,
+               (long) segmentIndex * SEGMENT_SIZE,
+               SEGMENT_SIZE);
+
+         final MappedByteBuffer[] allNewSegments = Arrays.copyOf(
+               allSegments,
+               Math.max(allSegments.length, segmentIndex + 1));
+
+         allNewSegments[segmentIndex] = segment;
+
+         _allSegments = allNewSegments;
+
+         return segment;
+      }
+   }
+
+   boolean isOpen() {
+      return _channel.isOpen();
+   }
+
+   /**
+    * Reads data from a mapped segment or from the file channel when the data are not in a
+    * completed segment
+    *
+    * @param position
+    * @param length
+    * @return
+    * @throws IOException
+    */
+   byte[] read(final long position, final int length) throws IOException {
+
+      final byte[] data = new byte[length];
+
+      final int segmentIndex = (int) (position / SEGMENT_SIZE);
+      final long segmentStart = (long) segmentIndex * SEGMENT_SIZE;
+      final long segmentEnd = segmentStart + SEGMENT_SIZE;
+
+      if (position + length <= segmentEnd && segmentEnd <= _size) {
+
+         final ByteBuffer segment = getSegment(segmentIndex).duplicate();
+
+         segment.position((int) (position - segmentStart));
+         segment.get(data);
+
+      } else {
+
+         readFully(ByteBuffer.wrap(data), position);
+      }
+
+      return data;
+   }
+
+   /**
+    * Reads from the file channel until the buffer is full, the file is not mapped
+    *
+    * @param buffer
+    * @param position
+    * @throws IOException
+    */
+   void readFully(final ByteBuffer buffer, final long position) throws IOException {
+
+      final int startPosition = buffer.position();
+
+      while (buffer.hasRemaining()) {
+
+         final int numRead = _channel.read(buffer, position + buffer.position() - startPosition);
+
+         if (numRead < 0) {
+            throw new EOFException(_file.toString());
+         }
+      }
+   }
+
+   long size() {
+      return _size;
+   }
+
+   /**
+    * Truncates the file, e.g. a corrupted end of the file, this is only possible before a segment
+    * is mapped.
+    *
+    * @param size
+    * @throws IOException
+    */
+   synchronized void truncate(final long size) throws IOException {
+
+      if (_allSegments.length > 0) {
+         throw new IOException("Mapped file cannot be truncated: " + _file); //$NON-NLS-1$
+      }
+
+      _channel.truncate(size);
+
+      _size = size;
+   }
+
+   /**
+    * Writes data at a position, e.g. to update a record in place
+    *
+    * @param buffer
+    * @param position
+    * @throws IOException
+    */
+   void write(final ByteBuffer buffer, final long position) throws IOException {
+
+      final int startPosition = buffer.position();
+
+      while (buffer.hasRemaining()) {
+         _channel.write(buffer, position + buffer.position() - startPosition);
+      }
+   }
+}
@@ -17,18 +17,20 @@ package net.tourbook.photo.internal.manager;
 
 import java.awt.Point;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Properties;
+import java.util.Iterator;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.function.BooleanSupplier;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 
 import net.tourbook.common.UI;
-import net.tourbook.common.time.TimeTools;
 import net.tourbook.common.util.SWT2Dutil;
 import net.tourbook.common.util.StatusUtil;
 import net.tourbook.photo.ILoadCallBack;
@@ -39,11 +41,11 @@ import net.tourbook.photo.PhotoImageCache;
 import net.tourbook.photo.PhotoImageMetadata;
 import net.tourbook.photo.PhotoLoadManager;
 import net.tourbook.photo.PhotoLoadingState;
+import net.tourbook.photo.internal.manager.ThumbnailPackStore.StoreImage;
 
 import org.apache.commons.imaging.ImageReadException;
 import org.apache.commons.imaging.common.ImageMetadata;
 import org.apache.commons.imaging.formats.jpeg.JpegImageMetadata;
-import org.eclipse.core.runtime.IPath;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Image;
@@ -82,6 +84,17 @@ public class PhotoImageLoader {
 
    private ILoadCallBack            _loadCallBack;
 
+   /**
+    * Checks if the requested image is still visible, the image is not checked when
+    * <code>null</code>
+    */
+   private BooleanSupplier          _isImageVisible;
+
+   /**
+    * Number of acquired permits from {@link PhotoLoadManager#acquireDecodingPixels(long)}
+    */
+   private int                      _decodingPixelPermits;
+
    Display                          _display;
 
    /**
@@ -191,6 +204,14 @@ public class PhotoImageLoader {
       return _photo;
    }
 
+   public BooleanSupplier getImageVisibleCheck() {
+      return _isImageVisible;
+   }
+
+   public ILoadCallBack getLoadCallBack() {
+      return _loadCallBack;
+   }
+
    public ImageQuality getRequestedImageQuality() {
       return _requestedImageQuality;
    }
@@ -237,11 +258,14 @@ public class PhotoImageLoader {
    }
 
    /**
-    * @param storeImageFilePath
-    *           Path to store image in the thumbnail store
-    * @return
+    * @return Returns <code>true</code> when the requested image is still visible or when the
+    *         visibility is not checked
     */
-   private Image loadImageFromEXIFThumbnail(final IPath storeImageFilePath) {
+   public boolean isImageVisible() {
+      return _isImageVisible == null || _isImageVisible.getAsBoolean();
+   }
+
+   private Image loadImageFromEXIFThumbnail() {
 
       BufferedImage awtBufferedImage = null;
 
@@ -285,7 +309,7 @@ public class PhotoImageLoader {
                   return null;
                }
 
-               swtThumbnailImage = createSWTimageFromAWTimage(awtBufferedImage, storeImageFilePath.toOSString());
+               swtThumbnailImage = createSWTimageFromAWTimage(awtBufferedImage, _photo.imageFilePathName);
 
                // set state after creating image, this could cause an error
                _photo.setStateExifThumb(swtThumbnailImage == null ? 0 : 1);
@@ -297,14 +321,14 @@ public class PhotoImageLoader {
             } catch (final Exception e) {
                StatusUtil.log(NLS.bind(//
                      "SWT store image \"{0}\" cannot be created", //$NON-NLS-1$
-                     storeImageFilePath.toOSString()), e);
+                     _photo.imageFilePathName), e);
             } finally {
 
                if (swtThumbnailImage == null) {
 
                   System.out.println(NLS.bind( //
                         UI.timeStampNano() + " EXIF image \"{0}\" cannot be created", //$NON-NLS-1$
-                        storeImageFilePath));
+                        _photo.imageFilePathName));
                }
             }
          }
@@ -324,9 +348,7 @@ public class PhotoImageLoader {
 
          // get image from thumbnail image in the EXIF data
 
-         final IPath storeThumbImageFilePath = ThumbnailStore.getStoreImagePath(_photo, ImageQuality.THUMB);
-
-         final Image exifThumbnail = loadImageFromEXIFThumbnail(storeThumbImageFilePath);
+         final Image exifThumbnail = loadImageFromEXIFThumbnail();
          if (exifThumbnail != null) {
 
             // EXIF image is available
@@ -367,35 +389,23 @@ public class PhotoImageLoader {
       /*
        * check if image is available in the thumbstore
        */
-      final IPath requestedStoreImageFilePath = ThumbnailStore.getStoreImagePath(_photo, requestedImageQuality);
+      final StoreImage storeImageData = ThumbnailStore.getStoreImage(_photo, requestedImageQuality);
 
-      final String imageStoreFilePath = requestedStoreImageFilePath.toOSString();
-      final File storeImageFile = new File(imageStoreFilePath);
-
-      if (storeImageFile.isFile() == false) {
+      if (storeImageData == null) {
          return null;
       }
 
       // photo image is available in the thumbnail store
 
-      Image storeImage = null;
+      final String imageStoreFilePath = _photo.imageFilePathName;
 
-      /*
-       * touch store file when it is not yet done today, this is done to track last access time so
-       * that a store cleanup can check the date
-       */
-      final LocalDate dtModified = TimeTools.getZonedDateTime(storeImageFile.lastModified()).toLocalDate();
-
-      if (dtModified.equals(LocalDate.now()) == false) {
-
-         storeImageFile.setLastModified(TimeTools.now().toInstant().toEpochMilli());
-      }
+      Image storeImage = null;
 
       try {
 
-         storeImage = new Image(_display, imageStoreFilePath);
+         storeImage = new Image(_display, new ByteArrayInputStream(storeImageData.imageData));
 
-         loadImageProperties(requestedStoreImageFilePath);
+         _photo.setPhotoDimension(storeImageData.originalImageWidth, storeImageData.originalImageHeight);
 
       } catch (final Exception e) {
          StatusUtil.log(NLS.bind("Image cannot be loaded with SWT (1): \"{0}\"", //$NON-NLS-1$
@@ -416,7 +426,7 @@ public class PhotoImageLoader {
              */
             try {
 
-               storeImage = new Image(_display, imageStoreFilePath);
+               storeImage = new Image(_display, new ByteArrayInputStream(storeImageData.imageData));
 
             } catch (final Exception e) {
                StatusUtil.log(NLS.bind("Image cannot be loaded with SWT (2): \"{0}\"", //$NON-NLS-1$
@@ -462,7 +472,14 @@ public class PhotoImageLoader {
          // should not happen, I hope so
       }
 
+      // the image could be scrolled out of view while waiting
+      if (isImageVisible() == false) {
+         setStateUndefined();
+         return;
+      }
+
       boolean isLoadingError = false;
+      boolean isLoadingAborted = false;
       Image hqImage = null;
 
       try {
@@ -485,6 +502,13 @@ public class PhotoImageLoader {
             hqImage = loadImageHQ_20_WithAWT();
          }
 
+      } catch (final InterruptedException e) {
+
+         // loading is aborted, the image is loaded again when it is visible
+         isLoadingAborted = true;
+
+         Thread.currentThread().interrupt();
+
       } catch (final Exception e) {
 
          setStateLoadingError();
@@ -495,7 +519,11 @@ public class PhotoImageLoader {
 
          disposeTrackedImages();
 
-         if (hqImage == null) {
+         // decoded images are disposed, allow other loaders to decode their images
+         PhotoLoadManager.releaseDecodingPixels(_decodingPixelPermits);
+         _decodingPixelPermits = 0;
+
+         if (hqImage == null && isLoadingAborted == false) {
 
             System.out.println(NLS.bind(//
                   UI.timeStampNano() + " image == NULL when loading with {0}: \"{1}\"", //$NON-NLS-1$
@@ -531,7 +559,7 @@ public class PhotoImageLoader {
 
          // update image state
          final boolean isImageLoaded = hqImage != null;
-         if (isImageLoaded) {
+         if (isImageLoaded || isLoadingAborted) {
 
             setStateUndefined();
 
@@ -614,10 +642,6 @@ public class PhotoImageLoader {
       int imageWidth = originalImageWidth;
       int imageHeight = originalImageHeight;
 
-      final Properties originalImageProperties = new Properties();
-      originalImageProperties.put(ThumbnailStore.ORIGINAL_IMAGE_WIDTH, Integer.toString(originalImageWidth));
-      originalImageProperties.put(ThumbnailStore.ORIGINAL_IMAGE_HEIGHT, Integer.toString(originalImageHeight));
-
       // update dimension
       updateImageSize(imageWidth, imageHeight, true);
 
@@ -683,9 +707,12 @@ public class PhotoImageLoader {
           * save scaled image in store
           */
          final long startSaveHQ = System.currentTimeMillis();
-         final IPath storeHQImagePath = ThumbnailStore.getStoreImagePath(_photo, ImageQuality.HQ);
-
-         ThumbnailStore.saveThumbImageWithSWT(scaledHQImage, storeHQImagePath, originalImageProperties);
+         ThumbnailStore.saveThumbImageWithSWT(
+               scaledHQImage,
+               _photo,
+               ImageQuality.HQ,
+               originalImageWidth,
+               originalImageHeight);
 
          isHQCreated = true;
 
@@ -719,9 +746,7 @@ public class PhotoImageLoader {
 
                // get thumb image
 
-               final IPath storeImageFilePath = ThumbnailStore.getStoreImagePath(_photo, ImageQuality.THUMB);
-
-               requestedSWTImage = loadImageFromEXIFThumbnail(storeImageFilePath);
+               requestedSWTImage = loadImageFromEXIFThumbnail();
             }
 
          } else {
@@ -769,9 +794,12 @@ public class PhotoImageLoader {
              * save scaled image in store
              */
             final long startSaveThumb = System.currentTimeMillis();
-            final IPath storeThumbImagePath = ThumbnailStore.getStoreImagePath(_photo, ImageQuality.THUMB);
-
-            ThumbnailStore.saveThumbImageWithSWT(scaledThumbImage, storeThumbImagePath, originalImageProperties);
+            ThumbnailStore.saveThumbImageWithSWT(
+                  scaledThumbImage,
+                  _photo,
+                  ImageQuality.THUMB,
+                  originalImageWidth,
+                  originalImageHeight);
 
             endSaveThumb = System.currentTimeMillis() - startSaveThumb;
          }
@@ -829,28 +857,46 @@ public class PhotoImageLoader {
       // images are rotated only ONCE (the first one)
       boolean isRotated = false;
 
+      final String originalImagePathName = _photo.imageFilePathName;
+
+      /*
+       * handle thumb save error
+       */
+      final boolean isThumbSaveError = PhotoLoadManager.isThumbSaveError(originalImagePathName);
+
       /*
        * load original image
        */
       BufferedImage awtOriginalImage = null;
-      final String originalImagePathName = _photo.imageFilePathName;
+      final int[] originalImageSize = new int[2];
+      boolean isLoadingAborted = false;
       try {
 
          final long startHqLoad = System.currentTimeMillis();
          {
-            awtOriginalImage = ImageIO.read(_photo.imageFile);
+            // the original image is displayed when a thumb cannot be saved, load it in full size
+            awtOriginalImage = loadImageHQ_22_Subsampled(isThumbSaveError ? 0 : _hqImageSize, originalImageSize);
 
             _trackedAWTImages.add(awtOriginalImage);
          }
          endHqLoad = System.currentTimeMillis() - startHqLoad;
 
+      } catch (final InterruptedException e) {
+
+         // waiting for the decoding pixel budget was interrupted, do not fall back to a full decode
+         isLoadingAborted = true;
+
+         Thread.currentThread().interrupt();
+
+         throw e;
+
       } catch (final Exception e) {
 
          StatusUtil.logError(NLS.bind("AWT: image \"{0}\" cannot be loaded.", originalImagePathName)); //$NON-NLS-1$
 
       } finally {
 
-         if (awtOriginalImage == null) {
+         if (awtOriginalImage == null && isLoadingAborted == false) {
 
             System.out.println(NLS.bind(//
                   UI.timeStampNano() + " AWT: image \"{0}\" cannot be loaded, will load with SWT", //$NON-NLS-1$
@@ -860,10 +906,6 @@ public class PhotoImageLoader {
          }
       }
 
-      /*
-       * handle thumb save error
-       */
-      final boolean isThumbSaveError = PhotoLoadManager.isThumbSaveError(originalImagePathName);
       if (isThumbSaveError) {
 
          // the thumb image could not be previously saved in the thumb store, display original image
@@ -888,12 +930,9 @@ public class PhotoImageLoader {
 
          boolean isHQCreated = false;
 
-         final int originalImageWidth = awtOriginalImage.getWidth();
-         final int originalImageHeight = awtOriginalImage.getHeight();
-
-         final Properties originalImageProperties = new Properties();
-         originalImageProperties.put(ThumbnailStore.ORIGINAL_IMAGE_WIDTH, Integer.toString(originalImageWidth));
-         originalImageProperties.put(ThumbnailStore.ORIGINAL_IMAGE_HEIGHT, Integer.toString(originalImageHeight));
+         // the loaded image can be subsampled, keep the size of the original image
+         final int originalImageWidth = originalImageSize[0];
+         final int originalImageHeight = originalImageSize[1];
 
          int imageWidth = originalImageWidth;
          int imageHeight = originalImageHeight;
@@ -939,8 +978,10 @@ public class PhotoImageLoader {
             {
                final boolean isSaved = ThumbnailStore.saveThumbImageWithAWT(
                      scaledHQImage,
-                     ThumbnailStore.getStoreImagePath(_photo, ImageQuality.HQ),
-                     originalImageProperties);
+                     _photo,
+                     ImageQuality.HQ,
+                     originalImageWidth,
+                     originalImageHeight);
 
                if (isSaved == false) {
                   // AWT save error has occurred, possible error: "Bogus input colorspace"
@@ -991,8 +1032,7 @@ public class PhotoImageLoader {
 
                   // get thumb image
 
-                  final IPath storeImageFilePath = ThumbnailStore.getStoreImagePath(_photo, ImageQuality.THUMB);
-                  requestedSWTImage = loadImageFromEXIFThumbnail(storeImageFilePath);
+                  requestedSWTImage = loadImageFromEXIFThumbnail();
                }
 
             } else {
@@ -1074,12 +1114,12 @@ public class PhotoImageLoader {
 
                final long startSaveThumb = System.currentTimeMillis();
                {
-                  final IPath storeThumbImagePath = ThumbnailStore.getStoreImagePath(_photo, ImageQuality.THUMB);
-
                   isSaved = ThumbnailStore.saveThumbImageWithAWT(
                         saveThumbAWT,
-                        storeThumbImagePath,
-                        originalImageProperties);
+                        _photo,
+                        ImageQuality.THUMB,
+                        originalImageWidth,
+                        originalImageHeight);
                }
                endSaveThumb = System.currentTimeMillis() - startSaveThumb;
             }
@@ -1144,6 +1184,72 @@ public class PhotoImageLoader {
       return requestedSWTImage;
    }
 
+   /**
+    * Decodes the original image with subsampling: only every n-th pixel is decoded so that the
+    * decoded image is still twice as large as the requested size. This is much faster and needs
+    * much less memory than decoding a full size image which is scaled down afterwards.
+    * <p>
+    * The number of decoded pixels is acquired from the decoding pixel budget, it is released when
+    * the tracked images are disposed.
+    *
+    * @param requestedSize
+    *           Requested image size, the image is not subsampled when it is 0
+    * @param originalImageSize
+    *           Is set with the width and height of the original image
+    * @return Returns the decoded image or <code>null</code> when the image format is not
+    *         supported
+    * @throws IOException
+    * @throws InterruptedException
+    */
+   private BufferedImage loadImageHQ_22_Subsampled(final int requestedSize, final int[] originalImageSize)
+         throws IOException, InterruptedException {
+
+      try (ImageInputStream imageInputStream = ImageIO.createImageInputStream(_photo.imageFile)) {
+
+         if (imageInputStream == null) {
+            return null;
+         }
+
+         final Iterator<ImageReader> allImageReaders = ImageIO.getImageReaders(imageInputStream);
+         if (allImageReaders.hasNext() == false) {
+            return null;
+         }
+
+         final ImageReader imageReader = allImageReaders.next();
+
+         try {
+
+            imageReader.setInput(imageInputStream, true, true);
+
+            // the image size is read from the header, the image is not yet decoded
+            final int originalWidth = imageReader.getWidth(0);
+            final int originalHeight = imageReader.getHeight(0);
+
+            originalImageSize[0] = originalWidth;
+            originalImageSize[1] = originalHeight;
+
+            final int subsampling = requestedSize > 0
+                  ? Math.max(1, Math.max(originalWidth, originalHeight) / (requestedSize * 2))
+                  : 1;
+
+            final long numDecodedPixels = (long) ((originalWidth + subsampling - 1) / subsampling)
+                  * ((originalHeight + subsampling - 1) / subsampling);
+
+            // wait until enough memory is available to decode the image
+            PhotoLoadManager.releaseDecodingPixels(_decodingPixelPermits);
+            _decodingPixelPermits = PhotoLoadManager.acquireDecodingPixels(numDecodedPixels);
+
+            final ImageReadParam readParam = imageReader.getDefaultReadParam();
+            readParam.setSourceSubsampling(subsampling, subsampling, 0, 0);
+
+            return imageReader.read(0, readParam);
+
+         } finally {
+            imageReader.dispose();
+         }
+      }
+   }
+
    public void loadImageOriginal() {
 
       final long start = System.currentTimeMillis();
@@ -1319,54 +1425,6 @@ public class PhotoImageLoader {
       }
    }
 
-   /**
-    * @param requestedStoreImageFilePath
-    * @return Returns <code>null</code> when properties cannot be loaded.
-    */
-   private void loadImageProperties(final IPath requestedStoreImageFilePath) {
-
-      final IPath propPath = ThumbnailStore.getPropertiesPathFromImagePath(requestedStoreImageFilePath);
-
-      Properties imageProperties = null;
-
-      try (FileInputStream fileStream = new FileInputStream(propPath.toOSString())) {
-
-         final File propFile = propPath.toFile();
-
-         if (propFile.isFile() == false) {
-            return;
-         }
-
-         imageProperties = new Properties();
-
-         imageProperties.load(fileStream);
-
-      } catch (final IOException e) {
-         StatusUtil.log(NLS.bind("Image properties cannot be loaded from: \"{0}\"", //$NON-NLS-1$
-               propPath.toOSString()), e);
-      }
-
-      if (imageProperties != null) {
-
-         final String originalImageWidth = imageProperties.getProperty(ThumbnailStore.ORIGINAL_IMAGE_WIDTH);
-         final String originalImageHeight = imageProperties.getProperty(ThumbnailStore.ORIGINAL_IMAGE_HEIGHT);
-
-         if (originalImageWidth != null && originalImageHeight != null) {
-            try {
-
-               final int width = Integer.parseInt(originalImageWidth);
-               final int height = Integer.parseInt(originalImageHeight);
-
-               _photo.setPhotoDimension(width, height);
-
-            } catch (final NumberFormatException e) {
-               StatusUtil.log(e);
-            }
-         }
-      }
-
-   }
-
 // JAI implementation to read tiff images with AWT
 //
 //	private BufferedImage loadImageHQ_22_ExtendedAWT(final PhotoWrapper photoWrapper) throws IOException {
@@ -1510,9 +1568,7 @@ public class PhotoImageLoader {
 //  debug (delay) image loading
 //				Thread.sleep(500);
 
-            final IPath storeThumbImageFilePath = ThumbnailStore.getStoreImagePath(_photo, ImageQuality.THUMB);
-
-            final Image exifThumbnail = loadImageFromEXIFThumbnail(storeThumbImageFilePath);
+            final Image exifThumbnail = loadImageFromEXIFThumbnail();
             if (exifThumbnail != null) {
 
                // EXIF image is available
@@ -1591,6 +1647,15 @@ public class PhotoImageLoader {
       return isHQRequired;
    }
 
+   /**
+    * @param isImageVisible
+    *           Checks if the requested image is still visible, the image is not loaded when it is
+    *           not visible any more
+    */
+   public void setImageVisibleCheck(final BooleanSupplier isImageVisible) {
+      _isImageVisible = isImageVisible;
+   }
+
    private void setStateLoadingError() {
 
       // prevent loading the image again
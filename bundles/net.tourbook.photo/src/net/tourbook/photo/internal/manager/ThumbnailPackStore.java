@@ -0,0 +1,749 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package net.tourbook.photo.internal.manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.tourbook.common.util.StatusUtil;
+
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Append-only store for thumbnail images.
+ * <p>
+ * All images are appended to a few large pack files instead of saving each image and its
+ * properties in a separate file. The index is kept in memory, it is rebuilt when the store is
+ * opened by reading only the record headers from the pack files. Images are read from memory
+ * mapped segments of the pack files, see {@link MappedRecordFile}.
+ * <p>
+ * Removed or replaced images are marked as deleted in the pack file, the space is reclaimed by
+ * {@link #compact()} which copies the remaining images into the current pack file. A pack file is
+ * never reused after it was deleted, because a mapped file could not be deleted in some OS.
+ * <p>
+ * Record layout
+ *
+ * <pre>
+ * int      magic
+ * byte     state                 valid or deleted
+ * long     last access time      is updated in place
+ * long     original file modified time
+ * long     original file size
+ * int      original image width
+ * int      original image height
+ * short    key length
+ * byte[]   key (UTF-8)
+ * int      image data length
+ * byte[]   image data
+ * </pre>
+ */
+class ThumbnailPackStore {
+
+   private static final int    RECORD_MAGIC            = 0x544E5031;           // TNP1
+
+   private static final byte   STATE_DELETED           = 0;
+   private static final byte   STATE_VALID             = 1;
+
+   private static final int    OFFSET_STATE            = 4;
+   private static final int    OFFSET_LAST_ACCESS      = 5;
+
+   /**
+    * Size of the record header without the key
+    */
+   private static final int    HEADER_SIZE             = 4 + 1 + 8 + 8 + 8 + 4 + 4 + 2 + 4;
+
+   private static final long   MAX_PACK_SIZE           = 64 * 1024 * 1024L;
+
+   /**
+    * A pack file is compacted when this ratio of its size is not used any more
+    */
+   private static final double COMPACTION_UNUSED_RATIO = 0.5;
+
+   private static final String PACK_FILE_PREFIX        = "thumbnails-";       //$NON-NLS-1$
+   private static final String PACK_FILE_EXTENSION     = ".pack";             //$NON-NLS-1$
+
+   private static final long   DAY_MILLIS              = 24 * 60 * 60 * 1000L;
+
+   private final File          _packFolder;
+
+   /**
+    * Key is created with {@link #createKey(String, String)}
+    */
+   private final ConcurrentHashMap<String, StoreEntry> _index    = new ConcurrentHashMap<>();
+
+   private final ArrayList<Pack>                       _allPacks = new ArrayList<>();
+
+   /**
+    * Images are appended to this pack
+    */
+   private Pack                                        _writePack;
+
+   /**
+    * Number of the next pack which is created, it is larger than the number of all existing packs
+    */
+   private int                                         _nextPackNumber;
+
+   private boolean                                     _isClosed;
+
+   private static class Pack {
+
+      private final MappedRecordFile recordFile;
+
+      private long                   unusedSize;
+
+      private Pack(final MappedRecordFile recordFile) {
+
+         this.recordFile = recordFile;
+      }
+   }
+
+   /**
+    * Image with the size of the original image
+    */
+   static class StoreImage {
+
+      final byte[] imageData;
+
+      final int    originalImageWidth;
+      final int    originalImageHeight;
+
+      private StoreImage(final byte[] imageData, final int originalImageWidth, final int originalImageHeight) {
+
+         this.imageData = imageData;
+         this.originalImageWidth = originalImageWidth;
+         this.originalImageHeight = originalImageHeight;
+      }
+   }
+
+   private static class StoreEntry {
+
+      private final Pack   pack;
+      private final long   recordPosition;
+      private final int    recordSize;
+      private final int    dataLength;
+
+      private final long   fileModified;
+      private final long   fileSize;
+
+      private final int    originalImageWidth;
+      private final int    originalImageHeight;
+
+      private volatile long lastAccessTime;
+
+      private StoreEntry(final Pack pack,
+                         final long recordPosition,
+                         final int recordSize,
+                         final int dataLength,
+                         final long lastAccessTime,
+                         final long fileModified,
+                         final long fileSize,
+                         final int originalImageWidth,
+                         final int originalImageHeight) {
+
+         this.pack = pack;
+         this.recordPosition = recordPosition;
+         this.recordSize = recordSize;
+         this.dataLength = dataLength;
+         this.lastAccessTime = lastAccessTime;
+         this.fileModified = fileModified;
+         this.fileSize = fileSize;
+         this.originalImageWidth = originalImageWidth;
+         this.originalImageHeight = originalImageHeight;
+      }
+
+      /**
+       * @return Returns the position of the image data, it is at the end of the record
+       */
+      private long getDataPosition() {
+         return recordPosition + recordSize - dataLength;
+      }
+   }
+
+   ThumbnailPackStore(final File packFolder) {
+
+      _packFolder = packFolder;
+
+      open();
+   }
+
+   /**
+    * @param imageQuality
+    * @param imageFilePathName
+    * @return Returns the key for the image quality and the original image file
+    */
+   static String createKey(final String imageQuality, final String imageFilePathName) {
+      return imageQuality + ':' + imageFilePathName;
+   }
+
+   private static String getPackFileName(final int packNumber) {
+      return String.format("%s%05d%s", PACK_FILE_PREFIX, packNumber, PACK_FILE_EXTENSION); //$NON-NLS-1$
+   }
+
+   private static int getPackNumber(final String packFileName) {
+
+      try {
+
+         return Integer.parseInt(packFileName.substring(
+               PACK_FILE_PREFIX.length(),
+               packFileName.length() - PACK_FILE_EXTENSION.length()));
+
+      } catch (final NumberFormatException e) {
+         return -1;
+      }
+   }
+
+   /**
+    * Append a record to the write pack and replaces an existing entry for the key
+    *
+    * @return Returns <code>true</code> when the record is appended
+    */
+   private synchronized boolean appendRecord(final String key,
+                                             final long lastAccessTime,
+                                             final long fileModified,
+                                             final long fileSize,
+                                             final int originalImageWidth,
+                                             final int originalImageHeight,
+                                             final byte[] imageData) {
+
+      final byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+      final int recordSize = HEADER_SIZE + keyBytes.length + imageData.length;
+
+      final ByteBuffer record = ByteBuffer.allocate(recordSize);
+
+      record.putInt(RECORD_MAGIC);
+      record.put(STATE_VALID);
+      record.putLong(lastAccessTime);
+      record.putLong(fileModified);
+      record.putLong(fileSize);
+      record.putInt(originalImageWidth);
+      record.putInt(originalImageHeight);
+      record.putShort((short) keyBytes.length);
+      record.put(keyBytes);
+      record.putInt(imageData.length);
+      record.put(imageData);
+
+      record.flip();
+
+      if (_isClosed) {
+         return false;
+      }
+
+      try {
+
+         if (_writePack == null || _writePack.recordFile.size() + recordSize > MAX_PACK_SIZE) {
+
+            _writePack = createPack(_nextPackNumber);
+            _allPacks.add(_writePack);
+         }
+
+         final long recordPosition = _writePack.recordFile.append(record);
+
+         final StoreEntry storeEntry = new StoreEntry(
+               _writePack,
+               recordPosition,
+               recordSize,
+               imageData.length,
+               lastAccessTime,
+               fileModified,
+               fileSize,
+               originalImageWidth,
+               originalImageHeight);
+
+         final StoreEntry previousEntry = _index.put(key, storeEntry);
+
+         if (previousEntry != null) {
+            markAsDeleted(previousEntry);
+         }
+
+      } catch (final IOException e) {
+
+         StatusUtil.log(NLS.bind("Cannot append thumbnail in \"{0}\"", _packFolder), e); //$NON-NLS-1$
+
+         return false;
+      }
+
+      return true;
+   }
+
+   /**
+    * Closes all pack files, the store cannot be used any more
+    */
+   synchronized void close() {
+
+      _isClosed = true;
+
+      for (final Pack pack : _allPacks) {
+
+         try {
+            pack.recordFile.close();
+         } catch (final IOException e) {
+            StatusUtil.log(e);
+         }
+      }
+
+      _allPacks.clear();
+      _writePack = null;
+
+      _index.clear();
+   }
+
+   /**
+    * Copies the used images of packs, which contain mainly unused images, into the current pack
+    * and deletes these packs.
+    */
+   void compact() {
+
+      final ArrayList<Pack> allCompactedPacks = new ArrayList<>();
+
+      synchronized (this) {
+
+         for (final Pack pack : _allPacks) {
+
+            if (pack != _writePack && pack.unusedSize > pack.recordFile.size() * COMPACTION_UNUSED_RATIO) {
+               allCompactedPacks.add(pack);
+            }
+         }
+      }
+
+      for (final Pack compactedPack : allCompactedPacks) {
+
+         for (final Entry<String, StoreEntry> indexEntry : _index.entrySet()) {
+
+            final StoreEntry storeEntry = indexEntry.getValue();
+
+            if (storeEntry.pack != compactedPack) {
+               continue;
+            }
+
+            final String key = indexEntry.getKey();
+            final byte[] imageData = readImageData(storeEntry);
+
+            if (imageData == null) {
+               remove(key);
+               continue;
+            }
+
+            synchronized (this) {
+
+               // check again, the image could have been replaced in the meantime
+               if (_index.get(key) == storeEntry) {
+
+                  appendRecord(
+                        key,
+                        storeEntry.lastAccessTime,
+                        storeEntry.fileModified,
+                        storeEntry.fileSize,
+                        storeEntry.originalImageWidth,
+                        storeEntry.originalImageHeight,
+                        imageData);
+               }
+            }
+         }
+
+         synchronized (this) {
+
+            _allPacks.remove(compactedPack);
+
+            if (compactedPack.recordFile.delete() == false) {
+
+               // a mapped file cannot be deleted in some OS, it is deleted when the store is opened again
+               StatusUtil.logInfo(NLS.bind("Thumbnail pack \"{0}\" cannot be deleted", compactedPack.recordFile.getFile())); //$NON-NLS-1$
+            }
+         }
+      }
+   }
+
+   private Pack createPack(final int packNumber) throws IOException {
+
+      final Pack pack = new Pack(new MappedRecordFile(new File(_packFolder, getPackFileName(packNumber))));
+
+      _nextPackNumber = Math.max(_nextPackNumber, packNumber + 1);
+
+      return pack;
+   }
+
+   /**
+    * @param key
+    * @param fileModified
+    *           Modified time of the original image file
+    * @param fileSize
+    *           Size of the original image file
+    * @return Returns the image or <code>null</code> when the image is not available or when the
+    *         original image file has changed
+    */
+   StoreImage get(final String key, final long fileModified, final long fileSize) {
+
+      final StoreEntry storeEntry = _index.get(key);
+
+      if (storeEntry == null) {
+         return null;
+      }
+
+      if (storeEntry.fileModified != fileModified || storeEntry.fileSize != fileSize) {
+
+         // original image has changed, the thumbnail is outdated
+         remove(key);
+
+         return null;
+      }
+
+      final byte[] imageData = readImageData(storeEntry);
+
+      if (imageData == null) {
+         return null;
+      }
+
+      touch(storeEntry);
+
+      return new StoreImage(imageData, storeEntry.originalImageWidth, storeEntry.originalImageHeight);
+   }
+
+   /**
+    * @return Returns <code>true</code> when a pack file can be compacted
+    */
+   synchronized boolean isCompactionNeeded() {
+
+      for (final Pack pack : _allPacks) {
+
+         if (pack != _writePack && pack.unusedSize > pack.recordFile.size() * COMPACTION_UNUSED_RATIO) {
+            return true;
+         }
+      }
+
+      return false;
+   }
+
+   /**
+    * @return Returns <code>true</code> when the store do not contain any images
+    */
+   boolean isEmpty() {
+      return _index.isEmpty();
+   }
+
+   private synchronized void markAsDeleted(final StoreEntry storeEntry) {
+
+      final Pack pack = storeEntry.pack;
+
+      pack.unusedSize += storeEntry.recordSize;
+
+      if (pack.recordFile.isOpen() == false) {
+         return;
+      }
+
+      try {
+
+         pack.recordFile.write(
+               ByteBuffer.wrap(new byte[] { STATE_DELETED }),
+               storeEntry.recordPosition + OFFSET_STATE);
+
+      } catch (final IOException e) {
+         StatusUtil.log(e);
+      }
+   }
+
+   /**
+    * Opens all pack files and creates the index from the record headers
+    */
+   private synchronized void open() {
+
+      if (_packFolder.exists() == false && _packFolder.mkdirs() == false) {
+
+         StatusUtil.logError(NLS.bind("Thumbnail pack folder \"{0}\" cannot be created", _packFolder)); //$NON-NLS-1$
+         return;
+      }
+
+      final File[] allPackFiles = _packFolder.listFiles((dir, name) -> name.startsWith(PACK_FILE_PREFIX)
+            && name.endsWith(PACK_FILE_EXTENSION)
+            && getPackNumber(name) >= 0);
+
+      if (allPackFiles == null) {
+         return;
+      }
+
+      // later packs contain newer images
+      Arrays.sort(allPackFiles, Comparator.comparingInt(packFile -> getPackNumber(packFile.getName())));
+
+      for (final File packFile : allPackFiles) {
+
+         try {
+
+            final Pack pack = createPack(getPackNumber(packFile.getName()));
+
+            _allPacks.add(pack);
+
+            readPackIndex(pack);
+
+         } catch (final IOException e) {
+            StatusUtil.log(NLS.bind("Cannot open thumbnail pack \"{0}\"", packFile), e); //$NON-NLS-1$
+         }
+      }
+
+      // delete packs without used images, they could not be deleted after a compaction or a removal
+      for (final Pack pack : new ArrayList<>(_allPacks)) {
+
+         if (pack.unusedSize == pack.recordFile.size()) {
+
+            _allPacks.remove(pack);
+
+            pack.recordFile.delete();
+         }
+      }
+
+      _writePack = _allPacks.isEmpty() ? null : _allPacks.get(_allPacks.size() - 1);
+   }
+
+   private byte[] readImageData(final StoreEntry storeEntry) {
+
+      final long dataPosition = storeEntry.getDataPosition();
+      final int dataLength = storeEntry.dataLength;
+
+      try {
+
+         return storeEntry.pack.recordFile.read(dataPosition, dataLength);
+
+      } catch (final IOException e) {
+
+         // pack could have been closed by a compaction
+         return null;
+      }
+   }
+
+   /**
+    * Reads all record headers of a pack, a corrupted end of the pack, e.g. when the app was
+    * killed while saving, is truncated.
+    * <p>
+    * The headers are read with the file channel, so the pack is not mapped when it is truncated.
+    *
+    * @param pack
+    * @throws IOException
+    */
+   private void readPackIndex(final Pack pack) throws IOException {
+
+      final MappedRecordFile recordFile = pack.recordFile;
+      final long packSize = recordFile.size();
+
+      // header without the image data length, which is after the key
+      final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE - 4);
+
+      long recordPosition = 0;
+
+      while (recordPosition + HEADER_SIZE <= packSize) {
+
+         header.clear();
+         recordFile.readFully(header, recordPosition);
+         header.flip();
+
+         if (header.getInt() != RECORD_MAGIC) {
+            break;
+         }
+
+         final byte state = header.get();
+         final long lastAccessTime = header.getLong();
+         final long fileModified = header.getLong();
+         final long fileSize = header.getLong();
+         final int originalImageWidth = header.getInt();
+         final int originalImageHeight = header.getInt();
+         final int keyLength = header.getShort() & 0xffff;
+
+         if (recordPosition + HEADER_SIZE + keyLength > packSize) {
+            break;
+         }
+
+         final ByteBuffer keyAndDataLength = ByteBuffer.allocate(keyLength + 4);
+         recordFile.readFully(keyAndDataLength, recordPosition + HEADER_SIZE - 4);
+         keyAndDataLength.flip();
+
+         final byte[] keyBytes = new byte[keyLength];
+         keyAndDataLength.get(keyBytes);
+
+         final int dataLength = keyAndDataLength.getInt();
+         final long recordSize = (long) HEADER_SIZE + keyLength + dataLength;
+
+         if (dataLength < 0 || recordPosition + recordSize > packSize) {
+            break;
+         }
+
+         if (state == STATE_VALID) {
+
+            final StoreEntry storeEntry = new StoreEntry(
+                  pack,
+                  recordPosition,
+                  (int) recordSize,
+                  dataLength,
+                  lastAccessTime,
+                  fileModified,
+                  fileSize,
+                  originalImageWidth,
+                  originalImageHeight);
+
+            final StoreEntry previousEntry = _index.put(new String(keyBytes, StandardCharsets.UTF_8), storeEntry);
+
+            if (previousEntry != null) {
+               markAsDeleted(previousEntry);
+            }
+
+         } else {
+
+            pack.unusedSize += recordSize;
+         }
+
+         recordPosition += recordSize;
+      }
+
+      if (recordPosition < packSize) {
+
+         StatusUtil.logInfo(NLS.bind("Thumbnail pack \"{0}\" is truncated at {1}", recordFile.getFile(), recordPosition)); //$NON-NLS-1$
+
+         recordFile.truncate(recordPosition);
+      }
+   }
+
+   /**
+    * @param key
+    */
+   void remove(final String key) {
+
+      final StoreEntry storeEntry = _index.remove(key);
+
+      if (storeEntry != null) {
+         markAsDeleted(storeEntry);
+      }
+   }
+
+   /**
+    * Removes all images and deletes all pack files
+    */
+   synchronized void removeAll() {
+
+      // a pack, which cannot be deleted because it is still mapped, do not contain used images
+      for (final StoreEntry storeEntry : _index.values()) {
+         markAsDeleted(storeEntry);
+      }
+
+      _index.clear();
+
+      for (final Pack pack : _allPacks) {
+
+         if (pack.recordFile.delete() == false) {
+
+            // it is deleted when the store is opened again
+            StatusUtil.logInfo(NLS.bind("Thumbnail pack \"{0}\" cannot be deleted", pack.recordFile.getFile())); //$NON-NLS-1$
+         }
+      }
+
+      _allPacks.clear();
+      _writePack = null;
+   }
+
+   /**
+    * Removes all images which were not accessed since a date, this is only a scan of the index.
+    *
+    * @param lastAccessTime
+    * @return Returns the number of removed images and their size in bytes
+    */
+   long[] removeOlderThan(final long lastAccessTime) {
+
+      long numRemoved = 0;
+      long removedSize = 0;
+
+      for (final Entry<String, StoreEntry> indexEntry : _index.entrySet()) {
+
+         final StoreEntry storeEntry = indexEntry.getValue();
+
+         if (storeEntry.lastAccessTime < lastAccessTime) {
+
+            remove(indexEntry.getKey());
+
+            numRemoved++;
+            removedSize += storeEntry.recordSize;
+         }
+      }
+
+      return new long[] { numRemoved, removedSize };
+   }
+
+   /**
+    * Saves an image, an existing image for the key is replaced.
+    *
+    * @return Returns <code>true</code> when the image is saved
+    */
+   boolean save(final String key,
+                final long fileModified,
+                final long fileSize,
+                final int originalImageWidth,
+                final int originalImageHeight,
+                final byte[] imageData) {
+
+      return appendRecord(
+            key,
+            System.currentTimeMillis(),
+            fileModified,
+            fileSize,
+            originalImageWidth,
+            originalImageHeight,
+            imageData);
+   }
+
+   /**
+    * @return Returns the number of images in the store
+    */
+   int size() {
+      return _index.size();
+   }
+
+   /**
+    * Updates the last access time when it is not yet done today, this is used to cleanup old
+    * images.
+    *
+    * @param storeEntry
+    */
+   private void touch(final StoreEntry storeEntry) {
+
+      final long now = System.currentTimeMillis();
+
+      if (storeEntry.lastAccessTime / DAY_MILLIS == now / DAY_MILLIS) {
+         return;
+      }
+
+      storeEntry.lastAccessTime = now;
+
+      final ByteBuffer lastAccessBuffer = ByteBuffer.allocate(8);
+      lastAccessBuffer.putLong(now);
+      lastAccessBuffer.flip();
+
+      synchronized (this) {
+
+         final Pack pack = storeEntry.pack;
+
+         if (pack.recordFile.isOpen() == false) {
+            return;
+         }
+
+         try {
+            pack.recordFile.write(lastAccessBuffer, storeEntry.recordPosition + OFFSET_LAST_ACCESS);
+         } catch (final IOException e) {
+            StatusUtil.log(e);
+         }
+      }
+   }
+}
@@ -16,14 +16,14 @@
 package net.tourbook.photo.internal.manager;
 
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.Properties;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.imageio.ImageIO;
 
@@ -34,6 +34,7 @@ import net.tourbook.photo.ImageQuality;
 import net.tourbook.photo.Photo;
 import net.tourbook.photo.PhotoActivator;
 import net.tourbook.photo.internal.Messages;
+import net.tourbook.photo.internal.manager.ThumbnailPackStore.StoreImage;
 
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -56,62 +57,39 @@ public class ThumbnailStore {
    static final String         THUMBNAIL_IMAGE_EXTENSION_JPG = "jpg";             //$NON-NLS-1$
    private static final String THUMBNAIL_STORE_OS_PATH       = "thumbnail-store"; //$NON-NLS-1$
 
-   /*
-    * photo image properties saved in a properties file
+   /**
+    * Folder in the thumbnail store for the pack files, all other folders contain images from the
+    * previous store with one file for each image
     */
-   private static final String        PROPERTIES_FILE_EXTENSION = "properties";                 //$NON-NLS-1$
-//	private static final String			PROPERTIES_FILE_HEADER			= "Image properties ";		//$NON-NLS-1$
-   public static final String         ORIGINAL_IMAGE_WIDTH      = "OriginalImageWidth";         //$NON-NLS-1$
-   public static final String         ORIGINAL_IMAGE_HEIGHT     = "OriginalImageHeight";        //$NON-NLS-1$
-
-   private static IPreferenceStore    _prefStore                = PhotoActivator.getPrefStore();
-
-   private static IPath               _storePath                = getThumbnailStorePath();
+   private static final String          THUMBNAIL_PACK_FOLDER  = "packs";                       //$NON-NLS-1$
 
    /**
-    * Images will be deleted when they are older than this date (in milliseconds)
+    * Folder in the thumbnail store for the {@link ExifIndexStore}
     */
-   private static long                _dateToDeleteOlderImagesMillis;
-
-   private static long                _deleteUI_UpdateTime;
-   private static int                 _deleteUI_DeletedFiles;
-   private static int                 _deleteUI_CheckedFiles;
-   private static long                _deleteUI_FilesSize;
-   private static File                _errorFile;
+   private static final String          EXIF_INDEX_FOLDER      = "exif";                        //$NON-NLS-1$
 
-   private static final ReentrantLock SAVE_LOCK                 = new ReentrantLock();
+   private static IPreferenceStore      _prefStore             = PhotoActivator.getPrefStore();
 
-   private static IPath checkPath(final IPath storeImageFilePath) {
+   private static IPath                 _storePath             = getThumbnailStorePath();
 
-      final IPath imagePathWithoutExt = storeImageFilePath.removeFileExtension();
+   private static ThumbnailPackStore    _packStore;
 
-      // check store sub directory
-      final File storeSubDir = imagePathWithoutExt.removeLastSegments(1).toFile();
-      if (storeSubDir.exists() == false) {
+   private static final AtomicBoolean   _isCompactionScheduled = new AtomicBoolean();
+   private static final ExecutorService _compactionExecutor;
 
-         SAVE_LOCK.lock();
+   private static File                  _errorFile;
 
-         try {
-            // check again
-            if (storeSubDir.exists() == false) {
-
-               // create store sub directory
+   static {
 
-               if (storeSubDir.mkdirs() == false) {
+      _compactionExecutor = Executors.newSingleThreadExecutor(runnable -> {
 
-                  StatusUtil.log(NLS.bind(//
-                        "Thumbnail image path \"{0}\" cannot be created", //$NON-NLS-1$
-                        storeSubDir.getAbsolutePath()), new Exception());
+         final Thread thread = new Thread(runnable, "Compacting thumbnail store"); //$NON-NLS-1$
 
-                  return null;
-               }
-            }
+         thread.setPriority(Thread.MIN_PRIORITY);
+         thread.setDaemon(true);
 
-         } finally {
-            SAVE_LOCK.unlock();
-         }
-      }
-      return imagePathWithoutExt;
+         return thread;
+      });
    }
 
    /**
@@ -188,59 +166,23 @@ public class ThumbnailStore {
    }
 
    /**
-    * Cleanup store files for a specific folder.
+    * Cleanup store images for a specific folder.
     *
-    * @param folderPath
+    * @param imageFiles
     */
    public static void cleanupStoreFiles(final File[] imageFiles) {
 
+      final ThumbnailPackStore packStore = getPackStore();
+
       for (final File imageFile : imageFiles) {
 
          final String imageFilePath = imageFile.getPath();
 
-         cleanupStoreFiles_10_QFile(imageFile, ImageQuality.THUMB, Photo.getImageKeyThumb(imageFilePath));
-         cleanupStoreFiles_10_QFile(imageFile, ImageQuality.HQ, Photo.getImageKeyHQ(imageFilePath));
+         packStore.remove(ThumbnailPackStore.createKey(ImageQuality.THUMB.name(), imageFilePath));
+         packStore.remove(ThumbnailPackStore.createKey(ImageQuality.HQ.name(), imageFilePath));
       }
-   }
-
-   private static void cleanupStoreFiles_10_QFile(final File imageFile,
-                                                  final ImageQuality imageQuality,
-                                                  final String imageKey) {
-
-      final IPath storeImagePath = getStoreImagePath(imageFile.getName(), imageKey, imageQuality);
-      final IPath propImagePath = getPropertiesPathFromImagePath(storeImagePath);
-
-      cleanupStoreFiles_20_Delete(storeImagePath);
-      cleanupStoreFiles_20_Delete(propImagePath);
-   }
-
-   private static void cleanupStoreFiles_20_Delete(final IPath storeImagePath) {
-
-      final String storeFilePath = storeImagePath.toOSString();
-
-      final File storeFile = new File(storeFilePath);
 
-      if (storeFile.isFile()) {
-
-//			/*
-//			 * Java 7
-//			 */
-//			try {
-//
-//				final java.nio.file.Path path = FileSystems.getDefault().getPath(storeFilePath);
-//
-//				Files.delete(path);
-//
-//			} catch (final Exception e) {
-//				StatusUtil.log(NLS.bind("cannot delete file: {0}", storeFilePath)); //$NON-NLS-1$
-//			}
-
-         final boolean isDeleted = storeFile.delete();
-
-         if (isDeleted == false) {
-            StatusUtil.logError(NLS.bind("Cannot delete file: {0}", storeFilePath)); //$NON-NLS-1$
-         }
-      }
+      scheduleCompaction();
    }
 
    private static void doCleanup(final int daysToKeepImages,
@@ -248,12 +190,6 @@ public class ThumbnailStore {
                                  final boolean isDeleteAll) {
 
       _errorFile = null;
-      _dateToDeleteOlderImagesMillis = dateToDeleteOlderImagesMillis;
-
-      _deleteUI_UpdateTime = System.currentTimeMillis();
-      _deleteUI_DeletedFiles = 0;
-      _deleteUI_CheckedFiles = 0;
-      _deleteUI_FilesSize = 0;
 
       try {
 
@@ -272,15 +208,55 @@ public class ThumbnailStore {
                } else {
                   message = NLS.bind(Messages.Thumbnail_Store_CleanupTask, daysToKeepImages);
                }
-               monitor.beginTask(message, rootFiles.length);
+               monitor.beginTask(message, rootFiles.length + 1);
+
+               /*
+                * Cleanup pack store, this is a scan of the index
+                */
+               final ThumbnailPackStore packStore = getPackStore();
+               final int numImages = packStore.size();
+
+               if (isDeleteAll || dateToDeleteOlderImagesMillis == Long.MIN_VALUE) {
+
+                  packStore.removeAll();
+
+                  monitor.subTask(NLS.bind(Messages.Thumbnail_Store_CleanupTask_Subtask,
+                        new Object[] {
+                              numImages,
+                              numImages,
+                              0,
+                              THUMBNAIL_PACK_FOLDER }));
+
+               } else {
+
+                  final long[] removedImages = packStore.removeOlderThan(dateToDeleteOlderImagesMillis);
+
+                  monitor.subTask(NLS.bind(Messages.Thumbnail_Store_CleanupTask_Subtask,
+                        new Object[] {
+                              numImages,
+                              removedImages[0],
+                              Long.toString(removedImages[1] / MBYTE),
+                              THUMBNAIL_PACK_FOLDER }));
+
+                  scheduleCompaction();
+               }
 
+               monitor.worked(1);
+
+               /*
+                * Delete images from the previous store with one file for each image, they are not
+                * used any more
+                */
                for (final File folder : rootFiles) {
 
-                  if (isDeleteAll) {
-                     doCleanupAll(folder, monitor);
-                  } else {
+                  final String folderName = folder.getName();
+
+                  if (folderName.equals(THUMBNAIL_PACK_FOLDER) || folderName.equals(EXIF_INDEX_FOLDER)) {
+                     continue;
+                  }
 
-                     doCleanupDeleteFiles(folder, monitor);
+                  if (doCleanupAll(folder, monitor) == false && monitor.isCanceled() == false) {
+                     _errorFile = folder;
                   }
 
                   if (monitor.isCanceled()) {
@@ -313,7 +289,11 @@ public class ThumbnailStore {
 
       boolean result = false;
 
-      if (directory.isDirectory()) {
+      if (directory.isFile()) {
+
+         result = directory.delete();
+
+      } else if (directory.isDirectory()) {
          final File[] files = directory.listFiles();
 
          for (final File file : files) {
@@ -339,149 +319,35 @@ public class ThumbnailStore {
    }
 
    /**
-    * !!!!!!!!!!!!!!!!!!!!!!!!!!!!!!! RECURSIVE !!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!<br>
-    * <br>
-    * Deletes files and subdirectories. If a deletion fails, the method stops attempting to delete.
-    * <br>
-    * <br>
-    * !!!!!!!!!!!!!!!!!!!!!!!!!!!!!!! RECURSIVE !!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!<br>
-    *
-    * @param fileOrFolder
-    * @param monitor
-    * @return Returns number of deleted files
+    * @return Returns the folder for the {@link ExifIndexStore}
     */
-   private static int doCleanupDeleteFiles(final File fileOrFolder, final IProgressMonitor monitor) {
-
-      if (monitor.isCanceled()) {
-         return 0;
-      }
-
-      boolean isFile = false;
-      boolean doDeleteFileFolder = false;
-
-      if (fileOrFolder.isDirectory()) {
-
-         // file is a folder
-
-         int deletedFileFolder = 0;
-         final String[] allFileFolder = fileOrFolder.list();
-
-         for (final String fileFolder2 : allFileFolder) {
-            deletedFileFolder += doCleanupDeleteFiles(new File(fileOrFolder, fileFolder2), monitor);
-         }
-
-         // delete this folder when all children are deleted
-         if (deletedFileFolder == allFileFolder.length) {
-            doDeleteFileFolder = true;
-         }
-
-         // update monitor every 200ms
-         final long time = System.currentTimeMillis();
-         if (time > _deleteUI_UpdateTime + 200) {
-
-            _deleteUI_UpdateTime = time;
-
-            // show only the ending part of the folder name
-            final String fileFolderName = fileOrFolder.toString();
-            final int endIndex = fileFolderName.length();
-            int beginIndex = endIndex - 90;
-            beginIndex = beginIndex < 0 ? 0 : beginIndex;
-
-            monitor.subTask(NLS.bind(Messages.Thumbnail_Store_CleanupTask_Subtask, //
-                  new Object[] {
-                        _deleteUI_CheckedFiles,
-                        _deleteUI_DeletedFiles,
-                        Long.toString(_deleteUI_FilesSize / MBYTE),
-                        fileFolderName.substring(beginIndex, endIndex) }));
-         }
-
-      } else {
-
-         // file is a file
-
-         if (_dateToDeleteOlderImagesMillis == Long.MIN_VALUE
-               || fileOrFolder.lastModified() < _dateToDeleteOlderImagesMillis) {
-            doDeleteFileFolder = true;
-            isFile = true;
-         }
-      }
-
-      boolean isFileFolderDeleted = false;
-      if (doDeleteFileFolder) {
-
-         if (isFile) {
-            _deleteUI_FilesSize += fileOrFolder.length();
-         }
-
-         // the folder is now empty so it can be deleted
-         isFileFolderDeleted = fileOrFolder.delete();
-
-         _deleteUI_DeletedFiles++;
-      }
-
-      _deleteUI_CheckedFiles++;
-
-      /*
-       * !!! canceled must be checked before isFileFolderDeleted is checked because this returns
-       * false when the monitor is canceled !!!
-       */
-      if (monitor.isCanceled()) {
-         return isFileFolderDeleted ? 1 : 0;
-      }
-
-      if (doDeleteFileFolder && isFileFolderDeleted == false) {
-         _errorFile = fileOrFolder;
-         monitor.setCanceled(true);
-      }
-
-      return isFileFolderDeleted ? 1 : 0;
-   }
-
-   static IPath getPropertiesPathFromImagePath(final IPath storeImageFilePath) {
-
-      final String rawFileName = storeImageFilePath.removeFileExtension().lastSegment();
-
-      final IPath propImageFilePath = storeImageFilePath
-            .removeLastSegments(1)
-            .append(rawFileName)
-            .addFileExtension(PROPERTIES_FILE_EXTENSION);
-
-      return propImageFilePath;
+   static synchronized File getExifIndexFolder() {
+      return _storePath.append(EXIF_INDEX_FOLDER).toFile();
    }
 
-   static synchronized IPath getStoreImagePath(final Photo photo, final ImageQuality imageQuality) {
-
-      if (photo.imageFilePathName.startsWith(_storePath.toOSString())) {
-
-         // photo image is already from the thumb store
+   private static synchronized ThumbnailPackStore getPackStore() {
 
-         return new Path(photo.imageFilePathName);
+      if (_packStore == null) {
+         _packStore = new ThumbnailPackStore(_storePath.append(THUMBNAIL_PACK_FOLDER).toFile());
       }
 
-      final String rawImageFileName = photo.imageFileName;
-      final String imageKey = photo.getImageKey(imageQuality);
-
-      final IPath imageFilePath = getStoreImagePath(rawImageFileName, imageKey, imageQuality);
-
-      return imageFilePath;
+      return _packStore;
    }
 
-   private static IPath getStoreImagePath(final String rawImageFileName,
-                                          final String imageKey,
-                                          final ImageQuality imageQuality) {
-
-      // thumbnail images are stored as jpg file
-      IPath jpgPhotoFilePath = new Path(rawImageFileName);
-      jpgPhotoFilePath = jpgPhotoFilePath.removeFileExtension().addFileExtension(THUMBNAIL_IMAGE_EXTENSION_JPG);
-
-      final String imageKey1Folder = imageKey.substring(0, 2);
-      final String imageFileName = imageKey + "_" + imageQuality.name() + "_" + jpgPhotoFilePath.toOSString(); //$NON-NLS-1$ //$NON-NLS-2$
+   /**
+    * @param photo
+    * @param imageQuality
+    * @return Returns the image from the thumbnail store or <code>null</code> when it is not
+    *         available or when the photo image file was modified after the thumbnail was saved
+    */
+   static StoreImage getStoreImage(final Photo photo, final ImageQuality imageQuality) {
 
-      final IPath imageFilePath = _storePath//
-            .append(imageKey1Folder)
-            .append(imageFileName);
+      final File imageFile = photo.imageFile;
 
-      return imageFilePath;
+      return getPackStore().get(
+            ThumbnailPackStore.createKey(imageQuality.name(), photo.imageFilePathName),
+            imageFile.lastModified(),
+            imageFile.length());
    }
 
    /**
@@ -556,105 +422,120 @@ public class ThumbnailStore {
       return tnFolderPath.addTrailingSeparator();
    }
 
-   private static void saveProperties(final IPath storeImageFilePath, final Properties originalImageProperties) {
-
-      IPath propImageFilePath = null;
-      FileOutputStream fileStream = null;
-
-      try {
-
-         propImageFilePath = getPropertiesPathFromImagePath(storeImageFilePath);
-
-         final File propFile = new File(propImageFilePath.toOSString());
-
-         fileStream = new FileOutputStream(propFile);
-
-         originalImageProperties.store(fileStream, null);
-
-      } catch (final Exception e) {
-
-         StatusUtil.log(NLS.bind(//
-               "Cannot save properties file: \"{0}\"", //$NON-NLS-1$
-               propImageFilePath.toOSString()), e);
-      } finally {
-
-         if (fileStream != null) {
-            try {
-               fileStream.close();
-            } catch (final IOException e) {
-               e.printStackTrace();
-            }
-         }
-      }
+   private static boolean saveImage(final Photo photo,
+                                    final ImageQuality imageQuality,
+                                    final int originalImageWidth,
+                                    final int originalImageHeight,
+                                    final byte[] imageData) {
+
+      final File imageFile = photo.imageFile;
+
+      return getPackStore().save(
+            ThumbnailPackStore.createKey(imageQuality.name(), photo.imageFilePathName),
+            imageFile.lastModified(),
+            imageFile.length(),
+            originalImageWidth,
+            originalImageHeight,
+            imageData);
    }
 
    /**
     * @param thumbImg
-    * @param storeImageFilePath
-    * @param originalImageProperties
+    * @param photo
+    * @param imageQuality
+    * @param originalImageWidth
+    * @param originalImageHeight
     * @return Returns <code>true</code>when the image could be saved in the thumb store.
     */
    static boolean saveThumbImageWithAWT(final BufferedImage thumbImg,
-                                        final IPath storeImageFilePath,
-                                        final Properties originalImageProperties) {
+                                        final Photo photo,
+                                        final ImageQuality imageQuality,
+                                        final int originalImageWidth,
+                                        final int originalImageHeight) {
 
       try {
 
-         final IPath imagePathWithoutExt = checkPath(storeImageFilePath);
-         if (imagePathWithoutExt == null) {
+         final ByteArrayOutputStream imageStream = new ByteArrayOutputStream();
+
+         if (ImageIO.write(thumbImg, THUMBNAIL_IMAGE_EXTENSION_JPG, imageStream) == false) {
             return false;
          }
 
-         ImageIO.write(thumbImg, THUMBNAIL_IMAGE_EXTENSION_JPG, new File(storeImageFilePath.toOSString()));
-
-         saveProperties(storeImageFilePath, originalImageProperties);
+         return saveImage(photo, imageQuality, originalImageWidth, originalImageHeight, imageStream.toByteArray());
 
       } catch (final Exception e) {
 
          StatusUtil.log(NLS.bind(//
                "Cannot save thumbnail image with AWT: \"{0}\"", //$NON-NLS-1$
-               storeImageFilePath.toOSString()), e);
+               photo.imageFilePathName), e);
 
          return false;
       }
-
-      return true;
    }
 
    static void saveThumbImageWithSWT(final Image thumbnailImage,
-                                     final IPath storeImageFilePath,
-                                     final Properties originalImageProperties) {
+                                     final Photo photo,
+                                     final ImageQuality imageQuality,
+                                     final int originalImageWidth,
+                                     final int originalImageHeight) {
 
       try {
 
-         final IPath imagePathWithoutExt = checkPath(storeImageFilePath);
-         if (imagePathWithoutExt == null) {
-            return;
-         }
-
          final ImageLoader imageLoader = new ImageLoader();
          imageLoader.data = new ImageData[] { thumbnailImage.getImageData() };
 
-         final IPath fullImageFilePath = imagePathWithoutExt.addFileExtension(THUMBNAIL_IMAGE_EXTENSION_JPG);
+         final ByteArrayOutputStream imageStream = new ByteArrayOutputStream();
 
          /*
           * save thumbnail as jpg image, Eclipse 3.8 M5 saves it with better quality, default is
           * 75%, compression in the imageloader could be set
           */
          imageLoader.compression = 75;
-         imageLoader.save(fullImageFilePath.toOSString(), SWT.IMAGE_JPEG);
+         imageLoader.save(imageStream, SWT.IMAGE_JPEG);
 
-         saveProperties(storeImageFilePath, originalImageProperties);
+         saveImage(photo, imageQuality, originalImageWidth, originalImageHeight, imageStream.toByteArray());
 
       } catch (final Exception e) {
 
          StatusUtil.log(NLS.bind(//
                "Cannot save thumbnail image with SWT: \"{0}\"", //$NON-NLS-1$
-               storeImageFilePath.toOSString()), e);
+               photo.imageFilePathName), e);
       }
    }
 
-   public static void updateStoreLocation() {
+   /**
+    * Compacts the pack files in the background when they contain many removed images
+    */
+   private static void scheduleCompaction() {
+
+      final ThumbnailPackStore packStore = getPackStore();
+
+      if (packStore.isCompactionNeeded() == false || _isCompactionScheduled.getAndSet(true)) {
+         return;
+      }
+
+      _compactionExecutor.submit(() -> {
+
+         try {
+            packStore.compact();
+         } catch (final Exception e) {
+            StatusUtil.log(e);
+         } finally {
+            _isCompactionScheduled.set(false);
+         }
+      });
+   }
+
+   public static synchronized void updateStoreLocation() {
+
       _storePath = getThumbnailStorePath();
+
+      // the pack store is opened in the new location when it is used the next time
+      if (_packStore != null) {
+         _packStore.close();
+         _packStore = null;
+      }
+
+      ExifCache.updateStoreLocation();
    }
 }
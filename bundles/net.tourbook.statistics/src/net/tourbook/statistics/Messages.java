@@ -27,6 +27,9 @@ public class Messages extends NLS {
    public static String        LABEL_GRAPH_BODY_WEIGHT;
    public static String        LABEL_GRAPH_DAYTIME;
    public static String        LABEL_GRAPH_DISTANCE;
+   public static String        LABEL_GRAPH_MEAN_MAX_PACE;
+   public static String        LABEL_GRAPH_MEAN_MAX_POWER;
+   public static String        LABEL_GRAPH_MEAN_MAX_PULSE;
    public static String        LABEL_GRAPH_NUMBER_OF_TOURS;
    public static String        LABEL_GRAPH_PACE;
    public static String        LABEL_GRAPH_SPEED;
@@ -63,6 +66,9 @@ public class Messages extends NLS {
    public static String        Statistic_Value_HR_Zone_7_Header1;
    public static String        Statistic_Value_HR_Zone_8_Header1;
    public static String        Statistic_Value_HR_Zone_9_Header1;
+   public static String        Statistic_Value_MeanMax_Duration_Header1;
+   public static String        Statistic_Value_MeanMax_Power_Header1;
+   public static String        Statistic_Value_MeanMax_Pulse_Header1;
    public static String        Statistic_Value_Motion_Distance_Header1;
    public static String        Statistic_Value_Motion_Pace_Header1;
    public static String        Statistic_Value_Motion_Speed_Header1;
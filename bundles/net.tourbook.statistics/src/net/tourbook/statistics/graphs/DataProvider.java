@@ -129,6 +129,13 @@ public abstract class DataProvider {
    static final StatisticValue STAT_VALUE_BATTERY_SOC_START    = new StatisticValue(Messages.Statistic_Value_BatterySoC_Start,                null,   UI.SYMBOL_PERCENTAGE,    VALUE_FORMAT_3D,   3);
    static final StatisticValue STAT_VALUE_BATTERY_SOC_END      = new StatisticValue(Messages.Statistic_Value_BatterySoC_End,                  null,   UI.SYMBOL_PERCENTAGE,    VALUE_FORMAT_3D,   3);
 
+   /*
+    * Mean max
+    */
+   static final StatisticValue STAT_VALUE_MEAN_MAX_DURATION    = new StatisticValue(Messages.Statistic_Value_MeanMax_Duration_Header1,        null,   APP_UNIT_SECONDS_SMALL,  VALUE_FORMAT_10D,     10).withNoSpaceBefore();
+   static final StatisticValue STAT_VALUE_MEAN_MAX_POWER       = new StatisticValue(Messages.Statistic_Value_MeanMax_Power_Header1,           null,   UI.UNIT_POWER_SHORT,     VALUE_FORMAT_6_0F,    6);
+   static final StatisticValue STAT_VALUE_MEAN_MAX_PULSE       = new StatisticValue(Messages.Statistic_Value_MeanMax_Pulse_Header1,           null,   null,                    VALUE_FORMAT_6_0F,    6);
+
 // SET_FORMATTING_ON
 
    static ZonedDateTime calendar8 = ZonedDateTime.now().with(TimeTools.calendarWeek.dayOfWeek(), 1);
@@ -19,11 +19,15 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
 
 import net.tourbook.common.UI;
 import net.tourbook.common.util.SQL;
 import net.tourbook.data.TourPerson;
 import net.tourbook.database.TourDatabase;
+import net.tourbook.database.TourDayAggregates;
+import net.tourbook.database.TourDayAggregates.DayAggregate;
 import net.tourbook.tag.tour.filter.TourTagFilterManager;
 import net.tourbook.tag.tour.filter.TourTagFilterSqlJoinBuilder;
 import net.tourbook.ui.SQLFilter;
@@ -66,6 +70,14 @@ public class DataProvider_HrZone_Month extends DataProvider {
 
          _monthData = new TourStatisticData_MonthHrZones();
 
+         if (TourDayAggregates.isAppFilterSupported()) {
+
+            // summarize the precomputed day aggregates, this is much faster than summarizing all tours
+            _monthData.hrZoneValues = loadHrZones_FromDayAggregates(lastYear, numYears);
+
+            return _monthData;
+         }
+
          String fromTourData;
 
          final SQLFilter sqlAppFilter = new SQLFilter(SQLFilter.TAG_FILTER);
@@ -343,4 +355,25 @@ public class DataProvider_HrZone_Month extends DataProvider {
       return statistic_RawStatisticValues;
    }
 
+   private int[][] loadHrZones_FromDayAggregates(final int lastYear, final int numYears) {
+
+      final int firstYear = lastYear - numYears + 1;
+
+      final int[][] dbHrZones = new int[TourDayAggregates.NUM_HR_ZONES][12 * numYears];
+
+      final List<DayAggregate> allDayAggregates = TourDayAggregates.getDayAggregates(
+            LocalDate.of(firstYear, 1, 1),
+            LocalDate.of(lastYear, 12, 31));
+
+      for (final DayAggregate dayAggregate : allDayAggregates) {
+
+         final int monthIndex = (dayAggregate.month - 1) + (dayAggregate.year - firstYear) * 12;
+
+         for (int zoneIndex = 0; zoneIndex < TourDayAggregates.NUM_HR_ZONES; zoneIndex++) {
+            dbHrZones[zoneIndex][monthIndex] += dayAggregate.hrZones[zoneIndex];
+         }
+      }
+
+      return dbHrZones;
+   }
 }
@@ -22,10 +22,13 @@ import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.temporal.TemporalField;
 import java.time.temporal.WeekFields;
+import java.util.List;
 
 import net.tourbook.common.time.TimeTools;
 import net.tourbook.data.TourPerson;
 import net.tourbook.database.TourDatabase;
+import net.tourbook.database.TourDayAggregates;
+import net.tourbook.database.TourDayAggregates.DayAggregate;
 import net.tourbook.tag.tour.filter.TourTagFilterManager;
 import net.tourbook.tag.tour.filter.TourTagFilterSqlJoinBuilder;
 import net.tourbook.ui.SQLFilter;
@@ -282,6 +285,20 @@ public class DataProvider_HrZone_Week extends DataProvider {
 
          _weekData = new TourStatisticData_WeekHrZones();
 
+         if (TourDayAggregates.isAppFilterSupported()) {
+
+            // summarize the precomputed day aggregates, this is much faster than summarizing all tours
+            _weekData.hrZoneValues = loadHrZones_FromDayAggregates(lastYear, numYears, valueLength);
+
+            _weekData.years = allYear_Numbers;
+            _weekData.yearWeeks = allYear_NumWeeks;
+            _weekData.yearDays = allYear_NumDays;
+
+            setStatisticValues();
+
+            return _weekData;
+         }
+
          String sqlFromTourData;
 
          final SQLFilter sqlAppFilter = new SQLFilter(SQLFilter.TAG_FILTER);
@@ -568,4 +585,40 @@ public class DataProvider_HrZone_Week extends DataProvider {
       _weekData.statisticValuesRaw = sb.toString();
 
    }
+
+   private int[][] loadHrZones_FromDayAggregates(final int lastYear, final int numYears, final int numWeeks) {
+
+      final int firstYear = lastYear - numYears + 1;
+
+      final int[][] dbHrZoneValues = new int[TourDayAggregates.NUM_HR_ZONES][numWeeks];
+
+      // the first and last week of a year can contain days from the previous or next year
+      final List<DayAggregate> allDayAggregates = TourDayAggregates.getDayAggregates(
+            LocalDate.of(firstYear, 1, 1).minusWeeks(1),
+            LocalDate.of(lastYear, 12, 31).plusWeeks(1));
+
+      for (final DayAggregate dayAggregate : allDayAggregates) {
+
+         final int weekYear = dayAggregate.weekYear;
+
+         if (weekYear < firstYear || weekYear > lastYear) {
+            continue;
+         }
+
+         // get number of weeks before the week year
+         final int dbYearIndex = weekYear - firstYear;
+         int allWeeks = 0;
+         for (int yearIndex = 0; yearIndex < dbYearIndex; yearIndex++) {
+            allWeeks += allYear_NumWeeks[yearIndex];
+         }
+
+         final int weekIndex = allWeeks + dayAggregate.week - 1;
+
+         for (int zoneIndex = 0; zoneIndex < TourDayAggregates.NUM_HR_ZONES; zoneIndex++) {
+            dbHrZoneValues[zoneIndex][weekIndex] += dayAggregate.hrZones[zoneIndex];
+         }
+      }
+
+      return dbHrZoneValues;
+   }
 }
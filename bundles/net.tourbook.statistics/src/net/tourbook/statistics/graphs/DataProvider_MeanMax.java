@@ -0,0 +1,243 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package net.tourbook.statistics.graphs;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import net.tourbook.common.UI;
+import net.tourbook.data.MeanMaxCurves;
+import net.tourbook.data.TourPerson;
+import net.tourbook.database.TourMeanMax;
+import net.tourbook.ui.TourTypeFilter;
+
+public class DataProvider_MeanMax extends DataProvider {
+
+   /**
+    * Merged curves for each year, a year is only loaded once for the same person and tour type
+    * filter
+    */
+   private final Map<Integer, MeanMaxCurves> _allYearCurves  = new HashMap<>();
+   private final Set<Integer>                _allLoadedYears = new HashSet<>();
+
+   private MeanMaxCurves                     _meanMaxData;
+
+   /**
+    * @param speed
+    *           Speed in m/s
+    * @return Returns the pace in minutes per distance unit or 0 when the speed is not available
+    */
+   static float getPace(final float speed) {
+
+      return speed == 0
+            ? 0
+            : 1000 * UI.UNIT_VALUE_DISTANCE / speed / 60;
+   }
+
+   /**
+    * @param speed
+    *           Speed in m/s
+    * @return Returns the speed in the distance unit per hour
+    */
+   static float getSpeed(final float speed) {
+
+      return speed * 3.6f / UI.UNIT_VALUE_DISTANCE;
+   }
+
+   /**
+    * Get the best efforts of all tours in the years, the curves of each year are cached.
+    *
+    * @param person
+    * @param tourTypeFilter
+    * @param lastYear
+    * @param numYears
+    * @param isForceUpdate
+    * @return
+    */
+   MeanMaxCurves getMeanMaxData(final TourPerson person,
+                                final TourTypeFilter tourTypeFilter,
+                                final int lastYear,
+                                final int numYears,
+                                final boolean isForceUpdate) {
+
+      // don't reload data which are already here
+      if (statistic_ActivePerson == person
+            && statistic_ActiveTourTypeFilter == tourTypeFilter
+            && statistic_LastYear == lastYear
+            && statistic_NumberOfYears == numYears
+            && isForceUpdate == false) {
+
+         return _meanMaxData;
+      }
+
+      // reset cached values
+      statistic_RawStatisticValues = null;
+
+      if (statistic_ActivePerson != person
+            || statistic_ActiveTourTypeFilter != tourTypeFilter
+            || isForceUpdate) {
+
+         // the cached years are filtered with other values or tours are modified
+
+         _allYearCurves.clear();
+         _allLoadedYears.clear();
+      }
+
+      statistic_ActivePerson = person;
+      statistic_ActiveTourTypeFilter = tourTypeFilter;
+
+      statistic_LastYear = lastYear;
+      statistic_NumberOfYears = numYears;
+
+      final int firstYear = lastYear - numYears + 1;
+
+      /*
+       * Load only the years which are not yet loaded
+       */
+      int firstMissingYear = Integer.MAX_VALUE;
+      int lastMissingYear = Integer.MIN_VALUE;
+
+      for (int year = firstYear; year <= lastYear; year++) {
+
+         if (_allLoadedYears.contains(year) == false) {
+
+            firstMissingYear = Math.min(firstMissingYear, year);
+            lastMissingYear = Math.max(lastMissingYear, year);
+         }
+      }
+
+      if (firstMissingYear <= lastMissingYear) {
+
+         // reloading a cached year in this range is harmless because a curve contains only max values
+         _allYearCurves.putAll(TourMeanMax.getYearCurves(firstMissingYear, lastMissingYear));
+
+         for (int year = firstMissingYear; year <= lastMissingYear; year++) {
+            _allLoadedYears.add(year);
+         }
+      }
+
+      /*
+       * Merge all seasons
+       */
+      final MeanMaxCurves meanMaxData = new MeanMaxCurves();
+
+      for (int year = firstYear; year <= lastYear; year++) {
+         meanMaxData.merge(_allYearCurves.get(year));
+      }
+
+      _meanMaxData = meanMaxData;
+
+      return _meanMaxData;
+   }
+
+   public String getRawStatisticValues(final boolean isShowSequenceNumbers) {
+
+      if (_meanMaxData == null) {
+         return null;
+      }
+
+      if (statistic_RawStatisticValues != null && isShowSequenceNumbers == statistic_isShowSequenceNumbers) {
+         return statistic_RawStatisticValues;
+      }
+
+      final StringBuilder sb = new StringBuilder();
+
+      final String headerLine1 = UI.EMPTY_STRING
+
+            + (isShowSequenceNumbers ? STAT_VALUE_SEQUENCE_NUMBER.getHead1() : UI.EMPTY_STRING)
+
+            + STAT_VALUE_MEAN_MAX_DURATION.getHead1()
+
+            + STAT_VALUE_MEAN_MAX_POWER.getHead1()
+            + STAT_VALUE_MEAN_MAX_PULSE.getHead1()
+
+            + STAT_VALUE_MOTION_SPEED.withUnitLabel(UI.UNIT_LABEL_SPEED).getHead1()
+            + STAT_VALUE_MOTION_PACE.withUnitLabel(UI.UNIT_LABEL_PACE).getHead1()
+
+      ;
+
+      final String headerLine2 = UI.EMPTY_STRING
+
+            + (isShowSequenceNumbers ? STAT_VALUE_SEQUENCE_NUMBER.getHead2() : UI.EMPTY_STRING)
+
+            + STAT_VALUE_MEAN_MAX_DURATION.getHead2()
+
+            + STAT_VALUE_MEAN_MAX_POWER.getHead2()
+            + STAT_VALUE_MEAN_MAX_PULSE.getHead2()
+
+            + STAT_VALUE_MOTION_SPEED.getHead2()
+            + STAT_VALUE_MOTION_PACE.getHead2()
+
+      ;
+
+      final String valueFormatting = UI.EMPTY_STRING
+
+            + (isShowSequenceNumbers ? STAT_VALUE_SEQUENCE_NUMBER.getValueFormatting() : VALUE_FORMAT_S)
+
+            + STAT_VALUE_MEAN_MAX_DURATION.getValueFormatting()
+
+            + STAT_VALUE_MEAN_MAX_POWER.getValueFormatting()
+            + STAT_VALUE_MEAN_MAX_PULSE.getValueFormatting()
+
+            + STAT_VALUE_MOTION_SPEED.getValueFormatting()
+            + STAT_VALUE_MOTION_PACE.getValueFormatting()
+
+      ;
+
+      sb.append(headerLine1 + NL);
+      sb.append(headerLine2 + NL);
+
+      final float[] allPower = _meanMaxData.power;
+      final float[] allPulse = _meanMaxData.pulse;
+      final float[] allSpeed = _meanMaxData.speed;
+
+      int sequenceNumber = 0;
+
+      for (int durationIndex = 0; durationIndex < MeanMaxCurves.NUM_DURATIONS; durationIndex++) {
+
+         Object sequenceNumberValue = UI.EMPTY_STRING;
+         if (isShowSequenceNumbers) {
+            sequenceNumberValue = ++sequenceNumber;
+         }
+
+         final float speed = allSpeed == null ? 0 : allSpeed[durationIndex];
+
+         sb.append(String.format(valueFormatting,
+
+               sequenceNumberValue,
+
+               MeanMaxCurves.DURATIONS[durationIndex],
+
+               allPower == null ? 0 : allPower[durationIndex],
+               allPulse == null ? 0 : allPulse[durationIndex],
+
+               getSpeed(speed),
+               getPace(speed)
+
+         ));
+
+         sb.append(NL);
+      }
+
+      // cache values
+      statistic_RawStatisticValues = sb.toString();
+      statistic_isShowSequenceNumbers = isShowSequenceNumbers;
+
+      return statistic_RawStatisticValues;
+   }
+}
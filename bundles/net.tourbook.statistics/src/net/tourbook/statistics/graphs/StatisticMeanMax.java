@@ -0,0 +1,267 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package net.tourbook.statistics.graphs;
+
+import net.tourbook.OtherMessages;
+import net.tourbook.chart.Chart;
+import net.tourbook.chart.ChartDataModel;
+import net.tourbook.chart.ChartDataSerie;
+import net.tourbook.chart.ChartDataXSerie;
+import net.tourbook.chart.ChartDataYSerie;
+import net.tourbook.chart.ChartStatisticSegments;
+import net.tourbook.chart.ChartType;
+import net.tourbook.chart.MinMaxKeeper_YData;
+import net.tourbook.common.UI;
+import net.tourbook.common.color.GraphColorManager;
+import net.tourbook.data.MeanMaxCurves;
+import net.tourbook.data.TourPerson;
+import net.tourbook.statistic.StatisticContext;
+import net.tourbook.statistic.TourbookStatistic;
+import net.tourbook.statistics.Messages;
+import net.tourbook.statistics.StatisticServices;
+import net.tourbook.tour.TourManager;
+import net.tourbook.ui.ChartOptions_Grid;
+import net.tourbook.ui.TourTypeFilter;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.ui.IViewSite;
+
+/**
+ * Displays the best efforts (mean maximal power, pulse and pace) of all tours in the selected
+ * years. The x-axis contains the durations of {@link MeanMaxCurves#DURATIONS} which are spaced
+ * logarithmically.
+ */
+public class StatisticMeanMax extends TourbookStatistic {
+
+   private static final String  UNIT_HOUR           = UI.UNIT_LABEL_TIME;
+   private static final String  UNIT_MINUTE         = net.tourbook.Messages.App_Unit_Minute_Small;
+   private static final String  UNIT_PULSE          = OtherMessages.GRAPH_LABEL_HEARTBEAT_UNIT;
+   private static final String  UNIT_SECOND         = net.tourbook.Messages.App_Unit_Seconds_Small;
+
+   private DataProvider_MeanMax _meanMaxDataProvider = new DataProvider_MeanMax();
+   private MeanMaxCurves        _meanMaxData;
+
+   private TourPerson           _activePerson;
+   private TourTypeFilter       _activeTourTypeFilter;
+   private int                  _currentYear;
+   private int                  _numberOfYears;
+
+   private Chart                _chart;
+
+   private MinMaxKeeper_YData   _minMaxKeeper        = new MinMaxKeeper_YData();
+   private boolean              _isSynchScaleEnabled;
+
+   /**
+    * @param duration
+    *           Duration in seconds
+    * @return Returns the duration with the largest unit, e.g. 90 s is displayed as 1:30 min
+    */
+   private static String formatDuration(final int duration) {
+
+      if (duration < 60) {
+         return duration + UI.SPACE1 + UNIT_SECOND;
+      }
+
+      if (duration < 3600) {
+
+         return duration % 60 == 0
+               ? duration / 60 + UI.SPACE1 + UNIT_MINUTE
+               : UI.format_mm_ss(duration) + UI.SPACE1 + UNIT_MINUTE;
+      }
+
+      return duration % 3600 == 0
+            ? duration / 3600 + UI.SPACE1 + UNIT_HOUR
+            : UI.format_hh_mm(duration) + UI.SPACE1 + UNIT_HOUR;
+   }
+
+   /**
+    * Each duration is a segment which displays the duration as title
+    */
+   private ChartStatisticSegments createChartSegments() {
+
+      final int numDurations = MeanMaxCurves.NUM_DURATIONS;
+
+      final double[] segmentStart = new double[numDurations];
+      final double[] segmentEnd = new double[numDurations];
+      final String[] segmentTitle = new String[numDurations];
+
+      for (int durationIndex = 0; durationIndex < numDurations; durationIndex++) {
+
+         segmentStart[durationIndex] = durationIndex - 0.5;
+         segmentEnd[durationIndex] = durationIndex + 0.5;
+         segmentTitle[durationIndex] = formatDuration(MeanMaxCurves.DURATIONS[durationIndex]);
+      }
+
+      final ChartStatisticSegments chartSegments = new ChartStatisticSegments();
+      chartSegments.segmentStartValue = segmentStart;
+      chartSegments.segmentEndValue = segmentEnd;
+      chartSegments.segmentTitle = segmentTitle;
+
+      return chartSegments;
+   }
+
+   @Override
+   public void createStatisticUI(final Composite parent, final IViewSite viewSite) {
+
+      // chart widget page
+      _chart = new Chart(parent, SWT.FLAT);
+      _chart.setShowZoomActions(true);
+      _chart.setToolBarManager(viewSite.getActionBars().getToolBarManager(), false);
+   }
+
+   private void createYData(final ChartDataModel chartModel,
+                            final float[] values,
+                            final String title,
+                            final String unitLabel,
+                            final String graphName) {
+
+      final ChartDataYSerie yData = new ChartDataYSerie(ChartType.LINE, values, true);
+
+      yData.setYTitle(title);
+      yData.setUnitLabel(unitLabel);
+      yData.setAxisUnit(ChartDataSerie.AXIS_UNIT_NUMBER);
+      yData.setShowYSlider(true);
+      yData.setVisibleMinValue(0);
+
+      TourManager.setGraphColors(yData, graphName);
+
+      chartModel.addYData(yData);
+   }
+
+   @Override
+   public int getEnabledGridOptions() {
+
+      return ChartOptions_Grid.GRID_VERTICAL_DISTANCE
+            | ChartOptions_Grid.GRID_IS_SHOW_HORIZONTAL_LINE
+            | ChartOptions_Grid.GRID_IS_SHOW_VERTICAL_LINE;
+   }
+
+   @Override
+   protected String getGridPrefPrefix() {
+      return GRID_MEAN_MAX;
+   }
+
+   @Override
+   public String getRawStatisticValues(final boolean isShowSequenceNumbers) {
+      return _meanMaxDataProvider.getRawStatisticValues(isShowSequenceNumbers);
+   }
+
+   @Override
+   public void preferencesHasChanged() {
+
+      updateStatistic(new StatisticContext(_activePerson, _activeTourTypeFilter, _currentYear, _numberOfYears));
+   }
+
+   @Override
+   public void setSynchScale(final boolean isSynchScaleEnabled) {
+
+      if (!isSynchScaleEnabled) {
+
+         // reset when it's disabled
+
+         _minMaxKeeper.resetMinMax();
+      }
+
+      _isSynchScaleEnabled = isSynchScaleEnabled;
+   }
+
+   private void updateChart() {
+
+      final int numDurations = MeanMaxCurves.NUM_DURATIONS;
+
+      final ChartDataModel chartModel = new ChartDataModel(ChartType.LINE);
+
+      // set the x-axis, each duration has the same width
+      final double[] allDurationIndices = new double[numDurations];
+      for (int durationIndex = 0; durationIndex < numDurations; durationIndex++) {
+         allDurationIndices[durationIndex] = durationIndex;
+      }
+
+      final ChartDataXSerie xData = new ChartDataXSerie(allDurationIndices);
+      xData.setAxisUnit(ChartDataSerie.AXIS_UNIT_NUMBER);
+      xData.setChartSegments(createChartSegments());
+      chartModel.setXData(xData);
+
+      /*
+       * Set the y-axis, the curves of tours without power, pulse or distance are not available
+       */
+      final float[] allPower = _meanMaxData.power == null ? new float[numDurations] : _meanMaxData.power;
+      final float[] allPulse = _meanMaxData.pulse == null ? new float[numDurations] : _meanMaxData.pulse;
+      final float[] allPace = new float[numDurations];
+
+      if (_meanMaxData.speed != null) {
+         for (int durationIndex = 0; durationIndex < numDurations; durationIndex++) {
+            allPace[durationIndex] = DataProvider_MeanMax.getPace(_meanMaxData.speed[durationIndex]);
+         }
+      }
+
+      createYData(chartModel,
+            allPower,
+            Messages.LABEL_GRAPH_MEAN_MAX_POWER,
+            UI.UNIT_POWER_SHORT,
+            GraphColorManager.PREF_GRAPH_POWER);
+
+      createYData(chartModel,
+            allPulse,
+            Messages.LABEL_GRAPH_MEAN_MAX_PULSE,
+            UNIT_PULSE,
+            GraphColorManager.PREF_GRAPH_HEARTBEAT);
+
+      createYData(chartModel,
+            allPace,
+            Messages.LABEL_GRAPH_MEAN_MAX_PACE,
+            UI.UNIT_LABEL_PACE,
+            GraphColorManager.PREF_GRAPH_PACE);
+
+      if (_isSynchScaleEnabled) {
+         _minMaxKeeper.setMinMaxValues(chartModel);
+      }
+
+      StatisticServices.updateChartProperties(_chart, getGridPrefPrefix());
+
+      // show the data in the chart
+      _chart.updateChart(chartModel, false, true);
+   }
+
+   @Override
+   public void updateStatistic(final StatisticContext statContext) {
+
+      _activePerson = statContext.appPerson;
+      _activeTourTypeFilter = statContext.appTourTypeFilter;
+      _currentYear = statContext.statSelectedYear;
+      _numberOfYears = statContext.statNumberOfYears;
+
+      _meanMaxData = _meanMaxDataProvider.getMeanMaxData(
+            statContext.appPerson,
+            statContext.appTourTypeFilter,
+            statContext.statSelectedYear,
+            statContext.statNumberOfYears,
+            isDataDirtyWithReset() || statContext.isRefreshData);
+
+      // reset min/max values
+      if (_isSynchScaleEnabled == false && statContext.isRefreshData) {
+         _minMaxKeeper.resetMinMax();
+      }
+
+      updateChart();
+   }
+
+   @Override
+   public void updateToolBar() {
+      _chart.fillToolbar(true);
+   }
+}
@@ -66,12 +66,7 @@ public class StravaUploaderTests {
       _prefStore.setValue(Preferences.STRAVA_ADDWEATHERICON_IN_TITLE, true);
 
       httpClientMock = new HttpClientMock();
-      final String passeurResponse = Comparison.readFileContent(STRAVA_FILE_PATH
-            + "PasseurResponse.json"); //$NON-NLS-1$
-      httpClientMock.onPost(
-            OAUTH_PASSEUR_APP_URL_TOKEN)
-            .doReturn(passeurResponse)
-            .withStatus(201);
+      mockPasseurResponse();
 
       final Field field = StravaUploader.class.getDeclaredField("_httpClient"); //$NON-NLS-1$
       field.setAccessible(true);
@@ -98,6 +93,16 @@ public class StravaUploaderTests {
       FormatManager.updateDisplayFormats();
    }
 
+   private static void mockPasseurResponse() {
+
+      final String passeurResponse = Comparison.readFileContent(STRAVA_FILE_PATH
+            + "PasseurResponse.json"); //$NON-NLS-1$
+      httpClientMock.onPost(
+            OAUTH_PASSEUR_APP_URL_TOKEN)
+            .doReturn(passeurResponse)
+            .withStatus(201);
+   }
+
    @AfterEach
    public void cleanUpEach() {
       TourLogManager.clear();
@@ -173,4 +178,34 @@ public class StravaUploaderTests {
       assertTrue(logs.stream().map(Object::toString).anyMatch(log -> log.contains(
             "message      = 7/4/2020, 5:00 AM -> Upload Id: \"6877121234\". Creation Activity Status: \"Your activity is still being processed.\"\n")));//$NON-NLS-1$
    }
+
+   @Test
+   void testTourUpload_TooManyRequests() {
+
+      // count only the requests of this test
+      httpClientMock.reset();
+      mockPasseurResponse();
+      _prefStore.setValue(Preferences.STRAVA_ACCESSTOKEN_EXPIRES_AT, 0);
+
+      final String stravaResponse = Comparison.readFileContent(STRAVA_FILE_PATH
+            + "LongsPeak-StravaResponse.json"); //$NON-NLS-1$
+      httpClientMock.onPost(
+            "https://www.strava.com/api/v3/uploads") //$NON-NLS-1$
+            .doReturnStatus(429)
+            .withHeader("Retry-After", "0") //$NON-NLS-1$ //$NON-NLS-2$
+            .doReturn(stravaResponse)
+            .withStatus(201);
+
+      final TourData tour = Initializer.importTour();
+
+      selectedTours.add(tour);
+      stravaUploader.uploadTours(selectedTours);
+
+      // the upload is retried after the "Too many requests" response
+      httpClientMock.verify().post("https://www.strava.com/api/v3/uploads").called(2); //$NON-NLS-1$
+
+      final List<?> logs = TourLogManager.getLogs();
+      assertTrue(logs.stream().map(Object::toString).anyMatch(log -> log.contains(
+            "message      = 7/4/2020, 5:00 AM -> Upload Id: \"6877121234\". Creation Activity Status: \"Your activity is still being processed.\"\n")));//$NON-NLS-1$
+   }
 }
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package common.time;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import com.skedgo.converter.TimezoneMapper;
+
+import java.util.Random;
+
+import net.tourbook.common.time.TimeZoneGrid;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares {@link TimeZoneGrid} with the {@link TimezoneMapper}, the speedup can be measured with
+ * {@link #testBenchmark()}
+ */
+public class TimeZoneGridTests {
+
+   private static final int NUM_POSITIONS = 1_000_000;
+
+   private static double[]  _allLatitudes;
+   private static double[]  _allLongitudes;
+
+   @BeforeAll
+   static void initAll() {
+
+      assertNotNull(TimeZoneGrid.getInstance());
+
+      final Random random = new Random(0);
+
+      _allLatitudes = new double[NUM_POSITIONS];
+      _allLongitudes = new double[NUM_POSITIONS];
+
+      for (int positionIndex = 0; positionIndex < NUM_POSITIONS; positionIndex++) {
+
+         if (positionIndex % 2 == 0) {
+
+            _allLatitudes[positionIndex] = random.nextDouble() * 180 - 90;
+            _allLongitudes[positionIndex] = random.nextDouble() * 360 - 180;
+
+         } else {
+
+            // positions at the cell borders
+            _allLatitudes[positionIndex] = Math.round((random.nextDouble() * 180 - 90) * 10) / 10.0 + (random.nextInt(3) - 1) * 1e-9;
+            _allLongitudes[positionIndex] = Math.round((random.nextDouble() * 360 - 180) * 10) / 10.0 + (random.nextInt(3) - 1) * 1e-9;
+         }
+      }
+   }
+
+   private long runLookup(final boolean isGrid) {
+
+      final long startTime = System.nanoTime();
+
+      for (int positionIndex = 0; positionIndex < NUM_POSITIONS; positionIndex++) {
+
+         final double latitude = _allLatitudes[positionIndex];
+         final double longitude = _allLongitudes[positionIndex];
+
+         final String zoneId = isGrid
+               ? TimeZoneGrid.getTimeZoneId(latitude, longitude)
+               : TimezoneMapper.latLngToTimezoneString(latitude, longitude);
+
+         assertNotNull(zoneId);
+      }
+
+      return System.nanoTime() - startTime;
+   }
+
+   /**
+    * This benchmark only prints the timings, it is disabled so that it does not slow down the build and
+    * can be run manually.
+    */
+   @Disabled("Benchmark which is run manually") //$NON-NLS-1$
+   @Test
+   void testBenchmark() {
+
+      // warm up
+      runLookup(false);
+      runLookup(true);
+
+      final long mapperTime = runLookup(false);
+      final long gridTime = runLookup(true);
+
+      System.out.println(String.format("TimezoneMapper: %d ms  TimeZoneGrid: %d ms  speedup: %.1fx  (%d positions)", //$NON-NLS-1$
+            mapperTime / 1_000_000,
+            gridTime / 1_000_000,
+            (double) mapperTime / gridTime,
+            NUM_POSITIONS));
+   }
+
+   @Test
+   void testEdgePositions() {
+
+      final double[][] allPositions = {
+            { 90, 180 },
+            { -90, -180 },
+            { 90, -180 },
+            { -90, 180 },
+            { 0, 0 },
+            { 91, 0 },
+            { 0, -181 },
+            { Double.NaN, 0 } };
+
+      for (final double[] position : allPositions) {
+
+         assertEquals(
+               TimezoneMapper.latLngToTimezoneString(position[0], position[1]),
+               TimeZoneGrid.getTimeZoneId(position[0], position[1]));
+      }
+   }
+
+   @Test
+   void testSameTimeZoneAsMapper() {
+
+      for (int positionIndex = 0; positionIndex < NUM_POSITIONS; positionIndex++) {
+
+         final double latitude = _allLatitudes[positionIndex];
+         final double longitude = _allLongitudes[positionIndex];
+
+         assertEquals(
+               TimezoneMapper.latLngToTimezoneString(latitude, longitude),
+               TimeZoneGrid.getTimeZoneId(latitude, longitude),
+               latitude + " " + longitude); //$NON-NLS-1$
+      }
+   }
+}
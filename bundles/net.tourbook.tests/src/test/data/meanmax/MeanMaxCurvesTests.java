@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package data.meanmax;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Random;
+
+import net.tourbook.data.MeanMaxCurves;
+
+import org.junit.jupiter.api.Test;
+
+public class MeanMaxCurvesTests {
+
+   /**
+    * Computes the curve by checking all windows of each duration
+    */
+   private static float[] computeBruteForce(final float[] secondValues) {
+
+      final float[] curve = new float[MeanMaxCurves.NUM_DURATIONS];
+
+      for (int durationIndex = 0; durationIndex < MeanMaxCurves.NUM_DURATIONS; durationIndex++) {
+
+         final int duration = MeanMaxCurves.DURATIONS[durationIndex];
+
+         if (duration > secondValues.length) {
+            break;
+         }
+
+         double maxAvg = Double.NEGATIVE_INFINITY;
+
+         for (int start = 0; start + duration <= secondValues.length; start++) {
+
+            double sum = 0;
+            for (int second = start; second < start + duration; second++) {
+               sum += secondValues[second];
+            }
+
+            maxAvg = Math.max(maxAvg, sum / duration);
+         }
+
+         curve[durationIndex] = (float) maxAvg;
+      }
+
+      return curve;
+   }
+
+   @Test
+   void testDistance() {
+
+      // 10 m/s for 100 s, then 5 m/s for 100 s, recorded every 2 s
+      final int numSlices = 101;
+
+      final int[] timeSerie = new int[numSlices];
+      final float[] distanceSerie = new float[numSlices];
+
+      for (int sliceIndex = 1; sliceIndex < numSlices; sliceIndex++) {
+
+         timeSerie[sliceIndex] = sliceIndex * 2;
+         distanceSerie[sliceIndex] = distanceSerie[sliceIndex - 1] + (sliceIndex <= 50 ? 20 : 10);
+      }
+
+      final float[] speedCurve = MeanMaxCurves.computeCurve_Distance(timeSerie, distanceSerie);
+
+      // 1 s ... 100 s
+      for (int durationIndex = 0; MeanMaxCurves.DURATIONS[durationIndex] <= 90; durationIndex++) {
+         assertEquals(10, speedCurve[durationIndex], 0.001);
+      }
+
+      // 180 s = 100 s * 10 m/s + 80 s * 5 m/s
+      assertEquals(1400 / 180f, speedCurve[13], 0.001);
+
+      // longer than the tour
+      assertEquals(0, speedCurve[14]);
+   }
+
+   @Test
+   void testMerge() {
+
+      final MeanMaxCurves curves1 = new MeanMaxCurves();
+      final MeanMaxCurves curves2 = new MeanMaxCurves();
+
+      curves1.power = new float[MeanMaxCurves.NUM_DURATIONS];
+      curves2.power = new float[MeanMaxCurves.NUM_DURATIONS];
+      curves2.pulse = new float[MeanMaxCurves.NUM_DURATIONS];
+
+      curves1.power[0] = 500;
+      curves1.power[1] = 100;
+      curves2.power[0] = 300;
+      curves2.power[1] = 400;
+      curves2.pulse[0] = 180;
+
+      curves1.merge(curves2);
+
+      assertEquals(500, curves1.power[0]);
+      assertEquals(400, curves1.power[1]);
+      assertEquals(180, curves1.pulse[0]);
+      assertNull(curves1.speed);
+
+      // the merged curve must not be shared
+      curves1.pulse[0] = 0;
+      assertEquals(180, curves2.pulse[0]);
+
+      assertArrayEquals(curves1.power, MeanMaxCurves.fromBytes(MeanMaxCurves.toBytes(curves1.power)));
+   }
+
+   @Test
+   void testValues() {
+
+      final Random random = new Random(0);
+
+      // 2 hours with 1 second recording
+      final int numSlices = 7201;
+
+      final int[] timeSerie = new int[numSlices];
+      final float[] powerSerie = new float[numSlices];
+      final float[] secondValues = new float[numSlices - 1];
+
+      for (int sliceIndex = 1; sliceIndex < numSlices; sliceIndex++) {
+
+         timeSerie[sliceIndex] = sliceIndex;
+         powerSerie[sliceIndex] = random.nextInt(400);
+
+         secondValues[sliceIndex - 1] = powerSerie[sliceIndex];
+      }
+
+      final float[] expectedCurve = computeBruteForce(secondValues);
+      final float[] powerCurve = MeanMaxCurves.computeCurve_Values(timeSerie, powerSerie, true);
+
+      assertArrayEquals(expectedCurve, powerCurve, 0.01f);
+   }
+
+   @Test
+   void testValues_WithGap() {
+
+      // 60 s with 300 W, 60 s gap, 60 s with 300 W
+      final int numSlices = 122;
+
+      final int[] timeSerie = new int[numSlices];
+      final float[] powerSerie = new float[numSlices];
+
+      for (int sliceIndex = 0; sliceIndex < numSlices; sliceIndex++) {
+
+         timeSerie[sliceIndex] = sliceIndex <= 60 ? sliceIndex : sliceIndex + 59;
+         powerSerie[sliceIndex] = 300;
+      }
+
+      final float[] powerCurve = MeanMaxCurves.computeCurve_Values(timeSerie, powerSerie, true);
+
+      // 60 s
+      assertEquals(300, powerCurve[10], 0.001);
+
+      // 180 s contains the gap with 0 W
+      assertEquals(200, powerCurve[13], 0.001);
+   }
+}
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package weather;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.pgssoft.httpclient.HttpClientMock;
+
+import java.lang.reflect.Field;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+
+import net.tourbook.common.time.TimeTools;
+import net.tourbook.data.TourData;
+import net.tourbook.weather.HistoricalWeatherRetriever;
+import net.tourbook.weather.WeatherResponseCache;
+import net.tourbook.weather.WeatherUtils;
+import net.tourbook.weather.openweathermap.OpenWeatherMapRetriever;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import utils.Comparison;
+import utils.FilesUtils;
+import utils.Initializer;
+
+/**
+ * Tests the weather response cache with a stubbed weather provider.
+ */
+public class WeatherResponseCacheTests {
+
+   private static final String OPENWEATHERMAP_URL       = WeatherUtils.OAUTH_PASSEUR_APP_URL
+         + "/openweathermap/timemachine?units=metric&lat=40.263996&lon=-105.58854099999999&lang=en&dt=1656720000"; //$NON-NLS-1$
+
+   private static final String OPENWEATHERMAP_FILE_PATH =
+         FilesUtils.rootPath + "data/weather/openweathermap/files/";                                                //$NON-NLS-1$
+
+   @TempDir
+   Path                        cacheFolder;
+
+   HttpClientMock              httpClientMock;
+
+   private TourData createTour() {
+
+      final TourData tour = Initializer.importTour();
+
+      //Tuesday, July 2, 2022 12:00:00 AM
+      tour.setTourStartTime(ZonedDateTime.of(2022, 7, 2, 0, 0, 0, 0, TimeTools.UTC));
+
+      //We set the current time elapsed to trigger the computation of the new end time
+      tour.setTourDeviceTime_Elapsed(tour.getTourDeviceTime_Elapsed());
+
+      return tour;
+   }
+
+   @BeforeEach
+   void initEach() throws NoSuchFieldException, SecurityException, IllegalArgumentException, IllegalAccessException {
+
+      httpClientMock = new HttpClientMock();
+
+      final Field field = HistoricalWeatherRetriever.class.getDeclaredField("httpClient"); //$NON-NLS-1$
+      field.setAccessible(true);
+      field.set(null, httpClientMock);
+   }
+
+   @Test
+   void testFailedResponseIsNotCached() {
+
+      httpClientMock.onGet(OPENWEATHERMAP_URL).doReturnStatus(500);
+
+      final WeatherResponseCache responseCache = new WeatherResponseCache(cacheFolder);
+
+      for (int retrievalIndex = 0; retrievalIndex < 2; retrievalIndex++) {
+
+         final OpenWeatherMapRetriever retriever = new OpenWeatherMapRetriever(createTour());
+         retriever.setResponseCache(responseCache);
+
+         assertFalse(retriever.retrieveHistoricalWeatherData());
+      }
+
+      httpClientMock.verify().get(OPENWEATHERMAP_URL).called(2);
+   }
+
+   @Test
+   void testResponseIsRequestedOnlyOnce() {
+
+      final String openWeatherMapResponse = Comparison.readFileContent(OPENWEATHERMAP_FILE_PATH
+            + "LongsPeak-Manual-OpenWeatherMapResponse-1656720000.json"); //$NON-NLS-1$
+
+      httpClientMock.onGet(OPENWEATHERMAP_URL).doReturn(openWeatherMapResponse);
+
+      final TourData tour1 = createTour();
+      final TourData tour2 = createTour();
+
+      final OpenWeatherMapRetriever retriever1 = new OpenWeatherMapRetriever(tour1);
+      retriever1.setResponseCache(new WeatherResponseCache(cacheFolder));
+
+      assertTrue(retriever1.retrieveHistoricalWeatherData());
+
+      // a new cache instance is reading the persisted response
+      final WeatherResponseCache responseCache = new WeatherResponseCache(cacheFolder);
+
+      final OpenWeatherMapRetriever retriever2 = new OpenWeatherMapRetriever(tour2);
+      retriever2.setResponseCache(responseCache);
+
+      assertTrue(retriever2.retrieveHistoricalWeatherData());
+
+      httpClientMock.verify().get(OPENWEATHERMAP_URL).called(1);
+
+      assertEquals(tour1.getWeather(), tour2.getWeather());
+      assertEquals(tour1.getWeather_Temperature_Average(), tour2.getWeather_Temperature_Average());
+   }
+}
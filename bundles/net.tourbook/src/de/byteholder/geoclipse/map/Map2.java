@@ -71,7 +71,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -328,7 +327,6 @@ public class Map2 extends Canvas {
    private final Cursor                  _cursorSelect;
 
    private final AtomicInteger           _redrawMapCounter        = new AtomicInteger();
-   private final AtomicInteger           _overlayRunnableCounter  = new AtomicInteger();
 
    private boolean                       _isLeftMouseButtonPressed;
    private boolean                       _isMapPanned;
@@ -377,11 +375,10 @@ public class Map2 extends Canvas {
    private OverlayImageCache                          _overlayImageCache;
 
    /**
-    * This queue contains tiles which overlay image must be painted
+    * This queue contains tiles which overlay image must be painted, tiles near the viewport center
+    * are painted first
     */
-   private final ConcurrentLinkedQueue<Tile>          _tileOverlayPaintQueue     = new ConcurrentLinkedQueue<>();
-
-   private boolean                                    _isRunningDrawOverlay;
+   private final OverlayPaintQueue                    _tileOverlayPaintQueue     = new OverlayPaintQueue();
 
    private String                                     _overlayKey;
 
@@ -504,6 +501,20 @@ public class Map2 extends Canvas {
    private ArrayList<Long>  _allHoveredTourIds                 = new ArrayList<>();
    private IntArrayList     _allHoveredSerieIndices            = new IntArrayList();
 
+   /**
+    * Reused buffer for the item indices of the hovered rectangles in a tile
+    */
+   private IntArrayList     _allHoveredItems                   = new IntArrayList();
+
+   /*
+    * Hover lookup statistics
+    */
+   private long             _stat_HoverLookup_Num;
+   private long             _stat_HoverLookup_Sum;
+   private long             _stat_HoverLookup_Max;
+   private long             _stat_HoverLookup_Last;
+   private int              _stat_HoverLookup_NumItems;
+
    private long             _hovered_SelectedTourId            = -1;
    private int              _hovered_SelectedSerieIndex_Front  = -1;
    private int              _hovered_SelectedSerieIndex_Behind = -1;
@@ -1364,87 +1375,6 @@ public class Map2 extends Canvas {
       return null;
    }
 
-   /**
-    * Find a more precise hovered position
-    *
-    * @param hoveredTourId
-    * @param devMouseTileY
-    * @param devMouseTileX
-    * @param devHoveredTileY
-    * @param devHoveredTileX
-    * @param allPainted_HoveredRectangle
-    * @param allPainted_HoveredTourId
-    * @param allPainted_HoveredSerieIndices
-    * @return
-    */
-   private int getHoveredValuePointIndex(final Long hoveredTourId,
-                                         final int devMouseTileX,
-                                         final int devMouseTileY,
-                                         final int devHoveredTileX,
-                                         final int devHoveredTileY,
-                                         final Rectangle[] allPainted_HoveredRectangle,
-                                         final long[] allPainted_HoveredTourId,
-                                         final int[] allPainted_HoveredSerieIndices) {
-
-      /*
-       * Get indices which are containing the hovered tour id
-       */
-      int firstPaintIndex = -1;
-      int lastPaintIndex = -1;
-
-      for (int paintIndex = 0; paintIndex < allPainted_HoveredTourId.length; paintIndex++) {
-
-         final long paintedTourId = allPainted_HoveredTourId[paintIndex];
-
-         if (firstPaintIndex == -1 && paintedTourId == hoveredTourId) {
-
-            firstPaintIndex = lastPaintIndex = paintIndex;
-
-         } else if (paintedTourId == hoveredTourId) {
-
-            lastPaintIndex = paintIndex;
-
-         } else if (lastPaintIndex != -1) {
-
-            // there are no further positions for the hovered tour
-
-            break;
-         }
-      }
-
-      /*
-       * Find index with the smallest x/y diff value
-       */
-      int minDiff = Integer.MAX_VALUE;
-      int minHoverIndex = 0;
-
-      int hoverIndex;
-
-      for (hoverIndex = firstPaintIndex; hoverIndex <= lastPaintIndex; hoverIndex++) {
-
-         final Rectangle painted_HoveredRectangle = allPainted_HoveredRectangle[hoverIndex];
-
-         final int paintedHovered_CenterX = painted_HoveredRectangle.x + painted_HoveredRectangle.width / 2;
-         final int paintedHovered_CenterY = painted_HoveredRectangle.y + painted_HoveredRectangle.height / 2;
-
-         int diffX = devMouseTileX - paintedHovered_CenterX;
-         int diffY = devMouseTileY - paintedHovered_CenterY;
-
-         diffX = diffX < 0 ? -diffX : diffX;
-         diffY = diffY < 0 ? -diffY : diffY;
-
-         final int allDiff = diffX + diffY;
-
-         if (allDiff < minDiff) {
-
-            minDiff = allDiff;
-            minHoverIndex = allPainted_HoveredSerieIndices[hoverIndex];
-         }
-      }
-
-      return minHoverIndex;
-   }
-
    /**
     * @return Returns the legend of the map
     */
@@ -1502,6 +1432,30 @@ public class Map2 extends Canvas {
       return _overlayKey + tile.getTileKey(xOffset, yOffset, projectionId);
    }
 
+   /**
+    * @return Returns statistics of the overlay paint queue, e.g. how long tiles are waiting until
+    *         their overlay is painted
+    */
+   public String getOverlayQueueStatistics() {
+      return _tileOverlayPaintQueue.getStatistics();
+   }
+
+   /**
+    * @return Returns statistics of the lookup for the hovered tour
+    */
+   public String getHoverStatistics() {
+
+      final long avgLookup = _stat_HoverLookup_Num == 0 ? 0 : _stat_HoverLookup_Sum / _stat_HoverLookup_Num;
+
+      return String.format("Hover lookup:  last %d ns  avg %d ns  max %d ns  lookups %d  rectangles in tile %d", //$NON-NLS-1$
+
+            _stat_HoverLookup_Last,
+            avgLookup,
+            _stat_HoverLookup_Max,
+            _stat_HoverLookup_Num,
+            _stat_HoverLookup_NumItems);
+   }
+
    private PoiToolTip getPoiTooltip() {
 
       if (_poi_Tooltip == null) {
@@ -2391,9 +2345,7 @@ public class Map2 extends Canvas {
 
       int numPrevHoveredTours;
 
-      Rectangle[] allPainted_HoveredRectangle = null;
-      long[] allPainted_HoveredTourId = null;
-      int[] allPainted_HoveredSerieIndices = null;
+      TileHoverIndex hoverIndex = null;
 
       int devMouseTileX = 0;
       int devMouseTileY = 0;
@@ -2406,47 +2358,38 @@ public class Map2 extends Canvas {
 
          Tile hoveredTile = null;
 
-         int hoveredTileIndex_X = 0;
-         int hoveredTileIndex_Y = 0;
-
          final int devMouseX = _mouseMove_DevPosition_X;
          final int devMouseY = _mouseMove_DevPosition_Y;
 
          final Tile[][] allPaintedTiles = _allPaintedTiles;
 
          /*
-          * Get tile which is hovered
+          * Get tile which is hovered, the tile index is computed from the mouse position
           */
-         tileLoop:
+         final int worldMouseX = devMouseX + _worldPixel_TopLeft_Viewport.x;
+         final int worldMouseY = devMouseY + _worldPixel_TopLeft_Viewport.y;
+
+         final int tilePixelSize = Math.max(1, _tilePixelSize);
 
-         for (int tilePosX = _tilePos_MinX; tilePosX <= _tilePos_MaxX; tilePosX++) {
+         final int tilePosX = Math.floorDiv(worldMouseX, tilePixelSize);
+         final int tilePosY = Math.floorDiv(worldMouseY, tilePixelSize);
 
-            hoveredTileIndex_Y = 0;
+         if (allPaintedTiles != null
+               && tilePosX >= _tilePos_MinX && tilePosX <= _tilePos_MaxX
+               && tilePosY >= _tilePos_MinY && tilePosY <= _tilePos_MaxY) {
 
-            for (int tilePosY = _tilePos_MinY; tilePosY <= _tilePos_MaxY; tilePosY++) {
+            final int hoveredTileIndex_X = tilePosX - _tilePos_MinX;
+            final int hoveredTileIndex_Y = tilePosY - _tilePos_MinY;
+
+            if (hoveredTileIndex_X < allPaintedTiles.length
+                  && hoveredTileIndex_Y < allPaintedTiles[hoveredTileIndex_X].length) {
 
                // convert tile world position into device position
                devHoveredTileX = tilePosX * _tilePixelSize - _worldPixel_TopLeft_Viewport.x;
                devHoveredTileY = tilePosY * _tilePixelSize - _worldPixel_TopLeft_Viewport.y;
 
-               final int devTileXNext = devHoveredTileX + _tilePixelSize;
-               final int devTileYNext = devHoveredTileY + _tilePixelSize;
-
-               if (devMouseX >= devHoveredTileX && devMouseX < devTileXNext) {
-                  if (devMouseY >= devHoveredTileY && devMouseY < devTileYNext) {
-
-                     // this is the tile which is hovered with the mouse
-
-                     hoveredTile = allPaintedTiles[hoveredTileIndex_X][hoveredTileIndex_Y];
-
-                     break tileLoop;
-                  }
-               }
-
-               hoveredTileIndex_Y++;
+               hoveredTile = allPaintedTiles[hoveredTileIndex_X][hoveredTileIndex_Y];
             }
-
-            hoveredTileIndex_X++;
          }
 
          numPrevHoveredTours = _allHoveredTourIds.size();
@@ -2462,8 +2405,8 @@ public class Map2 extends Canvas {
             return false;
          }
 
-         final List<Rectangle> allPainted_HoveredRectangle_List = hoveredTile.allPainted_HoverRectangle;
-         if (allPainted_HoveredRectangle_List.isEmpty()) {
+         hoverIndex = hoveredTile.allPainted_HoverIndex;
+         if (hoverIndex.isEmpty()) {
 
             // nothing is painted in this tile
             return false;
@@ -2473,64 +2416,41 @@ public class Map2 extends Canvas {
          devMouseTileX = devMouseX - devHoveredTileX;
          devMouseTileY = devMouseY - devHoveredTileY;
 
-         // optimize performance by removing object references
-         allPainted_HoveredTourId = hoveredTile.allPainted_HoverTourID.toArray();
-         allPainted_HoveredSerieIndices = hoveredTile.allPainted_HoverSerieIndices.toArray();
-
-         allPainted_HoveredRectangle = allPainted_HoveredRectangle_List.toArray(new Rectangle[allPainted_HoveredRectangle_List.size()]);
-
-         long painted_HoveredTourId = -1;
-         final int numPainted_HoveredTourId = allPainted_HoveredTourId.length;
-
-         for (int hoverIndex = 0; hoverIndex < numPainted_HoveredTourId; hoverIndex++) {
+         final long lookupStart = System.nanoTime();
 
-            final Rectangle painted_HoveredRectangle = allPainted_HoveredRectangle[hoverIndex];
+         hoverIndex.getHoveredItems(devMouseTileX, devMouseTileY, _allHoveredItems);
 
-            final int paintedHoveredX = painted_HoveredRectangle.x;
-            final int paintedHoveredY = painted_HoveredRectangle.y;
+         final long lookupTime = System.nanoTime() - lookupStart;
 
-            // optimized: painted_HoveredRectangle.contains(devMouseTileX, devMouseTileY)
-            if (devMouseTileX >= paintedHoveredX
-                  && devMouseTileY >= paintedHoveredY
-                  && devMouseTileX < (paintedHoveredX + painted_HoveredRectangle.width)
-                  && devMouseTileY < (paintedHoveredY + painted_HoveredRectangle.height)) {
+         _stat_HoverLookup_Num++;
+         _stat_HoverLookup_Last = lookupTime;
+         _stat_HoverLookup_Sum += lookupTime;
+         _stat_HoverLookup_Max = Math.max(_stat_HoverLookup_Max, lookupTime);
+         _stat_HoverLookup_NumItems = hoverIndex.getNumItems();
 
-               // a tour is hovered
-
-               painted_HoveredTourId = allPainted_HoveredTourId[hoverIndex];
-
-               int devHoveredRect_Center_X = paintedHoveredX + painted_HoveredRectangle.width / 2;
-               int devHoveredRect_Center_Y = paintedHoveredY + painted_HoveredRectangle.height / 2;
-
-               // convert from tile position to device position
-               devHoveredRect_Center_X += devHoveredTileX;
-               devHoveredRect_Center_Y += devHoveredTileY;
-
-               _allHoveredTourIds.add(painted_HoveredTourId);
-               _allHoveredSerieIndices.add(allPainted_HoveredSerieIndices[hoverIndex]);
-               _allHoveredDevPoints.add(new Point(devHoveredRect_Center_X, devHoveredRect_Center_Y));
+         long painted_HoveredTourId = -1;
 
-               // advance to the next tour id
-               int hoverTourIdIndex;
-               for (hoverTourIdIndex = hoverIndex + 1; hoverTourIdIndex < numPainted_HoveredTourId; hoverTourIdIndex++) {
+         for (int hoveredItemIndex = 0; hoveredItemIndex < _allHoveredItems.size(); hoveredItemIndex++) {
 
-                  final long nextPainted_HoveredTourId = allPainted_HoveredTourId[hoverTourIdIndex];
+            final int itemIndex = _allHoveredItems.get(hoveredItemIndex);
+            final long itemTourId = hoverIndex.getTourId(itemIndex);
 
-                  if (nextPainted_HoveredTourId != painted_HoveredTourId) {
+            // keep only the first hovered position of a tour
+            if (itemTourId == painted_HoveredTourId || _allHoveredTourIds.contains(itemTourId)) {
+               continue;
+            }
 
-                     // the next tour id is discovered
+            // a tour is hovered
 
-                     hoverIndex = hoverTourIdIndex;
+            painted_HoveredTourId = itemTourId;
 
-                     break;
-                  }
-               }
+            // convert from tile position to device position
+            final int devHoveredRect_Center_X = hoverIndex.getCenterX(itemIndex) + devHoveredTileX;
+            final int devHoveredRect_Center_Y = hoverIndex.getCenterY(itemIndex) + devHoveredTileY;
 
-               // this must be checked again otherwise the last tour id occurs multiple times
-               if (hoverTourIdIndex >= numPainted_HoveredTourId) {
-                  break;
-               }
-            }
+            _allHoveredTourIds.add(painted_HoveredTourId);
+            _allHoveredSerieIndices.add(hoverIndex.getSerieIndex(itemIndex));
+            _allHoveredDevPoints.add(new Point(devHoveredRect_Center_X, devHoveredRect_Center_Y));
          }
 
       } finally {
@@ -2545,19 +2465,17 @@ public class Map2 extends Canvas {
 
             if (numHoveredSerieIndices == 1) {
 
-               hoveredValuePointIndex = getHoveredValuePointIndex(
+               // find a more precise hovered position
+               hoveredValuePointIndex = hoverIndex.getNearestSerieIndex(
 
                      _allHoveredTourIds.get(0),
 
                      devMouseTileX,
-                     devMouseTileY,
+                     devMouseTileY);
 
-                     devHoveredTileX,
-                     devHoveredTileY,
-
-                     allPainted_HoveredRectangle,
-                     allPainted_HoveredTourId,
-                     allPainted_HoveredSerieIndices);
+               if (hoveredValuePointIndex == -1) {
+                  hoveredValuePointIndex = _allHoveredSerieIndices.get(0);
+               }
 
                // overwrite initial value
                _allHoveredSerieIndices.set(0, hoveredValuePointIndex);
@@ -5168,23 +5086,17 @@ public class Map2 extends Canvas {
 
                try {
 
-                  Thread.sleep(20);
+                  // wait until tiles are queued, this is not polling
+                  _tileOverlayPaintQueue.awaitTile();
 
-                  if (_isRunningDrawOverlay) {
-                     continue;
+                  // delay overlay painting until the map is not redrawn any more
+                  long waitingTime;
+                  while ((waitingTime = _nextOverlayRedrawTime + 50 - System.currentTimeMillis()) > 0) {
+                     Thread.sleep(waitingTime);
                   }
 
-                  // overlay drawing is not running
-
-                  final long currentTime = System.currentTimeMillis();
-
-                  if (currentTime > _nextOverlayRedrawTime + 50) {
-                     if (_tileOverlayPaintQueue.size() > 0) {
-
-                        // create overlay images
-                        paint_Overlay_10_RunThread();
-                     }
-                  }
+                  // create overlay images, this returns when the UI thread has painted them
+                  paint_Overlay_10_RunThread();
 
                } catch (final InterruptedException e) {
                   interrupt();
@@ -5201,43 +5113,28 @@ public class Map2 extends Canvas {
 
    private void paint_Overlay_10_RunThread() {
 
-      final int currentRunnableCounter = _overlayRunnableCounter.incrementAndGet();
-
       if (isDisposed()) {
          return;
       }
 
-      final Runnable uiOverlayRunnable = new Runnable() {
-
-         final int __runnableCounter = currentRunnableCounter;
-
-         @Override
-         public void run() {
-
-            if (isDisposed()) {
-               return;
-            }
-
-            // check if a newer runnable is available
-            if (__runnableCounter != _overlayRunnableCounter.get()) {
-               return;
-            }
+      /*
+       * Overlay images are painted with a GC and must be created in the UI thread, the overlay
+       * thread is waiting until the painting is done, so only one painting runnable is queued
+       */
+      _display.syncExec(() -> {
 
-            _isRunningDrawOverlay = true;
+         if (isDisposed()) {
+            return;
+         }
 
-            try {
+         try {
 
-               paint_Overlay_20_Tiles();
+            paint_Overlay_20_Tiles();
 
-            } catch (final Exception e) {
-               e.printStackTrace();
-            } finally {
-               _isRunningDrawOverlay = false;
-            }
+         } catch (final Exception e) {
+            e.printStackTrace();
          }
-      };
-
-      _display.asyncExec(uiOverlayRunnable);
+      });
    }
 
    private void paint_Overlay_20_Tiles() {
@@ -5248,6 +5145,14 @@ public class Map2 extends Canvas {
 
          checkImageTemplate9Parts();
 
+         // paint tiles near the viewport center first
+         if (_worldPixel_TopLeft_Viewport != null && _tilePixelSize > 0) {
+
+            _tileOverlayPaintQueue.setViewportCenter(
+                  (_worldPixel_TopLeft_Viewport.x + _worldPixel_TopLeft_Viewport.width / 2) / _tilePixelSize,
+                  (_worldPixel_TopLeft_Viewport.y + _worldPixel_TopLeft_Viewport.height / 2) / _tilePixelSize);
+         }
+
          final long startTime = System.currentTimeMillis();
 
          while ((tile = _tileOverlayPaintQueue.poll()) != null) {
@@ -5260,9 +5165,7 @@ public class Map2 extends Canvas {
 
                // cleanup previous positions
                tile.allPainted_Hash.clear();
-               tile.allPainted_HoverRectangle.clear();
-               tile.allPainted_HoverSerieIndices.clear();
-               tile.allPainted_HoverTourID.clear();
+               tile.allPainted_HoverIndex.clear();
 
                /*
                 * Check if a tour, marker or photo is within the current tile
@@ -5346,6 +5249,9 @@ public class Map2 extends Canvas {
       }
       gc1Part.dispose();
 
+      // pack the hover rectangles once when the tile is painted
+      tile.allPainted_HoverIndex.build();
+
       if (isOverlayPainted) {
 
          // overlay is painted
@@ -5403,6 +5309,9 @@ public class Map2 extends Canvas {
             isOverlayPainted = isOverlayPainted || isPainted;
          }
 
+         // pack the hover rectangles once when the tile is painted
+         tile.allPainted_HoverIndex.build();
+
          if (isOverlayPainted) {
 
             tile.setOverlayImageState(OverlayImageState.IMAGE_IS_CREATED);
@@ -6603,6 +6512,19 @@ public class Map2 extends Canvas {
       paint();
    }
 
+   public void resetHoverStatistics() {
+
+      _stat_HoverLookup_Num = 0;
+      _stat_HoverLookup_Sum = 0;
+      _stat_HoverLookup_Max = 0;
+      _stat_HoverLookup_Last = 0;
+      _stat_HoverLookup_NumItems = 0;
+   }
+
+   public void resetOverlayQueueStatistics() {
+      _tileOverlayPaintQueue.resetStatistics();
+   }
+
    /**
     * Reset hovered tour data
     */
@@ -6620,9 +6542,7 @@ public class Map2 extends Canvas {
 
                if (tile != null) {
 
-                  tile.allPainted_HoverRectangle.clear();
-                  tile.allPainted_HoverTourID.clear();
-                  tile.allPainted_HoverSerieIndices.clear();
+                  tile.allPainted_HoverIndex.clear();
                }
             }
          }
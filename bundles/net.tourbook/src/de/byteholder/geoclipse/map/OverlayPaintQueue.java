@@ -0,0 +1,241 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package de.byteholder.geoclipse.map;
+
+import java.util.ArrayList;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Queue for tiles which overlay image must be painted.
+ * <p>
+ * Tiles are retrieved by their distance to the viewport center, so that the visible center of the
+ * map is painted first. When the queue is cleared, all queued tiles are discarded immediately.
+ * <p>
+ * The time between queuing and painting a tile is recorded for debugging.
+ */
+class OverlayPaintQueue {
+
+   private final ReentrantLock        _lock              = new ReentrantLock();
+   private final Condition            _isTileAvailable   = _lock.newCondition();
+
+   private final PriorityQueue<Entry> _queue             = new PriorityQueue<>(
+         (entry1, entry2) -> Long.compare(entry1.distance, entry2.distance));
+
+   private int                        _centerTileX;
+   private int                        _centerTileY;
+
+   /*
+    * Statistics
+    */
+   private long                       _stat_NumDiscarded;
+   private long                       _stat_QueueLatency_Max;
+   private long                       _stat_QueueLatency_Last;
+   private int                        _stat_MaxQueueSize;
+
+   private static class Entry {
+
+      private final Tile tile;
+      private final long queueTime;
+
+      private long       distance;
+
+      private Entry(final Tile tile, final long queueTime) {
+
+         this.tile = tile;
+         this.queueTime = queueTime;
+      }
+   }
+
+   void add(final Tile tile) {
+
+      _lock.lock();
+      try {
+
+         final Entry entry = new Entry(tile, System.nanoTime());
+         entry.distance = getDistance(tile);
+
+         _queue.add(entry);
+
+         _stat_MaxQueueSize = Math.max(_stat_MaxQueueSize, _queue.size());
+
+         _isTileAvailable.signalAll();
+
+      } finally {
+         _lock.unlock();
+      }
+   }
+
+   /**
+    * Waits until a tile is queued
+    *
+    * @throws InterruptedException
+    */
+   void awaitTile() throws InterruptedException {
+
+      _lock.lockInterruptibly();
+      try {
+
+         while (_queue.isEmpty()) {
+            _isTileAvailable.await();
+         }
+
+      } finally {
+         _lock.unlock();
+      }
+   }
+
+   /**
+    * Removes all queued tiles
+    */
+   void clear() {
+
+      _lock.lock();
+      try {
+
+         _stat_NumDiscarded += _queue.size();
+
+         _queue.clear();
+
+      } finally {
+         _lock.unlock();
+      }
+   }
+
+   private long getDistance(final Tile tile) {
+
+      final long diffX = tile.getX() - _centerTileX;
+      final long diffY = tile.getY() - _centerTileY;
+
+      return diffX * diffX + diffY * diffY;
+   }
+
+   /**
+    * @return Returns a text with the queue statistics
+    */
+   String getStatistics() {
+
+      _lock.lock();
+      try {
+
+         return String.format("Overlay queue:  size %d  max size %d  discarded %d\n" //$NON-NLS-1$
+               + "Queue latency:  last %d ms  max %d ms", //$NON-NLS-1$
+
+               _queue.size(),
+               _stat_MaxQueueSize,
+               _stat_NumDiscarded,
+
+               TimeUnit.NANOSECONDS.toMillis(_stat_QueueLatency_Last),
+               TimeUnit.NANOSECONDS.toMillis(_stat_QueueLatency_Max));
+
+      } finally {
+         _lock.unlock();
+      }
+   }
+
+   /**
+    * @return Returns the tile which is nearest to the viewport center or <code>null</code> when
+    *         the queue is empty
+    */
+   Tile poll() {
+
+      _lock.lock();
+      try {
+
+         final Entry entry = _queue.poll();
+
+         if (entry == null) {
+            return null;
+         }
+
+         final long queueLatency = System.nanoTime() - entry.queueTime;
+
+         _stat_QueueLatency_Last = queueLatency;
+         _stat_QueueLatency_Max = Math.max(_stat_QueueLatency_Max, queueLatency);
+
+         return entry.tile;
+
+      } finally {
+         _lock.unlock();
+      }
+   }
+
+   void resetStatistics() {
+
+      _lock.lock();
+      try {
+
+         _stat_NumDiscarded = 0;
+         _stat_QueueLatency_Max = 0;
+         _stat_QueueLatency_Last = 0;
+         _stat_MaxQueueSize = _queue.size();
+
+      } finally {
+         _lock.unlock();
+      }
+   }
+
+   /**
+    * Set the tile in the viewport center, queued tiles are reordered when the center has changed
+    *
+    * @param centerTileX
+    * @param centerTileY
+    */
+   void setViewportCenter(final int centerTileX, final int centerTileY) {
+
+      _lock.lock();
+      try {
+
+         if (centerTileX == _centerTileX && centerTileY == _centerTileY) {
+            return;
+         }
+
+         _centerTileX = centerTileX;
+         _centerTileY = centerTileY;
+
+         if (_queue.isEmpty()) {
+            return;
+         }
+
+         // reorder queue with the new distances
+         final ArrayList<Entry> allEntries = new ArrayList<>(_queue);
+
+         _queue.clear();
+
+         for (final Entry entry : allEntries) {
+
+            entry.distance = getDistance(entry.tile);
+
+            _queue.add(entry);
+         }
+
+      } finally {
+         _lock.unlock();
+      }
+   }
+
+   int size() {
+
+      _lock.lock();
+      try {
+         return _queue.size();
+      } finally {
+         _lock.unlock();
+      }
+   }
+}
@@ -12,7 +12,6 @@ import de.byteholder.geoclipse.mapprovider.ImageDataResources;
 import de.byteholder.geoclipse.mapprovider.MP;
 
 import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.locks.ReentrantLock;
@@ -20,8 +19,6 @@ import java.util.concurrent.locks.ReentrantLock;
 import net.tourbook.common.util.StatusUtil;
 import net.tourbook.data.TourWayPoint;
 
-import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
-import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
 import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
 import org.eclipse.swt.graphics.Device;
 import org.eclipse.swt.graphics.Image;
@@ -196,9 +193,7 @@ public class Tile {
     * The hover rectangles will be set when a tile is painted, the rectangle position is relative to
     * the tile
     */
-   public List<Rectangle>                  allPainted_HoverRectangle    = new ArrayList<>();
-   public LongArrayList                    allPainted_HoverTourID       = new LongArrayList();
-   public IntArrayList                     allPainted_HoverSerieIndices = new IntArrayList();
+   public final TileHoverIndex             allPainted_HoverIndex        = new TileHoverIndex();
 
    /**
     * Hash for all paintings, this is used to optimize performance by reducing number of paintings
@@ -0,0 +1,387 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package de.byteholder.geoclipse.map;
+
+import java.util.Arrays;
+
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+
+/**
+ * Spatial index for the hover rectangles of the tours which are painted into a tile.
+ * <p>
+ * The rectangles are added while the tile is painted, {@link #build()} packs them into a grid of
+ * up to {@link #GRID_CELLS} x {@link #GRID_CELLS} cells where each cell contains the indices of the
+ * rectangles which are overlapping this cell. A hovered position is then tested only against the
+ * rectangles of one cell.
+ * <p>
+ * All data are kept in primitive arrays which are reused when the tile is painted again, so a
+ * lookup does not create any objects.
+ */
+public class TileHoverIndex {
+
+   private static final int GRID_CELLS       = 64;
+   private static final int INITIAL_CAPACITY = 256;
+
+   /*
+    * Painted rectangles, the position is relative to the tile
+    */
+   private int[]            _allX            = new int[INITIAL_CAPACITY];
+   private int[]            _allY            = new int[INITIAL_CAPACITY];
+   private int[]            _allWidth        = new int[INITIAL_CAPACITY];
+   private int[]            _allHeight       = new int[INITIAL_CAPACITY];
+   private long[]           _allTourIds      = new long[INITIAL_CAPACITY];
+   private int[]            _allSerieIndices = new int[INITIAL_CAPACITY];
+
+   private int              _numItems;
+
+   /*
+    * Grid which is created in build()
+    */
+   private boolean          _isBuilt;
+
+   private int              _gridX;
+   private int              _gridY;
+   private int              _cellSize;
+   private int              _numCellsX;
+   private int              _numCellsY;
+
+   /**
+    * Contains for each cell the start index in {@link #_allCellItems}, the last entry contains the
+    * number of all cell items
+    */
+   private int[]            _allCellStart    = new int[0];
+   private int[]            _allCellItems    = new int[0];
+
+   /**
+    * Largest width or height of all rectangles
+    */
+   private int              _maxItemSize;
+
+   /**
+    * Adds a painted rectangle, the index must be built again before it can be queried.
+    *
+    * @param x
+    * @param y
+    * @param width
+    * @param height
+    * @param tourId
+    * @param serieIndex
+    */
+   public void add(final int x, final int y, final int width, final int height, final long tourId, final int serieIndex) {
+
+      if (_numItems == _allX.length) {
+
+         final int newCapacity = _allX.length * 2;
+
+         _allX = Arrays.copyOf(_allX, newCapacity);
+         _allY = Arrays.copyOf(_allY, newCapacity);
+         _allWidth = Arrays.copyOf(_allWidth, newCapacity);
+         _allHeight = Arrays.copyOf(_allHeight, newCapacity);
+         _allTourIds = Arrays.copyOf(_allTourIds, newCapacity);
+         _allSerieIndices = Arrays.copyOf(_allSerieIndices, newCapacity);
+      }
+
+      _allX[_numItems] = x;
+      _allY[_numItems] = y;
+      _allWidth[_numItems] = width;
+      _allHeight[_numItems] = height;
+      _allTourIds[_numItems] = tourId;
+      _allSerieIndices[_numItems] = serieIndex;
+
+      _numItems++;
+
+      _isBuilt = false;
+   }
+
+   /**
+    * Packs all rectangles into the grid, this is done once when the tile is painted.
+    */
+   public void build() {
+
+      if (_isBuilt) {
+         return;
+      }
+
+      _isBuilt = true;
+
+      if (_numItems == 0) {
+
+         _numCellsX = 0;
+         _numCellsY = 0;
+
+         return;
+      }
+
+      /*
+       * Get bounds of all rectangles, they can be outside of the tile when they are painted with
+       * the 9 part image
+       */
+      int minX = Integer.MAX_VALUE;
+      int minY = Integer.MAX_VALUE;
+      int maxX = Integer.MIN_VALUE;
+      int maxY = Integer.MIN_VALUE;
+      int maxItemSize = 0;
+
+      for (int itemIndex = 0; itemIndex < _numItems; itemIndex++) {
+
+         final int x = _allX[itemIndex];
+         final int y = _allY[itemIndex];
+         final int width = _allWidth[itemIndex];
+         final int height = _allHeight[itemIndex];
+
+         minX = Math.min(minX, x);
+         minY = Math.min(minY, y);
+         maxX = Math.max(maxX, x + width);
+         maxY = Math.max(maxY, y + height);
+
+         maxItemSize = Math.max(maxItemSize, Math.max(width, height));
+      }
+
+      final int extent = Math.max(maxX - minX, maxY - minY);
+
+      _gridX = minX;
+      _gridY = minY;
+      _cellSize = Math.max(1, (extent + GRID_CELLS - 1) / GRID_CELLS);
+      _numCellsX = Math.max(1, (maxX - minX + _cellSize - 1) / _cellSize);
+      _numCellsY = Math.max(1, (maxY - minY + _cellSize - 1) / _cellSize);
+      _maxItemSize = maxItemSize;
+
+      final int numCells = _numCellsX * _numCellsY;
+
+      if (_allCellStart.length < numCells + 1) {
+         _allCellStart = new int[numCells + 1];
+      } else {
+         Arrays.fill(_allCellStart, 0, numCells + 1, 0);
+      }
+
+      /*
+       * Count items for each cell
+       */
+      int numCellItems = 0;
+
+      for (int itemIndex = 0; itemIndex < _numItems; itemIndex++) {
+
+         final int firstCellX = getCellX(_allX[itemIndex]);
+         final int firstCellY = getCellY(_allY[itemIndex]);
+         final int lastCellX = getCellX(_allX[itemIndex] + _allWidth[itemIndex] - 1);
+         final int lastCellY = getCellY(_allY[itemIndex] + _allHeight[itemIndex] - 1);
+
+         for (int cellY = firstCellY; cellY <= lastCellY; cellY++) {
+            for (int cellX = firstCellX; cellX <= lastCellX; cellX++) {
+
+               _allCellStart[cellY * _numCellsX + cellX + 1]++;
+               numCellItems++;
+            }
+         }
+      }
+
+      // convert counts into start positions
+      for (int cellIndex = 0; cellIndex < numCells; cellIndex++) {
+         _allCellStart[cellIndex + 1] += _allCellStart[cellIndex];
+      }
+
+      if (_allCellItems.length < numCellItems) {
+         _allCellItems = new int[numCellItems];
+      }
+
+      /*
+       * Fill cells, the items in a cell are in the painting sequence
+       */
+      final int[] allCellFillPos = Arrays.copyOf(_allCellStart, numCells);
+
+      for (int itemIndex = 0; itemIndex < _numItems; itemIndex++) {
+
+         final int firstCellX = getCellX(_allX[itemIndex]);
+         final int firstCellY = getCellY(_allY[itemIndex]);
+         final int lastCellX = getCellX(_allX[itemIndex] + _allWidth[itemIndex] - 1);
+         final int lastCellY = getCellY(_allY[itemIndex] + _allHeight[itemIndex] - 1);
+
+         for (int cellY = firstCellY; cellY <= lastCellY; cellY++) {
+            for (int cellX = firstCellX; cellX <= lastCellX; cellX++) {
+
+               _allCellItems[allCellFillPos[cellY * _numCellsX + cellX]++] = itemIndex;
+            }
+         }
+      }
+   }
+
+   /**
+    * Removes all rectangles, the allocated arrays are kept for the next painting.
+    */
+   public void clear() {
+
+      _numItems = 0;
+      _isBuilt = false;
+   }
+
+   private int getCellX(final int x) {
+
+      final int cellX = (x - _gridX) / _cellSize;
+
+      return cellX < 0 ? 0 : cellX >= _numCellsX ? _numCellsX - 1 : cellX;
+   }
+
+   private int getCellY(final int y) {
+
+      final int cellY = (y - _gridY) / _cellSize;
+
+      return cellY < 0 ? 0 : cellY >= _numCellsY ? _numCellsY - 1 : cellY;
+   }
+
+   /**
+    * @param itemIndex
+    * @return Returns the horizontal center of the rectangle
+    */
+   public int getCenterX(final int itemIndex) {
+      return _allX[itemIndex] + _allWidth[itemIndex] / 2;
+   }
+
+   /**
+    * @param itemIndex
+    * @return Returns the vertical center of the rectangle
+    */
+   public int getCenterY(final int itemIndex) {
+      return _allY[itemIndex] + _allHeight[itemIndex] / 2;
+   }
+
+   /**
+    * Get all rectangles which contain the position.
+    *
+    * @param x
+    * @param y
+    * @param allHoveredItems
+    *           Is filled with the item indices of the hovered rectangles in the painting sequence
+    */
+   public void getHoveredItems(final int x, final int y, final IntArrayList allHoveredItems) {
+
+      allHoveredItems.clear();
+
+      build();
+
+      if (_numItems == 0
+            || x < _gridX || y < _gridY
+            || x >= _gridX + _numCellsX * _cellSize
+            || y >= _gridY + _numCellsY * _cellSize) {
+
+         return;
+      }
+
+      final int cellIndex = getCellY(y) * _numCellsX + getCellX(x);
+
+      final int cellEnd = _allCellStart[cellIndex + 1];
+
+      for (int cellPos = _allCellStart[cellIndex]; cellPos < cellEnd; cellPos++) {
+
+         final int itemIndex = _allCellItems[cellPos];
+
+         final int itemX = _allX[itemIndex];
+         final int itemY = _allY[itemIndex];
+
+         if (x >= itemX
+               && y >= itemY
+               && x < itemX + _allWidth[itemIndex]
+               && y < itemY + _allHeight[itemIndex]) {
+
+            allHoveredItems.add(itemIndex);
+         }
+      }
+   }
+
+   /**
+    * Find the rectangle of a tour which center is nearest to the position. Only rectangles which
+    * are not further away than the largest rectangle are checked, this is sufficient when the
+    * position is within a rectangle of this tour.
+    *
+    * @param tourId
+    * @param x
+    * @param y
+    * @return Returns the serie index of the nearest rectangle or -1 when not available
+    */
+   public int getNearestSerieIndex(final long tourId, final int x, final int y) {
+
+      build();
+
+      if (_numItems == 0) {
+         return -1;
+      }
+
+      final int firstCellX = getCellX(x - _maxItemSize);
+      final int firstCellY = getCellY(y - _maxItemSize);
+      final int lastCellX = getCellX(x + _maxItemSize);
+      final int lastCellY = getCellY(y + _maxItemSize);
+
+      int minDiff = Integer.MAX_VALUE;
+      int minItemIndex = -1;
+
+      for (int cellY = firstCellY; cellY <= lastCellY; cellY++) {
+         for (int cellX = firstCellX; cellX <= lastCellX; cellX++) {
+
+            final int cellIndex = cellY * _numCellsX + cellX;
+            final int cellEnd = _allCellStart[cellIndex + 1];
+
+            for (int cellPos = _allCellStart[cellIndex]; cellPos < cellEnd; cellPos++) {
+
+               final int itemIndex = _allCellItems[cellPos];
+
+               if (_allTourIds[itemIndex] != tourId) {
+                  continue;
+               }
+
+               final int diffX = Math.abs(x - getCenterX(itemIndex));
+               final int diffY = Math.abs(y - getCenterY(itemIndex));
+
+               final int allDiff = diffX + diffY;
+
+               // use the first painted item when the distance is the same
+               if (allDiff < minDiff || allDiff == minDiff && itemIndex < minItemIndex) {
+
+                  minDiff = allDiff;
+                  minItemIndex = itemIndex;
+               }
+            }
+         }
+      }
+
+      return minItemIndex == -1 ? -1 : _allSerieIndices[minItemIndex];
+   }
+
+   /**
+    * @return Returns the number of painted rectangles
+    */
+   public int getNumItems() {
+      return _numItems;
+   }
+
+   /**
+    * @param itemIndex
+    * @return Returns the serie index of the painted rectangle
+    */
+   public int getSerieIndex(final int itemIndex) {
+      return _allSerieIndices[itemIndex];
+   }
+
+   /**
+    * @param itemIndex
+    * @return Returns the tour id of the painted rectangle
+    */
+   public long getTourId(final int itemIndex) {
+      return _allTourIds[itemIndex];
+   }
+
+   public boolean isEmpty() {
+      return _numItems == 0;
+   }
+}
@@ -325,6 +325,7 @@ public class Messages extends NLS {
    public static String        Calendar_Profile_Value_ShowNothing;
    public static String        Calendar_Profile_Value_Speed;
    public static String        Calendar_Profile_Value_Title;
+   public static String        Calendar_Profile_Value_TrainingStressScore;
    public static String        Calendar_Profile_Value_WeatherIcon;
    public static String        Calendar_View_Action_Back;
    public static String        Calendar_View_Action_Back_Tooltip;
@@ -446,6 +447,22 @@ public class Messages extends NLS {
    public static String        Database_Monitor_SetupLucene;
    public static String        Database_Monitor_SetupPooledConnection;
    public static String        Database_Monitor_UpgradeDatabase;
+   public static String        Database_Performance_Button_Refresh;
+   public static String        Database_Performance_Button_Reset;
+   public static String        Database_Performance_Checkbox_CaptureQueryPlans;
+   public static String        Database_Performance_Checkbox_CaptureQueryPlans_Tooltip;
+   public static String        Database_Performance_Checkbox_Profiling;
+   public static String        Database_Performance_Column_Avg;
+   public static String        Database_Performance_Column_Caller;
+   public static String        Database_Performance_Column_Executions;
+   public static String        Database_Performance_Column_Histogram;
+   public static String        Database_Performance_Column_Histogram_Tooltip;
+   public static String        Database_Performance_Column_Max;
+   public static String        Database_Performance_Column_Rows;
+   public static String        Database_Performance_Column_SQL;
+   public static String        Database_Performance_Column_Total;
+   public static String        Database_Performance_Label_PoolWait;
+   public static String        Database_Performance_Label_PoolWait_Tooltip;
 
    public static String        DataImport_ConfirmImport_title;
    public static String        DataImport_Error_file_does_not_exist_msg;
@@ -2398,6 +2415,8 @@ public class Messages extends NLS {
    public static String        Slideout_TourMarkerFilter_Label_GeoFilterArea;
    public static String        Slideout_TourMarkerFilter_Label_GeoFilterNotAvailable;
    public static String        Slideout_TourMarkerFilter_Label_GeoFilter_Tooltip;
+   public static String        Slideout_TourMarkerFilter_Label_TextFilter;
+   public static String        Slideout_TourMarkerFilter_Label_TextFilter_Tooltip;
    public static String        Slideout_TourMarkerFilter_Label_Title;
 
    public static String        Slideout_TourTagFilter_Action_AddProfile_Tooltip;
@@ -2444,6 +2463,7 @@ public class Messages extends NLS {
    public static String        Tag_Manager_LogInfo_DeletedTags;
 
    public static String        tag_view_action_refresh_view_tooltip;
+   public static String        tag_view_label_loading;
    public static String        tag_view_title_tag;
    public static String        tag_view_title_tag_category;
 
@@ -2716,6 +2736,7 @@ public class Messages extends NLS {
    public static String        Tour_Book_Action_ToggleViewLayout_Tooltip;
    public static String        Tour_Book_Combo_statistic_tooltip;
    public static String        Tour_Book_Label_chart_title;
+   public static String        Tour_Book_Label_Loading;
    public static String        Tour_Book_Label_Total;
    public static String        Tour_Book_Monitor_CollateSubtask;
    public static String        Tour_Book_Monitor_CollateTask;
@@ -2978,8 +2999,11 @@ public class Messages extends NLS {
 
    public static String        Tour_Log_Action_Clear_Tooltip;
    public static String        Tour_Log_Action_CopyTourLogIntoClipboard_Tooltip;
+   public static String        Tour_Log_Action_ExportStartupTrace;
+   public static String        Tour_Log_Action_ShowStartupTrace;
    public static String        Tour_Log_Action_TourLogLayout_Tooltip;
    public static String        Tour_Log_Checkbox_LogDetails;
+   public static String        Tour_Log_Dialog_ExportStartupTrace_Title;
    public static String        Tour_Log_Info_TourLogWasCopied;
 
    public static String        Tour_Marker_Column_Description_ShortCut;
@@ -99,14 +99,18 @@ import org.eclipse.ui.internal.WorkbenchPlugin;
 @SuppressWarnings("restriction")
 public class ApplicationWorkbenchWindowAdvisor extends WorkbenchWindowAdvisor {
 
-   private static IPreferenceStore           _prefStore     = TourbookPlugin.getPrefStore();
+   private static final String               STARTUP_TASK_LOAD_PEOPLE     = "Load people";     //$NON-NLS-1$
+   private static final String               STARTUP_TASK_LOAD_TOUR_TAGS  = "Load tour tags";  //$NON-NLS-1$
+   private static final String               STARTUP_TASK_LOAD_TOUR_TYPES = "Load tour types"; //$NON-NLS-1$
+
+   private static IPreferenceStore           _prefStore                   = TourbookPlugin.getPrefStore();
 
    private ApplicationActionBarAdvisor       _applicationActionBarAdvisor;
    private IPerspectiveDescriptor            _lastPerspective;
 
    private IWorkbenchPage                    _lastActivePage;
    private IWorkbenchPart                    _lastActivePart;
-   private String                            _lastPartTitle = UI.EMPTY_STRING;
+   private String                            _lastPartTitle               = UI.EMPTY_STRING;
 
    private String                            _appTitle;
 
@@ -334,7 +338,9 @@ public class ApplicationWorkbenchWindowAdvisor extends WorkbenchWindowAdvisor {
          public void partInputChanged(final IWorkbenchPartReference ref) {}
 
          @Override
-         public void partOpened(final IWorkbenchPartReference ref) {}
+         public void partOpened(final IWorkbenchPartReference ref) {
+            StartupTrace.markDuringStartup("Part opened: " + ref.getId()); //$NON-NLS-1$
+         }
 
          @Override
          public void partVisible(final IWorkbenchPartReference ref) {}
@@ -446,6 +452,8 @@ public class ApplicationWorkbenchWindowAdvisor extends WorkbenchWindowAdvisor {
 
       configurer.setTitle(_appTitle);
 
+      final StartupTrace.Phase phase = StartupTrace.begin("Window created: Restore filter state"); //$NON-NLS-1$
+
       /**
        * THIS IS VERY CRITICAL TO BE SET BEFORE THE ASYNC RUNNABLE STARTS, OTHERWISE THE VIEWS
        * DISPLAY THE WRONG DATA. E.G. COLLATED TOURS SHOWS ALL TOURS AND NOT FOR THE SELECTED
@@ -458,26 +466,59 @@ public class ApplicationWorkbenchWindowAdvisor extends WorkbenchWindowAdvisor {
       TourFilterManager.restoreState();
       TourGeoFilter_Manager.restoreState();
       TourTagFilterManager.restoreState();
+
+      phase.end();
    }
 
    @Override
    public void postWindowOpen() {
 
-      Display.getDefault().asyncExec(() -> {
+      StartupTrace.mark("Window opened"); //$NON-NLS-1$
 
-         TagMenuManager.restoreTagState();
-         TourTypeMenuManager.restoreState();
+      final Display display = Display.getDefault();
+
+      /*
+       * The people are loaded first in the UI thread because it starts the database, which can
+       * display dialogs. The menu states need the tags and tour types which are loaded from the
+       * database in the background.
+       */
+      final StartupScheduler scheduler = new StartupScheduler();
+
+      scheduler.addTask(STARTUP_TASK_LOAD_PEOPLE, true, () -> {
 
          loadPeopleData();
          setupAppSelectionListener();
-
-         setupProxy();
       });
+
+      scheduler.addTask(STARTUP_TASK_LOAD_TOUR_TAGS, false,
+            () -> {
+               TourDatabase.getAllTourTags();
+               TourDatabase.getAllTourTagCategories();
+            },
+            STARTUP_TASK_LOAD_PEOPLE);
+
+      scheduler.addTask(STARTUP_TASK_LOAD_TOUR_TYPES, false,
+            () -> TourDatabase.getAllTourTypes(),
+            STARTUP_TASK_LOAD_PEOPLE);
+
+      scheduler.addTask("Restore tag menu", true, //$NON-NLS-1$
+            () -> TagMenuManager.restoreTagState(),
+            STARTUP_TASK_LOAD_TOUR_TAGS);
+
+      scheduler.addTask("Restore tour type menu", true, //$NON-NLS-1$
+            () -> TourTypeMenuManager.restoreState(),
+            STARTUP_TASK_LOAD_TOUR_TYPES);
+
+      scheduler.addTask("Setup proxy", false, () -> setupProxy()); //$NON-NLS-1$
+
+      scheduler.start(display);
    }
 
    @Override
    public void preWindowOpen() {
 
+      final StartupTrace.Phase phase = StartupTrace.begin("Open window"); //$NON-NLS-1$
+
       final IWorkbenchWindowConfigurer configurer = getWindowConfigurer();
 
       configurer.setInitialSize(new Point(950, 700));
@@ -519,6 +560,8 @@ public class ApplicationWorkbenchWindowAdvisor extends WorkbenchWindowAdvisor {
       // this MUST be called AFTER the theme is set, otherwise static images are not from a theme !!!
       UI.setupThemedImages();
       PhotoUI.setupThemedImages();
+
+      phase.end();
    }
 
    @Override
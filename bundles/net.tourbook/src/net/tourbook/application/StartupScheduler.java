@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package net.tourbook.application;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import net.tourbook.common.util.StatusUtil;
+
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Runs the initialization of subsystems, which are not needed to display the first window, after
+ * the window is opened.
+ * <p>
+ * Tasks are run in the background or in the UI thread, a task is started when all tasks, which it
+ * depends on, are finished. Each task is recorded in the {@link StartupTrace}.
+ */
+public class StartupScheduler {
+
+   private final Map<String, StartupTask> _allTasks = new LinkedHashMap<>();
+
+   private boolean                        _isStarted;
+
+   private static class StartupTask {
+
+      private String                  id;
+      private boolean                 isUIThread;
+      private Runnable                runnable;
+      private String[]                dependencies;
+
+      private CompletableFuture<Void> future;
+   }
+
+   /**
+    * Add a task which is run when {@link #start(Display)} is called
+    *
+    * @param id
+    *           Unique task id, it is also used as name in the startup trace
+    * @param isUIThread
+    *           When <code>true</code> then the task is run in the UI thread, otherwise in a
+    *           background thread
+    * @param runnable
+    * @param dependencies
+    *           Ids of the tasks which must be finished before this task is started
+    */
+   public void addTask(final String id,
+                       final boolean isUIThread,
+                       final Runnable runnable,
+                       final String... dependencies) {
+
+      if (_isStarted) {
+         throw new IllegalStateException("Startup scheduler is already started"); //$NON-NLS-1$
+      }
+
+      if (_allTasks.containsKey(id)) {
+         throw new IllegalArgumentException(String.format("Startup task \"%s\" is already added", id)); //$NON-NLS-1$
+      }
+
+      final StartupTask task = new StartupTask();
+
+      task.id = id;
+      task.isUIThread = isUIThread;
+      task.runnable = runnable;
+      task.dependencies = dependencies;
+
+      _allTasks.put(id, task);
+   }
+
+   private CompletableFuture<Void> createFuture(final StartupTask task,
+                                                final Set<String> allVisitedIds,
+                                                final Display display,
+                                                final ExecutorService executor) {
+
+      if (task.future != null) {
+         return task.future;
+      }
+
+      if (allVisitedIds.add(task.id) == false) {
+         throw new IllegalStateException(String.format("Startup task \"%s\" has a cyclic dependency", task.id)); //$NON-NLS-1$
+      }
+
+      final List<CompletableFuture<Void>> allDependencyFutures = new ArrayList<>();
+
+      for (final String dependencyId : task.dependencies) {
+
+         final StartupTask dependency = _allTasks.get(dependencyId);
+
+         if (dependency == null) {
+            throw new IllegalStateException(String.format("Startup task \"%s\" depends on the unknown task \"%s\"", //$NON-NLS-1$
+                  task.id,
+                  dependencyId));
+         }
+
+         allDependencyFutures.add(createFuture(dependency, allVisitedIds, display, executor));
+      }
+
+      final Runnable tracedRunnable = () -> runTask(task);
+
+      final CompletableFuture<Void> allDependencies = CompletableFuture.allOf(allDependencyFutures.toArray(new CompletableFuture[0]));
+
+      // exceptions are logged in runTask() so that a failing task does not prevent that dependent tasks are run
+      task.future = allDependencies.thenRunAsync(tracedRunnable, task.isUIThread
+            ? display::asyncExec
+            : executor);
+
+      return task.future;
+   }
+
+   private void runTask(final StartupTask task) {
+
+      try (StartupTrace.Phase phase = StartupTrace.begin(task.id)) {
+
+         task.runnable.run();
+
+      } catch (final Exception e) {
+         StatusUtil.log(e);
+      }
+   }
+
+   /**
+    * Start all tasks, {@link StartupTrace#finish()} is called when all tasks are finished.
+    *
+    * @param display
+    */
+   public void start(final Display display) {
+
+      _isStarted = true;
+
+      final ThreadFactory threadFactory = runnable -> {
+
+         final Thread thread = new Thread(runnable, "Startup: Deferred initialization");//$NON-NLS-1$
+
+         thread.setPriority(Thread.MIN_PRIORITY);
+         thread.setDaemon(true);
+
+         return thread;
+      };
+
+      final ExecutorService executor = Executors.newSingleThreadExecutor(threadFactory);
+
+      final List<CompletableFuture<Void>> allFutures = new ArrayList<>();
+
+      for (final StartupTask task : _allTasks.values()) {
+         allFutures.add(createFuture(task, new HashSet<>(), display, executor));
+      }
+
+      CompletableFuture
+            .allOf(allFutures.toArray(new CompletableFuture[0]))
+            .whenComplete((result, throwable) -> {
+
+               executor.shutdown();
+
+               StartupTrace.finish();
+            });
+   }
+}
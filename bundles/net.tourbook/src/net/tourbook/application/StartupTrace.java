@@ -0,0 +1,289 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package net.tourbook.application;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import net.tourbook.common.UI;
+import net.tourbook.common.util.StatusUtil;
+import net.tourbook.tour.TourLogManager;
+
+/**
+ * Records the phases of the application startup with their start and end time.
+ * <p>
+ * The phases can be displayed in the tour log view or exported in the trace event format which
+ * can be opened with chrome://tracing or https://ui.perfetto.dev
+ */
+public final class StartupTrace {
+
+   private static final char                        NL                  = UI.NEW_LINE;
+
+   /**
+    * Time in ms when the JVM was started before the first phase was recorded
+    */
+   private static final long                        JVM_UPTIME_MS       = ManagementFactory.getRuntimeMXBean().getUptime();
+   private static final long                        TRACE_START_NANO    = System.nanoTime();
+
+   private static final CopyOnWriteArrayList<Phase> _allPhases          = new CopyOnWriteArrayList<>();
+
+   private static volatile boolean                  _isStartupFinished;
+   private static volatile long                     _startupDuration_MS = -1;
+
+   /**
+    * Startup phase with a start and end time or a marker with only a start time
+    */
+   public static final class Phase implements AutoCloseable {
+
+      public final String  name;
+      public final String  threadName;
+
+      /**
+       * Is <code>true</code> when this phase is a marker which has no duration
+       */
+      public final boolean isMarker;
+
+      private final long    _startNano;
+      private volatile long _endNano = -1;
+
+      private Phase(final String name, final long startNano, final boolean isMarker) {
+
+         this.name = name;
+         this.isMarker = isMarker;
+
+         threadName = Thread.currentThread().getName();
+         _startNano = startNano;
+      }
+
+      @Override
+      public void close() {
+         end();
+      }
+
+      /**
+       * Set the end time of this phase, a marker has no end time
+       */
+      public void end() {
+
+         if (isMarker == false && _endNano == -1) {
+            _endNano = System.nanoTime();
+         }
+      }
+
+      /**
+       * @return Returns the duration in ms or -1 when the phase is a marker or is not yet finished
+       */
+      public float getDuration_MS() {
+
+         return isMarker || _endNano == -1
+               ? -1
+               : (_endNano - _startNano) / 1_000_000f;
+      }
+
+      /**
+       * @return Returns the start time in ms since the JVM was started
+       */
+      public float getStart_MS() {
+         return JVM_UPTIME_MS + (_startNano - TRACE_START_NANO) / 1_000_000f;
+      }
+
+      @Override
+      public String toString() {
+         return "Phase [name=" + name + ", threadName=" + threadName + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+      }
+   }
+
+   private StartupTrace() {}
+
+   private static void appendJsonString(final StringBuilder sb, final String text) {
+
+      sb.append('"');
+
+      for (int charIndex = 0; charIndex < text.length(); charIndex++) {
+
+         final char c = text.charAt(charIndex);
+
+         switch (c) {
+         case '"':
+            sb.append("\\\""); //$NON-NLS-1$
+            break;
+         case '\\':
+            sb.append("\\\\"); //$NON-NLS-1$
+            break;
+         case '\n':
+            sb.append("\\n"); //$NON-NLS-1$
+            break;
+         case '\r':
+            sb.append("\\r"); //$NON-NLS-1$
+            break;
+         case '\t':
+            sb.append("\\t"); //$NON-NLS-1$
+            break;
+         default:
+            if (c < 0x20) {
+               sb.append(String.format("\\u%04x", (int) c)); //$NON-NLS-1$
+            } else {
+               sb.append(c);
+            }
+         }
+      }
+
+      sb.append('"');
+   }
+
+   /**
+    * Start a new phase, the phase must be closed with {@link Phase#end()} or with a
+    * try-with-resources statement.
+    *
+    * @param name
+    * @return
+    */
+   public static Phase begin(final String name) {
+
+      final Phase phase = new Phase(name, System.nanoTime(), false);
+
+      _allPhases.add(phase);
+
+      return phase;
+   }
+
+   /**
+    * Create all phases in the trace event format, the time values are in µs
+    *
+    * @return
+    */
+   public static String createTraceEvents() {
+
+      final StringBuilder sb = new StringBuilder();
+
+      sb.append("{\"traceEvents\":[" + NL); //$NON-NLS-1$
+
+      boolean isFirst = true;
+
+      for (final Phase phase : _allPhases) {
+
+         if (isFirst) {
+            isFirst = false;
+         } else {
+            sb.append("," + NL); //$NON-NLS-1$
+         }
+
+         final boolean isMarker = phase.isMarker;
+
+         sb.append("{\"name\":"); //$NON-NLS-1$
+         appendJsonString(sb, phase.name);
+
+         sb.append(",\"ph\":\"").append(isMarker ? 'i' : 'X').append('"'); //$NON-NLS-1$
+         sb.append(",\"ts\":").append((long) (phase.getStart_MS() * 1000)); //$NON-NLS-1$
+
+         if (isMarker) {
+            sb.append(",\"s\":\"g\""); //$NON-NLS-1$
+         } else {
+            // a phase which is not finished is exported without duration
+            sb.append(",\"dur\":").append((long) (Math.max(0, phase.getDuration_MS()) * 1000)); //$NON-NLS-1$
+         }
+
+         sb.append(",\"pid\":1,\"tid\":"); //$NON-NLS-1$
+         appendJsonString(sb, phase.threadName);
+
+         sb.append('}');
+      }
+
+      sb.append(NL + "]}" + NL); //$NON-NLS-1$
+
+      return sb.toString();
+   }
+
+   /**
+    * Set the startup as finished, after this, markers for opened views are not recorded any more
+    */
+   public static void finish() {
+
+      if (_isStartupFinished) {
+         return;
+      }
+
+      mark("Startup is finished"); //$NON-NLS-1$
+
+      _startupDuration_MS = ManagementFactory.getRuntimeMXBean().getUptime();
+      _isStartupFinished = true;
+
+      // log the startup duration that cold starts can be compared without opening the trace
+      StatusUtil.logInfo(String.format("Startup is finished after %d ms from JVM start", _startupDuration_MS)); //$NON-NLS-1$
+   }
+
+   /**
+    * @return Returns a copy of all recorded phases
+    */
+   public static List<Phase> getPhases() {
+      return new ArrayList<>(_allPhases);
+   }
+
+   /**
+    * @return Returns the time in ms from the JVM start until the startup is finished or -1 when
+    *         the startup is not yet finished
+    */
+   public static long getStartupDuration_MS() {
+      return _startupDuration_MS;
+   }
+
+   public static boolean isStartupFinished() {
+      return _isStartupFinished;
+   }
+
+   /**
+    * Display all phases in the tour log view
+    */
+   public static void logPhases() {
+
+      TourLogManager.log_TITLE(String.format("Startup trace - %d ms from JVM start", _startupDuration_MS)); //$NON-NLS-1$
+
+      for (final Phase phase : _allPhases) {
+
+         final float duration = phase.getDuration_MS();
+
+         TourLogManager.subLog_DEFAULT(String.format("%8.1f ms   %8s   %s   [%s]", //$NON-NLS-1$
+               phase.getStart_MS(),
+               phase.isMarker || duration < 0 ? UI.EMPTY_STRING : String.format("%.1f ms", duration), //$NON-NLS-1$
+               phase.name,
+               phase.threadName));
+      }
+   }
+
+   /**
+    * Record a phase without duration
+    *
+    * @param name
+    */
+   public static void mark(final String name) {
+
+      _allPhases.add(new Phase(name, System.nanoTime(), true));
+   }
+
+   /**
+    * Record a marker only during the startup
+    *
+    * @param name
+    */
+   public static void markDuringStartup(final String name) {
+
+      if (_isStartupFinished == false) {
+         mark(name);
+      }
+   }
+}
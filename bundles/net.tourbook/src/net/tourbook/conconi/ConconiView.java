@@ -44,6 +44,7 @@ import net.tourbook.tour.SelectionDeletedTours;
 import net.tourbook.tour.SelectionTourData;
 import net.tourbook.tour.SelectionTourId;
 import net.tourbook.tour.SelectionTourIds;
+import net.tourbook.tour.TourAnalysisCache;
 import net.tourbook.tour.TourEventId;
 import net.tourbook.tour.TourManager;
 
@@ -90,6 +91,11 @@ public class ConconiView extends ViewPart {
 
    private static final RGB    DEFAULT_RGB                  = new RGB(0xd0, 0xd0, 0xd0);
 
+   /**
+    * Number of option sets for which the power/pulse values of the selected tours are kept
+    */
+   private static final int    MAX_CACHED_OPTIONS           = 2;
+
 // SET_FORMATTING_OFF
 
 	private static final String		GRID_PREF_PREFIX							= "GRID_CONCONI__";															//$NON-NLS-1$
@@ -129,6 +135,12 @@ public class ConconiView extends ViewPart {
 
    private int                     _hintDefaultSpinnerWidth;
 
+   /**
+    * Power/pulse values of each tour, they are not recomputed when another tour is marked or the
+    * scaling is modified
+    */
+   private final TourAnalysisCache<PowerPulseSeries> _powerPulseSeriesCache = new TourAnalysisCache<>(MAX_CACHED_OPTIONS);
+
    /*
     * UI controls
     */
@@ -159,6 +171,85 @@ public class ConconiView extends ViewPart {
       }
    }
 
+   /**
+    * Maximum pulse for each power value of one tour
+    */
+   private static class PowerPulseSeries {
+
+      private double[] powerValues;
+      private double[] pulseValues;
+
+      private float    maxPowerValue;
+   }
+
+   /**
+    * Create power/pulse values, reduce data that the highest pulse value for a power value is
+    * displayed
+    *
+    * @param tourData
+    * @return
+    */
+   private static PowerPulseSeries createPowerPulseSeries(final TourData tourData) {
+
+      final float[] tourPowerSerie = tourData.getPowerSerie();
+      final float[] tourPulseSerie = tourData.pulseSerie;
+
+      final DoubleArrayList maxXValues = new DoubleArrayList();
+      final DoubleArrayList maxYValues = new DoubleArrayList();
+
+      float lastMaxY = Float.MIN_VALUE;
+      float currentXValue = tourPowerSerie[0];
+      float maxXValue = 0;
+
+      // loop: all values in the current serie
+      for (int valueIndex = 0; valueIndex < tourPowerSerie.length; valueIndex++) {
+
+         // check array bounds
+         if (valueIndex >= tourPulseSerie.length) {
+            break;
+         }
+
+         final float xValue = tourPowerSerie[valueIndex];
+         final float yValue = tourPulseSerie[valueIndex];
+
+         if (xValue == currentXValue) {
+
+            // get maximum y value for the same x value
+
+            if (yValue > lastMaxY) {
+               lastMaxY = yValue;
+            }
+
+         } else {
+
+            // next x value is displayed, keep last max y
+
+            maxXValues.add(currentXValue);
+            maxYValues.add(lastMaxY);
+
+            currentXValue = xValue;
+            lastMaxY = yValue;
+         }
+
+         // get max x value
+         if (currentXValue > maxXValue) {
+            maxXValue = currentXValue;
+         }
+      }
+
+      // get last value
+      maxXValues.add(currentXValue);
+      maxYValues.add(lastMaxY);
+
+      final PowerPulseSeries powerPulseSeries = new PowerPulseSeries();
+
+      powerPulseSeries.powerValues = maxXValues.toArray();
+      powerPulseSeries.pulseValues = maxYValues.toArray();
+      powerPulseSeries.maxPowerValue = maxXValue;
+
+      return powerPulseSeries;
+   }
+
    private void addPartListener() {
 
       _partListener = new IPartListener2() {
@@ -343,94 +434,43 @@ public class ConconiView extends ViewPart {
       final RGB[] allRgbGradient_Dark = new RGB[validDataLength];
       final RGB[] allRgbGradient_Bright = new RGB[validDataLength];
 
-      final TourData[] validTours = validTourList.toArray(new TourData[validTourList.size()]);
+      final List<PowerPulseSeries> allPowerPulseSeries = _powerPulseSeriesCache.getValues(
+            validTourList,
+            ConconiView::createPowerPulseSeries);
+
       int markedIndex = 0;
       float maxXValue = 0;
 
-      /*
-       * create data series which contain valid data, reduce data that the highes value for an x
-       * value is displayed
-       */
       for (int tourIndex = 0; tourIndex < validDataLength; tourIndex++) {
 
-         final TourData tourData = validTours[tourIndex];
-
-         final float[] tourPowerSerie = tourData.getPowerSerie();
-         final float[] tourPulseSerie = tourData.pulseSerie;
-
-         // check if required data series are available
-         if (tourPowerSerie != null
-               && tourPowerSerie.length != 0
-               && tourPulseSerie != null
-               && tourPulseSerie.length != 0) {
-
-            final DoubleArrayList maxXValues = new DoubleArrayList();
-            final DoubleArrayList maxYValues = new DoubleArrayList();
+         final TourData tourData = validTourList.get(tourIndex);
+         final PowerPulseSeries powerPulseSeries = allPowerPulseSeries.get(tourIndex);
 
-            float lastMaxY = Float.MIN_VALUE;
-            float currentXValue = tourPowerSerie[0];
+         powerSerie[tourIndex] = powerPulseSeries.powerValues;
+         pulseSerie[tourIndex] = powerPulseSeries.pulseValues;
 
-            // loop: all values in the current serie
-            for (int valueIndex = 0; valueIndex < tourPowerSerie.length; valueIndex++) {
-
-               // check array bounds
-               if (valueIndex >= tourPulseSerie.length) {
-                  break;
-               }
-
-               final float xValue = tourPowerSerie[valueIndex];
-               final float yValue = tourPulseSerie[valueIndex];
-
-               if (xValue == currentXValue) {
-
-                  // get maximum y value for the same x value
-
-                  if (yValue > lastMaxY) {
-                     lastMaxY = yValue;
-                  }
-
-               } else {
-
-                  // next x value is displayed, keep last max y
-
-                  maxXValues.add(currentXValue);
-                  maxYValues.add(lastMaxY);
-
-                  currentXValue = xValue;
-                  lastMaxY = yValue;
-               }
-
-               // get max x value
-               if (currentXValue > maxXValue) {
-                  maxXValue = currentXValue;
-               }
-            }
-
-            // get last value
-            maxXValues.add(currentXValue);
-            maxYValues.add(lastMaxY);
-
-            powerSerie[tourIndex] = maxXValues.toArray();
-            pulseSerie[tourIndex] = maxYValues.toArray();
+         // get max x value
+         if (powerPulseSeries.maxPowerValue > maxXValue) {
+            maxXValue = powerPulseSeries.maxPowerValue;
+         }
 
-            /*
-             * marked tour is displayed with pulse color
-             */
-            if (tourData.equals(markedTour)) {
+         /*
+          * marked tour is displayed with pulse color
+          */
+         if (tourData.equals(markedTour)) {
 
-               // get index of marked tour
-               markedIndex = tourIndex;
+            // get index of marked tour
+            markedIndex = tourIndex;
 
-               allRgbLine[tourIndex] = rgbLineColor;
-               allRgbGradient_Dark[tourIndex] = rgbGradient_Dark;
-               allRgbGradient_Bright[tourIndex] = rgbGradient_Bright;
+            allRgbLine[tourIndex] = rgbLineColor;
+            allRgbGradient_Dark[tourIndex] = rgbGradient_Dark;
+            allRgbGradient_Bright[tourIndex] = rgbGradient_Bright;
 
-            } else {
+         } else {
 
-               allRgbLine[tourIndex] = DEFAULT_RGB;
-               allRgbGradient_Dark[tourIndex] = DEFAULT_RGB;
-               allRgbGradient_Bright[tourIndex] = DEFAULT_RGB;
-            }
+            allRgbLine[tourIndex] = DEFAULT_RGB;
+            allRgbGradient_Dark[tourIndex] = DEFAULT_RGB;
+            allRgbGradient_Bright[tourIndex] = DEFAULT_RGB;
          }
       }
 
@@ -0,0 +1,360 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package net.tourbook.data;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Mean maximal curves ("best efforts") of a tour or of many tours: For each duration in
+ * {@link #DURATIONS} it contains the highest average power, pulse and speed which was achieved
+ * within this duration.
+ * <p>
+ * The values of a tour are computed with prefix sums over a 1 second grid, so one duration needs
+ * only one pass through the tour. Curves of many tours are merged by keeping the maximum of each
+ * duration.
+ */
+public class MeanMaxCurves {
+
+   /**
+    * Durations in seconds, they are spaced logarithmically from 1 second to 6 hours
+    */
+   public static final int[] DURATIONS = {
+
+         1, 2, 3, 5, 7, 10, 15, 20, 30, 45,
+         60, 90, 120, 180, 240, 300, 420, 600, 900, 1200,
+         1800, 2700, 3600, 5400, 7200, 10800, 14400, 21600
+   };
+
+   public static final int   NUM_DURATIONS = DURATIONS.length;
+
+   /**
+    * When the time between 2 power values is larger, then the device did not record, e.g. when it
+    * was paused, and the power in this gap is set to 0
+    */
+   private static final int  MAX_POWER_GAP = 10;
+
+   /**
+    * Highest average power in Watt for each duration or <code>null</code> when power is not
+    * available
+    */
+   public float[]            power;
+
+   /**
+    * Highest average pulse in bpm for each duration or <code>null</code> when pulse is not
+    * available
+    */
+   public float[]            pulse;
+
+   /**
+    * Highest average speed in m/s for each duration or <code>null</code> when distance is not
+    * available, the best pace is computed from this speed
+    */
+   public float[]            speed;
+
+   /**
+    * Compute the mean maximal curves for a tour.
+    *
+    * @param tourData
+    * @return Returns the curves or <code>null</code> when the tour do not contain power, pulse or
+    *         distance values
+    */
+   public static MeanMaxCurves compute(final TourData tourData) {
+
+      final int[] timeSerie = tourData.timeSerie;
+
+      if (timeSerie == null || timeSerie.length < 2) {
+         return null;
+      }
+
+      final MeanMaxCurves curves = new MeanMaxCurves();
+
+      // computed power is an estimation which is useless for best efforts
+      if (tourData.isPowerSerieFromDevice()) {
+         curves.power = computeCurve_Values(timeSerie, tourData.getPowerSerie(), true);
+      }
+
+      curves.pulse = computeCurve_Values(timeSerie, tourData.pulseSerie, false);
+      curves.speed = computeCurve_Distance(timeSerie, tourData.distanceSerie);
+
+      if (curves.power == null && curves.pulse == null && curves.speed == null) {
+         return null;
+      }
+
+      return curves;
+   }
+
+   /**
+    * @param prefixSums
+    *           Sum of all values from the start until each second
+    * @return Returns the highest average for each duration, it is 0 when the duration is longer
+    *         than the tour
+    */
+   private static float[] computeCurve(final double[] prefixSums) {
+
+      final float[] curve = new float[NUM_DURATIONS];
+
+      final int numSeconds = prefixSums.length - 1;
+
+      for (int durationIndex = 0; durationIndex < NUM_DURATIONS; durationIndex++) {
+
+         final int duration = DURATIONS[durationIndex];
+
+         if (duration > numSeconds) {
+            break;
+         }
+
+         double maxSum = Double.NEGATIVE_INFINITY;
+
+         for (int startIndex = 0, endIndex = duration; endIndex <= numSeconds; startIndex++, endIndex++) {
+
+            final double sum = prefixSums[endIndex] - prefixSums[startIndex];
+
+            if (sum > maxSum) {
+               maxSum = sum;
+            }
+         }
+
+         curve[durationIndex] = (float) (maxSum / duration);
+      }
+
+      return curve;
+   }
+
+   /**
+    * Compute the highest average speed for each duration from the distance which is interpolated
+    * for each second.
+    *
+    * @param timeSerie
+    * @param distanceSerie
+    * @return Returns <code>null</code> when the distance is not available
+    */
+   public static float[] computeCurve_Distance(final int[] timeSerie, final float[] distanceSerie) {
+
+      if (distanceSerie == null || distanceSerie.length != timeSerie.length) {
+         return null;
+      }
+
+      final int numSlices = timeSerie.length;
+      final int firstTime = timeSerie[0];
+      final int numSeconds = timeSerie[numSlices - 1] - firstTime;
+
+      if (numSeconds < 1) {
+         return null;
+      }
+
+      // the distance is already a sum of all values
+      final double[] distanceSums = new double[numSeconds + 1];
+
+      final float firstDistance = distanceSerie[0];
+
+      int sliceIndex = 0;
+
+      for (int second = 0; second <= numSeconds; second++) {
+
+         final int time = firstTime + second;
+
+         while (sliceIndex < numSlices - 1 && timeSerie[sliceIndex + 1] <= time) {
+            sliceIndex++;
+         }
+
+         final double distance;
+
+         if (sliceIndex == numSlices - 1) {
+
+            distance = distanceSerie[sliceIndex];
+
+         } else {
+
+            final int time1 = timeSerie[sliceIndex];
+            final int time2 = timeSerie[sliceIndex + 1];
+
+            final float distance1 = distanceSerie[sliceIndex];
+            final float distance2 = distanceSerie[sliceIndex + 1];
+
+            distance = time2 == time1
+                  ? distance2
+                  : distance1 + (double) (distance2 - distance1) * (time - time1) / (time2 - time1);
+         }
+
+         distanceSums[second] = distance - firstDistance;
+      }
+
+      return computeCurve(distanceSums);
+   }
+
+   /**
+    * Compute the highest average value for each duration. A value is recorded at the end of a
+    * time slice, so it is used for all seconds since the previous time slice.
+    *
+    * @param timeSerie
+    * @param valueSerie
+    * @param isFillGapsWithZero
+    *           When <code>true</code> then the seconds between 2 time slices which are more than
+    *           {@link #MAX_POWER_GAP} seconds apart are set to 0
+    * @return Returns <code>null</code> when the values are not available
+    */
+   public static float[] computeCurve_Values(final int[] timeSerie, final float[] valueSerie, final boolean isFillGapsWithZero) {
+
+      if (valueSerie == null || valueSerie.length != timeSerie.length) {
+         return null;
+      }
+
+      final int numSlices = timeSerie.length;
+      final int numSeconds = timeSerie[numSlices - 1] - timeSerie[0];
+
+      if (numSeconds < 1) {
+         return null;
+      }
+
+      final double[] prefixSums = new double[numSeconds + 1];
+
+      boolean isValueAvailable = false;
+      double sum = 0;
+      int second = 0;
+
+      for (int sliceIndex = 1; sliceIndex < numSlices; sliceIndex++) {
+
+         final int sliceSeconds = timeSerie[sliceIndex] - timeSerie[sliceIndex - 1];
+
+         float value = valueSerie[sliceIndex];
+
+         if (value != value || value < 0 || isFillGapsWithZero && sliceSeconds > MAX_POWER_GAP) {
+
+            // ignore NaN, negative values and gaps
+            value = 0;
+         }
+
+         if (value > 0) {
+            isValueAvailable = true;
+         }
+
+         // the time serie could be corrupted and not ascending
+         for (int sliceSecond = 0; sliceSecond < sliceSeconds && second < numSeconds; sliceSecond++) {
+
+            sum += value;
+            prefixSums[++second] = sum;
+         }
+      }
+
+      while (second < numSeconds) {
+         prefixSums[++second] = sum;
+      }
+
+      if (isValueAvailable == false) {
+         return null;
+      }
+
+      return computeCurve(prefixSums);
+   }
+
+   /**
+    * @param bytes
+    * @return Returns the curve which was saved with {@link #toBytes(float[])}
+    */
+   public static float[] fromBytes(final byte[] bytes) {
+
+      if (bytes == null) {
+         return null;
+      }
+
+      final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+      // durations could be added in a later version
+      final int numValues = Math.min(bytes.length / Float.BYTES, NUM_DURATIONS);
+
+      final float[] curve = new float[NUM_DURATIONS];
+
+      for (int durationIndex = 0; durationIndex < numValues; durationIndex++) {
+         curve[durationIndex] = buffer.getFloat();
+      }
+
+      return curve;
+   }
+
+   /**
+    * Keep the higher value for each duration
+    *
+    * @param targetCurve
+    *           Can be <code>null</code>
+    * @param sourceCurve
+    *           Can be <code>null</code>
+    * @return Returns the merged curve which is the target curve when it is available
+    */
+   private static float[] merge(final float[] targetCurve, final float[] sourceCurve) {
+
+      if (sourceCurve == null) {
+         return targetCurve;
+      }
+
+      if (targetCurve == null) {
+         return sourceCurve.clone();
+      }
+
+      for (int durationIndex = 0; durationIndex < NUM_DURATIONS; durationIndex++) {
+
+         final float sourceValue = sourceCurve[durationIndex];
+
+         if (sourceValue > targetCurve[durationIndex]) {
+            targetCurve[durationIndex] = sourceValue;
+         }
+      }
+
+      return targetCurve;
+   }
+
+   /**
+    * @param curve
+    * @return Returns the curve as 4 bytes for each duration or <code>null</code> when the curve is
+    *         not available
+    */
+   public static byte[] toBytes(final float[] curve) {
+
+      if (curve == null) {
+         return null;
+      }
+
+      final ByteBuffer buffer = ByteBuffer.allocate(NUM_DURATIONS * Float.BYTES);
+
+      for (final float value : curve) {
+         buffer.putFloat(value);
+      }
+
+      return buffer.array();
+   }
+
+   /**
+    * @return Returns <code>true</code> when no curve is available
+    */
+   public boolean isEmpty() {
+      return power == null && pulse == null && speed == null;
+   }
+
+   /**
+    * Merge the curves of another tour or of other tours into these curves.
+    *
+    * @param otherCurves
+    */
+   public void merge(final MeanMaxCurves otherCurves) {
+
+      if (otherCurves == null) {
+         return;
+      }
+
+      power = merge(power, otherCurves.power);
+      pulse = merge(pulse, otherCurves.pulse);
+      speed = merge(speed, otherCurves.speed);
+   }
+}
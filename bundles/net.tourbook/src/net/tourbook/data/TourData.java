@@ -27,7 +27,6 @@ import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.skedgo.converter.TimezoneMapper;
 
 import java.awt.Point;
 import java.io.File;
@@ -78,6 +77,7 @@ import net.tourbook.common.UI;
 import net.tourbook.common.map.GeoPosition;
 import net.tourbook.common.swimming.SwimStroke;
 import net.tourbook.common.time.TimeTools;
+import net.tourbook.common.time.TimeZoneGrid;
 import net.tourbook.common.time.TourDateTime;
 import net.tourbook.common.util.MtMath;
 import net.tourbook.common.util.StatusUtil;
@@ -87,6 +87,7 @@ import net.tourbook.database.FIELD_VALIDATION;
 import net.tourbook.database.TourDatabase;
 import net.tourbook.importdata.RawDataManager;
 import net.tourbook.importdata.TourbookDevice;
+import net.tourbook.map2.view.TourTileSegments;
 import net.tourbook.math.Smooth;
 import net.tourbook.photo.Photo;
 import net.tourbook.photo.PhotoCache;
@@ -116,6 +117,7 @@ import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.swt.custom.BusyIndicator;
 import org.eclipse.swt.widgets.Display;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.Cascade;
 
 /**
@@ -972,6 +974,7 @@ public class TourData implements Comparable<Object>, IXmlSerializable, Serializa
     */
    @OneToMany(fetch = EAGER, cascade = ALL, mappedBy = "tourData")
    @Cascade(org.hibernate.annotations.CascadeType.DELETE_ORPHAN)
+   @BatchSize(size = TourDatabase.BATCH_SIZE_TOURS)
    private Set<TourPhoto>              tourPhotos                          = new HashSet<>();
 
    /**
@@ -979,6 +982,7 @@ public class TourData implements Comparable<Object>, IXmlSerializable, Serializa
     */
    @OneToMany(fetch = EAGER, cascade = ALL, mappedBy = "tourData")
    @Cascade(org.hibernate.annotations.CascadeType.DELETE_ORPHAN)
+   @BatchSize(size = TourDatabase.BATCH_SIZE_TOURS)
    @XmlElementWrapper(name = "TourMarkers")
    @XmlElement(name = "TourMarker")
    @JsonProperty
@@ -989,6 +993,7 @@ public class TourData implements Comparable<Object>, IXmlSerializable, Serializa
     */
    @OneToMany(fetch = EAGER, cascade = ALL, mappedBy = "tourData")
    @Cascade(org.hibernate.annotations.CascadeType.DELETE_ORPHAN)
+   @BatchSize(size = TourDatabase.BATCH_SIZE_TOURS)
    @JsonProperty
    private  Set<TourWayPoint>          tourWayPoints                       = new HashSet<>();
 
@@ -997,6 +1002,7 @@ public class TourData implements Comparable<Object>, IXmlSerializable, Serializa
     */
    @OneToMany(fetch = EAGER, cascade = ALL, mappedBy = "tourData")
    @Cascade(org.hibernate.annotations.CascadeType.DELETE_ORPHAN)
+   @BatchSize(size = TourDatabase.BATCH_SIZE_TOURS)
    private  Set<TourReference>         tourReferences                     = new HashSet<>();
 
    /**
@@ -1004,6 +1010,7 @@ public class TourData implements Comparable<Object>, IXmlSerializable, Serializa
     */
    @ManyToMany(fetch = EAGER)
    @JoinTable(inverseJoinColumns = @JoinColumn(name = "TOURTAG_TagID", referencedColumnName = "TagID"))
+   @BatchSize(size = TourDatabase.BATCH_SIZE_TOURS)
    @JsonProperty
    private Set<TourTag>                tourTags                            = new HashSet<>();
 
@@ -1012,6 +1019,7 @@ public class TourData implements Comparable<Object>, IXmlSerializable, Serializa
     */
    @OneToMany(fetch = EAGER, cascade = ALL, mappedBy = "tourData")
    @Cascade(org.hibernate.annotations.CascadeType.DELETE_ORPHAN)
+   @BatchSize(size = TourDatabase.BATCH_SIZE_TOURS)
    private Set<DeviceSensorValue>      deviceSensorValues                  = new HashSet<>();
 
 //   /**
@@ -1546,10 +1554,10 @@ public class TourData implements Comparable<Object>, IXmlSerializable, Serializa
    private final IntObjectHashMap<IntObjectHashMap<Point>>   _twpWorldPosition    = new IntObjectHashMap<>();
 
    /**
-    * Cashes tour tile hashes for each zoom level
+    * Caches the tour tile buckets for each zoom level
     */
    @Transient
-   private final IntObjectHashMap<IntHashSet>                _tileHashes_Tours     = new IntObjectHashMap<>();
+   private final IntObjectHashMap<TourTileSegments>          _tileSegments_Tours   = new IntObjectHashMap<>();
 
    /**
     * Cashes way point tile hashes for each zoom level
@@ -1724,10 +1732,23 @@ public class TourData implements Comparable<Object>, IXmlSerializable, Serializa
    public int[]               multipleNumberOfPauses;
 
    /**
-    * List containing all the tour pauses used only for multiple tours.
+    * Contains the start time of all tour pauses, used only for multiple tours.
     */
    @Transient
-   public List<List<Long>>    multipleTourPauses;
+   public long[]              multipleTourPausedTime_Start;
+
+   /**
+    * Contains the end time of all tour pauses, used only for multiple tours.
+    */
+   @Transient
+   public long[]              multipleTourPausedTime_End;
+
+   /**
+    * Contains the pause type of all tour pauses, used only for multiple tours. It is -1 when the
+    * pause data are not available, this is displayed as an auto-pause.
+    */
+   @Transient
+   public long[]              multipleTourPausedTime_Data;
 
    @Transient
    public boolean             multipleTour_IsCadenceRpm;
@@ -2385,7 +2406,7 @@ public class TourData implements Comparable<Object>, IXmlSerializable, Serializa
    public void clearWorldPositions() {
 
       _tourWorldPosition.clear();
-      _tileHashes_Tours.clear();
+      _tileSegments_Tours.clear();
       _tileHashes_WayPoints.clear();
    }
 
@@ -3865,6 +3886,46 @@ public class TourData implements Comparable<Object>, IXmlSerializable, Serializa
       return true;
    }
 
+   /**
+    * Summarizes the cadence zone times of the joined tours, they are computed from the joined data
+    * series when the tours have different cadence zone delimiters.
+    *
+    * @param allJoinedTours
+    */
+   private void computeCadenceZonesTimes_Joined(final List<TourData> allJoinedTours) {
+
+      if (timeSerie == null || cadenceSerie == null) {
+         return;
+      }
+
+      int slowTime = 0;
+      int fastTime = 0;
+      int delimiterValue = 0;
+
+      for (final TourData tourData : allJoinedTours) {
+
+         if (tourData.cadenceZone_SlowTime <= 0 && tourData.cadenceZone_FastTime <= 0) {
+            continue;
+         }
+
+         if (delimiterValue != 0 && delimiterValue != tourData.cadenceZones_DelimiterValue) {
+
+            computeCadenceZonesTimes();
+
+            return;
+         }
+
+         delimiterValue = tourData.cadenceZones_DelimiterValue;
+
+         slowTime += tourData.cadenceZone_SlowTime;
+         fastTime += tourData.cadenceZone_FastTime;
+      }
+
+      cadenceZone_SlowTime = slowTime;
+      cadenceZone_FastTime = fastTime;
+      cadenceZones_DelimiterValue = delimiterValue;
+   }
+
    /**
     * Compute min/max/avg and other computed fields.
     */
@@ -3889,6 +3950,163 @@ public class TourData implements Comparable<Object>, IXmlSerializable, Serializa
       computeGeo_Grid();
    }
 
+   /**
+    * Compute min/max/avg and other computed fields of a joined tour.
+    * <p>
+    * The smoothed data series are computed from the joined data series because they are displayed
+    * in the tour chart. Max values, averages, zones and geo values are summarized from the already
+    * computed values of the joined tours, all averages are weighted with the moving time of each
+    * tour, or with the elapsed time when the moving time is not available. These values can differ
+    * slightly from values which are computed
+    * from the joined data series, because the smoothing at the tour boundaries is not considered.
+    *
+    * @param allJoinedTours
+    *           Tours which are joined into this tour
+    */
+   public void computeComputedValues_Joined(final List<TourData> allJoinedTours) {
+
+      computePulseSmoothed();
+      computeDataSeries_Smoothed();
+
+      // tours can be completely below sea level
+      maxAltitude = -Float.MAX_VALUE;
+      maxPulse = 0;
+      maxSpeed = 0;
+      maxPace = 0;
+
+      double pulseSum = 0;
+      double pulseTime = 0;
+      double cadenceSum = 0;
+      double cadenceTime = 0;
+      double temperatureSum = 0;
+      double temperatureTime = 0;
+
+      boolean isAltitude = false;
+      boolean isTemperature = false;
+
+      for (final TourData tourData : allJoinedTours) {
+
+         // all averages are weighted with the same time
+         final long timeWeight = tourData.tourComputedTime_Moving > 0
+               ? tourData.tourComputedTime_Moving
+               : tourData.tourDeviceTime_Elapsed;
+
+         if (tourData.altitudeSerie != null) {
+
+            isAltitude = true;
+
+            maxAltitude = Math.max(maxAltitude, tourData.maxAltitude);
+         }
+
+         maxPulse = Math.max(maxPulse, tourData.maxPulse);
+
+         if (tourData.maxSpeed > maxSpeed) {
+
+            // the max pace belongs to the max speed
+            maxSpeed = tourData.maxSpeed;
+            maxPace = tourData.maxPace;
+         }
+
+         if (tourData.avgPulse > 0) {
+
+            pulseSum += tourData.avgPulse * timeWeight;
+            pulseTime += timeWeight;
+         }
+
+         if (tourData.avgCadence > 0) {
+
+            cadenceSum += tourData.avgCadence * timeWeight;
+            cadenceTime += timeWeight;
+         }
+
+         if (tourData.temperatureSerie != null) {
+
+            if (isTemperature == false) {
+
+               isTemperature = true;
+
+               weather_Temperature_Min_Device = tourData.weather_Temperature_Min_Device;
+               weather_Temperature_Max_Device = tourData.weather_Temperature_Max_Device;
+
+            } else {
+
+               weather_Temperature_Min_Device = Math.min(weather_Temperature_Min_Device, tourData.weather_Temperature_Min_Device);
+               weather_Temperature_Max_Device = Math.max(weather_Temperature_Max_Device, tourData.weather_Temperature_Max_Device);
+            }
+
+            temperatureSum += tourData.weather_Temperature_Average_Device * timeWeight;
+            temperatureTime += timeWeight;
+         }
+      }
+
+      if (isAltitude == false) {
+         maxAltitude = 0;
+      }
+
+      avgPulse = pulseTime == 0 ? 0 : (float) (pulseSum / pulseTime);
+      avgCadence = cadenceTime == 0 ? 0 : (float) (cadenceSum / cadenceTime);
+
+      if (temperatureTime > 0) {
+         weather_Temperature_Average_Device = (float) (temperatureSum / temperatureTime);
+      }
+
+      computeHrZones_Joined(allJoinedTours);
+      computeCadenceZonesTimes_Joined(allJoinedTours);
+      computeRunningDynamics();
+
+      if (latitudeSerie == null || longitudeSerie == null) {
+         return;
+      }
+
+      GeoPosition joinedMin = null;
+      GeoPosition joinedMax = null;
+
+      final IntHashSet allGeoParts = new IntHashSet();
+
+      for (final TourData tourData : allJoinedTours) {
+
+         if (tourData.latitudeSerie == null || tourData.longitudeSerie == null) {
+            continue;
+         }
+
+         final GeoPosition[] geoBounds = tourData.getGeoBounds();
+
+         if (geoBounds != null) {
+
+            final GeoPosition tourMin = geoBounds[0];
+            final GeoPosition tourMax = geoBounds[1];
+
+            if (joinedMin == null) {
+
+               joinedMin = new GeoPosition(tourMin.latitude, tourMin.longitude);
+               joinedMax = new GeoPosition(tourMax.latitude, tourMax.longitude);
+
+            } else {
+
+               joinedMin.latitude = Math.min(joinedMin.latitude, tourMin.latitude);
+               joinedMin.longitude = Math.min(joinedMin.longitude, tourMin.longitude);
+               joinedMax.latitude = Math.max(joinedMax.latitude, tourMax.latitude);
+               joinedMax.longitude = Math.max(joinedMax.longitude, tourMax.longitude);
+            }
+         }
+
+         if (tourData.geoGrid == null) {
+            tourData.computeGeo_Grid();
+         }
+
+         if (tourData.geoGrid != null) {
+            allGeoParts.addAll(tourData.geoGrid);
+         }
+      }
+
+      _isGeoBoundsChecked = true;
+      _geoBounds = joinedMin == null
+            ? null
+            : new GeoPosition[] { joinedMin, joinedMax };
+
+      geoGrid = allGeoParts.toArray();
+   }
+
    private void computeDataSeries_NotSmoothed() {
 
       // check if the tour was created manually
@@ -4710,6 +4928,82 @@ public class TourData implements Comparable<Object>, IXmlSerializable, Serializa
             hrZone9 };
    }
 
+   /**
+    * Summarizes the HR zones of the joined tours, they are computed from the joined data series
+    * when the tours have different HR zone boundaries, e.g. because the age of the person has
+    * changed between the tours.
+    *
+    * @param allJoinedTours
+    */
+   private void computeHrZones_Joined(final List<TourData> allJoinedTours) {
+
+      if (timeSerie == null || pulseSerie == null) {
+         return;
+      }
+
+      int[] allJoinedZones = null;
+      int joinedNumberOfHrZones = 0;
+      HrZoneContext hrZoneContext = null;
+
+      for (final TourData tourData : allJoinedTours) {
+
+         if (tourData.pulseSerie == null) {
+            continue;
+         }
+
+         final int[] allTourZones = tourData.getHrZones();
+
+         if (allTourZones == null) {
+            continue;
+         }
+
+         if (allJoinedZones == null) {
+
+            allJoinedZones = allTourZones.clone();
+            joinedNumberOfHrZones = tourData.numberOfHrZones;
+            hrZoneContext = tourData.getHrZoneContext();
+
+            continue;
+         }
+
+         if (tourData.numberOfHrZones != joinedNumberOfHrZones
+               || isSameHrZones(hrZoneContext, tourData.getHrZoneContext()) == false) {
+
+            // zone times with different boundaries cannot be summarized
+            computeHrZones();
+
+            return;
+         }
+
+         for (int zoneIndex = 0; zoneIndex < allJoinedZones.length; zoneIndex++) {
+
+            if (allJoinedZones[zoneIndex] >= 0 && allTourZones[zoneIndex] >= 0) {
+               allJoinedZones[zoneIndex] += allTourZones[zoneIndex];
+            }
+         }
+      }
+
+      if (allJoinedZones == null || hrZoneContext == null) {
+         return;
+      }
+
+      _hrZoneContext = hrZoneContext;
+      _hrZones = allJoinedZones;
+
+      numberOfHrZones = joinedNumberOfHrZones;
+
+      hrZone0 = allJoinedZones[0];
+      hrZone1 = allJoinedZones[1];
+      hrZone2 = allJoinedZones[2];
+      hrZone3 = allJoinedZones[3];
+      hrZone4 = allJoinedZones[4];
+      hrZone5 = allJoinedZones[5];
+      hrZone6 = allJoinedZones[6];
+      hrZone7 = allJoinedZones[7];
+      hrZone8 = allJoinedZones[8];
+      hrZone9 = allJoinedZones[9];
+   }
+
    private void computeMaxAltitude() {
 
       if (altitudeSerie == null) {
@@ -7006,7 +7300,7 @@ public class TourData implements Comparable<Object>, IXmlSerializable, Serializa
          final double lat = latitudeSerie[0];
          final double lon = longitudeSerie[0];
 
-         final String rawZoneId = TimezoneMapper.latLngToTimezoneString(lat, lon);
+         final String rawZoneId = TimeZoneGrid.getTimeZoneId(lat, lon);
          final ZoneId zoneId = ZoneId.of(rawZoneId);
 
          setTimeZoneId(zoneId.getId());
@@ -9795,10 +10089,18 @@ public class TourData implements Comparable<Object>, IXmlSerializable, Serializa
       return startAltitude;
    }
 
+   public short getStartDay() {
+      return startDay;
+   }
+
    public float getStartDistance() {
       return startDistance;
    }
 
+   public short getStartMonth() {
+      return startMonth;
+   }
+
    public short getStartPulse() {
       return startPulse;
    }
@@ -9945,14 +10247,16 @@ public class TourData implements Comparable<Object>, IXmlSerializable, Serializa
       return serie;
    }
 
-   public IntHashSet getTileHashes_ForTours(final int projectionHash, final int mapZoomLevel) {
+   public IntHashSet getTileHashes_ForWayPoints(final int projectionHash, final int mapZoomLevel) {
 
-      return _tileHashes_Tours.get(projectionHash + mapZoomLevel);
+      return _tileHashes_WayPoints.get(projectionHash + mapZoomLevel);
    }
 
-   public IntHashSet getTileHashes_ForWayPoints(final int projectionHash, final int mapZoomLevel) {
+   public TourTileSegments getTileSegments_ForTours(final int projectionHash, final int mapZoomLevel) {
 
-      return _tileHashes_WayPoints.get(projectionHash + mapZoomLevel);
+      synchronized (_tileSegments_Tours) {
+         return _tileSegments_Tours.get(projectionHash + mapZoomLevel);
+      }
    }
 
    /**
@@ -10597,6 +10901,21 @@ public class TourData implements Comparable<Object>, IXmlSerializable, Serializa
     *         not computed. Speed data are normally available from an ergometer and not from a bike
     *         computer
     */
+   /**
+    * @param hrZoneContext1
+    * @param hrZoneContext2
+    * @return Returns <code>true</code> when both HR zone contexts have the same zone boundaries
+    */
+   private boolean isSameHrZones(final HrZoneContext hrZoneContext1, final HrZoneContext hrZoneContext2) {
+
+      if (hrZoneContext1 == null || hrZoneContext2 == null) {
+         return hrZoneContext1 == hrZoneContext2;
+      }
+
+      return Arrays.equals(hrZoneContext1.zoneMinBpm, hrZoneContext2.zoneMinBpm)
+            && Arrays.equals(hrZoneContext1.zoneMaxBpm, hrZoneContext2.zoneMaxBpm);
+   }
+
    public boolean isSpeedSerieFromDevice() {
       return isSpeedSerieFromDevice;
    }
@@ -11886,14 +12205,16 @@ public class TourData implements Comparable<Object>, IXmlSerializable, Serializa
       this.temperatureScale = temperatureScale;
    }
 
-   public void setTileHashes_ForTours(final IntHashSet tileHashes, final int mapZoomLevel, final int projectionHash) {
+   public void setTileHashes_ForWayPoints(final IntHashSet tileHashes, final int mapZoomLevel, final int projectionHash) {
 
-      _tileHashes_Tours.put(projectionHash + mapZoomLevel, tileHashes);
+      _tileHashes_WayPoints.put(projectionHash + mapZoomLevel, tileHashes);
    }
 
-   public void setTileHashes_ForWayPoints(final IntHashSet tileHashes, final int mapZoomLevel, final int projectionHash) {
+   public void setTileSegments_ForTours(final TourTileSegments tileSegments, final int mapZoomLevel, final int projectionHash) {
 
-      _tileHashes_WayPoints.put(projectionHash + mapZoomLevel, tileHashes);
+      synchronized (_tileSegments_Tours) {
+         _tileSegments_Tours.put(projectionHash + mapZoomLevel, tileSegments);
+      }
    }
 
    public void setTimeSerieDouble(final double[] timeSerieDouble) {
@@ -0,0 +1,674 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package net.tourbook.database;
+
+import java.lang.StackWalker.StackFrame;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import net.tourbook.Messages;
+import net.tourbook.common.UI;
+import net.tourbook.common.util.StatusUtil;
+
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Records the timing of all SQL statements which are executed with connections from
+ * {@link TourDatabase#getConnection()}.
+ * <p>
+ * When profiling is enabled, the pooled connections are wrapped with proxies which measure each
+ * execution, the fetched rows and the pool wait time. All values are collected in lock free
+ * counters because the statements are executed concurrently. When profiling is disabled, the
+ * connections are not wrapped and have no overhead.
+ * <p>
+ * Query plans are captured with the Derby runtime statistics because
+ * <code>derby.language.logQueryPlan</code> is a static property which needs a restart and writes
+ * the plans of all statements into derby.log.
+ */
+public class SQLProfiler {
+
+   private static final char                                    NL                       = UI.NEW_LINE;
+
+   /**
+    * Upper limits in ms of the histogram buckets, the last bucket contains all slower executions
+    */
+   public static final int[]                                    HISTOGRAM_BUCKETS_MS     = { 1, 4, 16, 64, 256, 1024 };
+
+   /**
+    * Upper limits in microseconds of the histogram buckets for the pool wait time, getting a
+    * connection is much faster than executing a statement, the last bucket contains all slower
+    * waits
+    */
+   public static final int[]                                    HISTOGRAM_BUCKETS_POOL   = { 10, 50, 250, 1000, 5000, 25000 };
+
+   private static final String                                  SQL_BATCH                = "<batch>";                                         //$NON-NLS-1$
+   private static final String                                  SQL_OTHER                = "<other statements>";                              //$NON-NLS-1$
+   private static final String                                  SQL_GET_RUNTIME_STATS    = "VALUES SYSCS_UTIL.SYSCS_GET_RUNTIMESTATISTICS()"; //$NON-NLS-1$
+   private static final String                                  SQL_SET_RUNTIME_STATS    = "CALL SYSCS_UTIL.SYSCS_SET_RUNTIMESTATISTICS(%d)"; //$NON-NLS-1$
+   private static final String                                  SQL_SET_STATS_TIMING     = "CALL SYSCS_UTIL.SYSCS_SET_STATISTICS_TIMING(%d)"; //$NON-NLS-1$
+
+   /**
+    * Statements which are executed after this number of different statements is recorded, are
+    * summarized in {@link #SQL_OTHER}
+    */
+   private static final int                                     MAX_STATEMENTS           = 1000;
+
+   /**
+    * Literals are replaced with a parameter marker that statements with different values are
+    * recorded as one statement
+    */
+   private static final Pattern                                 PATTERN_STRING_LITERAL   = Pattern.compile("'(?:[^']|'')*'");                 //$NON-NLS-1$
+   private static final Pattern                                 PATTERN_NUMBER_LITERAL   = Pattern.compile("(?<![\\w.])\\d+(?:\\.\\d+)?(?![\\w.])"); //$NON-NLS-1$
+   private static final Pattern                                 PATTERN_VALUE_LIST       = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");           //$NON-NLS-1$
+
+   private static volatile boolean                              _isEnabled;
+   private static volatile boolean                              _isCaptureQueryPlans;
+
+   /**
+    * Key is the caller class and the SQL statement
+    */
+   private static final ConcurrentHashMap<String, SQLStatistic> _allStatistics           = new ConcurrentHashMap<>();
+
+   private static final LongAdder                               _poolWait_NumConnections = new LongAdder();
+   private static final LongAdder                               _poolWait_SumNanos       = new LongAdder();
+   private static final LongAccumulator                         _poolWait_MaxNanos       = new LongAccumulator(Long::max, 0);
+   private static final LongAdder[]                             _poolWait_Histogram      = createHistogram(HISTOGRAM_BUCKETS_POOL);
+
+   private static class ConnectionHandler implements InvocationHandler {
+
+      private final Connection             _conn;
+      private final boolean                _isCaptureQueryPlans;
+
+      private final List<StatementHandler> _allStatementHandler = new ArrayList<>();
+
+      private ConnectionHandler(final Connection conn, final boolean isCaptureQueryPlans) {
+
+         _conn = conn;
+         _isCaptureQueryPlans = isCaptureQueryPlans;
+      }
+
+      @Override
+      public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+
+         final String methodName = method.getName();
+
+         if ("close".equals(methodName)) { //$NON-NLS-1$
+
+            // closing a connection closes also its statements
+            synchronized (_allStatementHandler) {
+               for (final StatementHandler statementHandler : _allStatementHandler) {
+                  statementHandler.finishExecution(false);
+               }
+               _allStatementHandler.clear();
+            }
+
+            if (_isCaptureQueryPlans) {
+
+               // the connection is reused by the pool
+               setRuntimeStatistics(_conn, false);
+            }
+         }
+
+         final Object result = invokeMethod(_conn, method, args);
+
+         if (result instanceof Statement) {
+
+            // createStatement(), prepareStatement(sql), prepareCall(sql)
+
+            final String sql = args != null && args.length > 0 && args[0] instanceof String
+                  ? (String) args[0]
+                  : null;
+
+            final StatementHandler statementHandler = new StatementHandler(this, (Statement) result, sql, getCallerClass());
+
+            synchronized (_allStatementHandler) {
+               _allStatementHandler.add(statementHandler);
+            }
+
+            return createProxy(method.getReturnType(), statementHandler);
+         }
+
+         return result;
+      }
+   }
+
+   private static class ResultSetHandler implements InvocationHandler {
+
+      private final StatementHandler _statementHandler;
+      private final ResultSet        _resultSet;
+
+      private ResultSetHandler(final StatementHandler statementHandler, final ResultSet resultSet) {
+
+         _statementHandler = statementHandler;
+         _resultSet = resultSet;
+      }
+
+      @Override
+      public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+
+         final String methodName = method.getName();
+
+         if ("next".equals(methodName)) { //$NON-NLS-1$
+
+            final long startNanos = System.nanoTime();
+
+            final Object result = invokeMethod(_resultSet, method, args);
+
+            _statementHandler._executionNanos += System.nanoTime() - startNanos;
+
+            if (Boolean.TRUE.equals(result)) {
+               _statementHandler._executionRows++;
+            }
+
+            return result;
+         }
+
+         final Object result = invokeMethod(_resultSet, method, args);
+
+         if ("close".equals(methodName)) { //$NON-NLS-1$
+
+            // the query plan is available after the result set is closed
+            _statementHandler.finishExecution(true);
+         }
+
+         return result;
+      }
+   }
+
+   /**
+    * Statistic of one SQL statement from one caller class
+    */
+   public static class SQLStatistic {
+
+      public final String           sql;
+      public final String           callerClass;
+
+      private final LongAdder       _numExecutions = new LongAdder();
+      private final LongAdder       _numRows       = new LongAdder();
+      private final LongAdder       _sumNanos      = new LongAdder();
+      private final LongAccumulator _maxNanos      = new LongAccumulator(Long::max, 0);
+      private final LongAdder[]     _histogram     = createHistogram(HISTOGRAM_BUCKETS_MS);
+
+      /**
+       * Query plan of the slowest execution
+       */
+      private volatile String       _queryPlan;
+      private volatile long         _queryPlanNanos;
+
+      private SQLStatistic(final String callerClass, final String sql) {
+
+         this.callerClass = callerClass;
+         this.sql = sql;
+      }
+
+      private void addExecution(final long nanos, final long numRows) {
+
+         _numExecutions.increment();
+         _numRows.add(numRows);
+         _sumNanos.add(nanos);
+         _maxNanos.accumulate(nanos);
+
+         _histogram[getHistogramBucket(nanos / 1_000_000, HISTOGRAM_BUCKETS_MS)].increment();
+      }
+
+      public float getAvgMs() {
+
+         final long numExecutions = _numExecutions.sum();
+
+         return numExecutions == 0 ? 0 : _sumNanos.sum() / 1_000_000f / numExecutions;
+      }
+
+      /**
+       * @return Returns the number of executions for each bucket in
+       *         {@link SQLProfiler#HISTOGRAM_BUCKETS_MS}
+       */
+      public long[] getHistogram() {
+         return sumHistogram(_histogram);
+      }
+
+      public float getMaxMs() {
+         return _maxNanos.get() / 1_000_000f;
+      }
+
+      public long getNumExecutions() {
+         return _numExecutions.sum();
+      }
+
+      public long getNumRows() {
+         return _numRows.sum();
+      }
+
+      /**
+       * @return Returns the query plan of the slowest execution or <code>null</code> when it is not
+       *         captured
+       */
+      public String getQueryPlan() {
+         return _queryPlan;
+      }
+
+      public float getSumMs() {
+         return _sumNanos.sum() / 1_000_000f;
+      }
+
+      private long getSumNanos() {
+         return _sumNanos.sum();
+      }
+   }
+
+   private static class StatementHandler implements InvocationHandler {
+
+      private final ConnectionHandler _connectionHandler;
+      private final Statement         _statement;
+      private final String            _preparedSql;
+      private final String            _callerClass;
+
+      /*
+       * Values of the current execution, a statement is used only in one thread
+       */
+      private SQLStatistic            _executionStatistic;
+      private long                    _executionNanos;
+      private long                    _executionRows;
+
+      private StatementHandler(final ConnectionHandler connectionHandler,
+                               final Statement statement,
+                               final String preparedSql,
+                               final String callerClass) {
+
+         _connectionHandler = connectionHandler;
+         _statement = statement;
+         _preparedSql = preparedSql;
+         _callerClass = callerClass;
+      }
+
+      /**
+       * Record the current execution, a query is finished when its result set is closed or the
+       * statement is executed again or closed.
+       *
+       * @param isCaptureQueryPlan
+       */
+      private void finishExecution(final boolean isCaptureQueryPlan) {
+
+         final SQLStatistic statistic = _executionStatistic;
+
+         if (statistic == null) {
+            return;
+         }
+
+         _executionStatistic = null;
+
+         statistic.addExecution(_executionNanos, _executionRows);
+
+         if (isCaptureQueryPlan
+               && _connectionHandler._isCaptureQueryPlans
+               && _executionNanos >= statistic._queryPlanNanos) {
+
+            final String queryPlan = getQueryPlan(_connectionHandler._conn);
+
+            if (queryPlan != null) {
+
+               statistic._queryPlan = queryPlan;
+               statistic._queryPlanNanos = _executionNanos;
+            }
+         }
+      }
+
+      @Override
+      public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+
+         final String methodName = method.getName();
+
+         if (methodName.startsWith("execute")) { //$NON-NLS-1$
+
+            // a new execution closes the result set of the previous execution
+            finishExecution(false);
+
+            final String sql = args != null && args.length > 0 && args[0] instanceof String
+                  ? (String) args[0]
+                  : _preparedSql;
+
+            final long startNanos = System.nanoTime();
+
+            final Object result = invokeMethod(_statement, method, args);
+
+            _executionStatistic = getStatistic(_callerClass, sql == null ? SQL_BATCH : sql);
+            _executionNanos = System.nanoTime() - startNanos;
+            _executionRows = 0;
+
+            if (result instanceof ResultSet) {
+
+               // rows are counted when they are fetched
+               return createProxy(ResultSet.class, new ResultSetHandler(this, (ResultSet) result));
+            }
+
+            if (result instanceof Integer) {
+
+               // executeUpdate()
+               _executionRows = (Integer) result;
+
+            } else if (result instanceof int[]) {
+
+               // executeBatch()
+               for (final int numRows : (int[]) result) {
+                  _executionRows += Math.max(0, numRows);
+               }
+            }
+
+            if (Boolean.TRUE.equals(result) == false) {
+
+               // there is no result set which would finish the execution
+               finishExecution(true);
+            }
+
+            return result;
+         }
+
+         if ("close".equals(methodName)) { //$NON-NLS-1$
+
+            final Object result = invokeMethod(_statement, method, args);
+
+            finishExecution(true);
+
+            synchronized (_connectionHandler._allStatementHandler) {
+               _connectionHandler._allStatementHandler.remove(this);
+            }
+
+            return result;
+         }
+
+         return invokeMethod(_statement, method, args);
+      }
+   }
+
+   /**
+    * @param allBucketLimits
+    * @return Returns a histogram with one more bucket than the bucket limits for the values
+    *         above the last limit
+    */
+   private static LongAdder[] createHistogram(final int[] allBucketLimits) {
+
+      final int numBuckets = allBucketLimits.length + 1;
+
+      final LongAdder[] histogram = new LongAdder[numBuckets];
+
+      for (int bucketIndex = 0; bucketIndex < numBuckets; bucketIndex++) {
+         histogram[bucketIndex] = new LongAdder();
+      }
+
+      return histogram;
+   }
+
+   @SuppressWarnings("unchecked")
+   private static <T> T createProxy(final Class<T> proxyInterface, final InvocationHandler handler) {
+
+      return (T) Proxy.newProxyInstance(SQLProfiler.class.getClassLoader(), new Class<?>[] { proxyInterface }, handler);
+   }
+
+   public static String formatHistogram(final long[] histogram) {
+
+      final StringBuilder sb = new StringBuilder();
+
+      for (final long numExecutions : histogram) {
+
+         if (sb.length() > 0) {
+            sb.append(UI.SPACE1);
+         }
+
+         sb.append(numExecutions);
+      }
+
+      return sb.toString();
+   }
+
+   /**
+    * @return Returns the first class in the call stack which is not part of the JDBC layer
+    */
+   private static String getCallerClass() {
+
+      return StackWalker.getInstance().walk(allFrames -> allFrames
+
+            .map(StackFrame::getClassName)
+            .filter(className -> isInternalClass(className) == false)
+            .findFirst()
+            .orElse(UI.EMPTY_STRING));
+   }
+
+   /**
+    * @param value
+    *           Value in the same unit as the bucket limits
+    * @param allBucketLimits
+    * @return Returns the index of the histogram bucket for the value
+    */
+   private static int getHistogramBucket(final long value, final int[] allBucketLimits) {
+
+      for (int bucketIndex = 0; bucketIndex < allBucketLimits.length; bucketIndex++) {
+
+         if (value < allBucketLimits[bucketIndex]) {
+            return bucketIndex;
+         }
+      }
+
+      return allBucketLimits.length;
+   }
+
+   /**
+    * @return Returns the statistics of the connection pool
+    */
+   public static String getPoolStatistics() {
+
+      final long numConnections = _poolWait_NumConnections.sum();
+      final long avgWait = numConnections == 0 ? 0 : _poolWait_SumNanos.sum() / numConnections / 1000;
+
+      return NLS.bind(Messages.Database_Performance_Label_PoolWait,
+            new Object[] {
+                  numConnections,
+                  avgWait,
+                  _poolWait_MaxNanos.get() / 1000,
+                  formatHistogram(sumHistogram(_poolWait_Histogram)) });
+   }
+
+   /**
+    * @param conn
+    * @return Returns the runtime statistics of the last statement which was executed in this
+    *         connection or <code>null</code> when not available
+    */
+   private static String getQueryPlan(final Connection conn) {
+
+      try (Statement stmt = conn.createStatement()) {
+
+         final ResultSet result = stmt.executeQuery(SQL_GET_RUNTIME_STATS);
+
+         if (result.next()) {
+            return result.getString(1);
+         }
+
+      } catch (final SQLException e) {
+         StatusUtil.log(e);
+      }
+
+      return null;
+   }
+
+   private static SQLStatistic getStatistic(final String callerClass, final String sql) {
+
+      final String normalizedSql = normalizeSql(sql);
+      final String key = callerClass + NL + normalizedSql;
+
+      final SQLStatistic sqlStatistic = _allStatistics.get(key);
+
+      if (sqlStatistic != null) {
+         return sqlStatistic;
+      }
+
+      if (_allStatistics.size() >= MAX_STATEMENTS) {
+
+         // the number of recorded statements is limited, e.g. for statements which are created with literals in a loop
+         return _allStatistics.computeIfAbsent(SQL_OTHER, otherKey -> new SQLStatistic(UI.EMPTY_STRING, SQL_OTHER));
+      }
+
+      return _allStatistics.computeIfAbsent(key, newKey -> new SQLStatistic(callerClass, normalizedSql));
+   }
+
+   /**
+    * @param maxStatements
+    * @return Returns the statements with the highest total execution time
+    */
+   public static List<SQLStatistic> getTopStatistics(final int maxStatements) {
+
+      return _allStatistics.values().stream()
+
+            .sorted(Comparator.comparingLong(SQLStatistic::getSumNanos).reversed())
+            .limit(maxStatements)
+            .collect(Collectors.toList());
+   }
+
+   private static Object invokeMethod(final Object target, final Method method, final Object[] args) throws Throwable {
+
+      try {
+
+         return method.invoke(target, args);
+
+      } catch (final InvocationTargetException e) {
+
+         // throw the original SQLException
+         throw e.getCause();
+      }
+   }
+
+   public static boolean isCaptureQueryPlans() {
+      return _isCaptureQueryPlans;
+   }
+
+   public static boolean isEnabled() {
+      return _isEnabled;
+   }
+
+   private static boolean isInternalClass(final String className) {
+
+      return className.startsWith(SQLProfiler.class.getName())
+            || className.startsWith("java.") //$NON-NLS-1$
+            || className.startsWith("jdk.") //$NON-NLS-1$
+            || className.startsWith("com.sun.") //$NON-NLS-1$
+            || className.contains("$Proxy"); //$NON-NLS-1$
+   }
+
+   /**
+    * @param sql
+    * @return Returns the SQL statement where string and number literals are replaced with a
+    *         parameter marker and lists of parameter markers are replaced with one marker
+    */
+   private static String normalizeSql(final String sql) {
+
+      String normalizedSql = sql;
+
+      normalizedSql = PATTERN_STRING_LITERAL.matcher(normalizedSql).replaceAll("?"); //$NON-NLS-1$
+      normalizedSql = PATTERN_NUMBER_LITERAL.matcher(normalizedSql).replaceAll("?"); //$NON-NLS-1$
+      normalizedSql = PATTERN_VALUE_LIST.matcher(normalizedSql).replaceAll("?"); //$NON-NLS-1$
+
+      return normalizedSql;
+   }
+
+   /**
+    * Remove all recorded values
+    */
+   public static void reset() {
+
+      _allStatistics.clear();
+
+      _poolWait_NumConnections.reset();
+      _poolWait_SumNanos.reset();
+      _poolWait_MaxNanos.reset();
+
+      for (final LongAdder bucket : _poolWait_Histogram) {
+         bucket.reset();
+      }
+   }
+
+   /**
+    * Query plans are captured for connections which are requested after this is set.
+    *
+    * @param isCaptureQueryPlans
+    */
+   public static void setCaptureQueryPlans(final boolean isCaptureQueryPlans) {
+      _isCaptureQueryPlans = isCaptureQueryPlans;
+   }
+
+   public static void setEnabled(final boolean isEnabled) {
+      _isEnabled = isEnabled;
+   }
+
+   private static void setRuntimeStatistics(final Connection conn, final boolean isEnabled) {
+
+      final int value = isEnabled ? 1 : 0;
+
+      try (Statement stmt = conn.createStatement()) {
+
+         stmt.execute(String.format(SQL_SET_RUNTIME_STATS, value));
+         stmt.execute(String.format(SQL_SET_STATS_TIMING, value));
+
+      } catch (final SQLException e) {
+         StatusUtil.log(e);
+      }
+   }
+
+   private static long[] sumHistogram(final LongAdder[] histogram) {
+
+      final long[] allSums = new long[histogram.length];
+
+      for (int bucketIndex = 0; bucketIndex < histogram.length; bucketIndex++) {
+         allSums[bucketIndex] = histogram[bucketIndex].sum();
+      }
+
+      return allSums;
+   }
+
+   /**
+    * Record the pool wait time and wrap the connection so that its statements are profiled.
+    *
+    * @param conn
+    * @param poolWaitNanos
+    *           Time to get the connection from the pool
+    * @return Returns the profiled connection
+    */
+   static Connection wrapConnection(final Connection conn, final long poolWaitNanos) {
+
+      _poolWait_NumConnections.increment();
+      _poolWait_SumNanos.add(poolWaitNanos);
+      _poolWait_MaxNanos.accumulate(poolWaitNanos);
+      _poolWait_Histogram[getHistogramBucket(poolWaitNanos / 1000, HISTOGRAM_BUCKETS_POOL)].increment();
+
+      final boolean isCaptureQueryPlans = _isCaptureQueryPlans;
+
+      if (isCaptureQueryPlans) {
+         setRuntimeStatistics(conn, true);
+      }
+
+      return createProxy(Connection.class, new ConnectionHandler(conn, isCaptureQueryPlans));
+   }
+}
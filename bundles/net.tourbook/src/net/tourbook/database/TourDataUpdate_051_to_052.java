@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (C) 2005, 2017 Wolfgang Schramm and Contributors
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
  *
  * This program is free software; you can redistribute it and/or modify it under
  * the terms of the GNU General Public License as published by the Free Software
@@ -13,35 +13,27 @@
  * this program; if not, write to the Free Software Foundation,
  * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
  *******************************************************************************/
-package net.tourbook.ui.views.calendar;
+package net.tourbook.database;
 
-import java.time.LocalDate;
+import net.tourbook.data.TourData;
 
-public class WeekLoader {
+public class TourDataUpdate_051_to_052 implements ITourDataUpdate {
 
-	LocalDate			week1stDay;
-	int					year;
-	int					week;
+   @Override
+   public int getDatabaseVersion() {
 
-	/**
-	 * Returning week data
-	 */
-	CalendarTourData	weekData;
-	long				executorId;
+      return 52;
+   }
 
-	public WeekLoader(	final LocalDate week1stDay,
-						final int year,
-						final int week,
-						final CalendarTourData weekData,
-						final long executorId) {
+   @Override
+   public boolean updateTourData(final TourData tourData) {
 
-		this.week1stDay = week1stDay;
+      /**
+       * Create the mean maximal curves for all existing tours, the tour itself is not modified
+       */
+      TourMeanMax.saveTour(tourData);
 
-		this.year = year;
-		this.week = week;
-
-		this.weekData = weekData;
-		this.executorId = executorId;
-	}
+      return false;
+   }
 
 }
@@ -16,7 +16,6 @@
 package net.tourbook.database;
 
 import com.mchange.v2.c3p0.ComboPooledDataSource;
-import com.skedgo.converter.TimezoneMapper;
 
 import java.beans.PropertyVetoException;
 import java.lang.reflect.InvocationTargetException;
@@ -36,6 +35,8 @@ import java.time.ZonedDateTime;
 import java.time.temporal.TemporalField;
 import java.time.temporal.WeekFields;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -55,9 +56,11 @@ import javax.persistence.Query;
 
 import net.tourbook.Messages;
 import net.tourbook.application.SplashManager;
+import net.tourbook.application.StartupTrace;
 import net.tourbook.application.TourbookPlugin;
 import net.tourbook.common.NIO;
 import net.tourbook.common.time.TimeTools;
+import net.tourbook.common.time.TimeZoneGrid;
 import net.tourbook.common.util.StatusUtil;
 import net.tourbook.common.util.StringUtils;
 import net.tourbook.common.util.Util;
@@ -74,6 +77,8 @@ import net.tourbook.data.TourTag;
 import net.tourbook.data.TourTagCategory;
 import net.tourbook.data.TourType;
 import net.tourbook.data.TourWayPoint;
+import net.tourbook.database.TourDayAggregates.DayKey;
+import net.tourbook.database.TourGeoParts.SavedGeoData;
 import net.tourbook.preferences.ITourbookPreferences;
 import net.tourbook.search.FTSearchManager;
 import net.tourbook.tag.TagCollection;
@@ -112,8 +117,10 @@ public class TourDatabase {
     * <li>/net.tourbook.export/format-templates/mt-1.0.vm</li>
     * <li>net.tourbook.device.mt.MT_StAXHandler</li>
     */
-   private static final int TOURBOOK_DB_VERSION = 50;
+   private static final int TOURBOOK_DB_VERSION = 52;
 
+//   private static final int TOURBOOK_DB_VERSION = 52; // 23.x ??????
+//   private static final int TOURBOOK_DB_VERSION = 51; // 23.x ??????
 //   private static final int TOURBOOK_DB_VERSION = 50; // 23.x ??????
 
 //   private static final int TOURBOOK_DB_VERSION = 49; // 23.3
@@ -190,7 +197,9 @@ public class TourDatabase {
    private static final String TABLE_TOUR_BIKE                            = "TOURBIKE";                                              //$NON-NLS-1$
    public static final String  TABLE_TOUR_COMPARED                        = "TOURCOMPARED";                                          //$NON-NLS-1$
    public static final String  TABLE_TOUR_DATA                            = "TOURDATA";                                              //$NON-NLS-1$
+   public static final String  TABLE_TOUR_DAY_AGGREGATES                  = "TourDayAggregates";                                     //$NON-NLS-1$
    public static final String  TABLE_TOUR_GEO_PARTS                       = "TourGeoParts";                                          //$NON-NLS-1$
+   public static final String  TABLE_TOUR_MEAN_MAX                        = "TourMeanMax";                                           //$NON-NLS-1$
    public static final String  TABLE_TOUR_MARKER                          = "TOURMARKER";                                            //$NON-NLS-1$
    public static final String  TABLE_TOUR_PERSON                          = "TOURPERSON";                                            //$NON-NLS-1$
    private static final String TABLE_TOUR_PERSON_HRZONE                   = "TOURPERSONHRZONE";                                      //$NON-NLS-1$
@@ -222,6 +231,12 @@ public class TourDatabase {
     * Is <code>-1</code>, this is the id for a not saved entity
     */
    public static final int     ENTITY_IS_NOT_SAVED                        = -1;
+
+   /**
+    * Max number of tours which are loaded with one query, this is also used to load the tour
+    * collections (marker, tags, ...) for multiple tours with one query
+    */
+   public static final int     BATCH_SIZE_TOURS                           = 100;
    //
    private static final String ENTITY_ID_BIKE                             = "BikeID";                                               //$NON-NLS-1$
    private static final String ENTITY_ID_COMPARED                         = "ComparedID";                                           //$NON-NLS-1$
@@ -1461,6 +1476,9 @@ public class TourDatabase {
 
       boolean isTourRemovedFromEJB = false;
 
+      // day of the tour before it is removed
+      DayKey tourDayKey = null;
+
       final EntityManager em = TourDatabase.getInstance().getEntityManager();
       final EntityTransaction ts = em.getTransaction();
 
@@ -1469,6 +1487,8 @@ public class TourDatabase {
 
          if (tourData != null) {
 
+            tourDayKey = TourDayAggregates.getDayKey(tourData);
+
             ts.begin();
             em.remove(tourData);
             ts.commit();
@@ -1482,6 +1502,10 @@ public class TourDatabase {
           * an error could have been occurred when loading the tour with em.find, remove the tour
           * with sql commands
           */
+         if (tourDayKey == null) {
+            tourDayKey = TourDayAggregates.getDayKey(tourId);
+         }
+
          deleteTour_WithSQL(tourId);
 
       } finally {
@@ -1502,6 +1526,10 @@ public class TourDatabase {
          TourManager.getInstance().removeTourFromCache(tourId);
       }
 
+      if (tourDayKey != null) {
+         TourDayAggregates.updateDays(Collections.singletonList(tourDayKey));
+      }
+
       return true;
    }
 
@@ -1534,6 +1562,7 @@ public class TourDatabase {
             "DELETE FROM " + JOINTABLE__TOURDATA__TOURTAG   + sqlWhere_TourData_TourId,   //$NON-NLS-1$
             "DELETE FROM " + TABLE_TOUR_COMPARED            + sqlWhere_TourId,            //$NON-NLS-1$
             "DELETE FROM " + TABLE_TOUR_GEO_PARTS           + sqlWhere_TourId,            //$NON-NLS-1$
+            "DELETE FROM " + TABLE_TOUR_MEAN_MAX            + sqlWhere_TourId,            //$NON-NLS-1$
          };
 // SET_FORMATTING_ON
 
@@ -1802,18 +1831,21 @@ public class TourDatabase {
                   + "SELECT tourTagCategory" //$NON-NLS-1$
                   + " FROM " + TourTagCategory.class.getSimpleName() + " AS tourTagCategory"); //$NON-NLS-1$ //$NON-NLS-2$
 
-            _allTourTagCategories = new HashMap<>();
+            final HashMap<Long, TourTagCategory> allTourTagCategories = new HashMap<>();
 
             final List<?> resultList = emQuery.getResultList();
             for (final Object result : resultList) {
 
                if (result instanceof TourTagCategory) {
                   final TourTagCategory tourTagCategory = (TourTagCategory) result;
-                  _allTourTagCategories.put(tourTagCategory.getCategoryId(), tourTagCategory);
+                  allTourTagCategories.put(tourTagCategory.getCategoryId(), tourTagCategory);
                }
             }
 
             em.close();
+
+            // publish the map when it is filled
+            _allTourTagCategories = allTourTagCategories;
          }
       }
 
@@ -2385,6 +2417,51 @@ public class TourDatabase {
       return tourData;
    }
 
+   /**
+    * Get multiple tours from the database with one query. The tour collections, e.g. marker or
+    * tags, are also loaded for multiple tours with one query, see {@link #BATCH_SIZE_TOURS}.
+    *
+    * @param allTourIds
+    *           Tour ids, should not be more than {@link #BATCH_SIZE_TOURS}
+    * @return Returns all tours which are in the database, key is the tour id
+    */
+   public static Map<Long, TourData> getToursFromDb(final Collection<Long> allTourIds) {
+
+      final Map<Long, TourData> allTourData = new HashMap<>();
+
+      if (allTourIds.isEmpty()) {
+         return allTourData;
+      }
+
+      final EntityManager em = TourDatabase.getInstance().getEntityManager();
+
+      try {
+
+         final Query emQuery = em.createQuery(UI.EMPTY_STRING
+
+               + "SELECT tourData" //$NON-NLS-1$
+               + " FROM " + TourData.class.getSimpleName() + " AS tourData" //$NON-NLS-1$ //$NON-NLS-2$
+               + " WHERE tourData.tourId IN (:tourIds)"); //$NON-NLS-1$
+
+         emQuery.setParameter("tourIds", allTourIds); //$NON-NLS-1$
+
+         for (final Object result : emQuery.getResultList()) {
+
+            if (result instanceof TourData) {
+
+               final TourData tourData = (TourData) result;
+
+               allTourData.put(tourData.getTourId(), tourData);
+            }
+         }
+
+      } finally {
+         em.close();
+      }
+
+      return allTourData;
+   }
+
    /**
     * Get {@link TourType} from all available tour type by it's id.
     *
@@ -2774,8 +2851,9 @@ public class TourDatabase {
             em.close();
          }
 
-         _allTourTags_ByTagId = allTourTags_ByTagId;
+         // the tag id map is checked by the loader, it must be published last
          _allTourTags_ByTagName = allTourTags_ByTagName;
+         _allTourTags_ByTagId = allTourTags_ByTagId;
       }
    }
 
@@ -2813,9 +2891,10 @@ public class TourDatabase {
             em.close();
          }
 
-         _allDbTourTypes = allDbTourTypes;
+         // the tour type list is checked by the loader, it must be published last
          _allDbTourTypes_ById = allDbTourTypes_ById;
          _allDbTourTypes_ByName = allDbTourTypes_ByName;
+         _allDbTourTypes = allDbTourTypes;
       }
    }
 
@@ -2962,6 +3041,12 @@ public class TourDatabase {
 
       TourData persistedEntity = null;
 
+      // day of the saved tour before the tour date or person could be modified
+      DayKey previousDayKey = null;
+
+      // geo data of the saved tour before the tour geo data could be modified
+      SavedGeoData savedGeoData = null;
+
       if (em != null) {
 
          final EntityTransaction ts = em.getTransaction();
@@ -2979,6 +3064,8 @@ public class TourDatabase {
 
                   // tour is not yet persisted
 
+                  savedGeoData = SavedGeoData.NOT_SAVED;
+
                   tourData.setDateTimeCreated(dtSaved);
 
                   em.persist(tourData);
@@ -2987,6 +3074,9 @@ public class TourDatabase {
 
                } else {
 
+                  previousDayKey = TourDayAggregates.getDayKey(tourDataEntity);
+                  savedGeoData = new SavedGeoData(tourDataEntity);
+
                   if (isUpdateModifiedDate) {
                      tourData.setDateTimeModified(dtSaved);
                   }
@@ -3022,7 +3112,7 @@ public class TourDatabase {
 
          em.close();
 
-         saveTour_PostSaveActions(persistedEntity);
+         saveTour_PostSaveActions(persistedEntity, previousDayKey, savedGeoData);
       }
 
       return persistedEntity;
@@ -3045,6 +3135,12 @@ public class TourDatabase {
 
       TourData persistedEntity = null;
 
+      // day of the saved tour before the tour date or person could be modified
+      DayKey previousDayKey = null;
+
+      // geo data of the saved tour before the tour geo data could be modified
+      SavedGeoData savedGeoData = null;
+
       if (em != null) {
 
          final EntityTransaction ts = em.getTransaction();
@@ -3063,6 +3159,8 @@ public class TourDatabase {
 
                   // tour is not yet persisted
 
+                  savedGeoData = SavedGeoData.NOT_SAVED;
+
                   tourData.setDateTimeCreated(dtSaved);
 
                   em.persist(tourData);
@@ -3071,6 +3169,9 @@ public class TourDatabase {
 
                } else {
 
+                  previousDayKey = TourDayAggregates.getDayKey(dbTourData);
+                  savedGeoData = new SavedGeoData(dbTourData);
+
                   if (isUpdateModifiedDate) {
                      tourData.setDateTimeModified(dtSaved);
                   }
@@ -3095,7 +3196,7 @@ public class TourDatabase {
          }
 
          // do post save actions for only ONE tour
-         saveTour_PostSaveActions_Concurrent_1_ForOneTour(persistedEntity);
+         saveTour_PostSaveActions_Concurrent_1_ForOneTour(persistedEntity, previousDayKey, savedGeoData);
 
          // !!! This method MUST be called AFTER all tours are saved !!!
          // !!! This method MUST be called AFTER all tours are saved !!!
@@ -3107,92 +3208,20 @@ public class TourDatabase {
       return persistedEntity;
    }
 
-   private static void saveTour_GeoParts(final TourData tourData) {
-
-//      final long startTime = System.nanoTime();
-
-      PreparedStatement deleteStmt = null;
-      PreparedStatement insertStmt = null;
-
-      String sql = UI.EMPTY_STRING;
-
-      int[] tourGeoParts = null;
-
-      try (Connection conn = TourDatabase.getInstance().getConnection()) {
-
-         final long tourId = tourData.getTourId();
-
-         /*
-          * Delete old geo parts
-          */
-         sql = "DELETE FROM " + TABLE_TOUR_GEO_PARTS + " WHERE tourId=?"; //$NON-NLS-1$ //$NON-NLS-2$
-
-         deleteStmt = conn.prepareStatement(sql);
-         deleteStmt.setLong(1, tourId);
-         deleteStmt.execute();
-
-         /*
-          * Save new geo parts
-          */
-         tourData.computeGeo_Grid();
-         tourGeoParts = tourData.geoGrid;
-
-         if (tourGeoParts != null) {
-
-            sql = "INSERT INTO " + TABLE_TOUR_GEO_PARTS //$NON-NLS-1$
-                  + " (TourId, GeoPart)" //$NON-NLS-1$
-                  + " VALUES (?, ?)"; //$NON-NLS-1$
-
-            insertStmt = conn.prepareStatement(sql);
-
-            conn.setAutoCommit(false);
-            {
-               for (final int geoPart : tourGeoParts) {
-
-                  insertStmt.setLong(1, tourId);
-                  insertStmt.setInt(2, geoPart);
-
-                  insertStmt.addBatch();
-               }
-
-               insertStmt.executeBatch();
-            }
-            conn.commit();
-         }
-
-      } catch (final SQLException e) {
-         UI.showSQLException(e);
-      } finally {
-         Util.closeSql(deleteStmt);
-         Util.closeSql(insertStmt);
-      }
-
-//      System.out.println(
-//            String.format(
-//                  "%s" // tour date //$NON-NLS-1$
-//                        + "  %s tour" // tour time //$NON-NLS-1$
-//
-//                        + "  %5d time slices" // time slices //$NON-NLS-1$
-//                        + "  %5d parts" // parts //$NON-NLS-1$
-//                        + "  %5.2f ms", // sql time //$NON-NLS-1$
-//
-//                  TourManager.getTourDateShort(tourData),
-//                  TourManager.getTourTimeShort(tourData),
-//
-//                  tourData.timeSerie == null ? 0 : tourData.timeSerie.length,
-//                  tourGeoParts == null ? 0 : tourGeoParts.length,
-//                  (System.nanoTime() - startTime) / 1_000_000.0)
-//
-//      );
-   }
-
-   private static void saveTour_PostSaveActions(final TourData persistedEntity) {
+   private static void saveTour_PostSaveActions(final TourData persistedEntity,
+                                                final DayKey previousDayKey,
+                                                final SavedGeoData savedGeoData) {
 
       TourManager.getInstance().updateTourInCache(persistedEntity);
 
       updateCachedFields(persistedEntity);
 
-      saveTour_GeoParts(persistedEntity);
+      TourGeoParts.saveTour(persistedEntity, savedGeoData);
+
+      TourMeanMax.saveTour(persistedEntity);
+
+      // the tour date or person could have been modified
+      TourDayAggregates.updateDays(Arrays.asList(previousDayKey, TourDayAggregates.getDayKey(persistedEntity)));
 
       /*
        * Update ft index
@@ -3207,14 +3236,23 @@ public class TourDatabase {
     * Perform concurrent actions after a tour is saved
     *
     * @param persistedEntity
+    * @param previousDayKey
+    * @param savedGeoData
     */
-   private static void saveTour_PostSaveActions_Concurrent_1_ForOneTour(final TourData persistedEntity) {
+   private static void saveTour_PostSaveActions_Concurrent_1_ForOneTour(final TourData persistedEntity,
+                                                                         final DayKey previousDayKey,
+                                                                         final SavedGeoData savedGeoData) {
 
       TourManager.getInstance().updateTourInCache(persistedEntity);
 
       updateCachedFields(persistedEntity);
 
-      saveTour_GeoParts(persistedEntity);
+      TourGeoParts.saveTour(persistedEntity, savedGeoData);
+
+      TourMeanMax.saveTour(persistedEntity);
+
+      // the days are updated once after all tours are saved
+      TourDayAggregates.addModifiedDays(previousDayKey, TourDayAggregates.getDayKey(persistedEntity));
    }
 
    /**
@@ -3224,7 +3262,9 @@ public class TourDatabase {
     */
    public static void saveTour_PostSaveActions_Concurrent_2_ForAllTours(final List<Long> allTourIDs) {
 
-      // do this expensive action only once for all tours
+      // do these expensive actions only once for all tours
+      TourDayAggregates.updateModifiedDays();
+
       FTSearchManager.updateIndex(allTourIDs);
    }
 
@@ -3467,6 +3507,12 @@ public class TourDatabase {
          }
       }
 
+      if (isUpdated) {
+
+         // the day aggregates contain also the week
+         TourDayAggregates.rebuild(conn);
+      }
+
       return isUpdated;
    }
 
@@ -3591,6 +3637,24 @@ public class TourDatabase {
       exec(stmt, sql);
    }
 
+   /**
+    * Create index for {@link TourData}, it is used to update the {@link TourDayAggregates} of one
+    * day.
+    * <p>
+    *
+    * @param stmt
+    * @throws SQLException
+    * @since Db version 51
+    */
+   private void createIndex_TourData_051(final Statement stmt) throws SQLException {
+
+      /*
+       * CREATE INDEX YearMonthDay
+       */
+      final String sql = "CREATE INDEX YearMonthDay ON " + TABLE_TOUR_DATA + " (StartYear, StartMonth, StartDay)"; //$NON-NLS-1$ //$NON-NLS-2$
+      exec(stmt, sql);
+   }
+
    private String createLog_DataUpdate(final int toVersion, final long startTime) {
 
       final long timeDiff = System.currentTimeMillis() - startTime;
@@ -4184,6 +4248,7 @@ public class TourDatabase {
       createIndex_TourData_029(stmt);
       createIndex_TourData_033(stmt);
       createIndex_TourData_037(stmt);
+      createIndex_TourData_051(stmt);
 
       SQL.CreateIndex_Combined(stmt, TABLE_TOUR_DATA, "Battery_Percentage_Start"); //$NON-NLS-1$
    }
@@ -4212,6 +4277,95 @@ public class TourDatabase {
       SQL.CreateIndex(stmt, TABLE_TOUR_GEO_PARTS, "GeoPart"); //$NON-NLS-1$
    }
 
+   /**
+    * Create table {@link #TABLE_TOUR_DAY_AGGREGATES} for {@link TourDayAggregates}
+    * <p>
+    * since db version 51
+    *
+    * @param stmt
+    * @throws SQLException
+    */
+   private void createTable_TourDayAggregates(final Statement stmt) throws SQLException {
+
+      /*
+       * CREATE TABLE TourDayAggregates
+       */
+      exec(stmt, "CREATE TABLE " + TABLE_TOUR_DAY_AGGREGATES + "   (                      " + NL //$NON-NLS-1$ //$NON-NLS-2$
+      //
+            + "   tourPerson_personId       BIGINT,                                       " + NL //$NON-NLS-1$
+            + "   tourType_typeId           BIGINT,                                       " + NL //$NON-NLS-1$
+
+            + "   TourDate                  INTEGER     NOT NULL,                         " + NL //$NON-NLS-1$
+            + "   StartYear                 SMALLINT    NOT NULL,                         " + NL //$NON-NLS-1$
+            + "   StartMonth                SMALLINT    NOT NULL,                         " + NL //$NON-NLS-1$
+            + "   StartDay                  SMALLINT    NOT NULL,                         " + NL //$NON-NLS-1$
+            + "   StartWeekYear             SMALLINT    NOT NULL,                         " + NL //$NON-NLS-1$
+            + "   StartWeek                 SMALLINT    NOT NULL,                         " + NL //$NON-NLS-1$
+
+            + "   NumTours                  INTEGER     DEFAULT 0,                        " + NL //$NON-NLS-1$
+            + "   NumTours_HrZones          INTEGER     DEFAULT 0,                        " + NL //$NON-NLS-1$
+
+            + "   HrZone0                   INTEGER     DEFAULT 0,                        " + NL //$NON-NLS-1$
+            + "   HrZone1                   INTEGER     DEFAULT 0,                        " + NL //$NON-NLS-1$
+            + "   HrZone2                   INTEGER     DEFAULT 0,                        " + NL //$NON-NLS-1$
+            + "   HrZone3                   INTEGER     DEFAULT 0,                        " + NL //$NON-NLS-1$
+            + "   HrZone4                   INTEGER     DEFAULT 0,                        " + NL //$NON-NLS-1$
+            + "   HrZone5                   INTEGER     DEFAULT 0,                        " + NL //$NON-NLS-1$
+            + "   HrZone6                   INTEGER     DEFAULT 0,                        " + NL //$NON-NLS-1$
+            + "   HrZone7                   INTEGER     DEFAULT 0,                        " + NL //$NON-NLS-1$
+            + "   HrZone8                   INTEGER     DEFAULT 0,                        " + NL //$NON-NLS-1$
+            + "   HrZone9                   INTEGER     DEFAULT 0,                        " + NL //$NON-NLS-1$
+
+            + "   CadenceZone_SlowTime      INTEGER     DEFAULT 0,                        " + NL //$NON-NLS-1$
+            + "   CadenceZone_FastTime      INTEGER     DEFAULT 0,                        " + NL //$NON-NLS-1$
+
+            + "   TrainingStressScore       DOUBLE      DEFAULT 0,                        " + NL //$NON-NLS-1$
+            + "   TrainingEffect_Aerob      DOUBLE      DEFAULT 0,                        " + NL //$NON-NLS-1$
+            + "   TrainingEffect_Anaerob    DOUBLE      DEFAULT 0,                        " + NL //$NON-NLS-1$
+
+            // values for the calendar week summary
+            + "   Distance                  DOUBLE      DEFAULT 0,                        " + NL //$NON-NLS-1$
+            + "   ElevationGain             BIGINT      DEFAULT 0,                        " + NL //$NON-NLS-1$
+            + "   ElevationLoss             BIGINT      DEFAULT 0,                        " + NL //$NON-NLS-1$
+            + "   Calories                  BIGINT      DEFAULT 0,                        " + NL //$NON-NLS-1$
+            + "   Time_Elapsed              BIGINT      DEFAULT 0,                        " + NL //$NON-NLS-1$
+            + "   Time_Recorded             BIGINT      DEFAULT 0,                        " + NL //$NON-NLS-1$
+            + "   Time_Moving               BIGINT      DEFAULT 0                         " + NL //$NON-NLS-1$
+
+            + ")"); //$NON-NLS-1$
+
+      SQL.CreateIndex(stmt, TABLE_TOUR_DAY_AGGREGATES, "TourDate"); //$NON-NLS-1$
+      SQL.CreateIndex(stmt, TABLE_TOUR_DAY_AGGREGATES, "tourPerson_personId"); //$NON-NLS-1$
+      SQL.CreateIndex(stmt, TABLE_TOUR_DAY_AGGREGATES, "StartWeekYear"); //$NON-NLS-1$
+   }
+
+   /**
+    * Create table {@link #TABLE_TOUR_MEAN_MAX} for {@link TourMeanMax}
+    * <p>
+    * since db version 52
+    *
+    * @param stmt
+    * @throws SQLException
+    */
+   private void createTable_TourMeanMax(final Statement stmt) throws SQLException {
+
+      /*
+       * CREATE TABLE TourMeanMax
+       */
+      exec(stmt, "CREATE TABLE " + TABLE_TOUR_MEAN_MAX + "   (                            " + NL //$NON-NLS-1$ //$NON-NLS-2$
+      //
+            + "   TourId         BIGINT   NOT NULL,                                       " + NL //$NON-NLS-1$
+
+            // curves with a float value for each duration, they are null when not available
+            + "   Power          VARCHAR(1024) FOR BIT DATA,                              " + NL //$NON-NLS-1$
+            + "   Pulse          VARCHAR(1024) FOR BIT DATA,                              " + NL //$NON-NLS-1$
+            + "   Speed          VARCHAR(1024) FOR BIT DATA,                              " + NL //$NON-NLS-1$
+
+            + "   CONSTRAINT     PK_TourMeanMax_TourId PRIMARY KEY (TourId)               " + NL //$NON-NLS-1$
+
+            + ")"); //$NON-NLS-1$
+   }
+
    /**
     * Create table {@link #TABLE_TOUR_MARKER} for {@link TourMarker}.
     *
@@ -4745,7 +4899,15 @@ public class TourDatabase {
 
       Connection conn = null;
       try {
+
+         final long startWait = System.nanoTime();
+
          conn = _pooledDataSource.getConnection();
+
+         if (SQLProfiler.isEnabled()) {
+            conn = SQLProfiler.wrapConnection(conn, System.nanoTime() - startWait);
+         }
+
       } catch (final SQLException e) {
          UI.showSQLException(e);
       }
@@ -4968,7 +5130,7 @@ public class TourDatabase {
             final SplashManager splashManager = SplashManager.getInstance();
 
             splashManager.setMessage(Messages.App_SplashMessage_StartingDatabase);
-            try {
+            try (StartupTrace.Phase phase = StartupTrace.begin("Database: Start server")) { //$NON-NLS-1$
 
                sqlStartup_20_CheckServer(splashManager);
                sqlStartup_30_Check_DbIsCreated();
@@ -4979,18 +5141,24 @@ public class TourDatabase {
                return;
             }
 
-            sqlStartup_40_CheckTable(splashManager);
+            try (StartupTrace.Phase phase = StartupTrace.begin("Database: Check design version")) { //$NON-NLS-1$
 
-            if (sqlStartup_50_IsDesignVersionValid(splashManager) == false) {
-               return;
-            }
+               sqlStartup_40_CheckTable(splashManager);
 
-            sqlStartup_UpgradedDb_2_AfterDbDesignUpdate(splashManager);
+               if (sqlStartup_50_IsDesignVersionValid(splashManager) == false) {
+                  return;
+               }
 
-            sqlStartup_60_SetupEntityManager(splashManager);
+               sqlStartup_UpgradedDb_2_AfterDbDesignUpdate(splashManager);
+            }
+
+            try (StartupTrace.Phase phase = StartupTrace.begin("Database: Setup entity manager")) { //$NON-NLS-1$
+               sqlStartup_60_SetupEntityManager(splashManager);
+            }
 
             _isDbInDataUpdate = true;
-            {
+            try (StartupTrace.Phase phase = StartupTrace.begin("Database: Check data version")) { //$NON-NLS-1$
+
                if (sqlStartup_70_IsDataVersionValid(splashManager) == false) {
                   return;
                }
@@ -5259,6 +5427,8 @@ public class TourDatabase {
             createTable_TourCompared(stmt);
             createTable_TourBike(stmt);
             createTable_TourGeoParts(stmt);
+            createTable_TourDayAggregates(stmt);
+            createTable_TourMeanMax(stmt);
             createTable_DeviceSensor(stmt);
             createTable_DeviceSensorValues(stmt);
 
@@ -5851,6 +6021,16 @@ public class TourDatabase {
             currentDbVersion = _dbDesignVersion_New = updateDb_049_To_050(conn, splashManager);
          }
 
+         // 50 -> 51    23.X
+         if (currentDbVersion == 50) {
+            currentDbVersion = _dbDesignVersion_New = updateDb_050_To_051(conn, splashManager);
+         }
+
+         // 51 -> 52    23.X
+         if (currentDbVersion == 51) {
+            currentDbVersion = _dbDesignVersion_New = updateDb_051_To_052(conn, splashManager);
+         }
+
          // update db design version number
          updateVersionNumber_10_AfterDesignUpdate(conn, _dbDesignVersion_New);
 
@@ -5906,6 +6086,10 @@ public class TourDatabase {
 
          updateDb__3_Data_Concurrent(conn, splashManager, new TourDataUpdate_047_to_048());
 
+         updateDb_050_To_051_DataUpdate(conn, splashManager);
+
+         updateDb__3_Data_Concurrent(conn, splashManager, new TourDataUpdate_051_to_052());
+
       } catch (final SQLException e) {
 
          UI.showSQLException(e);
@@ -8166,7 +8350,7 @@ public class TourDatabase {
                final double lat = tourData.latitudeSerie[0];
                final double lon = tourData.longitudeSerie[0];
 
-               final String rawZoneId = TimezoneMapper.latLngToTimezoneString(lat, lon);
+               final String rawZoneId = TimeZoneGrid.getTimeZoneId(lat, lon);
                final ZoneId zoneId = ZoneId.of(rawZoneId);
 
                tourData.setTimeZoneId(zoneId.getId());
@@ -8244,55 +8428,8 @@ public class TourDatabase {
          return;
       }
 
-      final EntityManager em = TourDatabase.getInstance().getEntityManager();
-
-      try {
-
-         long lastUpdateTime = startTime;
-
-         final ArrayList<Long> allTours = getAllTourIds();
-
-         final int numTours = allTours.size();
-         int tourIndex = 1;
-
-         // loop: all tours
-         for (final Long tourId : allTours) {
-
-            if (splashManager != null) {
-
-               final long currentTime = System.currentTimeMillis();
-               final float timeDiff = currentTime - lastUpdateTime;
-
-               // reduce logging
-               if (timeDiff > DELAY_SPLASH_LOGGING) {
-
-                  lastUpdateTime = currentTime;
-
-                  final String percent = String.format(NUMBER_FORMAT_1F, (float) tourIndex / numTours * 100.0);
-
-                  splashManager.setMessage(NLS.bind(
-                        Messages.Tour_Database_PostUpdate_034_SetTourGeoParts,
-                        new Object[] { tourIndex, numTours, percent }));
-               }
-
-               tourIndex++;
-            }
-
-            final TourData tourData = em.find(TourData.class, tourId);
-
-            if (tourData != null) {
-               saveTour_GeoParts(tourData);
-            }
-         }
-
-         // update UI otherwise < 100% is displayed
-         splashManager.setMessage(NLS.bind(
-               Messages.Tour_Database_PostUpdate_034_SetTourGeoParts,
-               new Object[] { tourIndex - 1, numTours, 100 }));
-
-      } finally {
-         em.close();
-      }
+      // geo data are decoded concurrently and saved with one transaction for many tours
+      TourGeoParts.rebuild(conn, splashManager);
 
       updateVersionNumber_20_AfterDataUpdate(conn, dbDataVersion, startTime);
    }
@@ -9452,6 +9589,81 @@ public class TourDatabase {
       return newDbVersion;
    }
 
+   private int updateDb_050_To_051(final Connection conn, final SplashManager splashManager) throws SQLException {
+
+      final int newDbVersion = 51;
+
+      logDbUpdate_Start(newDbVersion);
+      updateMonitor(splashManager, newDbVersion);
+
+      final Statement stmt = conn.createStatement();
+      {
+         // double check if db already updated
+         if (isTableAvailable(conn, TABLE_TOUR_DAY_AGGREGATES) == false) {
+
+            createTable_TourDayAggregates(stmt);
+         }
+
+         // check if db already contains the index
+         if (isIndexAvailable(conn, TABLE_TOUR_DATA, "StartDay") == false) { //$NON-NLS-1$
+
+            createIndex_TourData_051(stmt);
+         }
+      }
+      stmt.close();
+
+      logDbUpdate_End(newDbVersion);
+
+      return newDbVersion;
+   }
+
+   /**
+    * Fill day aggregates from all tours
+    *
+    * @param conn
+    * @param splashManager
+    * @throws SQLException
+    */
+   private void updateDb_050_To_051_DataUpdate(final Connection conn, final SplashManager splashManager) throws SQLException {
+
+      final long startTime = System.currentTimeMillis();
+
+      final int dbDataVersion = 51;
+
+      if (getDbVersion(conn, TABLE_DB_VERSION_DATA) >= dbDataVersion) {
+         // data version is higher -> nothing to do
+         return;
+      }
+
+      updateMonitor(splashManager, dbDataVersion);
+
+      TourDayAggregates.rebuild(conn);
+
+      updateVersionNumber_20_AfterDataUpdate(conn, dbDataVersion, startTime);
+   }
+
+   private int updateDb_051_To_052(final Connection conn, final SplashManager splashManager) throws SQLException {
+
+      final int newDbVersion = 52;
+
+      logDbUpdate_Start(newDbVersion);
+      updateMonitor(splashManager, newDbVersion);
+
+      final Statement stmt = conn.createStatement();
+      {
+         // double check if db already updated
+         if (isTableAvailable(conn, TABLE_TOUR_MEAN_MAX) == false) {
+
+            createTable_TourMeanMax(stmt);
+         }
+      }
+      stmt.close();
+
+      logDbUpdate_End(newDbVersion);
+
+      return newDbVersion;
+   }
+
    private void updateMonitor(final SplashManager splashManager, final int newDbVersion) {
 
       if (splashManager != null) {
@@ -0,0 +1,710 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package net.tourbook.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.tourbook.application.TourbookPlugin;
+import net.tourbook.common.util.SQL;
+import net.tourbook.data.TourData;
+import net.tourbook.data.TourPerson;
+import net.tourbook.tag.tour.filter.TourTagFilterManager;
+import net.tourbook.tour.filter.TourFilterManager;
+import net.tourbook.tour.filter.geo.TourGeoFilter_Manager;
+import net.tourbook.ui.SQLFilter;
+import net.tourbook.ui.UI;
+
+/**
+ * Precomputed values for each day, person and tour type in the table
+ * {@link TourDatabase#TABLE_TOUR_DAY_AGGREGATES}, e.g. HR zone times, training load and cadence
+ * zone times. They are used by the HR zone statistics and the calendar week summary.
+ * <p>
+ * The aggregates are updated when a tour is saved or deleted, so that statistics for many years can
+ * be read without summarizing all tours. When many tours are saved concurrently, the modified days
+ * are collected and updated once after all tours are saved.
+ */
+public class TourDayAggregates {
+
+   private static final String NL           = UI.NEW_LINE;
+
+   public static final int     NUM_HR_ZONES = 10;
+
+   private static final String SQL_AGGREGATE_COLUMNS = UI.EMPTY_STRING
+
+         + " tourPerson_personId," + NL //                     //$NON-NLS-1$
+         + " tourType_typeId," + NL //                         //$NON-NLS-1$
+         + " TourDate," + NL //                                //$NON-NLS-1$
+         + " StartYear," + NL //                               //$NON-NLS-1$
+         + " StartMonth," + NL //                              //$NON-NLS-1$
+         + " StartDay," + NL //                                //$NON-NLS-1$
+         + " StartWeekYear," + NL //                           //$NON-NLS-1$
+         + " StartWeek," + NL //                               //$NON-NLS-1$
+         + " NumTours," + NL //                                //$NON-NLS-1$
+         + " NumTours_HrZones," + NL //                        //$NON-NLS-1$
+         + " HrZone0," + NL //                                 //$NON-NLS-1$
+         + " HrZone1," + NL //                                 //$NON-NLS-1$
+         + " HrZone2," + NL //                                 //$NON-NLS-1$
+         + " HrZone3," + NL //                                 //$NON-NLS-1$
+         + " HrZone4," + NL //                                 //$NON-NLS-1$
+         + " HrZone5," + NL //                                 //$NON-NLS-1$
+         + " HrZone6," + NL //                                 //$NON-NLS-1$
+         + " HrZone7," + NL //                                 //$NON-NLS-1$
+         + " HrZone8," + NL //                                 //$NON-NLS-1$
+         + " HrZone9," + NL //                                 //$NON-NLS-1$
+         + " CadenceZone_SlowTime," + NL //                    //$NON-NLS-1$
+         + " CadenceZone_FastTime," + NL //                    //$NON-NLS-1$
+         + " TrainingStressScore," + NL //                     //$NON-NLS-1$
+         + " TrainingEffect_Aerob," + NL //                    //$NON-NLS-1$
+         + " TrainingEffect_Anaerob," + NL //                  //$NON-NLS-1$
+         + " Distance," + NL //                                //$NON-NLS-1$
+         + " ElevationGain," + NL //                           //$NON-NLS-1$
+         + " ElevationLoss," + NL //                           //$NON-NLS-1$
+         + " Calories," + NL //                                //$NON-NLS-1$
+         + " Time_Elapsed," + NL //                            //$NON-NLS-1$
+         + " Time_Recorded," + NL //                           //$NON-NLS-1$
+         + " Time_Moving" + NL //                              //$NON-NLS-1$
+   ;
+
+   /**
+    * Summarizes the tours from {@link TourDatabase#TABLE_TOUR_DATA} into the columns
+    * {@link #SQL_AGGREGATE_COLUMNS}, the WHERE clause is appended
+    */
+   private static final String SQL_SELECT_FROM_TOURDATA = UI.EMPTY_STRING
+
+         + "SELECT" + NL //                                                                           //$NON-NLS-1$
+
+         + " tourPerson_personId," + NL //                                                            //$NON-NLS-1$
+         + " tourType_typeId," + NL //                                                                //$NON-NLS-1$
+         + " StartYear * 10000 + StartMonth * 100 + StartDay," + NL //                                //$NON-NLS-1$
+         + " StartYear," + NL //                                                                      //$NON-NLS-1$
+         + " StartMonth," + NL //                                                                     //$NON-NLS-1$
+         + " StartDay," + NL //                                                                       //$NON-NLS-1$
+         + " StartWeekYear," + NL //                                                                  //$NON-NLS-1$
+         + " StartWeek," + NL //                                                                      //$NON-NLS-1$
+
+         + " COUNT(*)," + NL //                                                                       //$NON-NLS-1$
+         + " SUM(CASE WHEN NumberOfHrZones > 0 THEN 1 ELSE 0 END)," + NL //                           //$NON-NLS-1$
+
+         + " SUM(CASE WHEN NumberOfHrZones > 0 AND HrZone0 > 0 THEN HrZone0 ELSE 0 END)," + NL //     //$NON-NLS-1$
+         + " SUM(CASE WHEN NumberOfHrZones > 0 AND HrZone1 > 0 THEN HrZone1 ELSE 0 END)," + NL //     //$NON-NLS-1$
+         + " SUM(CASE WHEN NumberOfHrZones > 0 AND HrZone2 > 0 THEN HrZone2 ELSE 0 END)," + NL //     //$NON-NLS-1$
+         + " SUM(CASE WHEN NumberOfHrZones > 0 AND HrZone3 > 0 THEN HrZone3 ELSE 0 END)," + NL //     //$NON-NLS-1$
+         + " SUM(CASE WHEN NumberOfHrZones > 0 AND HrZone4 > 0 THEN HrZone4 ELSE 0 END)," + NL //     //$NON-NLS-1$
+         + " SUM(CASE WHEN NumberOfHrZones > 0 AND HrZone5 > 0 THEN HrZone5 ELSE 0 END)," + NL //     //$NON-NLS-1$
+         + " SUM(CASE WHEN NumberOfHrZones > 0 AND HrZone6 > 0 THEN HrZone6 ELSE 0 END)," + NL //     //$NON-NLS-1$
+         + " SUM(CASE WHEN NumberOfHrZones > 0 AND HrZone7 > 0 THEN HrZone7 ELSE 0 END)," + NL //     //$NON-NLS-1$
+         + " SUM(CASE WHEN NumberOfHrZones > 0 AND HrZone8 > 0 THEN HrZone8 ELSE 0 END)," + NL //     //$NON-NLS-1$
+         + " SUM(CASE WHEN NumberOfHrZones > 0 AND HrZone9 > 0 THEN HrZone9 ELSE 0 END)," + NL //     //$NON-NLS-1$
+
+         + " SUM(CASE WHEN CadenceZone_SlowTime > 0 THEN CadenceZone_SlowTime ELSE 0 END)," + NL //   //$NON-NLS-1$
+         + " SUM(CASE WHEN CadenceZone_FastTime > 0 THEN CadenceZone_FastTime ELSE 0 END)," + NL //   //$NON-NLS-1$
+
+         + " SUM(CAST(Power_TrainingStressScore AS DOUBLE))," + NL //                                 //$NON-NLS-1$
+         + " SUM(CAST(Training_TrainingEffect_Aerob AS DOUBLE))," + NL //                             //$NON-NLS-1$
+         + " SUM(CAST(Training_TrainingEffect_Anaerob AS DOUBLE))," + NL //                           //$NON-NLS-1$
+
+         + " SUM(CAST(TourDistance AS DOUBLE))," + NL //                                              //$NON-NLS-1$
+         + " SUM(CAST(TourAltUp AS BIGINT))," + NL //                                                 //$NON-NLS-1$
+         + " SUM(CAST(TourAltDown AS BIGINT))," + NL //                                               //$NON-NLS-1$
+         + " SUM(CAST(Calories AS BIGINT))," + NL //                                                  //$NON-NLS-1$
+         + " SUM(TourDeviceTime_Elapsed)," + NL //                                                    //$NON-NLS-1$
+         + " SUM(TourDeviceTime_Recorded)," + NL //                                                   //$NON-NLS-1$
+         + " SUM(TourComputedTime_Moving)" + NL //                                                    //$NON-NLS-1$
+
+         + " FROM " + TourDatabase.TABLE_TOUR_DATA + NL //                                            //$NON-NLS-1$
+   ;
+
+   /**
+    * Summarizes the values of the aggregates, they are read with
+    * {@link #readValues(ResultSet, int, DayAggregate)}
+    */
+   private static final String SQL_SUM_AGGREGATE_VALUES = UI.EMPTY_STRING
+
+         + " SUM(NumTours)," + NL //                                        //$NON-NLS-1$
+         + " SUM(NumTours_HrZones)," + NL //                                //$NON-NLS-1$
+
+         + " SUM(HrZone0)," + NL //                                         //$NON-NLS-1$
+         + " SUM(HrZone1)," + NL //                                         //$NON-NLS-1$
+         + " SUM(HrZone2)," + NL //                                         //$NON-NLS-1$
+         + " SUM(HrZone3)," + NL //                                         //$NON-NLS-1$
+         + " SUM(HrZone4)," + NL //                                         //$NON-NLS-1$
+         + " SUM(HrZone5)," + NL //                                         //$NON-NLS-1$
+         + " SUM(HrZone6)," + NL //                                         //$NON-NLS-1$
+         + " SUM(HrZone7)," + NL //                                         //$NON-NLS-1$
+         + " SUM(HrZone8)," + NL //                                         //$NON-NLS-1$
+         + " SUM(HrZone9)," + NL //                                         //$NON-NLS-1$
+
+         + " SUM(CadenceZone_SlowTime)," + NL //                            //$NON-NLS-1$
+         + " SUM(CadenceZone_FastTime)," + NL //                            //$NON-NLS-1$
+
+         + " SUM(TrainingStressScore)," + NL //                             //$NON-NLS-1$
+         + " SUM(TrainingEffect_Aerob)," + NL //                            //$NON-NLS-1$
+         + " SUM(TrainingEffect_Anaerob)," + NL //                          //$NON-NLS-1$
+
+         + " SUM(Distance)," + NL //                                        //$NON-NLS-1$
+         + " SUM(ElevationGain)," + NL //                                   //$NON-NLS-1$
+         + " SUM(ElevationLoss)," + NL //                                   //$NON-NLS-1$
+         + " SUM(Calories)," + NL //                                        //$NON-NLS-1$
+
+         + " SUM(Time_Elapsed)," + NL //                                    //$NON-NLS-1$
+         + " SUM(Time_Recorded)," + NL //                                   //$NON-NLS-1$
+         + " SUM(Time_Moving)" + NL //                                      //$NON-NLS-1$
+   ;
+
+   private static final String SQL_GROUP_BY_DAY = UI.EMPTY_STRING
+
+         + " GROUP BY" + NL //                                                                        //$NON-NLS-1$
+         + "  tourPerson_personId, tourType_typeId," + NL //                                          //$NON-NLS-1$
+         + "  StartYear, StartMonth, StartDay, StartWeekYear, StartWeek" + NL //                      //$NON-NLS-1$
+   ;
+
+   /**
+    * Aggregates of one day are deleted and inserted again, this must not be done concurrently for
+    * the same day
+    */
+   private static final Object      _updateLock          = new Object();
+
+   /**
+    * Days of concurrently saved tours, they are updated after all tours are saved
+    */
+   private static final Set<DayKey> _allModifiedDayKeys = ConcurrentHashMap.newKeySet();
+
+   /**
+    * Summarized values of all tours of one day
+    */
+   public static class DayAggregate {
+
+      public int         year;
+      public int         month;
+      public int         day;
+
+      public int         weekYear;
+      public int         week;
+
+      public int         numTours;
+      public int         numTours_HrZones;
+
+      /**
+       * Time in seconds for each HR zone
+       */
+      public final int[] hrZones = new int[NUM_HR_ZONES];
+
+      public int         cadenceZone_SlowTime;
+      public int         cadenceZone_FastTime;
+
+      public double      trainingStressScore;
+      public double      trainingEffect_Aerob;
+      public double      trainingEffect_Anaerob;
+
+      public double      distance;
+      public long        elevationGain;
+      public long        elevationLoss;
+      public long        calories;
+
+      public long        time_Elapsed;
+      public long        time_Recorded;
+      public long        time_Moving;
+   }
+
+   /**
+    * Identifies the aggregates of one day for one person
+    */
+   static class DayKey {
+
+      /**
+       * Is <code>null</code> when a tour has no person
+       */
+      private final Long personId;
+
+      private final int  year;
+      private final int  month;
+      private final int  day;
+
+      private DayKey(final Long personId, final int year, final int month, final int day) {
+
+         this.personId = personId;
+
+         this.year = year;
+         this.month = month;
+         this.day = day;
+      }
+
+      @Override
+      public boolean equals(final Object obj) {
+
+         if (this == obj) {
+            return true;
+         }
+         if (obj == null || getClass() != obj.getClass()) {
+            return false;
+         }
+
+         final DayKey other = (DayKey) obj;
+
+         return Objects.equals(personId, other.personId)
+               && year == other.year
+               && month == other.month
+               && day == other.day;
+      }
+
+      private int getTourDate() {
+         return year * 10000 + month * 100 + day;
+      }
+
+      @Override
+      public int hashCode() {
+         return Objects.hash(personId, year, month, day);
+      }
+   }
+
+   /**
+    * Collect the days of a concurrently saved tour, they are updated with
+    * {@link #updateModifiedDays()} after all tours are saved.
+    *
+    * @param allDayKeys
+    *           <code>null</code> items are ignored
+    */
+   static void addModifiedDays(final DayKey... allDayKeys) {
+
+      for (final DayKey dayKey : allDayKeys) {
+
+         if (dayKey != null) {
+            _allModifiedDayKeys.add(dayKey);
+         }
+      }
+   }
+
+   /**
+    * @param tourId
+    * @return Returns the day of the tour in the database or <code>null</code> when the tour is not
+    *         saved
+    */
+   static DayKey getDayKey(final long tourId) {
+
+      final String sql = UI.EMPTY_STRING
+
+            + "SELECT" + NL //                                 //$NON-NLS-1$
+
+            + " tourPerson_personId," + NL //               1  //$NON-NLS-1$
+            + " StartYear," + NL //                         2  //$NON-NLS-1$
+            + " StartMonth," + NL //                        3  //$NON-NLS-1$
+            + " StartDay" + NL //                           4  //$NON-NLS-1$
+
+            + " FROM " + TourDatabase.TABLE_TOUR_DATA + NL //  //$NON-NLS-1$
+            + " WHERE TourId = ?" + NL //                      //$NON-NLS-1$
+      ;
+
+      try (Connection conn = TourDatabase.getInstance().getConnection();
+            PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+         stmt.setLong(1, tourId);
+
+         final ResultSet result = stmt.executeQuery();
+
+         if (result.next()) {
+
+            final long dbPersonId = result.getLong(1);
+            final Long personId = result.wasNull() ? null : dbPersonId;
+
+            return new DayKey(
+                  personId,
+                  result.getShort(2),
+                  result.getShort(3),
+                  result.getShort(4));
+         }
+
+      } catch (final SQLException e) {
+         SQL.showException(e, sql);
+      }
+
+      return null;
+   }
+
+   /**
+    * @param tourData
+    * @return Returns the day of the tour or <code>null</code> when the tour is not available
+    */
+   static DayKey getDayKey(final TourData tourData) {
+
+      if (tourData == null) {
+         return null;
+      }
+
+      final TourPerson tourPerson = tourData.getTourPerson();
+
+      return new DayKey(
+            tourPerson == null ? null : tourPerson.getPersonId(),
+            tourData.getStartYear(),
+            tourData.getStartMonth(),
+            tourData.getStartDay());
+   }
+
+   /**
+    * Read the aggregates for a date range which are filtered by the active person and tour type.
+    * <p>
+    * This can only be used when {@link #isAppFilterSupported()} is <code>true</code>.
+    *
+    * @param firstDay
+    * @param lastDay
+    * @return Returns the aggregates of all days with tours, sorted by date
+    */
+   public static List<DayAggregate> getDayAggregates(final LocalDate firstDay, final LocalDate lastDay) {
+
+      final List<DayAggregate> allDays = new ArrayList<>();
+
+      // the aggregates table has the alias "TourData" that the person and tour type filter can be applied
+      final SQLFilter sqlAppFilter = new SQLFilter(SQLFilter.NO_PHOTOS);
+
+      final String sql = UI.EMPTY_STRING
+
+            + "SELECT" + NL //                                                         //$NON-NLS-1$
+
+            + " StartYear," + NL //                                                 1  //$NON-NLS-1$
+            + " StartMonth," + NL //                                                2  //$NON-NLS-1$
+            + " StartDay," + NL //                                                  3  //$NON-NLS-1$
+            + " StartWeekYear," + NL //                                             4  //$NON-NLS-1$
+            + " StartWeek," + NL //                                                 5  //$NON-NLS-1$
+
+            + SQL_SUM_AGGREGATE_VALUES //                                           6...
+
+            + " FROM " + TourDatabase.TABLE_TOUR_DAY_AGGREGATES + " TourData" + NL //  //$NON-NLS-1$ //$NON-NLS-2$
+
+            + " WHERE TourDate BETWEEN ? AND ?" + NL //                                //$NON-NLS-1$
+            + " " + sqlAppFilter.getWhereClause() + NL //                              //$NON-NLS-1$
+
+            + " GROUP BY TourDate, StartYear, StartMonth, StartDay, StartWeekYear, StartWeek" + NL //$NON-NLS-1$
+            + " ORDER BY TourDate" + NL //                                             //$NON-NLS-1$
+      ;
+
+      try (Connection conn = TourDatabase.getInstance().getConnection();
+            PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+         stmt.setInt(1, getTourDate(firstDay));
+         stmt.setInt(2, getTourDate(lastDay));
+
+         sqlAppFilter.setParameters(stmt, 3);
+
+         final ResultSet result = stmt.executeQuery();
+
+         while (result.next()) {
+
+            final DayAggregate dayAggregate = new DayAggregate();
+
+            dayAggregate.year = result.getInt(1);
+            dayAggregate.month = result.getInt(2);
+            dayAggregate.day = result.getInt(3);
+            dayAggregate.weekYear = result.getInt(4);
+            dayAggregate.week = result.getInt(5);
+
+            readValues(result, 6, dayAggregate);
+
+            allDays.add(dayAggregate);
+         }
+
+      } catch (final SQLException e) {
+         SQL.showException(e, sql);
+      }
+
+      return allDays;
+   }
+
+   private static int getTourDate(final LocalDate date) {
+      return date.getYear() * 10000 + date.getMonthValue() * 100 + date.getDayOfMonth();
+   }
+
+   /**
+    * Read the aggregates for weeks of one week year which are filtered by the active person and
+    * tour type.
+    * <p>
+    * This can only be used when {@link #isAppFilterSupported()} is <code>true</code>.
+    *
+    * @param weekYear
+    * @param firstWeek
+    * @param lastWeek
+    * @return Returns the aggregates of all weeks with tours, sorted by week, {@link DayAggregate}
+    *         year, month and day are not set
+    * @throws SQLException
+    */
+   public static List<DayAggregate> getWeekAggregates(final int weekYear, final int firstWeek, final int lastWeek)
+         throws SQLException {
+
+      final List<DayAggregate> allWeeks = new ArrayList<>();
+
+      final SQLFilter sqlAppFilter = new SQLFilter(SQLFilter.NO_PHOTOS);
+
+      final String sql = UI.EMPTY_STRING
+
+            + "SELECT" + NL //                                                         //$NON-NLS-1$
+
+            + " StartWeek," + NL //                                                 1  //$NON-NLS-1$
+            + SQL_SUM_AGGREGATE_VALUES //                                           2...
+
+            + " FROM " + TourDatabase.TABLE_TOUR_DAY_AGGREGATES + " TourData" + NL //  //$NON-NLS-1$ //$NON-NLS-2$
+
+            + " WHERE StartWeekYear = ?" + NL //                                       //$NON-NLS-1$
+            + "   AND StartWeek BETWEEN ? AND ?" + NL //                               //$NON-NLS-1$
+            + " " + sqlAppFilter.getWhereClause() + NL //                              //$NON-NLS-1$
+
+            + " GROUP BY StartWeek" + NL //                                            //$NON-NLS-1$
+            + " ORDER BY StartWeek" + NL //                                            //$NON-NLS-1$
+      ;
+
+      try (Connection conn = TourDatabase.getInstance().getConnection();
+            PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+         stmt.setInt(1, weekYear);
+         stmt.setInt(2, firstWeek);
+         stmt.setInt(3, lastWeek);
+
+         sqlAppFilter.setParameters(stmt, 4);
+
+         final ResultSet result = stmt.executeQuery();
+
+         while (result.next()) {
+
+            final DayAggregate weekAggregate = new DayAggregate();
+
+            weekAggregate.weekYear = weekYear;
+            weekAggregate.week = result.getInt(1);
+
+            readValues(result, 2, weekAggregate);
+
+            allWeeks.add(weekAggregate);
+         }
+      }
+
+      return allWeeks;
+   }
+
+   /**
+    * The aggregates contain only the person and tour type, other app filters, e.g. photo, tour,
+    * geo or tag filter, can only be applied to the tours.
+    *
+    * @return Returns <code>true</code> when the active app filters can be applied to the
+    *         aggregates
+    */
+   public static boolean isAppFilterSupported() {
+
+      return TourbookPlugin.getActivePhotoFilter() == false
+            && TourFilterManager.getSQL() == null
+            && TourGeoFilter_Manager.getSQL() == null
+            && TourTagFilterManager.isTourTagFilterEnabled() == false;
+   }
+
+   /**
+    * Read the columns of {@link #SQL_SUM_AGGREGATE_VALUES}
+    *
+    * @param result
+    * @param firstColumn
+    * @param aggregate
+    * @throws SQLException
+    */
+   private static void readValues(final ResultSet result, final int firstColumn, final DayAggregate aggregate)
+         throws SQLException {
+
+      int column = firstColumn;
+
+      aggregate.numTours = result.getInt(column++);
+      aggregate.numTours_HrZones = result.getInt(column++);
+
+      for (int zoneIndex = 0; zoneIndex < NUM_HR_ZONES; zoneIndex++) {
+         aggregate.hrZones[zoneIndex] = result.getInt(column++);
+      }
+
+      aggregate.cadenceZone_SlowTime = result.getInt(column++);
+      aggregate.cadenceZone_FastTime = result.getInt(column++);
+
+      aggregate.trainingStressScore = result.getDouble(column++);
+      aggregate.trainingEffect_Aerob = result.getDouble(column++);
+      aggregate.trainingEffect_Anaerob = result.getDouble(column++);
+
+      aggregate.distance = result.getDouble(column++);
+      aggregate.elevationGain = result.getLong(column++);
+      aggregate.elevationLoss = result.getLong(column++);
+      aggregate.calories = result.getLong(column++);
+
+      aggregate.time_Elapsed = result.getLong(column++);
+      aggregate.time_Recorded = result.getLong(column++);
+      aggregate.time_Moving = result.getLong(column++);
+   }
+
+   /**
+    * Recreate the aggregates for all tours
+    */
+   public static void rebuild() {
+
+      try (Connection conn = TourDatabase.getInstance().getConnection()) {
+
+         rebuild(conn);
+
+      } catch (final SQLException e) {
+         SQL.showException(e);
+      }
+   }
+
+   /**
+    * Recreate the aggregates for all tours
+    *
+    * @param conn
+    * @throws SQLException
+    */
+   static void rebuild(final Connection conn) throws SQLException {
+
+      synchronized (_updateLock) {
+
+         try (Statement stmt = conn.createStatement()) {
+
+            stmt.executeUpdate("DELETE FROM " + TourDatabase.TABLE_TOUR_DAY_AGGREGATES); //$NON-NLS-1$
+
+            stmt.executeUpdate(UI.EMPTY_STRING
+
+                  + "INSERT INTO " + TourDatabase.TABLE_TOUR_DAY_AGGREGATES + NL //$NON-NLS-1$
+                  + " (" + SQL_AGGREGATE_COLUMNS + ")" + NL //$NON-NLS-1$ //$NON-NLS-2$
+
+                  + SQL_SELECT_FROM_TOURDATA
+                  + SQL_GROUP_BY_DAY);
+         }
+      }
+   }
+
+   /**
+    * Recompute the aggregates for the days of the person.
+    *
+    * @param allDayKeys
+    *           Days which contain modified tours, <code>null</code> and duplicated items are
+    *           ignored
+    */
+   static void updateDays(final Collection<DayKey> allDayKeys) {
+
+      String sql = UI.EMPTY_STRING;
+
+      synchronized (_updateLock) {
+
+         try (Connection conn = TourDatabase.getInstance().getConnection()) {
+
+            conn.setAutoCommit(false);
+
+            for (final DayKey dayKey : new LinkedHashSet<>(allDayKeys)) {
+
+               if (dayKey == null) {
+                  continue;
+               }
+
+               final boolean isPerson = dayKey.personId != null;
+
+               final String sqlWherePerson = isPerson
+                     ? " AND tourPerson_personId = ?" //$NON-NLS-1$
+                     : " AND tourPerson_personId IS NULL"; //$NON-NLS-1$
+
+               /*
+                * Delete old aggregates
+                */
+               sql = "DELETE FROM " + TourDatabase.TABLE_TOUR_DAY_AGGREGATES //$NON-NLS-1$
+                     + " WHERE TourDate = ?" + sqlWherePerson; //$NON-NLS-1$
+
+               try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                  stmt.setInt(1, dayKey.getTourDate());
+
+                  if (isPerson) {
+                     stmt.setLong(2, dayKey.personId);
+                  }
+
+                  stmt.executeUpdate();
+               }
+
+               /*
+                * Insert new aggregates from the tours of this day
+                */
+               sql = UI.EMPTY_STRING
+
+                     + "INSERT INTO " + TourDatabase.TABLE_TOUR_DAY_AGGREGATES + NL //$NON-NLS-1$
+                     + " (" + SQL_AGGREGATE_COLUMNS + ")" + NL //$NON-NLS-1$ //$NON-NLS-2$
+
+                     + SQL_SELECT_FROM_TOURDATA
+
+                     + " WHERE StartYear = ? AND StartMonth = ? AND StartDay = ?" + NL //$NON-NLS-1$
+                     + sqlWherePerson + NL
+
+                     + SQL_GROUP_BY_DAY;
+
+               try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                  stmt.setInt(1, dayKey.year);
+                  stmt.setInt(2, dayKey.month);
+                  stmt.setInt(3, dayKey.day);
+
+                  if (isPerson) {
+                     stmt.setLong(4, dayKey.personId);
+                  }
+
+                  stmt.executeUpdate();
+               }
+            }
+
+            conn.commit();
+
+         } catch (final SQLException e) {
+            SQL.showException(e, sql);
+         }
+      }
+   }
+
+   /**
+    * Update the days which are collected with {@link #addModifiedDays(DayKey...)}
+    */
+   static void updateModifiedDays() {
+
+      final List<DayKey> allDayKeys = new ArrayList<>(_allModifiedDayKeys);
+
+      if (allDayKeys.isEmpty()) {
+         return;
+      }
+
+      _allModifiedDayKeys.removeAll(allDayKeys);
+
+      updateDays(allDayKeys);
+   }
+
+   /**
+    * Update the aggregates after tour values are modified without saving the tours, e.g. with a
+    * sql UPDATE statement.
+    *
+    * @param allTourIds
+    */
+   public static void updateTours(final Collection<Long> allTourIds) {
+
+      final Set<DayKey> allDayKeys = new LinkedHashSet<>();
+
+      for (final Long tourId : allTourIds) {
+         allDayKeys.add(getDayKey(tourId));
+      }
+
+      updateDays(allDayKeys);
+   }
+}
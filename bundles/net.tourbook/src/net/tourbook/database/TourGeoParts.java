@@ -0,0 +1,491 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package net.tourbook.database;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import net.tourbook.Messages;
+import net.tourbook.application.SplashManager;
+import net.tourbook.common.util.SQL;
+import net.tourbook.common.util.StatusUtil;
+import net.tourbook.common.util.Util;
+import net.tourbook.data.SerieData;
+import net.tourbook.data.TourData;
+import net.tourbook.ui.UI;
+
+import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Geo parts of each tour in the table {@link TourDatabase#TABLE_TOUR_GEO_PARTS}, a geo part is a
+ * square of 0.01° which was touched by the tour.
+ * <p>
+ * When a tour is saved, the geo parts are not updated when the geo data are not modified, otherwise
+ * only the geo parts which are added or removed are written. A rebuild for
+ * all tours decodes the geo data in parallel and writes the geo parts with one transaction for
+ * many tours.
+ */
+public class TourGeoParts {
+
+   private static final String NL                  = UI.NEW_LINE;
+
+   /**
+    * Number of tours which are read, computed and saved together when all geo parts are rebuilt
+    */
+   private static final int    REBUILD_CHUNK_SIZE  = 200;
+
+   private static final long   DELAY_SPLASH_UPDATE = 1000;
+
+   private static final String SQL_INSERT          = UI.EMPTY_STRING
+
+         + "INSERT INTO " + TourDatabase.TABLE_TOUR_GEO_PARTS //   //$NON-NLS-1$
+         + " (TourId, GeoPart)" //                                 //$NON-NLS-1$
+         + " VALUES (?, ?)" //                                     //$NON-NLS-1$
+   ;
+
+   /**
+    * Geo data of a tour as it was saved before, it is used to check if the geo parts must be
+    * updated without computing and loading the geo parts
+    */
+   static final class SavedGeoData {
+
+      /**
+       * Geo data of a tour which is not yet saved
+       */
+      static final SavedGeoData NOT_SAVED = new SavedGeoData(null, null, null);
+
+      private final double[]    latitudeSerie;
+      private final double[]    longitudeSerie;
+      private final int[]       geoParts;
+
+      private SavedGeoData(final double[] latitudeSerie, final double[] longitudeSerie, final int[] geoParts) {
+
+         this.latitudeSerie = latitudeSerie;
+         this.longitudeSerie = longitudeSerie;
+         this.geoParts = geoParts == null ? new int[0] : geoParts;
+      }
+
+      /**
+       * @param savedTourData
+       *           Tour which is loaded from the database before it is saved again, the geo grid
+       *           is computed when the tour is loaded
+       */
+      SavedGeoData(final TourData savedTourData) {
+
+         this(savedTourData.latitudeSerie, savedTourData.longitudeSerie, savedTourData.geoGrid);
+      }
+   }
+
+   private static class TourSerieData {
+
+      private long   tourId;
+      private byte[] serieDataBytes;
+   }
+
+   /**
+    * @param tourData
+    * @return Returns the geo parts of the tour or an empty array when the tour has no geo data
+    */
+   private static int[] computeGeoParts(final TourData tourData) {
+
+      if (tourData.latitudeSerie == null || tourData.longitudeSerie == null) {
+         return new int[0];
+      }
+
+      tourData.computeGeo_Grid();
+
+      return tourData.geoGrid == null
+            ? new int[0]
+            : tourData.geoGrid;
+   }
+
+   /**
+    * Decode the serialized {@link SerieData} and compute the geo parts, this do not need a
+    * database connection and can run concurrently.
+    *
+    * @param serieDataBytes
+    * @return
+    */
+   private static int[] computeGeoParts(final byte[] serieDataBytes) {
+
+      if (serieDataBytes == null) {
+         return new int[0];
+      }
+
+      final SerieData serieData;
+
+      try (ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(serieDataBytes))) {
+
+         serieData = (SerieData) inputStream.readObject();
+
+      } catch (IOException | ClassNotFoundException e) {
+
+         StatusUtil.log(e);
+         return new int[0];
+      }
+
+      // a temporary tour is used that the geo parts are computed in the same way as when a tour is saved
+      final TourData tourData = new TourData();
+
+      if (serieData.latitude != null) {
+
+         // lat/lon double serie data from older versions
+
+         tourData.latitudeSerie = serieData.latitude;
+         tourData.longitudeSerie = serieData.longitude;
+
+      } else {
+
+         tourData.latitudeSerie = convertFromE6(serieData.latitudeE6);
+         tourData.longitudeSerie = convertFromE6(serieData.longitudeE6);
+      }
+
+      return computeGeoParts(tourData);
+   }
+
+   private static double[] convertFromE6(final int[] dataSerieE6) {
+
+      if (dataSerieE6 == null || dataSerieE6.length == 0) {
+         return null;
+      }
+
+      final int serieSize = dataSerieE6.length;
+
+      final double[] doubleDataSerie = new double[serieSize];
+
+      for (int serieIndex = 0; serieIndex < serieSize; serieIndex++) {
+         doubleDataSerie[serieIndex] = dataSerieE6[serieIndex] / 1E6;
+      }
+
+      return doubleDataSerie;
+   }
+
+   private static void insertGeoParts(final PreparedStatement stmt,
+                                      final long tourId,
+                                      final int[] allGeoParts) throws SQLException {
+
+      for (final int geoPart : allGeoParts) {
+
+         stmt.setLong(1, tourId);
+         stmt.setInt(2, geoPart);
+
+         stmt.addBatch();
+      }
+   }
+
+   private static IntHashSet loadGeoParts(final Connection conn, final long tourId) throws SQLException {
+
+      final IntHashSet allGeoParts = new IntHashSet();
+
+      final String sql = "SELECT GeoPart FROM " + TourDatabase.TABLE_TOUR_GEO_PARTS + " WHERE TourId = ?"; //$NON-NLS-1$ //$NON-NLS-2$
+
+      try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+         stmt.setLong(1, tourId);
+
+         final ResultSet result = stmt.executeQuery();
+
+         while (result.next()) {
+            allGeoParts.add(result.getInt(1));
+         }
+      }
+
+      return allGeoParts;
+   }
+
+   private static List<TourSerieData> loadSerieData(final Connection conn, final List<Long> allTourIds) throws SQLException {
+
+      final List<TourSerieData> allSerieData = new ArrayList<>();
+
+      final String sql = UI.EMPTY_STRING
+
+            + "SELECT TourId, SerieData" + NL //                                                  //$NON-NLS-1$
+            + " FROM " + TourDatabase.TABLE_TOUR_DATA + NL //                                    //$NON-NLS-1$
+            + " WHERE TourId IN (" + SQL.createParameterList(allTourIds.size()) + ")" + NL //  //$NON-NLS-1$ //$NON-NLS-2$
+      ;
+
+      try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+         for (int tourIndex = 0; tourIndex < allTourIds.size(); tourIndex++) {
+            stmt.setLong(tourIndex + 1, allTourIds.get(tourIndex));
+         }
+
+         final ResultSet result = stmt.executeQuery();
+
+         while (result.next()) {
+
+            final TourSerieData tourSerieData = new TourSerieData();
+
+            tourSerieData.tourId = result.getLong(1);
+            tourSerieData.serieDataBytes = result.getBytes(2);
+
+            allSerieData.add(tourSerieData);
+         }
+      }
+
+      return allSerieData;
+   }
+
+   /**
+    * Recreate the geo parts for all tours.
+    *
+    * @param conn
+    * @param splashManager
+    *           Displays the progress, can be <code>null</code>
+    * @throws SQLException
+    */
+   static void rebuild(final Connection conn, final SplashManager splashManager) throws SQLException {
+
+      final ArrayList<Long> allTourIds = TourDatabase.getAllTourIds();
+      final int numTours = allTourIds.size();
+
+      final ThreadFactory threadFactory = runnable -> {
+
+         final Thread thread = new Thread(runnable, "Computing tour geo parts");//$NON-NLS-1$
+
+         thread.setPriority(Thread.MIN_PRIORITY);
+         thread.setDaemon(true);
+
+         return thread;
+      };
+
+      final ExecutorService executor = Executors.newFixedThreadPool(Util.NUMBER_OF_PROCESSORS, threadFactory);
+
+      final boolean isAutoCommit = conn.getAutoCommit();
+
+      try (Statement deleteStmt = conn.createStatement();
+            PreparedStatement insertStmt = conn.prepareStatement(SQL_INSERT)) {
+
+         conn.setAutoCommit(false);
+
+         deleteStmt.executeUpdate("DELETE FROM " + TourDatabase.TABLE_TOUR_GEO_PARTS); //$NON-NLS-1$
+         conn.commit();
+
+         long lastUpdateTime = System.currentTimeMillis();
+
+         for (int chunkStart = 0; chunkStart < numTours; chunkStart += REBUILD_CHUNK_SIZE) {
+
+            final List<Long> allChunkTourIds = allTourIds.subList(chunkStart, Math.min(chunkStart + REBUILD_CHUNK_SIZE, numTours));
+
+            final List<TourSerieData> allSerieData = loadSerieData(conn, allChunkTourIds);
+
+            /*
+             * Decode geo data and compute geo parts concurrently
+             */
+            final List<Callable<int[]>> allTasks = new ArrayList<>();
+
+            for (final TourSerieData tourSerieData : allSerieData) {
+               allTasks.add(() -> computeGeoParts(tourSerieData.serieDataBytes));
+            }
+
+            final List<Future<int[]>> allResults = executor.invokeAll(allTasks);
+
+            /*
+             * Save geo parts of all tours in this chunk with one transaction
+             */
+            for (int tourIndex = 0; tourIndex < allSerieData.size(); tourIndex++) {
+
+               insertGeoParts(insertStmt,
+                     allSerieData.get(tourIndex).tourId,
+                     allResults.get(tourIndex).get());
+            }
+
+            insertStmt.executeBatch();
+            conn.commit();
+
+            if (splashManager != null) {
+
+               final long currentTime = System.currentTimeMillis();
+
+               // reduce logging
+               if (currentTime - lastUpdateTime > DELAY_SPLASH_UPDATE) {
+
+                  lastUpdateTime = currentTime;
+
+                  final int numDoneTours = chunkStart + allChunkTourIds.size();
+
+                  splashManager.setMessage(NLS.bind(
+                        Messages.Tour_Database_PostUpdate_034_SetTourGeoParts,
+                        new Object[] {
+                              numDoneTours,
+                              numTours,
+                              String.format("%.1f", (float) numDoneTours / numTours * 100.0) })); //$NON-NLS-1$
+               }
+            }
+         }
+
+      } catch (final InterruptedException e) {
+
+         Thread.currentThread().interrupt();
+
+         // the geo parts are not complete, the db update must not be recorded as done
+         throw new SQLException("Computing tour geo parts was interrupted", e); //$NON-NLS-1$
+
+      } catch (final ExecutionException e) {
+
+         throw new SQLException("Computing tour geo parts failed", e.getCause()); //$NON-NLS-1$
+
+      } catch (final SQLException e) {
+
+         conn.rollback();
+         throw e;
+
+      } finally {
+
+         executor.shutdownNow();
+
+         conn.setAutoCommit(isAutoCommit);
+      }
+
+      // update UI otherwise < 100% is displayed
+      if (splashManager != null) {
+
+         splashManager.setMessage(NLS.bind(
+               Messages.Tour_Database_PostUpdate_034_SetTourGeoParts,
+               new Object[] { numTours, numTours, 100 }));
+      }
+   }
+
+   /**
+    * Save the geo parts of a tour.
+    *
+    * @param tourData
+    * @param savedGeoData
+    *           Geo data before the tour is saved or <code>null</code> when it is not known, then
+    *           the geo parts are loaded from the database
+    */
+   static void saveTour(final TourData tourData, final SavedGeoData savedGeoData) {
+
+      if (savedGeoData != null
+            && Arrays.equals(savedGeoData.latitudeSerie, tourData.latitudeSerie)
+            && Arrays.equals(savedGeoData.longitudeSerie, tourData.longitudeSerie)) {
+
+         // geo data are not modified, e.g. when only the title was changed
+         return;
+      }
+
+      try (Connection conn = TourDatabase.getInstance().getConnection()) {
+
+         saveTour(conn, tourData, savedGeoData);
+
+      } catch (final SQLException e) {
+
+         // this is also called in the worker threads when tours are saved concurrently, a dialog cannot be displayed there
+         StatusUtil.log(e);
+      }
+   }
+
+   /**
+    * Save the geo parts of a tour, only the geo parts which are added or removed since the last
+    * save are written, nothing is written when the geo parts are not modified, e.g. when only the
+    * title was changed.
+    *
+    * @param conn
+    * @param tourData
+    * @param savedGeoData
+    *           Geo data before the tour is saved or <code>null</code> when it is not known
+    * @throws SQLException
+    */
+   private static void saveTour(final Connection conn,
+                                final TourData tourData,
+                                final SavedGeoData savedGeoData) throws SQLException {
+
+      final long tourId = tourData.getTourId();
+
+      final int[] allNewGeoParts = computeGeoParts(tourData);
+      final IntHashSet allOldGeoParts = savedGeoData == null
+            ? loadGeoParts(conn, tourId)
+            : IntHashSet.newSetWith(savedGeoData.geoParts);
+
+      final IntHashSet allAddedGeoParts = new IntHashSet();
+      for (final int geoPart : allNewGeoParts) {
+         if (allOldGeoParts.remove(geoPart) == false) {
+            allAddedGeoParts.add(geoPart);
+         }
+      }
+
+      // the old geo parts contain now only the removed geo parts
+
+      if (allAddedGeoParts.isEmpty() && allOldGeoParts.isEmpty()) {
+
+         // geo parts are not modified
+         return;
+      }
+
+      final String sqlDelete = UI.EMPTY_STRING
+
+            + "DELETE FROM " + TourDatabase.TABLE_TOUR_GEO_PARTS //  //$NON-NLS-1$
+            + " WHERE TourId = ? AND GeoPart = ?" //                 //$NON-NLS-1$
+      ;
+
+      final boolean isAutoCommit = conn.getAutoCommit();
+
+      try (PreparedStatement deleteStmt = conn.prepareStatement(sqlDelete);
+            PreparedStatement insertStmt = conn.prepareStatement(SQL_INSERT)) {
+
+         conn.setAutoCommit(false);
+         {
+            if (allOldGeoParts.notEmpty()) {
+
+               final int[] allRemovedGeoParts = allOldGeoParts.toArray();
+
+               for (final int geoPart : allRemovedGeoParts) {
+
+                  deleteStmt.setLong(1, tourId);
+                  deleteStmt.setInt(2, geoPart);
+
+                  deleteStmt.addBatch();
+               }
+
+               deleteStmt.executeBatch();
+            }
+
+            if (allAddedGeoParts.notEmpty()) {
+
+               insertGeoParts(insertStmt, tourId, allAddedGeoParts.toArray());
+
+               insertStmt.executeBatch();
+            }
+         }
+         conn.commit();
+
+      } catch (final SQLException e) {
+
+         conn.rollback();
+         throw e;
+
+      } finally {
+
+         conn.setAutoCommit(isAutoCommit);
+      }
+   }
+}
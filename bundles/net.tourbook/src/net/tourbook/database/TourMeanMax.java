@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package net.tourbook.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import net.tourbook.common.util.SQL;
+import net.tourbook.common.util.StatusUtil;
+import net.tourbook.data.MeanMaxCurves;
+import net.tourbook.data.TourData;
+import net.tourbook.tag.tour.filter.TourTagFilterSqlJoinBuilder;
+import net.tourbook.ui.SQLFilter;
+import net.tourbook.ui.UI;
+
+/**
+ * Mean maximal curves of each tour in the table {@link TourDatabase#TABLE_TOUR_MEAN_MAX}.
+ * <p>
+ * The curves are computed when a tour is saved, so that the best efforts of many years can be
+ * merged without reading the data series of all tours.
+ */
+public class TourMeanMax {
+
+   private static final String NL = UI.NEW_LINE;
+
+   /**
+    * Delete the curves of a tour.
+    *
+    * @param conn
+    * @param tourId
+    * @throws SQLException
+    */
+   private static void deleteTour(final Connection conn, final long tourId) throws SQLException {
+
+      final String sql = "DELETE FROM " + TourDatabase.TABLE_TOUR_MEAN_MAX + " WHERE TourId = ?"; //$NON-NLS-1$ //$NON-NLS-2$
+
+      try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+         stmt.setLong(1, tourId);
+         stmt.executeUpdate();
+      }
+   }
+
+   /**
+    * Read the curves of all tours in the years which are filtered by the app filter and merge
+    * them for each year.
+    *
+    * @param firstYear
+    * @param lastYear
+    * @return Returns the merged curves for each year which has tours with curves
+    */
+   public static Map<Integer, MeanMaxCurves> getYearCurves(final int firstYear, final int lastYear) {
+
+      final Map<Integer, MeanMaxCurves> allYearCurves = new HashMap<>();
+
+      final SQLFilter sqlAppFilter = new SQLFilter(SQLFilter.TAG_FILTER);
+
+      final TourTagFilterSqlJoinBuilder tagFilterSqlJoinBuilder = new TourTagFilterSqlJoinBuilder();
+
+      final String sql = UI.EMPTY_STRING
+
+            + "SELECT" + NL //                                                         //$NON-NLS-1$
+
+            + " TourData.StartYear," + NL //                                        1  //$NON-NLS-1$
+            + " MeanMax.Power," + NL //                                             2  //$NON-NLS-1$
+            + " MeanMax.Pulse," + NL //                                             3  //$NON-NLS-1$
+            + " MeanMax.Speed" + NL //                                              4  //$NON-NLS-1$
+
+            + " FROM " + TourDatabase.TABLE_TOUR_DATA + " TourData" + NL //            //$NON-NLS-1$ //$NON-NLS-2$
+
+            + " INNER JOIN " + TourDatabase.TABLE_TOUR_MEAN_MAX + " MeanMax" //        //$NON-NLS-1$ //$NON-NLS-2$
+            + " ON TourData.TourId = MeanMax.TourId" + NL //                           //$NON-NLS-1$
+
+            // set tag filter id's
+            + tagFilterSqlJoinBuilder.getSqlTagJoinTable() + " jTdataTtag" //          //$NON-NLS-1$
+            + " ON TourData.TourId = jTdataTtag.TourData_tourId" + NL //               //$NON-NLS-1$
+
+            + " WHERE TourData.StartYear BETWEEN ? AND ?" + NL //                      //$NON-NLS-1$
+            + sqlAppFilter.getWhereClause() + NL
+      ;
+
+      try (Connection conn = TourDatabase.getInstance().getConnection();
+            PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+         int paramIndex = 1;
+         paramIndex = tagFilterSqlJoinBuilder.setParameters(stmt, paramIndex);
+
+         stmt.setInt(paramIndex++, firstYear);
+         stmt.setInt(paramIndex++, lastYear);
+
+         sqlAppFilter.setParameters(stmt, paramIndex);
+
+         final MeanMaxCurves tourCurves = new MeanMaxCurves();
+
+         final ResultSet result = stmt.executeQuery();
+
+         while (result.next()) {
+
+            // a tour can occur several times when it has multiple tags, this do not change the max values
+
+            final int year = result.getInt(1);
+
+            tourCurves.power = MeanMaxCurves.fromBytes(result.getBytes(2));
+            tourCurves.pulse = MeanMaxCurves.fromBytes(result.getBytes(3));
+            tourCurves.speed = MeanMaxCurves.fromBytes(result.getBytes(4));
+
+            allYearCurves.computeIfAbsent(year, key -> new MeanMaxCurves()).merge(tourCurves);
+         }
+
+      } catch (final SQLException e) {
+         SQL.showException(e, sql);
+      }
+
+      return allYearCurves;
+   }
+
+   /**
+    * Compute and save the curves of a tour.
+    *
+    * @param tourData
+    */
+   static void saveTour(final TourData tourData) {
+
+      try (Connection conn = TourDatabase.getInstance().getConnection()) {
+
+         saveTour(conn, tourData);
+
+      } catch (final SQLException e) {
+
+         // this is also called in the database update worker threads, a dialog cannot be displayed there
+         StatusUtil.log(e);
+      }
+   }
+
+   /**
+    * Compute and save the curves of a tour, old curves are replaced.
+    *
+    * @param conn
+    * @param tourData
+    * @throws SQLException
+    */
+   static void saveTour(final Connection conn, final TourData tourData) throws SQLException {
+
+      final long tourId = tourData.getTourId();
+
+      final MeanMaxCurves curves = MeanMaxCurves.compute(tourData);
+
+      deleteTour(conn, tourId);
+
+      if (curves == null) {
+         return;
+      }
+
+      final String sql = UI.EMPTY_STRING
+
+            + "INSERT INTO " + TourDatabase.TABLE_TOUR_MEAN_MAX //  //$NON-NLS-1$
+            + " (TourId, Power, Pulse, Speed)" //                   //$NON-NLS-1$
+            + " VALUES (?, ?, ?, ?)" //                             //$NON-NLS-1$
+      ;
+
+      try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+         stmt.setLong(1, tourId);
+         stmt.setBytes(2, MeanMaxCurves.toBytes(curves.power));
+         stmt.setBytes(3, MeanMaxCurves.toBytes(curves.pulse));
+         stmt.setBytes(4, MeanMaxCurves.toBytes(curves.speed));
+
+         stmt.executeUpdate();
+      }
+   }
+}
@@ -99,6 +99,8 @@ public class Messages extends NLS {
 
    public static String Map_POI_MapLocation;
 
+   public static String Map_Properties_OverlayQueue_Refresh;
+   public static String Map_Properties_OverlayQueue_Reset;
    public static String Map_Properties_ShowGeoGrid;
    public static String Map_Properties_ShowTileBorder;
    public static String Map_Properties_ShowTileInfo;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (C) 2005, 2021 Wolfgang Schramm and Contributors
+ * Copyright (C) 2005, 2023 Wolfgang Schramm and Contributors
  *
  * This program is free software; you can redistribute it and/or modify it under
  * the terms of the GNU General Public License as published by the Free Software
@@ -15,7 +15,10 @@
  *******************************************************************************/
 package net.tourbook.map2.view;
 
+import de.byteholder.geoclipse.map.Map2;
+
 import net.tourbook.application.TourbookPlugin;
+import net.tourbook.common.UI;
 import net.tourbook.map2.Messages;
 
 import org.eclipse.jface.layout.GridDataFactory;
@@ -26,6 +29,8 @@ import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.ui.IViewPart;
 import org.eclipse.ui.part.ViewPart;
 
 public class Map2DebugView extends ViewPart {
@@ -36,6 +41,8 @@ public class Map2DebugView extends ViewPart {
    private Button             _chkTileInfo;
    private Button             _chkTileBorder;
 
+   private Label              _lblOverlayQueueStatistics;
+
    @Override
    public void createPartControl(final Composite parent) {
 
@@ -87,7 +94,46 @@ public class Map2DebugView extends ViewPart {
             }
          });
          GridDataFactory.fillDefaults().span(2, 1).applyTo(_chkGeoGridBorder);
+
+         /*
+          * Overlay queue statistics
+          */
+         _lblOverlayQueueStatistics = new Label(infoContainer, SWT.WRAP);
+         GridDataFactory.fillDefaults()
+               .grab(true, false)
+               .span(2, 1)
+               .indent(0, 10)
+               .applyTo(_lblOverlayQueueStatistics);
+
+         final Button btnRefresh = new Button(infoContainer, SWT.PUSH);
+         btnRefresh.setText(Messages.Map_Properties_OverlayQueue_Refresh);
+         btnRefresh.addSelectionListener(new SelectionAdapter() {
+            @Override
+            public void widgetSelected(final SelectionEvent event) {
+               updateUI_OverlayQueueStatistics();
+            }
+         });
+
+         final Button btnReset = new Button(infoContainer, SWT.PUSH);
+         btnReset.setText(Messages.Map_Properties_OverlayQueue_Reset);
+         btnReset.addSelectionListener(new SelectionAdapter() {
+            @Override
+            public void widgetSelected(final SelectionEvent event) {
+               onResetOverlayQueueStatistics();
+            }
+         });
+      }
+   }
+
+   private Map2 getMap() {
+
+      final IViewPart map2View = getSite().getPage().findView(Map2View.ID);
+
+      if (map2View instanceof Map2View) {
+         return ((Map2View) map2View).getMap();
       }
+
+      return null;
    }
 
    /**
@@ -105,6 +151,17 @@ public class Map2DebugView extends ViewPart {
       store.setValue(Map2View.PREF_SHOW_TILE_BORDER, _chkTileBorder.getSelection());
    }
 
+   private void onResetOverlayQueueStatistics() {
+
+      final Map2 map = getMap();
+      if (map != null) {
+         map.resetOverlayQueueStatistics();
+         map.resetHoverStatistics();
+      }
+
+      updateUI_OverlayQueueStatistics();
+   }
+
    private void restoreSettings() {
 
       final IPreferenceStore store = TourbookPlugin.getDefault().getPreferenceStore();
@@ -115,9 +172,21 @@ public class Map2DebugView extends ViewPart {
       _chkGeoGridBorder.setSelection(store.getBoolean(Map2View.PREF_DEBUG_MAP_SHOW_GEO_GRID));
       _chkTileInfo.setSelection(store.getBoolean(Map2View.PREF_SHOW_TILE_INFO));
       _chkTileBorder.setSelection(store.getBoolean(Map2View.PREF_SHOW_TILE_BORDER));
+
+      updateUI_OverlayQueueStatistics();
    }
 
    @Override
    public void setFocus() {}
 
+   private void updateUI_OverlayQueueStatistics() {
+
+      final Map2 map = getMap();
+
+      _lblOverlayQueueStatistics.setText(map == null
+            ? UI.EMPTY_STRING
+            : map.getOverlayQueueStatistics() + UI.NEW_LINE + map.getHoverStatistics());
+
+      _lblOverlayQueueStatistics.getParent().layout(true, true);
+   }
 }
@@ -129,6 +129,7 @@ import net.tourbook.photo.PhotoSelection;
 import net.tourbook.preferences.ITourbookPreferences;
 import net.tourbook.preferences.Map2_Appearance;
 import net.tourbook.srtm.IPreferences;
+import net.tourbook.srtm.tilefactory.SRTMTileRenderer;
 import net.tourbook.tour.ITourEventListener;
 import net.tourbook.tour.SelectionDeletedTours;
 import net.tourbook.tour.SelectionTourData;
@@ -1484,6 +1485,9 @@ public class Map2View extends ViewPart implements
 
                _selectedProfileKey = prefProfileKey;
 
+               // cached tiles and color tables can be from a modified profile with the same key
+               SRTMTileRenderer.clearCache();
+
                _map.disposeTiles();
                _map.paint();
             }
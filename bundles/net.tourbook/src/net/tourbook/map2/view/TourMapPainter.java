@@ -32,6 +32,10 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import net.tourbook.Images;
 import net.tourbook.application.TourbookPlugin;
@@ -136,6 +140,26 @@ public class TourMapPainter extends Map2Painter {
    private static Color               _bgColor;
    private static final ColorCacheSWT _colorCache = new ColorCacheSWT();
 
+   /**
+    * Creates the tile buckets for many tours concurrently, e.g. when all tours are displayed
+    */
+   private static ThreadPoolExecutor  _tileSegments_Executor;
+
+   static {
+
+      final ThreadFactory threadFactory = runnable -> {
+
+         final Thread thread = new Thread(runnable, "Map2: Creating tour tile buckets");//$NON-NLS-1$
+
+         thread.setPriority(Thread.MIN_PRIORITY);
+         thread.setDaemon(true);
+
+         return thread;
+      };
+
+      _tileSegments_Executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), threadFactory);
+   }
+
    /*
     * Static UI resources
     */
@@ -267,6 +291,36 @@ public class TourMapPainter extends Map2Painter {
       return ImageConverter.convertIntoSWT(image);
    }
 
+   /**
+    * Converts all geo positions into world pixels, the positions are not cached in the tour.
+    *
+    * @param mp
+    * @param mapZoomLevel
+    * @param latitudeSerie
+    * @param longitudeSerie
+    * @return
+    */
+   private static Point[] createWorldPixel_Tour(final MP mp,
+                                                final int mapZoomLevel,
+                                                final double[] latitudeSerie,
+                                                final double[] longitudeSerie) {
+
+      final int numSlices = latitudeSerie.length;
+
+      final Point[] allTour_WorldPixelPos = new Point[numSlices];
+
+      for (int serieIndex = 0; serieIndex < numSlices; serieIndex++) {
+
+         // convert lat/long into world pixels which depends on the map projection
+
+         final GeoPosition geoPosition = new GeoPosition(latitudeSerie[serieIndex], longitudeSerie[serieIndex]);
+
+         allTour_WorldPixelPos[serieIndex] = mp.geoToPixel(geoPosition, mapZoomLevel);
+      }
+
+      return allTour_WorldPixelPos;
+   }
+
    /**
     * @param g2d
     * @param colorProvider
@@ -1274,7 +1328,9 @@ public class TourMapPainter extends Map2Painter {
          int tourSerieIndex = 0;
          int numberOfPauses = 0;
          long tourStartTime = 0;
-         final List<List<Long>> allTourPauses = tourData.multipleTourPauses;
+         final long[] allPausedTime_Start = tourData.multipleTourPausedTime_Start;
+         final long[] allPausedTime_End = tourData.multipleTourPausedTime_End;
+         final long[] allPausedTime_Data = tourData.multipleTourPausedTime_Data;
          int currentTourPauseIndex = 0;
          int pauseCounter = 0;
          final int[] timeSerie = tourData.timeSerie;
@@ -1286,9 +1342,9 @@ public class TourMapPainter extends Map2Painter {
 
             for (int relativeTourPauseIndex = 0; relativeTourPauseIndex < numberOfPauses;) {
 
-               final long pausedTime_Start = allTourPauses.get(currentTourPauseIndex).get(0);
-               final long pausedTime_End = allTourPauses.get(currentTourPauseIndex).get(1);
-               final long pausedTime_Data = allTourPauses.get(currentTourPauseIndex).get(2);
+               final long pausedTime_Start = allPausedTime_Start[currentTourPauseIndex];
+               final long pausedTime_End = allPausedTime_End[currentTourPauseIndex];
+               final long pausedTime_Data = allPausedTime_Data[currentTourPauseIndex];
 
                final long pauseDuration = Math.round((pausedTime_End - pausedTime_Start) / 1000f);
 
@@ -1594,6 +1650,14 @@ public class TourMapPainter extends Map2Painter {
                projectionHash);
       }
 
+      /*
+       * Only the positions from the tile bucket are visited, when painting fast, the values are
+       * skipped in the whole tour
+       */
+      final int[] allSerieRanges = _isFastPainting
+            ? new int[] { 0, numTimeSlices - 1 }
+            : getTileSerieRanges(tourData, mp, mapZoomLevel, tile, projectionHash);
+
       gcTile.setForeground(systemColorBlue);
       gcTile.setBackground(systemColorBlue);
 
@@ -1649,293 +1713,331 @@ public class TourMapPainter extends Map2Painter {
 
          Color lastVisibleColor = null;
 
-         for (int serieIndex = 0; serieIndex < longitudeSerie.length; serieIndex++) {
+         // index of the next position when all positions would be visited
+         int nextSerieIndex = 0;
 
-            if (_isFastPainting) {
+         for (int rangeIndex = 0; rangeIndex < allSerieRanges.length; rangeIndex += 2) {
 
-               serieIndex += _fastPainting_SkippedValues;
+            final int rangeStart = allSerieRanges[rangeIndex];
+            final int rangeEnd = allSerieRanges[rangeIndex + 1];
 
-               if (serieIndex >= longitudeSerie.length) {
-                  serieIndex = longitudeSerie.length - 1;
-               }
-            }
+            if (rangeStart > nextSerieIndex && _prefIsDrawLine && _isFastPainting == false) {
 
-            final Point tourWorldPixel = allTour_WorldPixelPos[serieIndex];
-            final int tourWorldPixelX = tourWorldPixel.x;
-            final int tourWorldPixelY = tourWorldPixel.y;
+               /*
+                * Positions before this range are outside of the tile, restore the line state as if
+                * they were visited
+                */
+               final Point prevWorldPixel = allTour_WorldPixelPos[rangeStart - 1];
 
-            int devX = tourWorldPixelX - tileWorldPixelX;
-            int devY = tourWorldPixelY - tileWorldPixelY;
+               devFrom_WithOffsetX = prevWorldPixel.x - tileWorldPixelX + devPartOffset;
+               devFrom_WithOffsetY = prevWorldPixel.y - tileWorldPixelY + devPartOffset;
 
-            boolean isInRefTourPart = false;
+               for (int skippedIndex = Math.max(1, nextSerieIndex); skippedIndex < rangeStart; skippedIndex++) {
 
-            if (isGeoCompareRefTour) {
+                  boolean isVisibleDataPoint = true;
+                  if (visibleDataPointSerie != null) {
 
-               // paint ref tour part with a different color
+                     isVisibleDataPoint = visibleDataPointSerie[skippedIndex];
 
-               isInRefTourPart = serieIndex >= refTourStartIndex && serieIndex <= refTourEndIndex;
+                     if (isPreviousVisibleDataPoint == false && isVisibleDataPoint) {
+                        isVisibleDataPoint_AfterIsWasHidden = true;
+                     }
+                  }
+
+                  isPreviousVisibleDataPoint = isVisibleDataPoint;
+               }
             }
 
-            if (_prefIsDrawLine && _isFastPainting == false) {
+            for (int serieIndex = rangeStart; serieIndex <= rangeEnd; serieIndex++) {
 
-               // draw as a line
+               if (_isFastPainting) {
 
-               // get positions with the part offset
-               final int devTo_WithOffsetX = devX + devPartOffset;
-               final int devTo_WithOffsetY = devY + devPartOffset;
+                  serieIndex += _fastPainting_SkippedValues;
 
-               if (serieIndex == 0) {
+                  if (serieIndex >= rangeEnd) {
+                     serieIndex = rangeEnd;
+                  }
+               }
 
-                  // keep position
-                  devFrom_WithOffsetX = devTo_WithOffsetX;
-                  devFrom_WithOffsetY = devTo_WithOffsetY;
+               final Point tourWorldPixel = allTour_WorldPixelPos[serieIndex];
+               final int tourWorldPixelX = tourWorldPixel.x;
+               final int tourWorldPixelY = tourWorldPixel.y;
 
-                  continue;
+               int devX = tourWorldPixelX - tileWorldPixelX;
+               int devY = tourWorldPixelY - tileWorldPixelY;
+
+               boolean isInRefTourPart = false;
+
+               if (isGeoCompareRefTour) {
+
+                  // paint ref tour part with a different color
+
+                  isInRefTourPart = serieIndex >= refTourStartIndex && serieIndex <= refTourEndIndex;
                }
 
-               /*
-                * Check visible points
-                */
-               boolean isVisibleDataPoint = true;
-               if (visibleDataPointSerie != null) {
+               if (_prefIsDrawLine && _isFastPainting == false) {
+
+                  // draw as a line
 
-                  // visible data points are available -> use it
+                  // get positions with the part offset
+                  final int devTo_WithOffsetX = devX + devPartOffset;
+                  final int devTo_WithOffsetY = devY + devPartOffset;
 
-                  isVisibleDataPoint = visibleDataPointSerie[serieIndex];
+                  if (serieIndex == 0) {
 
-                  if (isPreviousVisibleDataPoint == false && isVisibleDataPoint) {
+                     // keep position
+                     devFrom_WithOffsetX = devTo_WithOffsetX;
+                     devFrom_WithOffsetY = devTo_WithOffsetY;
 
-                     isVisibleDataPoint_AfterIsWasHidden = true;
+                     continue;
                   }
-               }
 
-               /*
-                * Get sub tour id
-                */
-               if (isMultipleTours) {
+                  /*
+                   * Check visible points
+                   */
+                  boolean isVisibleDataPoint = true;
+                  if (visibleDataPointSerie != null) {
+
+                     // visible data points are available -> use it
+
+                     isVisibleDataPoint = visibleDataPointSerie[serieIndex];
+
+                     if (isPreviousVisibleDataPoint == false && isVisibleDataPoint) {
+
+                        isVisibleDataPoint_AfterIsWasHidden = true;
+                     }
+                  }
+
+                  /*
+                   * Get sub tour id
+                   */
+                  if (isMultipleTours) {
 
-                  if (serieIndex >= nextTour_StartIndex) {
+                     if (serieIndex >= nextTour_StartIndex) {
 
-                     // advance to the next sub tour
+                        // advance to the next sub tour
 
-                     for (; subTourIndex < numMultipleTours; subTourIndex++) {
+                        for (; subTourIndex < numMultipleTours; subTourIndex++) {
 
-                        final int nextSubTour_StartIndex = allMultipleTour_StartIndex[subTourIndex];
+                           final int nextSubTour_StartIndex = allMultipleTour_StartIndex[subTourIndex];
 
-                        if (serieIndex < nextSubTour_StartIndex) {
-                           break;
+                           if (serieIndex < nextSubTour_StartIndex) {
+                              break;
+                           }
                         }
-                     }
 
-                     tourId = subTourIndex >= numMultipleTours
-                           ? allMultipleTourIds[numMultipleTours - 1]
-                           : allMultipleTourIds[subTourIndex];
+                        tourId = subTourIndex >= numMultipleTours
+                              ? allMultipleTourIds[numMultipleTours - 1]
+                              : allMultipleTourIds[subTourIndex];
+                     }
                   }
-               }
 
-//               if (serieIndex == 1146) {
-//                  int a = 0;
-//                  a++;
-//               }
+//                  if (serieIndex == 1146) {
+//                     int a = 0;
+//                     a++;
+//                  }
 
-               Color color = null;
+                  Color color = null;
 
-               /*
-                * Check if position is in the viewport, this condition is an inline for:
-                * -
-                * tileViewport.contains(tileWorldPos.x, tileWorldPos.y)
-                */
-               if ((tourWorldPixelX >= tileWorldPixelX)
-                     && (tourWorldPixelY >= tileWorldPixelY)
-                     && tourWorldPixelX < (tileWorldPixelX + tileWidth)
-                     && tourWorldPixelY < (tileWorldPixelY + tileHeight)) {
+                  /*
+                   * Check if position is in the viewport, this condition is an inline for:
+                   * -
+                   * tileViewport.contains(tileWorldPos.x, tileWorldPos.y)
+                   */
+                  if ((tourWorldPixelX >= tileWorldPixelX)
+                        && (tourWorldPixelY >= tileWorldPixelY)
+                        && tourWorldPixelX < (tileWorldPixelX + tileWidth)
+                        && tourWorldPixelY < (tileWorldPixelY + tileHeight)) {
+
+                     // current position is inside the tile
+
+                     // check if position has changed
+                     if (devTo_WithOffsetX != devFrom_WithOffsetX || devTo_WithOffsetY != devFrom_WithOffsetY) {
 
-                  // current position is inside the tile
+                        isTourInTile = true;
+
+                        if (isVisibleDataPoint) {
 
-                  // check if position has changed
-                  if (devTo_WithOffsetX != devFrom_WithOffsetX || devTo_WithOffsetY != devFrom_WithOffsetY) {
+                           color = getTourColor(
+                                 tourData,
+                                 serieIndex,
+                                 isBorder,
+                                 true,
+                                 isGeoCompareRefTour,
+                                 isInRefTourPart);
 
-                     isTourInTile = true;
+                           lastVisibleColor = color;
 
-                     if (isVisibleDataPoint) {
+                           if (isVisibleDataPoint_AfterIsWasHidden) {
 
-                        color = getTourColor(
-                              tourData,
-                              serieIndex,
-                              isBorder,
-                              true,
-                              isGeoCompareRefTour,
-                              isInRefTourPart);
+                              // draw starting point after a pause/break
 
-                        lastVisibleColor = color;
+                              drawTour_40_Dot(gcTile,
+                                    devFrom_WithOffsetX,
+                                    devFrom_WithOffsetY,
+                                    color,
+                                    tile,
+                                    tourId,
 
-                        if (isVisibleDataPoint_AfterIsWasHidden) {
+                                    // adjust to the previous index otherwise the index is wrong
+                                    serieIndex - 1);
 
-                           // draw starting point after a pause/break
+                           }
 
-                           drawTour_40_Dot(gcTile,
+                           drawTour_20_Line(
+                                 gcTile,
                                  devFrom_WithOffsetX,
                                  devFrom_WithOffsetY,
+                                 devTo_WithOffsetX,
+                                 devTo_WithOffsetY,
                                  color,
                                  tile,
                                  tourId,
+                                 serieIndex);
+                        }
+                     }
+
+                     lastInsideIndex = serieIndex;
+                  }
+
+                  // check first outside point
+                  if (isVisibleDataPoint && serieIndex == lastInsideIndex + 1) {
+
+                     /*
+                      * This position is the first which is outside of the tile, draw a line from
+                      * the last inside to the first outside position
+                      */
+
+                     if (isVisibleDataPoint_AfterIsWasHidden) {
 
-                                 // adjust to the previous index otherwise the index is wrong
-                                 serieIndex - 1);
+                        if (lastVisibleColor == null) {
 
+                           lastVisibleColor = getTourColor(
+                                 tourData,
+                                 serieIndex,
+                                 isBorder,
+                                 true,
+                                 isGeoCompareRefTour,
+                                 isInRefTourPart);
                         }
 
-                        drawTour_20_Line(
-                              gcTile,
+                        drawTour_40_Dot(gcTile,
                               devFrom_WithOffsetX,
                               devFrom_WithOffsetY,
-                              devTo_WithOffsetX,
-                              devTo_WithOffsetY,
-                              color,
+                              lastVisibleColor,
                               tile,
                               tourId,
-                              serieIndex);
-                     }
-                  }
-
-                  lastInsideIndex = serieIndex;
-               }
-
-               // check first outside point
-               if (isVisibleDataPoint && serieIndex == lastInsideIndex + 1) {
-
-                  /*
-                   * This position is the first which is outside of the tile, draw a line from
-                   * the last inside to the first outside position
-                   */
 
-                  if (isVisibleDataPoint_AfterIsWasHidden) {
+                              // adjust to the previous index otherwise the index is wrong
+                              serieIndex - 1);
 
-                     if (lastVisibleColor == null) {
-
-                        lastVisibleColor = getTourColor(
-                              tourData,
-                              serieIndex,
-                              isBorder,
-                              true,
-                              isGeoCompareRefTour,
-                              isInRefTourPart);
                      }
 
-                     drawTour_40_Dot(gcTile,
+                     drawTour_20_Line(
+                           gcTile,
                            devFrom_WithOffsetX,
                            devFrom_WithOffsetY,
+                           devTo_WithOffsetX,
+                           devTo_WithOffsetY,
                            lastVisibleColor,
                            tile,
                            tourId,
-
-                           // adjust to the previous index otherwise the index is wrong
-                           serieIndex - 1);
-
+                           serieIndex);
                   }
 
-                  drawTour_20_Line(
-                        gcTile,
-                        devFrom_WithOffsetX,
-                        devFrom_WithOffsetY,
-                        devTo_WithOffsetX,
-                        devTo_WithOffsetY,
-                        lastVisibleColor,
-                        tile,
-                        tourId,
-                        serieIndex);
-               }
-
-               // keep positions
-               devFrom_WithOffsetX = devTo_WithOffsetX;
-               devFrom_WithOffsetY = devTo_WithOffsetY;
+                  // keep positions
+                  devFrom_WithOffsetX = devTo_WithOffsetX;
+                  devFrom_WithOffsetY = devTo_WithOffsetY;
 
-               isPreviousVisibleDataPoint = isVisibleDataPoint;
+                  isPreviousVisibleDataPoint = isVisibleDataPoint;
 
-            } else {
+               } else {
 
-               // draw tour with dots/squares
+                  // draw tour with dots/squares
 
-               // this is an inline for: tileViewport.contains(tileWorldPos.x, tileWorldPos.y)
-               // check if position is in the viewport
-               if ((tourWorldPixelX >= tileWorldPixelX)
-                     && (tourWorldPixelY >= tileWorldPixelY)
-                     && tourWorldPixelX < (tileWorldPixelX + tileWidth)
-                     && tourWorldPixelY < (tileWorldPixelY + tileHeight)) {
+                  // this is an inline for: tileViewport.contains(tileWorldPos.x, tileWorldPos.y)
+                  // check if position is in the viewport
+                  if ((tourWorldPixelX >= tileWorldPixelX)
+                        && (tourWorldPixelY >= tileWorldPixelY)
+                        && tourWorldPixelX < (tileWorldPixelX + tileWidth)
+                        && tourWorldPixelY < (tileWorldPixelY + tileHeight)) {
 
-                  // current position is inside the tile
+                     // current position is inside the tile
 
-                  // optimize drawing: check if position has changed
-                  if (!(devX == devFrom_WithOffsetX && devY == devFrom_WithOffsetY)) {
+                     // optimize drawing: check if position has changed
+                     if (!(devX == devFrom_WithOffsetX && devY == devFrom_WithOffsetY)) {
 
-                     /*
-                      * Check visible points
-                      */
-                     boolean isVisibleDataPoint = true;
-                     if (visibleDataPointSerie != null) {
-                        isVisibleDataPoint = visibleDataPointSerie[serieIndex];
-                     }
+                        /*
+                         * Check visible points
+                         */
+                        boolean isVisibleDataPoint = true;
+                        if (visibleDataPointSerie != null) {
+                           isVisibleDataPoint = visibleDataPointSerie[serieIndex];
+                        }
 
-                     if (isVisibleDataPoint) {
+                        if (isVisibleDataPoint) {
 
-                        isTourInTile = true;
+                           isTourInTile = true;
 
-                        /*
-                         * Get sub tour
-                         */
-                        if (isMultipleTours) {
+                           /*
+                            * Get sub tour
+                            */
+                           if (isMultipleTours) {
 
-                           if (serieIndex >= nextTour_StartIndex) {
+                              if (serieIndex >= nextTour_StartIndex) {
 
-                              // advance to the next sub tour
+                                 // advance to the next sub tour
 
-                              for (; subTourIndex < numMultipleTours; subTourIndex++) {
+                                 for (; subTourIndex < numMultipleTours; subTourIndex++) {
 
-                                 final int nextSubTour_StartIndex = allMultipleTour_StartIndex[subTourIndex];
+                                    final int nextSubTour_StartIndex = allMultipleTour_StartIndex[subTourIndex];
 
-                                 if (serieIndex < nextSubTour_StartIndex) {
-                                    break;
+                                    if (serieIndex < nextSubTour_StartIndex) {
+                                       break;
+                                    }
                                  }
-                              }
 
-                              tourId = subTourIndex >= numMultipleTours
-                                    ? allMultipleTourIds[numMultipleTours - 1]
-                                    : allMultipleTourIds[subTourIndex];
+                                 tourId = subTourIndex >= numMultipleTours
+                                       ? allMultipleTourIds[numMultipleTours - 1]
+                                       : allMultipleTourIds[subTourIndex];
+                              }
                            }
-                        }
 
-                        // adjust positions with the part offset
-                        devX += devPartOffset;
-                        devY += devPartOffset;
+                           // adjust positions with the part offset
+                           devX += devPartOffset;
+                           devY += devPartOffset;
 
-                        final Color color = getTourColor(
-                              tourData,
-                              serieIndex,
-                              isBorder,
-                              false,
-                              isGeoCompareRefTour,
-                              isInRefTourPart);
+                           final Color color = getTourColor(
+                                 tourData,
+                                 serieIndex,
+                                 isBorder,
+                                 false,
+                                 isGeoCompareRefTour,
+                                 isInRefTourPart);
 
-                        if (_prefIsDrawSquare == false || _isFastPainting) {
-                           drawTour_40_Dot(gcTile, devX, devY, color, tile, tourId, serieIndex);
-                        } else {
-                           drawTour_30_Square(gcTile, devX, devY, color, tile, tourId, serieIndex);
-                        }
+                           if (_prefIsDrawSquare == false || _isFastPainting) {
+                              drawTour_40_Dot(gcTile, devX, devY, color, tile, tourId, serieIndex);
+                           } else {
+                              drawTour_30_Square(gcTile, devX, devY, color, tile, tourId, serieIndex);
+                           }
 
-                        // set previous pixel
-                        devFrom_WithOffsetX = devX;
-                        devFrom_WithOffsetY = devY;
-                     }
+                           // set previous pixel
+                           devFrom_WithOffsetX = devX;
+                           devFrom_WithOffsetY = devY;
+                        }
 
-                  } else {
+                     } else {
 
-//                     System.out.println((UI.timeStampNano() + " [" + getClass().getSimpleName() + "] ()")
-//                           + ("\tskipped: " + devX + " " + devY)
-////                           + ("\t: " + )
-//                           );
+//                        System.out.println((UI.timeStampNano() + " [" + getClass().getSimpleName() + "] ()")
+//                              + ("\tskipped: " + devX + " " + devY)
+////                              + ("\t: " + )
+//                              );
+                     }
                   }
                }
             }
+
+            nextSerieIndex = rangeEnd + 1;
          }
       }
 
@@ -2021,15 +2123,13 @@ public class TourMapPainter extends Map2Painter {
       /*
        * Keep area to detect the hovered tour and enlarge it with a margin to easier hit it
        */
-      final Rectangle hoveredRect = new Rectangle(
+      tile.allPainted_HoverIndex.add(
             paintedDevX - _symbolHoveredMargin2,
             paintedDevY - _symbolHoveredMargin2,
             _symbolSize + _symbolHoveredMargin,
-            _symbolSize + _symbolHoveredMargin);
-
-      tile.allPainted_HoverRectangle.add(hoveredRect);
-      tile.allPainted_HoverTourID.add(tourId);
-      tile.allPainted_HoverSerieIndices.add(serieIndex);
+            _symbolSize + _symbolHoveredMargin,
+            tourId,
+            serieIndex);
    }
 
    private void drawTour_40_Dot(final GC gc,
@@ -2088,16 +2188,13 @@ public class TourMapPainter extends Map2Painter {
       /*
        * Keep painted area to detect the hovered tour and enlarge it with a margin to easier hit it
        */
-
-      final Rectangle hoveredRect = new Rectangle(
+      tile.allPainted_HoverIndex.add(
             paintedDevX - _symbolHoveredMargin2,
             paintedDevY - _symbolHoveredMargin2,
             _symbolSize + _symbolHoveredMargin,
-            _symbolSize + _symbolHoveredMargin);
-
-      tile.allPainted_HoverRectangle.add(hoveredRect);
-      tile.allPainted_HoverTourID.add(tourId);
-      tile.allPainted_HoverSerieIndices.add(serieIndex);
+            _symbolSize + _symbolHoveredMargin,
+            tourId,
+            serieIndex);
    }
 
    /**
@@ -2607,6 +2704,31 @@ public class TourMapPainter extends Map2Painter {
       return photoImage;
    }
 
+   /**
+    * @return Returns pairs of the first and last serie index which must be painted into the tile
+    */
+   private int[] getTileSerieRanges(final TourData tourData,
+                                    final MP mp,
+                                    final int mapZoomLevel,
+                                    final Tile tile,
+                                    final int projectionHash) {
+
+      TourTileSegments tileSegments = tourData.getTileSegments_ForTours(projectionHash, mapZoomLevel);
+
+      if (tileSegments == null) {
+
+         tileSegments = setupTileSegments_Tour(
+               tourData,
+               mp,
+               mapZoomLevel,
+               tourData.latitudeSerie,
+               tourData.longitudeSerie,
+               projectionHash);
+      }
+
+      return tileSegments.getSerieRanges(TourTileSegments.getTileHash(tile.getX(), tile.getY()));
+   }
+
    private Color getTourColor(final TourData tourData,
                               final int serieIndex,
                               final boolean isBorder,
@@ -2740,14 +2862,14 @@ public class TourMapPainter extends Map2Painter {
 
       if (latitudeSerie != null && longitudeSerie != null) {
 
-         // tiles are cached to optimize performance when multiple tours are selected
-         IntHashSet tileHashes = tourData.getTileHashes_ForTours(projectionHash, mapZoomLevel);
+         // tile buckets are cached to optimize performance when multiple tours are selected
+         TourTileSegments tileSegments = tourData.getTileSegments_ForTours(projectionHash, mapZoomLevel);
 
-         if (tileHashes == null) {
+         if (tileSegments == null) {
 
-            // tile hashes are not yet cached, create them now
+            // tile buckets are not yet cached, create them now
 
-            tileHashes = setupTileHashes_Tour(
+            tileSegments = setupTileSegments_Tour(
                   tourData,
                   mp,
                   mapZoomLevel,
@@ -2756,11 +2878,7 @@ public class TourMapPainter extends Map2Painter {
                   projectionHash);
          }
 
-         int tileHash = 15;
-         tileHash = 35 * tileHash + tile.getX();
-         tileHash = 35 * tileHash + tile.getY();
-
-         if (tileHashes.contains(tileHash)) {
+         if (tileSegments.isInTile(TourTileSegments.getTileHash(tile.getX(), tile.getY()))) {
 
             // tour is in this tile
 
@@ -2913,6 +3031,8 @@ public class TourMapPainter extends Map2Painter {
                                           final Tile tile,
                                           final int projectionHash) {
 
+      setupTileSegments_AllTours(allTourData, mp, mapZoomLevel, projectionHash);
+
       for (final TourData tourData : allTourData) {
 
          // check tour data
@@ -3040,50 +3160,154 @@ public class TourMapPainter extends Map2Painter {
    }
 
    /**
-    * Create tour tile hashes for all geo positions and the current zoom level and projection
+    * Creates the tile buckets for all tours which do not yet have buckets for the current zoom
+    * level and projection, each tour is processed in its own task.
+    * <p>
+    * The tasks do not access the caches in {@link TourData}, which are not thread safe, the world
+    * positions are read before and all created values are set after the tasks are done.
     *
-    * @param tourData
+    * @param allTourData
     * @param mp
     * @param mapZoomLevel
-    * @param latitudeSerie
-    * @param longitudeSerie
     * @param projectionHash
-    * @return
     */
-   private IntHashSet setupTileHashes_Tour(final TourData tourData,
+   private void setupTileSegments_AllTours(final ArrayList<TourData> allTourData,
                                            final MP mp,
                                            final int mapZoomLevel,
-                                           final double[] latitudeSerie,
-                                           final double[] longitudeSerie,
                                            final int projectionHash) {
 
-      final IntHashSet tileHashes = new IntHashSet();
+      final ArrayList<TourData> allMissingTourData = new ArrayList<>();
+
+      for (final TourData tourData : allTourData) {
+
+         if (tourData != null
+               && tourData.latitudeSerie != null
+               && tourData.longitudeSerie != null
+               && tourData.getTileSegments_ForTours(projectionHash, mapZoomLevel) == null) {
+
+            allMissingTourData.add(tourData);
+         }
+      }
+
+      final int numMissingTours = allMissingTourData.size();
+
+      // a single tour is created in the painting thread
+      if (numMissingTours < 2) {
+         return;
+      }
 
-      final int numSlices = latitudeSerie.length;
       final int tileSize = mp.getTileSize();
 
-      for (int serieIndex = 0; serieIndex < numSlices; serieIndex++) {
+      final Point[][] allCachedWorldPixelPos = new Point[numMissingTours][];
+      final Point[][] allCreatedWorldPixelPos = new Point[numMissingTours][];
+      final TourTileSegments[] allTileSegments = new TourTileSegments[numMissingTours];
 
-         // convert lat/long into world pixels which depends on the map projection
+      for (int tourIndex = 0; tourIndex < numMissingTours; tourIndex++) {
+         allCachedWorldPixelPos[tourIndex] = allMissingTourData.get(tourIndex).getWorldPositionForTour(projectionHash, mapZoomLevel);
+      }
 
-         final Point worldPixelPos = mp.geoToPixel(
-               new GeoPosition(latitudeSerie[serieIndex], longitudeSerie[serieIndex]),
-               mapZoomLevel);
+      final CountDownLatch countDownLatch = new CountDownLatch(numMissingTours);
 
-         final int tileX = worldPixelPos.x / tileSize;
-         final int tileY = worldPixelPos.y / tileSize;
+      for (int tourIndex = 0; tourIndex < numMissingTours; tourIndex++) {
 
-         // create painting hash code
-         int tileHash = 15;
-         tileHash = 35 * tileHash + tileX;
-         tileHash = 35 * tileHash + tileY;
+         final int taskIndex = tourIndex;
+         final TourData tourData = allMissingTourData.get(taskIndex);
 
-         tileHashes.add(tileHash);
+         _tileSegments_Executor.submit(() -> {
+
+            try {
+
+               Point[] allTour_WorldPixelPos = allCachedWorldPixelPos[taskIndex];
+
+               if (allTour_WorldPixelPos == null) {
+
+                  allTour_WorldPixelPos = createWorldPixel_Tour(
+                        mp,
+                        mapZoomLevel,
+                        tourData.latitudeSerie,
+                        tourData.longitudeSerie);
+
+                  allCreatedWorldPixelPos[taskIndex] = allTour_WorldPixelPos;
+               }
+
+               allTileSegments[taskIndex] = TourTileSegments.create(allTour_WorldPixelPos, tileSize);
+
+            } catch (final Exception e) {
+
+               StatusUtil.log(e);
+
+            } finally {
+
+               countDownLatch.countDown();
+            }
+         });
       }
 
-      tourData.setTileHashes_ForTours(tileHashes, mapZoomLevel, projectionHash);
+      try {
+
+         countDownLatch.await();
 
-      return tileHashes;
+      } catch (final InterruptedException e) {
+
+         StatusUtil.log(e);
+         Thread.currentThread().interrupt();
+
+         return;
+      }
+
+      // set the created values in the painting thread, the latch makes them visible
+      for (int tourIndex = 0; tourIndex < numMissingTours; tourIndex++) {
+
+         final TourData tourData = allMissingTourData.get(tourIndex);
+
+         final Point[] allCreatedWorldPixel = allCreatedWorldPixelPos[tourIndex];
+         if (allCreatedWorldPixel != null) {
+            tourData.setWorldPixelForTour(allCreatedWorldPixel, mapZoomLevel, projectionHash);
+         }
+
+         final TourTileSegments tileSegments = allTileSegments[tourIndex];
+         if (tileSegments != null) {
+            tourData.setTileSegments_ForTours(tileSegments, mapZoomLevel, projectionHash);
+         }
+      }
+   }
+
+   /**
+    * Create tour tile buckets for all geo positions and the current zoom level and projection
+    *
+    * @param tourData
+    * @param mp
+    * @param mapZoomLevel
+    * @param latitudeSerie
+    * @param longitudeSerie
+    * @param projectionHash
+    * @return
+    */
+   private TourTileSegments setupTileSegments_Tour(final TourData tourData,
+                                                   final MP mp,
+                                                   final int mapZoomLevel,
+                                                   final double[] latitudeSerie,
+                                                   final double[] longitudeSerie,
+                                                   final int projectionHash) {
+
+      Point[] allTour_WorldPixelPos = tourData.getWorldPositionForTour(projectionHash, mapZoomLevel);
+
+      if (allTour_WorldPixelPos == null) {
+
+         allTour_WorldPixelPos = setupWorldPixel_Tour(
+               tourData,
+               mp,
+               mapZoomLevel,
+               latitudeSerie,
+               longitudeSerie,
+               projectionHash);
+      }
+
+      final TourTileSegments tileSegments = TourTileSegments.create(allTour_WorldPixelPos, mp.getTileSize());
+
+      tourData.setTileSegments_ForTours(tileSegments, mapZoomLevel, projectionHash);
+
+      return tileSegments;
    }
 
    /**
@@ -3148,18 +3372,7 @@ public class TourMapPainter extends Map2Painter {
                                         final double[] longitudeSerie,
                                         final int projectionHash) {
 
-      final int numSlices = latitudeSerie.length;
-
-      final Point[] allTour_WorldPixelPos = new Point[numSlices];
-
-      for (int serieIndex = 0; serieIndex < numSlices; serieIndex++) {
-
-         // convert lat/long into world pixels which depends on the map projection
-
-         final GeoPosition geoPosition = new GeoPosition(latitudeSerie[serieIndex], longitudeSerie[serieIndex]);
-
-         allTour_WorldPixelPos[serieIndex] = mp.geoToPixel(geoPosition, mapZoomLevel);
-      }
+      final Point[] allTour_WorldPixelPos = createWorldPixel_Tour(mp, mapZoomLevel, latitudeSerie, longitudeSerie);
 
       tourData.setWorldPixelForTour(allTour_WorldPixelPos, mapZoomLevel, projectionHash);
 
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package net.tourbook.map2.view;
+
+import java.awt.Point;
+
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+
+/**
+ * Spatial buckets of one tour for one zoom level and map projection.
+ * <p>
+ * For each tile which is touched by the tour, the bucket contains the ranges of serie indices
+ * which must be painted into this tile: all positions which are inside the tile and the first
+ * position after an inside position, which is the end of the line leaving the tile.
+ * <p>
+ * The buckets are created once for each zoom level, when a tile is painted only the serie
+ * indices of its bucket are visited and not all positions of the tour.
+ */
+public class TourTileSegments {
+
+   private static final int[]             EMPTY_RANGES = new int[0];
+
+   /**
+    * Key is the tile hash {@link #getTileHash(int, int)}, value contains pairs of the first and
+    * last serie index (inclusive) which are sorted ascending
+    */
+   private final LongObjectHashMap<int[]> _allTileRanges;
+
+   private TourTileSegments(final LongObjectHashMap<int[]> allTileRanges) {
+
+      _allTileRanges = allTileRanges;
+   }
+
+   /**
+    * Appends a serie index to the last range or creates a new range when the serie index do not
+    * follow the last range.
+    *
+    * @param ranges
+    * @param serieIndex
+    */
+   private static void addSerieIndex(final IntArrayList ranges, final int serieIndex) {
+
+      final int numRangeItems = ranges.size();
+
+      if (numRangeItems > 0) {
+
+         final int lastRangeEnd = ranges.get(numRangeItems - 1);
+
+         if (serieIndex <= lastRangeEnd) {
+
+            // serie index is already in the range
+            return;
+         }
+
+         if (serieIndex == lastRangeEnd + 1) {
+
+            // extend last range
+            ranges.set(numRangeItems - 1, serieIndex);
+
+            return;
+         }
+      }
+
+      // start a new range
+      ranges.add(serieIndex);
+      ranges.add(serieIndex);
+   }
+
+   /**
+    * Creates the tile buckets for all tour positions
+    *
+    * @param allWorldPixelPos
+    *           World positions of the tour for the zoom level of the buckets
+    * @param tileSize
+    * @return
+    */
+   public static TourTileSegments create(final Point[] allWorldPixelPos, final int tileSize) {
+
+      final LongObjectHashMap<IntArrayList> allTileIndices = new LongObjectHashMap<>();
+
+      final int numSlices = allWorldPixelPos.length;
+
+      for (int serieIndex = 0; serieIndex < numSlices; serieIndex++) {
+
+         final Point worldPixelPos = allWorldPixelPos[serieIndex];
+
+         final long tileHash = getTileHash(worldPixelPos.x / tileSize, worldPixelPos.y / tileSize);
+
+         IntArrayList tileRanges = allTileIndices.get(tileHash);
+         if (tileRanges == null) {
+            tileRanges = new IntArrayList();
+            allTileIndices.put(tileHash, tileRanges);
+         }
+
+         addSerieIndex(tileRanges, serieIndex);
+
+         // the next position is the end of the line which is leaving this tile
+         if (serieIndex < numSlices - 1) {
+            addSerieIndex(tileRanges, serieIndex + 1);
+         }
+      }
+
+      final LongObjectHashMap<int[]> allTileRanges = new LongObjectHashMap<>(allTileIndices.size());
+
+      allTileIndices.forEachKeyValue((tileHash, tileRanges) -> allTileRanges.put(tileHash, tileRanges.toArray()));
+
+      return new TourTileSegments(allTileRanges);
+   }
+
+   /**
+    * @param tileX
+    * @param tileY
+    * @return Returns a unique key for the tile, the x and y tile positions are packed into the
+    *         upper and lower 32 bits
+    */
+   public static long getTileHash(final int tileX, final int tileY) {
+
+      return ((long) tileX << 32) | (tileY & 0xffffffffL);
+   }
+
+   /**
+    * @param tileHash
+    * @return Returns pairs of the first and last serie index (inclusive) which must be painted in
+    *         the tile or an empty array when the tour is not in the tile
+    */
+   public int[] getSerieRanges(final long tileHash) {
+
+      final int[] serieRanges = _allTileRanges.get(tileHash);
+
+      return serieRanges == null ? EMPTY_RANGES : serieRanges;
+   }
+
+   /**
+    * @param tileHash
+    * @return Returns <code>true</code> when the tour has at least one position in the tile
+    */
+   public boolean isInTile(final long tileHash) {
+
+      return _allTileRanges.containsKey(tileHash);
+   }
+}
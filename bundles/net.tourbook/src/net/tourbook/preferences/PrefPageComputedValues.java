@@ -32,6 +32,7 @@ import net.tourbook.data.TourData;
 import net.tourbook.database.IComputeNoDataserieValues;
 import net.tourbook.database.IComputeTourValues;
 import net.tourbook.database.TourDatabase;
+import net.tourbook.database.TourDayAggregates;
 import net.tourbook.tour.BreakTimeMethod;
 import net.tourbook.tour.BreakTimeTool;
 import net.tourbook.tour.TourEventId;
@@ -1060,6 +1061,9 @@ public class PrefPageComputedValues extends PreferencePage implements IWorkbench
 
       TourDatabase.computeNoDataserieValues_ForAllTours(computeTourValueConfig, null);
 
+      // cadence zones times are updated with sql, the day aggregates are not updated when saving tours
+      TourDayAggregates.rebuild();
+
       fireTourModifyEvent();
    }
 
@@ -116,6 +116,7 @@ public class PrefPageStatistic extends PreferencePage implements IWorkbenchPrefe
       _sortingByCategoryData.put("Summary",     1); //$NON-NLS-1$
       _sortingByCategoryData.put("HR",          2); //$NON-NLS-1$
       _sortingByCategoryData.put("Training",    3); //$NON-NLS-1$
+      _sortingByCategoryData.put("MeanMax",     4); //$NON-NLS-1$
       _sortingByCategoryData.put("Time",        20); //$NON-NLS-1$
       _sortingByCategoryData.put("Distance",    21); //$NON-NLS-1$
       _sortingByCategoryData.put("Altitude",    22); //$NON-NLS-1$
@@ -1555,6 +1555,64 @@ public class FTSearchManager {
       return searchResult;
    }
 
+   /**
+    * Search tour markers in their title and description, the search options of the search view
+    * are not used.
+    *
+    * @param searchText
+    * @return Returns the ID's of all tour markers which are matching the search text
+    */
+   public static Set<Long> searchMarkerIds(final String searchText) {
+
+      final Set<Long> allMarkerIds = new HashSet<>();
+
+      try {
+
+         setupIndexReader();
+
+         final int maxDoc = _indexReader.maxDoc();
+
+         if (maxDoc == 0) {
+
+            // there are 0 documents in the ft index
+
+            return allMarkerIds;
+         }
+
+         final String[] allQueryFields = {
+               SEARCH_FIELD_TITLE,
+               SEARCH_FIELD_DESCRIPTION
+         };
+
+         final Query query_Fields = createMultiFieldQueryParser(getAnalyzer(), allQueryFields).parse(searchText);
+
+         final Builder markerQueryBuilder = new BooleanQuery.Builder();
+         markerQueryBuilder.add(createQuery_TourMarker(), Occur.MUST);
+         markerQueryBuilder.add(query_Fields, Occur.MUST);
+
+         final TopDocs topDocs = _indexSearcher.search(markerQueryBuilder.build(), maxDoc);
+
+         final Set<String> fieldsToLoadFromDocument = new HashSet<>();
+         fieldsToLoadFromDocument.add(SEARCH_FIELD_MARKER_ID);
+
+         for (final ScoreDoc scoreDoc : topDocs.scoreDocs) {
+
+            final Document doc = _indexReader.document(scoreDoc.doc, fieldsToLoadFromDocument);
+            final IndexableField markerIdField = doc.getField(SEARCH_FIELD_MARKER_ID);
+
+            if (markerIdField != null) {
+               allMarkerIds.add(Long.parseLong(markerIdField.stringValue()));
+            }
+         }
+
+      } catch (final Exception e) {
+
+         StatusUtil.showStatus(e);
+      }
+
+      return allMarkerIds;
+   }
+
    static void setSearchOptions(final boolean isSearch_All,
                                 final boolean isSearch_Marker,
                                 final boolean isSearch_Tour,
@@ -190,7 +190,7 @@ public class SearchView extends ViewPart implements ISearchView {
    @Override
    public void createPartControl(final Composite parent) {
 
-      FTSearchManager.setupSuggester();
+      // the suggester is created when the first proposal is requested, this is expensive with a large index
 
       addPartListener();
       addTourEventListener();
@@ -31,20 +31,10 @@ public abstract class ElevationBase {
    public final GeoLat                   gridLat;
    public final GeoLon                   gridLon;
 
-   public final GeoLat                   firstLat;
-   public final GeoLat                   lastLat;
-
-   public final GeoLon                   firstLon;
-   public final GeoLon                   lastLon;
-
    public ElevationBase() {
 
       gridLat = new GeoLat();
       gridLon = new GeoLon();
-      firstLat = new GeoLat();
-      lastLat = new GeoLat();
-      firstLon = new GeoLon();
-      lastLon = new GeoLon();
    }
 
    /**
@@ -87,7 +77,7 @@ public abstract class ElevationBase {
     * @param lon
     * @return
     */
-   public synchronized float getElevation(final GeoLat lat, final GeoLon lon) {
+   public float getElevation(final GeoLat lat, final GeoLon lon) {
       return 0;
    }
 
@@ -96,11 +86,11 @@ public abstract class ElevationBase {
     * @param lon
     * @return
     */
-   public synchronized double getElevationDouble(final GeoLat lat, final GeoLon lon) {
+   public double getElevationDouble(final GeoLat lat, final GeoLon lon) {
       return 0;
    }
 
-   public synchronized float getElevationGrid(final GeoLat lat, final GeoLon lon) {
+   public float getElevationGrid(final GeoLat lat, final GeoLon lon) {
       return (float) getElevationGridDouble(lat, lon);
    }
 
@@ -111,13 +101,19 @@ public abstract class ElevationBase {
     *         the altitude cannot be read from a file or the file cannot be retrieved from the SRTM
     *         host.
     */
-   public synchronized double getElevationGridDouble(final GeoLat lat, final GeoLon lon) {
+   public double getElevationGridDouble(final GeoLat lat, final GeoLon lon) {
 
       float elev1, elev2, elev3, elev4;
       double p, q;
       short ok = 0;
       double elevMid;
 
+      // grid positions are not shared that elevations can be read concurrently
+      final GeoLat firstLat = new GeoLat();
+      final GeoLat lastLat = new GeoLat();
+      final GeoLon firstLon = new GeoLon();
+      final GeoLon lastLon = new GeoLon();
+
       firstLat.toLeft(lat, gridLat);
       lastLat.toRight(lat, gridLat);
       firstLon.toLeft(lon, gridLon);
@@ -49,7 +49,10 @@ public final class ElevationEtopo extends ElevationBase {
          minLat.setDegreesMinutesSecondsDirection(89, 55, 0, 'N');
       }
 
-      public short getElevation(final GeoLat lat, final GeoLon lon) {
+      /**
+       * Is synchronized because the offset positions are reused
+       */
+      public synchronized short getElevation(final GeoLat lat, final GeoLon lon) {
 
          return elevationFile.get(offset(lat, lon));
       }
@@ -98,11 +101,18 @@ public final class ElevationEtopo extends ElevationBase {
          return getElevationGrid(lat, lon);
       }
 
-      if (fEtopoi == null) {
-         fEtopoi = new EtopoI(); // first time only !!
+      EtopoI etopoI;
+
+      synchronized (ElevationEtopo.class) {
+
+         if (fEtopoi == null) {
+            fEtopoi = new EtopoI(); // first time only !!
+         }
+
+         etopoI = fEtopoi;
       }
 
-      return fEtopoi.getElevation(lat, lon);
+      return etopoI.getElevation(lat, lon);
 
    }
 
@@ -122,7 +122,10 @@ public final class ElevationGlobe extends ElevationBase {
          }
       }
 
-      public short getElevation(final GeoLat lat, final GeoLon lon) {
+      /**
+       * Is synchronized for each file because the offset positions are reused
+       */
+      public synchronized short getElevation(final GeoLat lat, final GeoLon lon) {
 
          final short elev = elevationFile.get(offset(lat, lon));
          return swap(elev);
@@ -207,12 +210,19 @@ public final class ElevationGlobe extends ElevationBase {
          i++;
       }
 
-      if (initialized[i] == false) {
-         fGlobei[i] = new GlobeI(i); // first time only !!
-         initialized[i] = true;
+      GlobeI globeI;
+
+      synchronized (fGlobei) {
+
+         if (initialized[i] == false) {
+            fGlobei[i] = new GlobeI(i); // first time only !!
+            initialized[i] = true;
+         }
+
+         globeI = fGlobei[i];
       }
 
-      return fGlobei[i].getElevation(lat, lon);
+      return globeI.getElevation(lat, lon);
    }
 
    @Override
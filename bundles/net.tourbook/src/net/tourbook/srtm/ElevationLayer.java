@@ -42,7 +42,12 @@ public class ElevationLayer {
 
    public float getElevation(final GeoLat lat, final GeoLon lon) {
 
-      int layerIndex = fileTypIndexStart;
+      return getElevation(fileTypIndexStart, lat, lon);
+   }
+
+   private float getElevation(final int layerIndexStart, final GeoLat lat, final GeoLon lon) {
+
+      int layerIndex = layerIndexStart;
 
       while (layerIndex >= 0) {
          try {
@@ -58,18 +63,48 @@ public class ElevationLayer {
          }
       }
 
-      layerIndex = 0;
-
       return -500;
    }
 
+   /**
+    * Reads the elevations for all longitudes of one latitude. The layer is selected from
+    * <code>zoomLevel</code> and not from {@link #setZoom(int)}, so tiles with different zoom levels
+    * can be read concurrently.
+    * <p>
+    * The elevation files are not locked together, only a GLOBE or ETOPO file is locked while one
+    * elevation is read from it.
+    *
+    * @param zoomLevel
+    * @param lat
+    * @param allLon
+    * @param elevations
+    *           Receives the elevations, starting at <code>elevationOffset</code>
+    * @param elevationOffset
+    */
+   public void getElevations(final int zoomLevel,
+                             final GeoLat lat,
+                             final GeoLon[] allLon,
+                             final float[] elevations,
+                             final int elevationOffset) {
+
+      final int layerIndexStart = getElevationType(zoomLevel);
+
+      for (int lonIndex = 0; lonIndex < allLon.length; lonIndex++) {
+         elevations[elevationOffset + lonIndex] = getElevation(layerIndexStart, lat, allLon[lonIndex]);
+      }
+   }
+
    private int getElevationType() {
+      return getElevationType(zoom);
+   }
+
+   private int getElevationType(final int zoomLevel) {
 
-      if (zoom <= 4) {
+      if (zoomLevel <= 4) {
          return ElevationType.ETOPO;
       }
 
-      if (zoom <= 8) {
+      if (zoomLevel <= 8) {
          return ElevationType.GLOBE;
       }
 
@@ -19,8 +19,8 @@
 package net.tourbook.srtm;
 
 import java.io.File;
-import java.util.HashMap;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 import net.tourbook.common.UI;
 
@@ -37,9 +37,7 @@ public final class ElevationSRTM3 extends ElevationBase {
    private static final String SRTM3_FILE_EXTENSION = ".hgt";     //$NON-NLS-1$
 
    // default initial 16 Files
-   private static final HashMap<Integer, SRTM3ElevationFile> _srtmElevationFilesCache = new HashMap<>();
-
-   private static SRTM3ElevationFile                         _srtm3ElevationFile;
+   private static final ConcurrentHashMap<Integer, SRTM3ElevationFile> _srtmElevationFilesCache = new ConcurrentHashMap<>();
 
    private class SRTM3ElevationFile {
 
@@ -185,16 +183,17 @@ public final class ElevationSRTM3 extends ElevationBase {
       }
 
       final Integer ii = Integer.valueOf(i);
-      _srtm3ElevationFile = _srtmElevationFilesCache.get(ii);
-
-      if (_srtm3ElevationFile == null) {
 
-         // first time only
-         _srtm3ElevationFile = new SRTM3ElevationFile(lat, lon);
-         _srtmElevationFilesCache.put(ii, _srtm3ElevationFile);
-      }
+      /*
+       * The file cache is shared with the tour elevation, which is read from other threads, a file
+       * is opened only once but other files can be read in the meantime. Reading from an opened
+       * file do not modify any state.
+       */
+      final SRTM3ElevationFile srtm3ElevationFile = _srtmElevationFilesCache.computeIfAbsent(
+            ii,
+            key -> new SRTM3ElevationFile(lat, lon));
 
-      return _srtm3ElevationFile.getElevation(lat, lon);
+      return srtm3ElevationFile.getElevation(lat, lon);
 
    }
 
@@ -41,6 +41,7 @@ import net.tourbook.common.util.ColumnDefinition;
 import net.tourbook.common.util.ColumnManager;
 import net.tourbook.common.util.ITourViewer;
 import net.tourbook.common.util.TableColumnDefinition;
+import net.tourbook.srtm.tilefactory.SRTMTileRenderer;
 
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
@@ -1052,6 +1053,9 @@ public final class PrefPageSRTMColors extends PreferencePage implements IWorkben
     */
    private void deleteOfflineImages(final SRTMProfile profile) {
 
+      // tiles are also cached in memory
+      SRTMTileRenderer.clearCache();
+
       try {
 
          final MP mp = ElevationColor.getMapProvider();
@@ -24,6 +24,7 @@ import net.tourbook.common.UI;
 import net.tourbook.common.time.TimeTools;
 import net.tourbook.common.util.StatusUtil;
 import net.tourbook.srtm.download.DownloadSRTM3;
+import net.tourbook.srtm.tilefactory.SRTMTileRenderer;
 import net.tourbook.web.WEB;
 
 import org.eclipse.core.runtime.Platform;
@@ -466,6 +467,9 @@ public class PrefPageSRTMData extends PreferencePage implements IWorkbenchPrefer
       _useDefaultLocation.store();
       _dataPathEditor.store();
 
+      // elevations can be read from another location
+      SRTMTileRenderer.clearCache();
+
       final String password = _txtSRTM_Password.getText().trim();
       final String username = _txtSRTM_Username.getText().trim();
 
@@ -0,0 +1,464 @@
+/*******************************************************************************
+ * Copyright (C) 2005, 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package net.tourbook.srtm.tilefactory;
+
+import de.byteholder.geoclipse.map.Tile;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.tourbook.common.color.ProfileImage;
+import net.tourbook.srtm.ElevationLayer;
+import net.tourbook.srtm.GeoLat;
+import net.tourbook.srtm.GeoLon;
+import net.tourbook.srtm.SRTMProfile;
+
+/**
+ * Renders SRTM tiles in 3 steps
+ * <ul>
+ * <li>The elevations of a tile are read row by row from the elevation layer into an elevation
+ * grid, this grid is cached independent of the color profile</li>
+ * <li>The grid is colorized with a color lookup table which is created once for each profile</li>
+ * <li>The colorized rows are painted concurrently in the SRTM render pool</li>
+ * </ul>
+ * Rendered tiles are cached with the profile key hash, so switching between profiles do not
+ * repaint the tiles.
+ */
+public class SRTMTileRenderer {
+
+   /**
+    * Elevation range which is covered by the color lookup table, this is the same range which is
+    * valid in {@link net.tourbook.srtm.ElevationBase#isValid(short)}
+    */
+   private static final int                    LOOKUP_MIN_ELEVATION = -11000;
+   private static final int                    LOOKUP_MAX_ELEVATION = 8850;
+
+   private static final int                    MAX_ELEVATION_GRIDS  = 100;
+   private static final int                    MAX_RENDERED_TILES   = 64;
+   private static final int                    MAX_COLOR_LOOKUPS    = 10;
+
+   private static final int                    THREAD_POOL_SIZE     = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+   private static ExecutorService              _renderExecutor;
+
+   private static final Map<String, float[]>   _elevationGridCache  = Collections.synchronizedMap(new LruCache<>(MAX_ELEVATION_GRIDS));
+   private static final Map<String, int[][]>   _renderedTileCache   = Collections.synchronizedMap(new LruCache<>(MAX_RENDERED_TILES));
+   private static final Map<Integer, ColorLut> _colorLutCache       = Collections.synchronizedMap(new LruCache<>(MAX_COLOR_LOOKUPS));
+
+   private final ElevationLayer                _elevationLayer;
+
+   /**
+    * Precomputed colors for all valid elevations of a profile
+    */
+   private static class ColorLut {
+
+      private final ProfileImage _profileImage;
+      private final SRTMProfile  _srtmProfile;
+
+      private final int[]        _allRGB;
+      private final int[]        _allShadowRGB;
+
+      private ColorLut(final SRTMProfile srtmProfile) {
+
+         _srtmProfile = srtmProfile;
+         _profileImage = srtmProfile.getRgbVertexImage();
+
+         final int numColors = LOOKUP_MAX_ELEVATION - LOOKUP_MIN_ELEVATION;
+
+         _allRGB = new int[numColors];
+         _allShadowRGB = srtmProfile.isShadowState() ? new int[numColors] : null;
+
+         for (int colorIndex = 0; colorIndex < numColors; colorIndex++) {
+
+            final int elevation = colorIndex + LOOKUP_MIN_ELEVATION;
+
+            _allRGB[colorIndex] = _profileImage.getRGB(elevation);
+
+            if (_allShadowRGB != null) {
+               _allShadowRGB[colorIndex] = srtmProfile.getShadowRGB(elevation);
+            }
+         }
+      }
+
+      private int getRGB(final int elevation) {
+
+         if (elevation < LOOKUP_MIN_ELEVATION || elevation >= LOOKUP_MAX_ELEVATION) {
+            return _profileImage.getRGB(elevation);
+         }
+
+         return _allRGB[elevation - LOOKUP_MIN_ELEVATION];
+      }
+
+      private int getShadowRGB(final int elevation) {
+
+         if (elevation < LOOKUP_MIN_ELEVATION || elevation >= LOOKUP_MAX_ELEVATION) {
+            return _srtmProfile.getShadowRGB(elevation);
+         }
+
+         return _allShadowRGB[elevation - LOOKUP_MIN_ELEVATION];
+      }
+   }
+
+   /**
+    * Elevations of one tile, for the very fine resolution it contains one additional column on
+    * the left side which is needed to compute the shadow.
+    */
+   private static class ElevationGrid {
+
+      private final float[] _allElevations;
+
+      private final int     _numColumns;
+
+      private ElevationGrid(final float[] allElevations, final int numColumns) {
+
+         _allElevations = allElevations;
+         _numColumns = numColumns;
+      }
+
+      private float get(final int row, final int column) {
+         return _allElevations[row * _numColumns + column];
+      }
+   }
+
+   private static class LruCache<K, V> extends LinkedHashMap<K, V> {
+
+      private static final long serialVersionUID = 1L;
+
+      private final int         _maxEntries;
+
+      private LruCache(final int maxEntries) {
+
+         super(maxEntries + 1, 0.75f, true);
+
+         _maxEntries = maxEntries;
+      }
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+         return size() > _maxEntries;
+      }
+   }
+
+   public SRTMTileRenderer(final ElevationLayer elevationLayer) {
+
+      _elevationLayer = elevationLayer;
+   }
+
+   /**
+    * Removes all cached elevation grids, rendered tiles and color lookup tables, this is
+    * necessary when the elevation data are modified.
+    */
+   public static void clearCache() {
+
+      _elevationGridCache.clear();
+      _renderedTileCache.clear();
+      _colorLutCache.clear();
+   }
+
+   private static ExecutorService getExecutor() {
+
+      synchronized (SRTMTileRenderer.class) {
+
+         if (_renderExecutor == null) {
+
+            final ThreadFactory threadFactory = new ThreadFactory() {
+
+               private final AtomicInteger _threadCounter = new AtomicInteger();
+
+               @Override
+               public Thread newThread(final Runnable r) {
+
+                  final String threadName = "srtm-render-pool-" + _threadCounter.getAndIncrement(); //$NON-NLS-1$
+
+                  final Thread thread = new Thread(r, threadName);
+
+                  thread.setPriority(Thread.MIN_PRIORITY);
+                  thread.setDaemon(true);
+
+                  return thread;
+               }
+            };
+
+            _renderExecutor = Executors.newFixedThreadPool(THREAD_POOL_SIZE, threadFactory);
+         }
+
+         return _renderExecutor;
+      }
+   }
+
+   private ColorLut getColorLut(final SRTMProfile srtmProfile, final int profileKeyHash) {
+
+      ColorLut colorLut = _colorLutCache.get(profileKeyHash);
+
+      if (colorLut == null) {
+
+         colorLut = new ColorLut(srtmProfile);
+
+         _colorLutCache.put(profileKeyHash, colorLut);
+      }
+
+      return colorLut;
+   }
+
+   /**
+    * @param tileZoom
+    * @param tileX
+    * @param tileY
+    * @param tileSize
+    * @param grid
+    *           Distance in pixel between 2 elevation values
+    * @return Returns elevations for all grid points of the tile
+    */
+   private ElevationGrid getElevationGrid(final int tileZoom,
+                                          final int tileX,
+                                          final int tileY,
+                                          final int tileSize,
+                                          final int grid) {
+
+      /*
+       * Very fine: one column more on the left side for the shadow
+       * Others: grid points at 0, grid, 2*grid ... tileSize
+       */
+      final int numGridColumns = grid == 1 ? tileSize + 1 : tileSize / grid + 1;
+      final int numGridRows = grid == 1 ? tileSize : tileSize / grid + 1;
+      final int firstGridPixelX = grid == 1 ? -1 : 0;
+
+      final String gridKey = tileZoom + "-" + tileX + "-" + tileY + "-" + tileSize + "-" + grid; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+
+      float[] allElevations = _elevationGridCache.get(gridKey);
+
+      if (allElevations == null) {
+
+         final int mapPower = (int) Math.pow(2., tileZoom) * tileSize;
+
+         final double pi = Math.PI;
+         final double constMx1 = 360. / pi;
+         final double constMx2 = 2 * pi / mapPower;
+         final double constMy = 360. / mapPower;
+
+         final int mapStartX = tileX * tileSize;
+         final int mapStartY = tileY * tileSize;
+
+         // longitudes are the same for all rows
+         final GeoLon[] allGridLon = new GeoLon[numGridColumns];
+
+         for (int columnIndex = 0; columnIndex < numGridColumns; columnIndex++) {
+
+            final int mapX = mapStartX + firstGridPixelX + columnIndex * grid;
+
+            allGridLon[columnIndex] = new GeoLon(constMy * mapX - 180.); // Mercator
+         }
+
+         allElevations = new float[numGridColumns * numGridRows];
+
+         final GeoLat geoLat = new GeoLat();
+
+         for (int rowIndex = 0; rowIndex < numGridRows; rowIndex++) {
+
+            final int mapY = mapStartY + rowIndex * grid;
+
+            geoLat.set(constMx1 * Math.atan(Math.exp(pi - constMx2 * mapY)) - 90.); // Mercator
+
+            _elevationLayer.getElevations(tileZoom, geoLat, allGridLon, allElevations, rowIndex * numGridColumns);
+         }
+
+         _elevationGridCache.put(gridKey, allElevations);
+      }
+
+      return new ElevationGrid(allElevations, numGridColumns);
+   }
+
+   /**
+    * Paints the rows from <code>firstRow</code> until <code>lastRow</code> (exclusive) for the
+    * very fine resolution.
+    */
+   private void paintRows_Fine(final int[][] rgbData,
+                               final ElevationGrid elevationGrid,
+                               final ColorLut colorLut,
+                               final boolean isShadowState,
+                               final int tileSize,
+                               final int firstRow,
+                               final int lastRow) {
+
+      for (int drawY = firstRow; drawY < lastRow; drawY++) {
+
+         final int[] rgbRow = rgbData[drawY];
+
+         // grid column 0 is the pixel left of the tile
+         float elevOld = elevationGrid.get(drawY, 0);
+
+         for (int drawX = 0; drawX < tileSize; drawX++) {
+
+            final float elev = elevationGrid.get(drawY, drawX + 1);
+
+            if (isShadowState && elev < elevOld) {
+               rgbRow[drawX] = colorLut.getShadowRGB((int) elev);
+            } else {
+               rgbRow[drawX] = colorLut.getRGB((int) elev);
+            }
+
+            elevOld = elev;
+         }
+      }
+   }
+
+   /**
+    * Paints the grid rows from <code>firstGridRow</code> until <code>lastGridRow</code>
+    * (inclusive), the elevations between the grid points are interpolated.
+    */
+   private void paintRows_Interpolated(final int[][] rgbData,
+                                       final ElevationGrid elevationGrid,
+                                       final ColorLut colorLut,
+                                       final int tileSize,
+                                       final int grid,
+                                       final int firstGridRow,
+                                       final int lastGridRow) {
+
+      final int gridQuot = grid - 1;
+      final int numGridColumns = tileSize / grid + 1;
+
+      for (int gridRow = firstGridRow; gridRow <= lastGridRow; gridRow++) {
+
+         final int pixelY = gridRow * grid;
+
+         for (int gridColumn = 1; gridColumn < numGridColumns; gridColumn++) {
+
+            final int pixelX = gridColumn * grid;
+
+            final double elev00 = elevationGrid.get(gridRow - 1, gridColumn - 1);
+            final double elev01 = elevationGrid.get(gridRow - 1, gridColumn);
+            final double elev10 = elevationGrid.get(gridRow, gridColumn - 1);
+            final double elev11 = elevationGrid.get(gridRow, gridColumn);
+
+            // interpolate elevation over this quad
+            final double elevGridX0 = (elev01 - elev00) / gridQuot;
+            final double elevGridX1 = (elev11 - elev10) / gridQuot;
+            final double elevGridY0 = (elev10 - elev00) / gridQuot;
+            final double elevGridX = (elevGridX1 - elevGridX0) / gridQuot;
+
+            double elevStart = elev00;
+            double elevGridXAdd = elevGridX0;
+
+            for (int drawY = pixelY - grid; drawY < pixelY; drawY++, elevStart += elevGridY0, elevGridXAdd += elevGridX) {
+
+               final int[] rgbRow = rgbData[drawY];
+
+               double elev = elevStart;
+               for (int drawX = pixelX - grid; drawX < pixelX; drawX++, elev += elevGridXAdd) {
+                  rgbRow[drawX] = colorLut.getRGB((int) elev);
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    * @param tile
+    * @param srtmProfile
+    * @return Returns the RGB data for the tile, the returned data are cached and must not be
+    *         modified.
+    */
+   public int[][] renderTile(final Tile tile, final SRTMProfile srtmProfile) {
+
+      final int tileSize = tile.getMP().getTileSize();
+      final int tileX = tile.getX();
+      final int tileY = tile.getY();
+      final int tileZoom = tile.getZoom();
+
+      final int profileKeyHash = srtmProfile.getProfileKeyHashCode();
+
+      final String tileKey = profileKeyHash + "-" + tileZoom + "-" + tileX + "-" + tileY + "-" + tileSize; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+
+      final int[][] cachedRgbData = _renderedTileCache.get(tileKey);
+      if (cachedRgbData != null) {
+         return cachedRgbData;
+      }
+
+      // elevation is used at every grid-th pixel in both directions;
+      // the other values are interpolated
+      // i.e. it gives the resolution of the image!
+      final int grid = srtmProfile.getResolutionValue();
+
+      final ElevationGrid elevationGrid = getElevationGrid(tileZoom, tileX, tileY, tileSize, grid);
+      final ColorLut colorLut = getColorLut(srtmProfile, profileKeyHash);
+      final boolean isShadowState = srtmProfile.isShadowState();
+
+      final int[][] rgbData = new int[tileSize][tileSize];
+
+      /*
+       * Paint the tile in horizontal bands, for the interpolated resolutions a band contains
+       * complete grid rows
+       */
+      final int numRows = grid == 1 ? tileSize : tileSize / grid;
+      final int numBands = Math.min(THREAD_POOL_SIZE, numRows);
+      final int rowsPerBand = (numRows + numBands - 1) / numBands;
+
+      final List<Callable<Object>> allBandPainter = new ArrayList<>();
+
+      for (int bandIndex = 0; bandIndex < numBands; bandIndex++) {
+
+         final int firstRow = bandIndex * rowsPerBand;
+         final int lastRow = Math.min(numRows, firstRow + rowsPerBand);
+
+         if (firstRow >= lastRow) {
+            break;
+         }
+
+         allBandPainter.add(() -> {
+
+            if (grid == 1) {
+               paintRows_Fine(rgbData, elevationGrid, colorLut, isShadowState, tileSize, firstRow, lastRow);
+            } else {
+               // grid row 0 is the top border of the first quad
+               paintRows_Interpolated(rgbData, elevationGrid, colorLut, tileSize, grid, firstRow + 1, lastRow);
+            }
+
+            return null;
+         });
+      }
+
+      try {
+
+         for (final Future<Object> future : getExecutor().invokeAll(allBandPainter)) {
+            future.get();
+         }
+
+      } catch (final InterruptedException e) {
+
+         Thread.currentThread().interrupt();
+
+         throw new RuntimeException(e);
+
+      } catch (final ExecutionException e) {
+
+         throw new RuntimeException(e.getCause());
+      }
+
+      _renderedTileCache.put(tileKey, rgbData);
+
+      return rgbData;
+   }
+}
@@ -61,6 +61,7 @@ public abstract class TourbookStatistic {
     * Grid prefixes
     */
    protected static final String    GRID_BATTERY           = "GRID_BATTERY__";              //$NON-NLS-1$
+   protected static final String    GRID_MEAN_MAX          = "GRID_MEAN_MAX__";             //$NON-NLS-1$
    protected static final String    GRID_SENSOR            = "GRID_SENSOR__";               //$NON-NLS-1$
 
    protected static final String    GRID_DAY_ALTITUDE      = "GRID_DAY_ALTITUDE__";         //$NON-NLS-1$
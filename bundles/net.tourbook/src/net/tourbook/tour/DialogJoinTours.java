@@ -1119,66 +1119,72 @@ public class DialogJoinTours extends TitleAreaDialog implements ITourProvider2 {
          float relTourDistance = 0;
 
          /*
-          * copy data series
+          * copy data series, each data serie is copied at once into the already sized joined data
+          * series
           */
-         for (int tourSerieIndex = 0; tourSerieIndex < tourSliceCounter; tourSerieIndex++) {
+         if (tourSliceCounter > 0) {
 
-            if (isTourTime) {
+            final int lastTourSerieIndex = tourSliceCounter - 1;
 
-               relTourTime = tourTimeSerie[tourSerieIndex];
+            if (isTourTime) {
 
-               joinedTimeSerie[joinedSerieIndex] = (int) (relTourTimeOffset + relTourTime);
+               for (int tourSerieIndex = 0; tourSerieIndex < tourSliceCounter; tourSerieIndex++) {
+                  joinedTimeSerie[joinedSerieIndex + tourSerieIndex] = (int) (relTourTimeOffset + tourTimeSerie[tourSerieIndex]);
+               }
 
+               relTourTime = tourTimeSerie[lastTourSerieIndex];
                isJoinTime = true;
             }
 
             if (isTourAltitude) {
-               joinedAltitudeSerie[joinedSerieIndex] = tourAltitudeSerie[tourSerieIndex];
+               System.arraycopy(tourAltitudeSerie, 0, joinedAltitudeSerie, joinedSerieIndex, tourSliceCounter);
                isJoinAltitude = true;
             }
             if (isTourCadence) {
-               joinedCadenceSerie[joinedSerieIndex] = tourCadenceSerie[tourSerieIndex];
+               System.arraycopy(tourCadenceSerie, 0, joinedCadenceSerie, joinedSerieIndex, tourSliceCounter);
                isJoinCadence = true;
             }
 
             if (isTourDistance) {
 
-               relTourDistance = tourDistanceSerie[tourSerieIndex];
+               for (int tourSerieIndex = 0; tourSerieIndex < tourSliceCounter; tourSerieIndex++) {
+                  joinedDistanceSerie[joinedSerieIndex + tourSerieIndex] = joinedTourStartDistance + tourDistanceSerie[tourSerieIndex];
+               }
 
-               joinedDistanceSerie[joinedSerieIndex] = joinedTourStartDistance + relTourDistance;
+               relTourDistance = tourDistanceSerie[lastTourSerieIndex];
                isJoinDistance = true;
             }
 
             if (isTourPulse) {
-               joinedPulseSerie[joinedSerieIndex] = tourPulseSerie[tourSerieIndex];
+               System.arraycopy(tourPulseSerie, 0, joinedPulseSerie, joinedSerieIndex, tourSliceCounter);
                isJoinPulse = true;
             }
             if (isTourLat) {
-               joinedLatitudeSerie[joinedSerieIndex] = tourLatitudeSerie[tourSerieIndex];
+               System.arraycopy(tourLatitudeSerie, 0, joinedLatitudeSerie, joinedSerieIndex, tourSliceCounter);
                isJoinLat = true;
             }
             if (isTourLon) {
-               joinedLongitudeSerie[joinedSerieIndex] = tourLongitudeSerie[tourSerieIndex];
+               System.arraycopy(tourLongitudeSerie, 0, joinedLongitudeSerie, joinedSerieIndex, tourSliceCounter);
                isJoinLon = true;
             }
 
             if (isTourTemperature) {
-               joinedTemperatureSerie[joinedSerieIndex] = tourTemperatureSerie[tourSerieIndex];
+               System.arraycopy(tourTemperatureSerie, 0, joinedTemperatureSerie, joinedSerieIndex, tourSliceCounter);
             } else {
                // set temperature to temporarily value
-               joinedTemperatureSerie[joinedSerieIndex] = Float.MIN_VALUE;
+               Arrays.fill(joinedTemperatureSerie, joinedSerieIndex, joinedSerieIndex + tourSliceCounter, Float.MIN_VALUE);
             }
 
             if (isTourPower) {
-               joinedPowerSerie[joinedSerieIndex] = tourPowerSerie[tourSerieIndex];
+               System.arraycopy(tourPowerSerie, 0, joinedPowerSerie, joinedSerieIndex, tourSliceCounter);
                isJoinPower = true;
             }
             if (isTourSpeed) {
-               joinedSpeedSerie[joinedSerieIndex] = tourSpeedSerie[tourSerieIndex];
+               System.arraycopy(tourSpeedSerie, 0, joinedSpeedSerie, joinedSerieIndex, tourSliceCounter);
                isJoinSpeed = true;
             }
 
-            joinedSerieIndex++;
+            joinedSerieIndex += tourSliceCounter;
          }
 
          final Set<TourMarker> tourMarkers = tourData.getTourMarkers();
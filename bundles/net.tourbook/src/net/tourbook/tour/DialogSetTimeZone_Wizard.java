@@ -15,8 +15,6 @@
  *******************************************************************************/
 package net.tourbook.tour;
 
-import com.skedgo.converter.TimezoneMapper;
-
 import java.lang.reflect.InvocationTargetException;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -26,6 +24,7 @@ import java.util.Collections;
 import net.tourbook.Messages;
 import net.tourbook.application.TourbookPlugin;
 import net.tourbook.common.UI;
+import net.tourbook.common.time.TimeZoneGrid;
 import net.tourbook.common.util.StatusUtil;
 import net.tourbook.common.util.Util;
 import net.tourbook.data.TourData;
@@ -192,7 +191,7 @@ public class DialogSetTimeZone_Wizard extends Wizard {
                      final double lat = tourData.latitudeSerie[0];
                      final double lon = tourData.longitudeSerie[0];
 
-                     final String rawZoneId = TimezoneMapper.latLngToTimezoneString(lat, lon);
+                     final String rawZoneId = TimeZoneGrid.getTimeZoneId(lat, lon);
                      final ZoneId zoneId = ZoneId.of(rawZoneId);
 
                      tourData.setTimeZoneId(zoneId.getId());
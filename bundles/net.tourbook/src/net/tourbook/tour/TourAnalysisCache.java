@@ -0,0 +1,294 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package net.tourbook.tour;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+
+import net.tourbook.common.util.StatusUtil;
+import net.tourbook.common.util.Util;
+import net.tourbook.data.TourData;
+
+/**
+ * Keeps values which are derived from the data series of a tour, e.g. filtered RR intervals or
+ * power/pulse bins, for each tour and option set.
+ * <p>
+ * When an option is modified, only the values for the new option set are computed, when tours are
+ * added to a selection, only the values of the new tours are computed. Missing values of multiple
+ * tours are computed concurrently.
+ * <p>
+ * The number of kept values is bounded by the size of the current selection, values of tours which
+ * are not used any more are removed.
+ *
+ * @param <T>
+ *           Type of the derived values, they must not be modified by the caller because they are
+ *           shared
+ */
+public class TourAnalysisCache<T> {
+
+   private static final Object          NO_OPTIONS = new Object();
+
+   private static final ExecutorService _analysisExecutor;
+   static {
+
+      final ThreadFactory threadFactory = runnable -> {
+
+         final Thread thread = new Thread(runnable, "Computing tour analysis values");//$NON-NLS-1$
+
+         thread.setPriority(Thread.MIN_PRIORITY);
+         thread.setDaemon(true);
+
+         return thread;
+      };
+
+      _analysisExecutor = Executors.newFixedThreadPool(Util.NUMBER_OF_PROCESSORS, threadFactory);
+   }
+
+   private final Map<CacheKey, CacheEntry<T>> _allCacheEntries = new LinkedHashMap<>(16, 0.75f, true);
+
+   private final int                          _maxOptionSets;
+
+   private static final class CacheEntry<T> {
+
+      /**
+       * A tour is modified when a new tour data instance is loaded, it is weak that the cache do
+       * not keep removed tours
+       */
+      private WeakReference<TourData> tourDataRef;
+
+      private T                       value;
+   }
+
+   private static final class CacheKey {
+
+      private final long   tourId;
+      private final Object options;
+
+      private CacheKey(final long tourId, final Object options) {
+
+         this.tourId = tourId;
+         this.options = options;
+      }
+
+      @Override
+      public boolean equals(final Object obj) {
+
+         if (this == obj) {
+            return true;
+         }
+
+         if (obj instanceof CacheKey == false) {
+            return false;
+         }
+
+         final CacheKey other = (CacheKey) obj;
+
+         return tourId == other.tourId && Objects.equals(options, other.options);
+      }
+
+      @Override
+      public int hashCode() {
+         return Objects.hash(tourId, options);
+      }
+   }
+
+   /**
+    * @param maxOptionSets
+    *           Maximum number of option sets for which the values of each selected tour are kept,
+    *           the least recently used values are removed
+    */
+   public TourAnalysisCache(final int maxOptionSets) {
+
+      _maxOptionSets = Math.max(1, maxOptionSets);
+   }
+
+   /**
+    * Remove all values
+    */
+   public synchronized void clear() {
+
+      _allCacheEntries.clear();
+   }
+
+   private synchronized T getCachedValue(final CacheKey cacheKey, final TourData tourData) {
+
+      final CacheEntry<T> cacheEntry = _allCacheEntries.get(cacheKey);
+
+      if (cacheEntry == null || cacheEntry.tourDataRef.get() != tourData) {
+         return null;
+      }
+
+      return cacheEntry.value;
+   }
+
+   /**
+    * Get the values for tours which do not depend on options.
+    *
+    * @param allTours
+    * @param valueProvider
+    * @return
+    * @see #getValues(List, Object, Function)
+    */
+   public List<T> getValues(final List<TourData> allTours, final Function<TourData, T> valueProvider) {
+
+      return getValues(allTours, NO_OPTIONS, valueProvider);
+   }
+
+   /**
+    * Get the values for all tours, missing values are computed concurrently.
+    *
+    * @param allTours
+    * @param options
+    *           All options which are used to compute the values, it must implement
+    *           {@link Object#equals(Object)}, e.g. {@link Arrays#asList(Object...)}
+    * @param valueProvider
+    *           Computes the value for one tour, it is called from multiple threads
+    * @return Returns the values in the same order as the tours
+    */
+   public List<T> getValues(final List<TourData> allTours,
+                            final Object options,
+                            final Function<TourData, T> valueProvider) {
+
+      final int numTours = allTours.size();
+
+      final List<T> allValues = new ArrayList<>(numTours);
+
+      final List<Integer> allMissingIndices = new ArrayList<>();
+      final List<Callable<T>> allMissingTasks = new ArrayList<>();
+
+      for (int tourIndex = 0; tourIndex < numTours; tourIndex++) {
+
+         final TourData tourData = allTours.get(tourIndex);
+
+         final T cachedValue = getCachedValue(new CacheKey(tourData.getTourId(), options), tourData);
+
+         allValues.add(cachedValue);
+
+         if (cachedValue == null) {
+
+            allMissingIndices.add(tourIndex);
+            allMissingTasks.add(() -> valueProvider.apply(tourData));
+         }
+      }
+
+      if (allMissingTasks.isEmpty()) {
+
+         removeObsoleteEntries(numTours);
+
+         return allValues;
+      }
+
+      final List<T> allComputedValues = new ArrayList<>();
+
+      if (allMissingTasks.size() == 1) {
+
+         // run in the current thread
+
+         allComputedValues.add(valueProvider.apply(allTours.get(allMissingIndices.get(0))));
+
+      } else {
+
+         try {
+
+            for (final Future<T> future : _analysisExecutor.invokeAll(allMissingTasks)) {
+               allComputedValues.add(future.get());
+            }
+
+         } catch (final InterruptedException | ExecutionException e) {
+
+            StatusUtil.log(e);
+
+            if (e instanceof InterruptedException) {
+               Thread.currentThread().interrupt();
+            }
+
+            // compute values in the current thread
+            allComputedValues.clear();
+
+            for (final Integer tourIndex : allMissingIndices) {
+               allComputedValues.add(valueProvider.apply(allTours.get(tourIndex)));
+            }
+         }
+      }
+
+      for (int missingIndex = 0; missingIndex < allMissingIndices.size(); missingIndex++) {
+
+         final int tourIndex = allMissingIndices.get(missingIndex);
+         final TourData tourData = allTours.get(tourIndex);
+         final T value = allComputedValues.get(missingIndex);
+
+         allValues.set(tourIndex, value);
+
+         putValue(new CacheKey(tourData.getTourId(), options), tourData, value);
+      }
+
+      removeObsoleteEntries(numTours);
+
+      return allValues;
+   }
+
+   private synchronized void putValue(final CacheKey cacheKey, final TourData tourData, final T value) {
+
+      final CacheEntry<T> cacheEntry = new CacheEntry<>();
+
+      cacheEntry.tourDataRef = new WeakReference<>(tourData);
+      cacheEntry.value = value;
+
+      _allCacheEntries.put(cacheKey, cacheEntry);
+   }
+
+   /**
+    * Remove the values of tours which are not loaded any more and the least recently used values
+    * which exceed the size of the current selection.
+    *
+    * @param numSelectedTours
+    */
+   private synchronized void removeObsoleteEntries(final int numSelectedTours) {
+
+      final Iterator<CacheEntry<T>> iterator = _allCacheEntries.values().iterator();
+
+      while (iterator.hasNext()) {
+
+         if (iterator.next().tourDataRef.get() == null) {
+            iterator.remove();
+         }
+      }
+
+      final int maxEntries = Math.max(1, numSelectedTours) * _maxOptionSets;
+
+      // the values of the current selection are accessed last, the eldest values are not used
+      final Iterator<CacheEntry<T>> eldestIterator = _allCacheEntries.values().iterator();
+
+      while (_allCacheEntries.size() > maxEntries && eldestIterator.hasNext()) {
+
+         eldestIterator.next();
+         eldestIterator.remove();
+      }
+   }
+}
@@ -15,25 +15,49 @@
  *******************************************************************************/
 package net.tourbook.tour;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Queue;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 
 import net.tourbook.data.TourData;
 
 /**
  * Cache for {@link TourData}
+ * <p>
+ * Tours which are not in the cache are loaded with a single flight: when several threads are
+ * requesting the same tour at the same time, only one of them is loading the tour and all others
+ * are waiting for this load, so that all callers get the same {@link TourData} instance.
  */
 class TourDataCache {
 
-   private static final ReentrantLock              CACHE_LOCK = new ReentrantLock();
+   private static final ReentrantLock                                CACHE_LOCK = new ReentrantLock();
 
-   private final ConcurrentHashMap<Long, TourData> _tourCache;
-   private final Queue<Long>                       _fifoQueue;
+   private final ConcurrentHashMap<Long, TourData>                   _tourCache;
+   private final Queue<Long>                                         _fifoQueue;
 
-   private int                                     _cacheSize;
-   private int                                     _cacheLowMark;
+   /**
+    * Tours which are currently loaded, key is the tour id
+    */
+   private final ConcurrentHashMap<Long, CompletableFuture<TourData>> _allInFlightLoads = new ConcurrentHashMap<>();
+
+   private int                                                       _cacheSize;
+   private int                                                       _cacheLowMark;
+
+   /*
+    * Statistics
+    */
+   private final AtomicLong _stat_NumLoads     = new AtomicLong();
+   private final AtomicLong _stat_NumCoalesced = new AtomicLong();
 
    public TourDataCache(final int cacheSize) {
 
@@ -51,10 +75,56 @@ class TourDataCache {
          try {
             _tourCache.clear();
             _fifoQueue.clear();
+
+            // running loads must not put outdated tours into the cache
+            _allInFlightLoads.clear();
+         } finally {
+            CACHE_LOCK.unlock();
+         }
+      }
+   }
+
+   /**
+    * Completes a load which was started by this thread and puts the loaded tour into the cache
+    * when the load was not invalidated in the meantime
+    *
+    * @param tourId
+    * @param inFlightLoad
+    * @param loadedTourData
+    * @return Returns the tour which is returned to all callers
+    */
+   private TourData completeLoad(final Long tourId,
+                                 final CompletableFuture<TourData> inFlightLoad,
+                                 final TourData loadedTourData) {
+
+      TourData tourData = loadedTourData;
+
+      CACHE_LOCK.lock();
+      {
+         try {
+
+            final TourData cachedTourData = _tourCache.get(tourId);
+
+            if (cachedTourData != null) {
+
+               // tour was put into the cache while loading, e.g. after saving, this is the valid instance
+               tourData = cachedTourData;
+
+            } else if (loadedTourData != null && _allInFlightLoads.get(tourId) == inFlightLoad) {
+
+               put(tourId, loadedTourData);
+            }
+
+            _allInFlightLoads.remove(tourId, inFlightLoad);
+
          } finally {
             CACHE_LOCK.unlock();
          }
       }
+
+      inFlightLoad.complete(tourData);
+
+      return tourData;
    }
 
    public TourData get(final Long tourId) {
@@ -65,6 +135,182 @@ class TourDataCache {
       return _tourCache;
    }
 
+   /**
+    * Get a tour from the cache or load it when it is not cached. When the same tour is already
+    * loaded by another thread, then this load is awaited.
+    *
+    * @param tourId
+    * @param tourLoader
+    *           Loads a tour, returns <code>null</code> when the tour is not available
+    * @return Returns the cached or loaded tour or <code>null</code> when it is not available
+    */
+   public TourData getOrLoad(final Long tourId, final Function<Long, TourData> tourLoader) {
+
+      final TourData cachedTourData = _tourCache.get(tourId);
+      if (cachedTourData != null) {
+         return cachedTourData;
+      }
+
+      final CompletableFuture<TourData> newLoad = new CompletableFuture<>();
+      final CompletableFuture<TourData> runningLoad = _allInFlightLoads.putIfAbsent(tourId, newLoad);
+
+      if (runningLoad != null) {
+
+         _stat_NumCoalesced.incrementAndGet();
+
+         return joinLoad(runningLoad);
+      }
+
+      _stat_NumLoads.incrementAndGet();
+
+      try {
+
+         return completeLoad(tourId, newLoad, tourLoader.apply(tourId));
+
+      } catch (final Throwable e) {
+
+         // also an error, e.g. OutOfMemoryError, must release the waiting threads
+         newLoad.completeExceptionally(e);
+
+         throw e;
+
+      } finally {
+
+         // a load must not stay in flight, otherwise all later callers would wait forever
+         _allInFlightLoads.remove(tourId, newLoad);
+      }
+   }
+
+   /**
+    * Get multiple tours from the cache, tours which are not cached and not loaded by another
+    * thread are loaded together.
+    *
+    * @param allTourIds
+    * @param toursLoader
+    *           Loads all tours, tours which are not available are not contained in the result
+    * @return Returns all available tours, key is the tour id
+    */
+   public Map<Long, TourData> getOrLoadAll(final List<Long> allTourIds,
+                                           final Function<List<Long>, Map<Long, TourData>> toursLoader) {
+
+      final Map<Long, TourData> allTourData = new HashMap<>();
+
+      final Map<Long, CompletableFuture<TourData>> allOwnLoads = new HashMap<>();
+      final Map<Long, CompletableFuture<TourData>> allRunningLoads = new HashMap<>();
+
+      for (final Long tourId : allTourIds) {
+
+         if (allTourData.containsKey(tourId) || allOwnLoads.containsKey(tourId) || allRunningLoads.containsKey(tourId)) {
+            continue;
+         }
+
+         final TourData cachedTourData = _tourCache.get(tourId);
+         if (cachedTourData != null) {
+            allTourData.put(tourId, cachedTourData);
+            continue;
+         }
+
+         final CompletableFuture<TourData> newLoad = new CompletableFuture<>();
+         final CompletableFuture<TourData> runningLoad = _allInFlightLoads.putIfAbsent(tourId, newLoad);
+
+         if (runningLoad == null) {
+            allOwnLoads.put(tourId, newLoad);
+         } else {
+            allRunningLoads.put(tourId, runningLoad);
+         }
+      }
+
+      if (allOwnLoads.size() > 0) {
+
+         _stat_NumLoads.addAndGet(allOwnLoads.size());
+
+         try {
+
+            final Map<Long, TourData> allLoadedTourData = toursLoader.apply(new ArrayList<>(allOwnLoads.keySet()));
+
+            for (final Entry<Long, CompletableFuture<TourData>> entry : allOwnLoads.entrySet()) {
+
+               final Long tourId = entry.getKey();
+               final TourData tourData = completeLoad(tourId, entry.getValue(), allLoadedTourData.get(tourId));
+
+               if (tourData != null) {
+                  allTourData.put(tourId, tourData);
+               }
+            }
+
+         } catch (final Throwable e) {
+
+            // also an error, e.g. OutOfMemoryError, must release the waiting threads, completed loads are not modified
+            for (final CompletableFuture<TourData> ownLoad : allOwnLoads.values()) {
+               ownLoad.completeExceptionally(e);
+            }
+
+            throw e;
+
+         } finally {
+
+            // loads must not stay in flight, otherwise all later callers would wait forever
+            for (final Entry<Long, CompletableFuture<TourData>> entry : allOwnLoads.entrySet()) {
+               _allInFlightLoads.remove(entry.getKey(), entry.getValue());
+            }
+         }
+      }
+
+      if (allRunningLoads.size() > 0) {
+
+         _stat_NumCoalesced.addAndGet(allRunningLoads.size());
+
+         for (final Entry<Long, CompletableFuture<TourData>> entry : allRunningLoads.entrySet()) {
+
+            final TourData tourData = joinLoad(entry.getValue());
+
+            if (tourData != null) {
+               allTourData.put(entry.getKey(), tourData);
+            }
+         }
+      }
+
+      return allTourData;
+   }
+
+   /**
+    * @return Returns the number of tours which were loaded and the number of requests which were
+    *         waiting for a running load instead of loading the same tour again
+    */
+   public String getStatistics() {
+
+      return String.format("Tour loads: %d  coalesced: %d  in flight: %d", //$NON-NLS-1$
+            _stat_NumLoads.get(),
+            _stat_NumCoalesced.get(),
+            _allInFlightLoads.size());
+   }
+
+   /**
+    * @param runningLoad
+    * @return Returns the tour which was loaded by another thread
+    */
+   private TourData joinLoad(final CompletableFuture<TourData> runningLoad) {
+
+      try {
+
+         return runningLoad.join();
+
+      } catch (final CompletionException e) {
+
+         final Throwable cause = e.getCause();
+
+         if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+         }
+
+         if (cause instanceof Error) {
+            throw (Error) cause;
+         }
+
+         throw e;
+      }
+   }
+
    public void put(final Long tourId, final TourData tourData) {
 
       CACHE_LOCK.lock();
@@ -112,6 +358,9 @@ class TourDataCache {
 
    public void remove(final Long tourId) {
 
+      // a running load must not put an outdated tour into the cache
+      _allInFlightLoads.remove(tourId);
+
       if (_tourCache.containsKey(tourId)) {
 
          CACHE_LOCK.lock();
@@ -125,4 +374,10 @@ class TourDataCache {
          }
       }
    }
+
+   public void resetStatistics() {
+
+      _stat_NumLoads.set(0);
+      _stat_NumCoalesced.set(0);
+   }
 }
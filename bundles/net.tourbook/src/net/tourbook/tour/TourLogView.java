@@ -18,6 +18,9 @@ package net.tourbook.tour;
 import static net.tourbook.ui.UI.getIconUrl;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -27,16 +30,20 @@ import java.util.stream.Collectors;
 
 import net.tourbook.Images;
 import net.tourbook.Messages;
+import net.tourbook.application.StartupTrace;
 import net.tourbook.application.TourbookPlugin;
 import net.tourbook.common.CommonActivator;
 import net.tourbook.common.CommonImages;
 import net.tourbook.common.UI;
+import net.tourbook.common.util.StatusUtil;
 import net.tourbook.common.util.Util;
 import net.tourbook.preferences.ITourbookPreferences;
 import net.tourbook.web.WEB;
 
+import org.eclipse.core.runtime.Path;
 import org.eclipse.e4.ui.di.PersistState;
 import org.eclipse.jface.action.Action;
+import org.eclipse.jface.action.IMenuManager;
 import org.eclipse.jface.action.IStatusLineManager;
 import org.eclipse.jface.action.IToolBarManager;
 import org.eclipse.jface.dialogs.IDialogSettings;
@@ -61,6 +68,7 @@ import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.FontData;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.FileDialog;
 import org.eclipse.swt.widgets.Text;
 import org.eclipse.ui.IPartListener2;
 import org.eclipse.ui.IWorkbenchPartReference;
@@ -85,6 +93,10 @@ public class TourLogView extends ViewPart {
    private static final String            STATE_SAVE                       = "SAVE";                                 //$NON-NLS-1$
 
    private static final String            STATE_IS_UI_COLORFULL            = "STATE_IS_UI_COLORFULL";                //$NON-NLS-1$
+   private static final String            STATE_STARTUP_TRACE_EXPORT_PATH  = "STATE_STARTUP_TRACE_EXPORT_PATH";      //$NON-NLS-1$
+
+   private static final String            STARTUP_TRACE_FILE_NAME          = "startup-trace";                        //$NON-NLS-1$
+   private static final String            STARTUP_TRACE_FILE_EXTENSION     = "json";                                 //$NON-NLS-1$
 
    static final String                    CSS_LOG_INFO                     = "info";                                 //$NON-NLS-1$
    private static final String            CSS_LOG_ITEM                     = "logItem";                              //$NON-NLS-1$
@@ -104,6 +116,8 @@ public class TourLogView extends ViewPart {
 
    private Action                         _action_CopyIntoClipboard;
    private Action                         _action_Clear;
+   private Action                         _action_ExportStartupTrace;
+   private Action                         _action_ShowStartupTrace;
    private Action_ToggleSimpleOrColor     _action_ToggleSimpleOrColor;
 
    private boolean                        _isBrowserContentSet;
@@ -173,6 +187,32 @@ public class TourLogView extends ViewPart {
       }
    }
 
+   private class Action_ExportStartupTrace extends Action {
+
+      Action_ExportStartupTrace() {
+
+         setText(Messages.Tour_Log_Action_ExportStartupTrace);
+      }
+
+      @Override
+      public void run() {
+         onAction_ExportStartupTrace();
+      }
+   }
+
+   private class Action_ShowStartupTrace extends Action {
+
+      Action_ShowStartupTrace() {
+
+         setText(Messages.Tour_Log_Action_ShowStartupTrace);
+      }
+
+      @Override
+      public void run() {
+         StartupTrace.logPhases();
+      }
+   }
+
    private class Action_ToggleSimpleOrColor extends Action {
 
       public Action_ToggleSimpleOrColor() {
@@ -415,6 +455,8 @@ public class TourLogView extends ViewPart {
 
       _action_Clear = new Action_ClearView();
       _action_CopyIntoClipboard = new Action_CopyLogValuesIntoClipboard();
+      _action_ExportStartupTrace = new Action_ExportStartupTrace();
+      _action_ShowStartupTrace = new Action_ShowStartupTrace();
       _action_ToggleSimpleOrColor = new Action_ToggleSimpleOrColor();
    }
 
@@ -735,6 +777,14 @@ public class TourLogView extends ViewPart {
       tbm.add(_action_CopyIntoClipboard);
       tbm.add(_action_ToggleSimpleOrColor);
       tbm.add(_action_Clear);
+
+      /*
+       * fill view menu
+       */
+      final IMenuManager menuMgr = getViewSite().getActionBars().getMenuManager();
+
+      menuMgr.add(_action_ShowStartupTrace);
+      menuMgr.add(_action_ExportStartupTrace);
    }
 
    private String getStateImage_NoBrowser(final TourLogState state) {
@@ -896,6 +946,39 @@ public class TourLogView extends ViewPart {
       }
    }
 
+   private void onAction_ExportStartupTrace() {
+
+      final FileDialog dialog = new FileDialog(Display.getCurrent().getActiveShell(), SWT.SAVE);
+      dialog.setText(Messages.Tour_Log_Dialog_ExportStartupTrace_Title);
+
+      dialog.setFilterPath(_state.get(STATE_STARTUP_TRACE_EXPORT_PATH));
+      dialog.setFilterExtensions(new String[] { UI.SYMBOL_STAR + UI.SYMBOL_DOT + STARTUP_TRACE_FILE_EXTENSION });
+      dialog.setFileName(STARTUP_TRACE_FILE_NAME + UI.SYMBOL_DOT + STARTUP_TRACE_FILE_EXTENSION);
+
+      final String selectedFilePath = dialog.open();
+      if (selectedFilePath == null) {
+         return;
+      }
+
+      final File exportFile = new Path(selectedFilePath).toFile();
+
+      // keep export path
+      _state.put(STATE_STARTUP_TRACE_EXPORT_PATH, exportFile.getParent());
+
+      if (exportFile.exists() && net.tourbook.ui.UI.confirmOverwrite(exportFile) == false) {
+         // don't overwrite file, nothing more to do
+         return;
+      }
+
+      try {
+
+         Files.writeString(exportFile.toPath(), StartupTrace.createTraceEvents(), StandardCharsets.UTF_8);
+
+      } catch (final IOException e) {
+         StatusUtil.showStatus(e);
+      }
+   }
+
    private void onAction_ToggleSimpleOrColorUI() {
 
       _isUIColorfull = !_isUIColorfull;
@@ -29,15 +29,13 @@ import java.util.Formatter;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map.Entry;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import net.tourbook.Messages;
@@ -68,6 +66,7 @@ import net.tourbook.data.TourMarker;
 import net.tourbook.data.TourPhoto;
 import net.tourbook.database.MyTourbookException;
 import net.tourbook.database.TourDatabase;
+import net.tourbook.database.TourDayAggregates;
 import net.tourbook.importdata.RawDataManager;
 import net.tourbook.importdata.RawDataManager.TourValueType;
 import net.tourbook.photo.Photo;
@@ -104,6 +103,7 @@ import org.eclipse.collections.impl.list.mutable.primitive.FloatArrayList;
 import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.ListenerList;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.jface.dialogs.IDialogConstants;
 import org.eclipse.jface.dialogs.IDialogSettings;
 import org.eclipse.jface.dialogs.MessageDialog;
@@ -189,6 +189,11 @@ public class TourManager {
    public static final String  GEAR_TEETH_FORMAT                               = "%2d : %2d";                                                   //$NON-NLS-1$
    static final String         GEAR_VALUE_FORMAT                               = GEAR_TEETH_FORMAT + " - " + GEAR_RATIO_FORMAT;                 //$NON-NLS-1$
    //
+   /**
+    * Joined tours with fewer time slices are copied in the calling thread
+    */
+   private static final int    JOIN_CONCURRENT_MIN_TIME_SLICES                 = 100_000;
+   //
    public static final int     GRAPH_ALTITUDE                                  = 1000;
    public static final int     GRAPH_SPEED                                     = 1001;
    public static final int     GRAPH_ALTIMETER                                 = 1002;
@@ -290,8 +295,7 @@ public class TourManager {
    private static int                      _allLoaded_TourIds_Hash;
    //
    private static ThreadPoolExecutor       _loadingTour_Executor;
-   private static ArrayBlockingQueue<Long> _loadingTour_Queue = new ArrayBlockingQueue<>(Util.NUMBER_OF_PROCESSORS);
-   private static CountDownLatch           _loadingTour_CountDownLatch;
+   private static ThreadPoolExecutor       _joiningTour_Executor;
    //
    static {
 
@@ -306,6 +310,18 @@ public class TourManager {
       };
 
       _loadingTour_Executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(Util.NUMBER_OF_PROCESSORS, loadingThreadFactory);
+
+      final ThreadFactory joiningThreadFactory = runnable -> {
+
+         final Thread thread = new Thread(runnable, "Joining tour data series");//$NON-NLS-1$
+
+         thread.setPriority(Thread.MIN_PRIORITY);
+         thread.setDaemon(true);
+
+         return thread;
+      };
+
+      _joiningTour_Executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(Util.NUMBER_OF_PROCESSORS, joiningThreadFactory);
    }
    //
    private ComputeChartValue   _computeAvg_Altimeter;
@@ -540,6 +556,8 @@ public class TourManager {
          int numComputedTour = 0;
          int numNotComputedTour = 0;
 
+         final List<Long> allComputedTourIds = new ArrayList<>();
+
          // loop over all tours and compute each cadence zone time
          for (final TourData tourData : selectedTours) {
 
@@ -558,11 +576,15 @@ public class TourManager {
 
                stmtUpdate.executeUpdate();
 
+               allComputedTourIds.add(tourData.getTourId());
+
                isUpdated = true;
                numComputedTour++;
             }
          }
 
+         TourDayAggregates.updateTours(allComputedTourIds);
+
          TourLogManager.subLog_OK(NLS.bind(
                Messages.Log_ComputeCadenceZonesTimes_010_Success,
                numComputedTour));
@@ -836,7 +858,6 @@ public class TourManager {
       final int[] allStartIndex                 = joinedTourData.multipleTourStartIndex            = new int[numTours];
       final ZonedDateTime[] allStartTime        = joinedTourData.multipleTourZonedStartTime        = new ZonedDateTime[numTours];
       final ArrayList<TourMarker> allTourMarker = joinedTourData.multipleTourMarkers               = new ArrayList<>();
-      final List<List<Long>> allTourPauses      = joinedTourData.multipleTourPauses                = new ArrayList<>();
       final String[] allTourTitle               = joinedTourData.multipleTourTitles                = new String[numTours];
       final int[] allTourMarkerNumbers          = joinedTourData.multipleNumberOfMarkers           = new int[numTours];
       final int[] allTourPausesNumbers          = joinedTourData.multipleNumberOfPauses            = new int[numTours];
@@ -856,6 +877,7 @@ public class TourManager {
       int tourDeviceTime_Elapsed = 0;
       int tourDeviceTime_Recorded = 0;
       int tourDeviceTime_Paused = 0;
+      long tourComputedTime_Moving = 0;
       float tourDistance = 0;
       float tourAltUp = 0;
       float tourAltDown = 0;
@@ -887,6 +909,16 @@ public class TourManager {
       boolean isCadenceRpm = false;
       boolean isCadenceSpm = false;
 
+      final LongArrayList allPausedTime_Start = new LongArrayList();
+      final LongArrayList allPausedTime_End = new LongArrayList();
+      final LongArrayList allPausedTime_Data = new LongArrayList();
+
+      /*
+       * The output arrays are already sized, so the data series of all tours are independent of
+       * each other and are copied concurrently after all offsets are computed
+       */
+      final List<Runnable> allCopyTasks = new ArrayList<>();
+
       // loop: all tours
       for (int tourIndex = 0; tourIndex < numTours; tourIndex++) {
 
@@ -919,6 +951,12 @@ public class TourManager {
          final int fromSerieLength = fromTimeSerie.length;
          final int fromSwimSerieLength = fromSwim_Time == null ? 0 : fromSwim_Time.length;
 
+         // values which are used in the copy tasks
+         final int toSerieIndex = toStartIndex;
+         final int toSwimSerieIndex = toSwimStartIndex;
+         final int timeOffset = tourDeviceTime_Elapsed;
+         final float distanceOffset = tourDistance;
+
          /*
           * Copy time serie
           */
@@ -929,16 +967,16 @@ public class TourManager {
             isFirstTour = false;
 
             // copy data series from the first tour
-            System.arraycopy(fromTimeSerie, 0, toTimeSerie, toStartIndex, fromSerieLength);
+            allCopyTasks.add(() -> System.arraycopy(fromTimeSerie, 0, toTimeSerie, toSerieIndex, fromSerieLength));
             if (fromSwim_Time != null) {
                isSwim_Time = true;
-               System.arraycopy(fromSwim_Time, 0, toSwim_Time, toSwimStartIndex, fromSwimSerieLength);
+               allCopyTasks.add(() -> System.arraycopy(fromSwim_Time, 0, toSwim_Time, toSwimSerieIndex, fromSwimSerieLength));
             }
 
             if (fromDistanceSerie != null) {
 
                isDistanceSerie = true;
-               System.arraycopy(fromDistanceSerie, 0, toDistanceSerie, toStartIndex, fromSerieLength);
+               allCopyTasks.add(() -> System.arraycopy(fromDistanceSerie, 0, toDistanceSerie, toSerieIndex, fromSerieLength));
             }
 
          } else {
@@ -946,14 +984,18 @@ public class TourManager {
             // 2nd + other time series
 
             // adjust relative time series
-            for (int serieIndex = 0; serieIndex < fromSerieLength; serieIndex++) {
-               toTimeSerie[toStartIndex + serieIndex] = tourDeviceTime_Elapsed + fromTimeSerie[serieIndex];
-            }
+            allCopyTasks.add(() -> {
+               for (int serieIndex = 0; serieIndex < fromSerieLength; serieIndex++) {
+                  toTimeSerie[toSerieIndex + serieIndex] = timeOffset + fromTimeSerie[serieIndex];
+               }
+            });
             if (fromSwim_Time != null) {
                isSwim_Time = true;
-               for (int swimSerieIndex = 0; swimSerieIndex < fromSwimSerieLength; swimSerieIndex++) {
-                  toSwim_Time[toSwimStartIndex + swimSerieIndex] = tourDeviceTime_Elapsed + fromSwim_Time[swimSerieIndex];
-               }
+               allCopyTasks.add(() -> {
+                  for (int swimSerieIndex = 0; swimSerieIndex < fromSwimSerieLength; swimSerieIndex++) {
+                     toSwim_Time[toSwimSerieIndex + swimSerieIndex] = timeOffset + fromSwim_Time[swimSerieIndex];
+                  }
+               });
             }
 
             // adjust relative distance
@@ -961,9 +1003,11 @@ public class TourManager {
 
                isDistanceSerie = true;
 
-               for (int serieIndex = 0; serieIndex < fromSerieLength; serieIndex++) {
-                  toDistanceSerie[toStartIndex + serieIndex] = tourDistance + fromDistanceSerie[serieIndex];
-               }
+               allCopyTasks.add(() -> {
+                  for (int serieIndex = 0; serieIndex < fromSerieLength; serieIndex++) {
+                     toDistanceSerie[toSerieIndex + serieIndex] = distanceOffset + fromDistanceSerie[serieIndex];
+                  }
+               });
 
             } else {
 
@@ -971,9 +1015,7 @@ public class TourManager {
                 * Distance serie is not available but fill the distance with the previous distance
                 * otherwise the graph has a strange gap and the lines go to x=0
                 */
-               for (int serieIndex = 0; serieIndex < fromSerieLength; serieIndex++) {
-                  toDistanceSerie[toStartIndex + serieIndex] = tourDistance;
-               }
+               allCopyTasks.add(() -> Arrays.fill(toDistanceSerie, toSerieIndex, toSerieIndex + fromSerieLength, distanceOffset));
             }
          }
 
@@ -982,13 +1024,13 @@ public class TourManager {
           */
          if (fromAltitudeSerie != null) {
             isAltitudeSerie = true;
-            System.arraycopy(fromAltitudeSerie, 0, toAltitudeSerie, toStartIndex, fromSerieLength);
+            allCopyTasks.add(() -> System.arraycopy(fromAltitudeSerie, 0, toAltitudeSerie, toSerieIndex, fromSerieLength));
          }
 
          if (fromCadenceSerie != null) {
 
             isCadenceSerie = true;
-            System.arraycopy(fromCadenceSerie, 0, toCadenceSerie, toStartIndex, fromSerieLength);
+            allCopyTasks.add(() -> System.arraycopy(fromCadenceSerie, 0, toCadenceSerie, toSerieIndex, fromSerieLength));
 
             isCadenceRpm |= !fromTourData.isCadenceSpm();
             isCadenceSpm |= fromTourData.isCadenceSpm();
@@ -996,30 +1038,31 @@ public class TourManager {
 
          if (fromGearSerie != null) {
             isGearSerie = true;
-            System.arraycopy(fromGearSerie, 0, toGearSerie, toStartIndex, fromSerieLength);
+            allCopyTasks.add(() -> System.arraycopy(fromGearSerie, 0, toGearSerie, toSerieIndex, fromSerieLength));
          }
          if (fromLatitudeSerie != null) {
             isLatLonSerie = true;
-            System.arraycopy(fromLatitudeSerie, 0, toLatitudeSerie, toStartIndex, fromSerieLength);
-            System.arraycopy(fromLongitudeSerie, 0, toLongitudeSerie, toStartIndex, fromSerieLength);
+            allCopyTasks.add(() -> System.arraycopy(fromLatitudeSerie, 0, toLatitudeSerie, toSerieIndex, fromSerieLength));
+            allCopyTasks.add(() -> System.arraycopy(fromLongitudeSerie, 0, toLongitudeSerie, toSerieIndex, fromSerieLength));
          }
          if (fromPulseSerie != null) {
             isPulseSerie = true;
-            System.arraycopy(fromPulseSerie, 0, toPulseSerie, toStartIndex, fromSerieLength);
+            allCopyTasks.add(() -> System.arraycopy(fromPulseSerie, 0, toPulseSerie, toSerieIndex, fromSerieLength));
          }
          if (fromPulse_BpmFromRRIntervals != null) {
             isPulseSerie_FromTime = true;
-            System.arraycopy(fromPulse_BpmFromRRIntervals, 0, toPulseSerie_FromTime, toStartIndex, fromSerieLength);
+            allCopyTasks.add(() -> System.arraycopy(fromPulse_BpmFromRRIntervals, 0, toPulseSerie_FromTime, toSerieIndex, fromSerieLength));
          }
          if (fromTemperaturSerie != null) {
             isTempSerie = true;
-            System.arraycopy(fromTemperaturSerie, 0, toTemperaturSerie, toStartIndex, fromSerieLength);
+            allCopyTasks.add(() -> System.arraycopy(fromTemperaturSerie, 0, toTemperaturSerie, toSerieIndex, fromSerieLength));
          }
 
          // power is a special data serie
          if (fromTourData.isPowerSerieFromDevice() && fromTourData.getPowerSerie() != null) {
             isPowerSerie = true;
-            System.arraycopy(fromTourData.getPowerSerie(), 0, toPowerSerie, toStartIndex, fromSerieLength);
+            final float[] fromPowerSerie = fromTourData.getPowerSerie();
+            allCopyTasks.add(() -> System.arraycopy(fromPowerSerie, 0, toPowerSerie, toSerieIndex, fromSerieLength));
          }
 
          /*
@@ -1027,23 +1070,23 @@ public class TourManager {
           */
          if (fromRunDyn_StanceTime != null) {
             isRunDyn_StanceTime = true;
-            System.arraycopy(fromRunDyn_StanceTime, 0, toRunDyn_StanceTime, toStartIndex, fromSerieLength);
+            allCopyTasks.add(() -> System.arraycopy(fromRunDyn_StanceTime, 0, toRunDyn_StanceTime, toSerieIndex, fromSerieLength));
          }
          if (fromRunDyn_StanceTimeBalance != null) {
             isRunDyn_StanceTimeBalance = true;
-            System.arraycopy(fromRunDyn_StanceTimeBalance, 0, toRunDyn_StanceTimeBalance, toStartIndex, fromSerieLength);
+            allCopyTasks.add(() -> System.arraycopy(fromRunDyn_StanceTimeBalance, 0, toRunDyn_StanceTimeBalance, toSerieIndex, fromSerieLength));
          }
          if (fromRunDyn_StepLength != null) {
             isRunDyn_StepLength = true;
-            System.arraycopy(fromRunDyn_StepLength, 0, toRunDyn_StepLength, toStartIndex, fromSerieLength);
+            allCopyTasks.add(() -> System.arraycopy(fromRunDyn_StepLength, 0, toRunDyn_StepLength, toSerieIndex, fromSerieLength));
          }
          if (fromRunDyn_VertOscillation != null) {
             isRunDyn_VerticalOscillation = true;
-            System.arraycopy(fromRunDyn_VertOscillation, 0, toRunDyn_VertOscillation, toStartIndex, fromSerieLength);
+            allCopyTasks.add(() -> System.arraycopy(fromRunDyn_VertOscillation, 0, toRunDyn_VertOscillation, toSerieIndex, fromSerieLength));
          }
          if (fromRunDyn_VertRatio != null) {
             isRunDyn_VerticalRatio = true;
-            System.arraycopy(fromRunDyn_VertRatio, 0, toRunDyn_VertRatio, toStartIndex, fromSerieLength);
+            allCopyTasks.add(() -> System.arraycopy(fromRunDyn_VertRatio, 0, toRunDyn_VertRatio, toSerieIndex, fromSerieLength));
          }
 
          /*
@@ -1051,19 +1094,19 @@ public class TourManager {
           */
          if (fromswim_LengthType != null) {
             isswim_LengthType = true;
-            System.arraycopy(fromswim_LengthType, 0, toswim_LengthType, toSwimStartIndex, fromSwimSerieLength);
+            allCopyTasks.add(() -> System.arraycopy(fromswim_LengthType, 0, toswim_LengthType, toSwimSerieIndex, fromSwimSerieLength));
          }
          if (fromSwim_Cadence != null) {
             isSwim_Cadence = true;
-            System.arraycopy(fromSwim_Cadence, 0, toSwim_Cadence, toSwimStartIndex, fromSwimSerieLength);
+            allCopyTasks.add(() -> System.arraycopy(fromSwim_Cadence, 0, toSwim_Cadence, toSwimSerieIndex, fromSwimSerieLength));
          }
          if (fromSwim_Strokes != null) {
             isSwim_Strokes = true;
-            System.arraycopy(fromSwim_Strokes, 0, toSwim_Strokes, toSwimStartIndex, fromSwimSerieLength);
+            allCopyTasks.add(() -> System.arraycopy(fromSwim_Strokes, 0, toSwim_Strokes, toSwimSerieIndex, fromSwimSerieLength));
          }
          if (fromSwim_StrokeStyle != null) {
             isSwim_StrokeStyle = true;
-            System.arraycopy(fromSwim_StrokeStyle, 0, toSwim_StrokeStyle, toSwimStartIndex, fromSwimSerieLength);
+            allCopyTasks.add(() -> System.arraycopy(fromSwim_StrokeStyle, 0, toSwim_StrokeStyle, toSwimSerieIndex, fromSwimSerieLength));
          }
 
          allTourIds[tourIndex] = fromTourData.getTourId();
@@ -1081,23 +1124,21 @@ public class TourManager {
             final long[] pausedTime_End = fromTourData.getPausedTime_End();
             final long[] pausedTime_Data = fromTourData.getPausedTime_Data();
 
-            for (int index = 0; index < pausedTime_Start.length; ++index) {
-
-               final List<Long> fromTourPausesList = new ArrayList<>();
-
-               final long pauseData = pausedTime_Data == null
+            allPausedTime_Start.addAll(pausedTime_Start);
+            allPausedTime_End.addAll(pausedTime_End);
 
-                     // pause data are not available -> it will be displayed as an auto-pause
-                     ? -1
+            if (pausedTime_Data == null) {
 
-                     : pausedTime_Data[index];
+               // pause data are not available -> it will be displayed as an auto-pause
+               for (int index = 0; index < pausedTime_Start.length; ++index) {
+                  allPausedTime_Data.add(-1);
+               }
 
-               fromTourPausesList.add(pausedTime_Start[index]);
-               fromTourPausesList.add(pausedTime_End[index]);
-               fromTourPausesList.add(pauseData);
+            } else {
 
-               allTourPauses.add(fromTourPausesList);
+               allPausedTime_Data.addAll(pausedTime_Data);
             }
+
             allTourPausesNumbers[tourIndex] = pausedTime_Start.length;
          }
 
@@ -1143,8 +1184,15 @@ public class TourManager {
 
          tourDeviceTime_Recorded += fromTourData.getTourDeviceTime_Recorded();
          tourDeviceTime_Paused += fromTourData.getTourDeviceTime_Paused();
+         tourComputedTime_Moving += fromTourData.getTourComputedTime_Moving();
       }
 
+      createJoinedTourData_CopySeries(allCopyTasks, numTimeSlices);
+
+      joinedTourData.multipleTourPausedTime_Start = allPausedTime_Start.toArray();
+      joinedTourData.multipleTourPausedTime_End = allPausedTime_End.toArray();
+      joinedTourData.multipleTourPausedTime_Data = allPausedTime_Data.toArray();
+
       /*
        * Remove data series when not available
        */
@@ -1231,8 +1279,14 @@ public class TourManager {
       joinedTourData.setTourAltUp(tourAltUp);
       joinedTourData.setTourAltDown(tourAltDown);
 
-      joinedTourData.computeTourMovingTime();
-      joinedTourData.computeComputedValues();
+      /*
+       * The moving time is summarized from the joined tours, it is not computed from the joined
+       * time serie anymore. The break time of the joined time serie would differ only at the tour
+       * boundaries, it is still computed from the joined data series when it is needed, e.g. for
+       * the averages of a chart segment.
+       */
+      joinedTourData.setTourComputedTime_Moving((int) tourComputedTime_Moving);
+      joinedTourData.computeComputedValues_Joined(validatedMultipleTours);
 
       joinedTourData.multipleTour_IsCadenceRpm = isCadenceRpm;
       joinedTourData.multipleTour_IsCadenceSpm = isCadenceSpm;
@@ -1243,6 +1297,58 @@ public class TourManager {
       return joinedTourData;
    }
 
+   /**
+    * Runs the copy tasks of the joined data series, they are run concurrently when the joined tour
+    * is large enough that it is worth to use other threads.
+    *
+    * @param allCopyTasks
+    * @param numTimeSlices
+    */
+   private static void createJoinedTourData_CopySeries(final List<Runnable> allCopyTasks, final int numTimeSlices) {
+
+      final int numTasks = allCopyTasks.size();
+      final int numWorkers = Math.min(numTasks, Util.NUMBER_OF_PROCESSORS);
+
+      if (numWorkers < 2 || numTimeSlices < JOIN_CONCURRENT_MIN_TIME_SLICES) {
+
+         for (final Runnable copyTask : allCopyTasks) {
+            copyTask.run();
+         }
+
+         return;
+      }
+
+      final CountDownLatch countDownLatch = new CountDownLatch(numWorkers);
+
+      for (int workerIndex = 0; workerIndex < numWorkers; workerIndex++) {
+
+         final int firstTaskIndex = workerIndex;
+
+         _joiningTour_Executor.submit(() -> {
+
+            try {
+
+               // interleave the tasks that the data series of large and small tours are distributed to all workers
+               for (int taskIndex = firstTaskIndex; taskIndex < numTasks; taskIndex += numWorkers) {
+                  allCopyTasks.get(taskIndex).run();
+               }
+
+            } catch (final Exception e) {
+               StatusUtil.log(e);
+            } finally {
+               countDownLatch.countDown();
+            }
+         });
+      }
+
+      try {
+         countDownLatch.await();
+      } catch (final InterruptedException e) {
+         StatusUtil.log(e);
+         Thread.currentThread().interrupt();
+      }
+   }
+
    /**
     * Create segments for the chart, each tour is a segment. Segments are used to draw different
     * background colors.
@@ -1943,22 +2049,24 @@ public class TourManager {
       final int[] tourIndex = { 0 };
       final int numTourIds = allTourIds.size();
 
+      /*
+       * Tours are loaded in chunks, each chunk is loaded concurrently with one query for each
+       * batch of tours
+       */
+      final int chunkSize = TourDatabase.BATCH_SIZE_TOURS * Util.NUMBER_OF_PROCESSORS;
+
       while (tourIndex[0] < numTourIds) {
 
-         final Long tourId = allTourIds.get(tourIndex[0]);
-         loadTourData_OneTour(tourId, allTourData, isCheckLatLon, newOverlayKey);
+         tourIndex[0] = loadTourData_Chunk(allTourIds, tourIndex[0], chunkSize, allTourData, isCheckLatLon, newOverlayKey);
 
          /*
-          * Check if this is a long duration -> run with progress monitor and concurrent
+          * Check if this is a long duration -> run with progress monitor
           */
          final long runDuration = System.currentTimeMillis() - startTime;
          if (runDuration > 1000) {
             isLongDuration = true;
-            ++tourIndex[0];
             break;
          }
-
-         ++tourIndex[0];
       }
 
       if (isLongDuration && tourIndex[0] < numTourIds) {
@@ -1970,78 +2078,35 @@ public class TourManager {
                public void run(final IProgressMonitor monitor)
                      throws InvocationTargetException, InterruptedException {
 
-                  /*
-                   * Setup concurrency
-                   */
-                  _loadingTour_CountDownLatch = new CountDownLatch(numTourIds - tourIndex[0]);
-                  _loadingTour_Queue.clear();
-
-                  final ConcurrentHashMap<Long, TourData> allTourData_Concurrent = new ConcurrentHashMap<>();
-
-                  /*
-                   * Setup monitor
-                   */
-                  long lastUpdateTime = startTime;
-
-                  final AtomicInteger numWorkedTours = new AtomicInteger(tourIndex[0]);
-                  int numLastWorked = 0;
+                  int numLastWorked = tourIndex[0];
 
                   monitor.beginTask(Messages.Tour_Data_LoadTourData_Monitor, numTourIds);
+                  monitor.worked(numLastWorked);
 
                   while (tourIndex[0] < numTourIds) {
 
                      if (monitor.isCanceled()) {
 
-                        /*
-                         * Count down all, that the loading task can finish but process loaded tours
-                         */
-                        long numCounts = _loadingTour_CountDownLatch.getCount();
-                        while (numCounts-- > 0) {
-                           _loadingTour_CountDownLatch.countDown();
-                        }
-
+                        // process loaded tours
                         break;
                      }
 
-                     /*
-                      * Update monitor
-                      */
-                     final long currentTime = System.currentTimeMillis();
-                     final long timeDiff = currentTime - lastUpdateTime;
-
-                     // reduce logging
-                     if (timeDiff > 500) {
-
-                        lastUpdateTime = currentTime;
-
-                        final int numWorked = numWorkedTours.get();
-
-                        // "{0} / {1} - {2} % - {3} Δ"
-                        UI.showWorkedInProgressMonitor(monitor, numWorked, numTourIds, numLastWorked);
-
-                        numLastWorked = numWorked;
-                     }
-
-                     final Long tourId = allTourIds.get(tourIndex[0]);
-
-                     loadTourData_Concurrent(
-
-                           tourId,
-                           allTourData_Concurrent,
-                           numWorkedTours,
+                     final int numWorked = loadTourData_Chunk(
+                           allTourIds,
+                           tourIndex[0],
+                           chunkSize,
+                           allTourData,
                            isCheckLatLon,
-                           newOverlayKey,
-                           monitor);
+                           newOverlayKey);
 
-                     ++tourIndex[0];
-                  }
+                     monitor.worked(numWorked - tourIndex[0]);
+
+                     tourIndex[0] = numWorked;
 
-                  // wait until all loadings are performed
-                  _loadingTour_CountDownLatch.await();
+                     // "{0} / {1} - {2} % - {3} Δ"
+                     UI.showWorkedInProgressMonitor(monitor, numWorked, numTourIds, numLastWorked);
 
-                  // add new loaded tours
-                  for (final Entry<Long, TourData> entry : allTourData_Concurrent.entrySet()) {
-                     allTourData.add(entry.getValue());
+                     numLastWorked = numWorked;
                   }
                }
             };
@@ -2066,101 +2131,48 @@ public class TourManager {
       return _allLoaded_TourData_Key;
    }
 
-   private static void loadTourData_Concurrent(final Long tourId,
-                                               final ConcurrentHashMap<Long, TourData> allTourData_Concurrent,
-                                               final AtomicInteger numWorkedTours,
-                                               final boolean isCheckLatLon,
-                                               final AtomicLong newOverlayKey,
-                                               final IProgressMonitor monitor) {
-
-      try {
-
-         // put tour ID (queue item) into the queue AND wait when it is full
-
-         _loadingTour_Queue.put(tourId);
-
-      } catch (final InterruptedException e) {
-
-         StatusUtil.log(e);
-         Thread.currentThread().interrupt();
-      }
-
-      _loadingTour_Executor.submit(() -> {
-
-         try {
-
-            // get last added item
-            final Long queueItem_TourId = _loadingTour_Queue.poll();
-
-            if (queueItem_TourId != null) {
+   /**
+    * Loads a chunk of tours
+    *
+    * @param allTourIds
+    * @param firstTourIndex
+    * @param chunkSize
+    * @param allTourData
+    * @param isCheckLatLon
+    * @param newOverlayKey
+    * @return Returns the index of the first tour id after the loaded chunk
+    */
+   private static int loadTourData_Chunk(final List<Long> allTourIds,
+                                         final int firstTourIndex,
+                                         final int chunkSize,
+                                         final List<TourData> allTourData,
+                                         final boolean isCheckLatLon,
+                                         final AtomicLong newOverlayKey) {
 
-               loadTourData_OneTour_Concurrent(
+      final int lastTourIndex = Math.min(firstTourIndex + chunkSize, allTourIds.size());
 
-                     queueItem_TourId,
-                     allTourData_Concurrent,
-                     isCheckLatLon,
-                     newOverlayKey);
-            }
+      final TourData[] allChunkTourData = getInstance().getTourData_Multiple(allTourIds.subList(firstTourIndex, lastTourIndex));
 
-         } finally {
+      for (final TourData tourData : allChunkTourData) {
 
-            if (monitor != null) {
-               monitor.worked(1);
-            }
+         if (tourData == null) {
 
-            numWorkedTours.incrementAndGet();
+            // this happened when switching tour type during normal startup but all was not yet loaded
 
-            _loadingTour_CountDownLatch.countDown();
+            continue;
          }
-      });
-   }
-
-   private static void loadTourData_OneTour(final Long tourId,
-                                            final List<TourData> allTourData,
-                                            final boolean isCheckLatLon,
-                                            final AtomicLong newOverlayKey) {
-
-      final TourData tourData = getInstance().getTourData(tourId);
-
-      if (tourData == null) {
 
-         // this happened when switching tour type during normal startup but all was not yet loaded
-
-         return;
-      }
-
-      if (isCheckLatLon == false || isLatLonAvailable(tourData)) {
-
-         // keep tour data for each tour id
-         allTourData.add(tourData);
-
-         // update key for all tours
-         newOverlayKey.getAndAdd(tourData.getTourId());
-      }
-   }
+         if (isCheckLatLon == false || isLatLonAvailable(tourData)) {
 
-   private static void loadTourData_OneTour_Concurrent(final Long tourId,
-                                                       final ConcurrentHashMap<Long, TourData> allTourData,
-                                                       final boolean isCheckLatLon,
-                                                       final AtomicLong newOverlayKey) {
+            // keep tour data for each tour id
+            allTourData.add(tourData);
 
-      final TourData tourData = getInstance().getTourData(tourId);
-
-      if (tourData == null) {
-
-         // this happened when switching tour type during normal startup but all was not yet loaded
-
-         return;
+            // update key for all tours
+            newOverlayKey.getAndAdd(tourData.getTourId());
+         }
       }
 
-      if (isCheckLatLon == false || isLatLonAvailable(tourData)) {
-
-         // keep tour data for each tour id
-         allTourData.put(tourData.getTourId(), tourData);
-
-         // update key for all tours
-         newOverlayKey.getAndAdd(tourData.getTourId());
-      }
+      return lastTourIndex;
    }
 
    /**
@@ -2740,34 +2752,61 @@ public class TourManager {
       TourLogManager.showLogView();
       final long start = System.currentTimeMillis();
 
-      BusyIndicator.showWhile(Display.getCurrent(),
-            () -> {
+      final String weatherProvider = _prefStore.getString(ITourbookPreferences.WEATHER_WEATHER_PROVIDER_ID);
 
-               final String weatherProvider = _prefStore.getString(
-                     ITourbookPreferences.WEATHER_WEATHER_PROVIDER_ID);
+      TourLogManager.subLog_INFO(NLS.bind(
+            LOG_RETRIEVE_WEATHER_DATA_001_START,
+            weatherProvider));
 
-               TourLogManager.subLog_INFO(NLS.bind(
-                     LOG_RETRIEVE_WEATHER_DATA_001_START,
-                     weatherProvider));
+      final List<TourData> allToursWithGps = new ArrayList<>();
 
-               for (final TourData tourData : tourDataList) {
+      for (final TourData tourData : tourDataList) {
 
-                  // ensure data is available
-                  if (tourData.latitudeSerie == null || tourData.longitudeSerie == null) {
+         // ensure data is available
+         if (tourData.latitudeSerie == null || tourData.longitudeSerie == null) {
 
-                     TourLogManager.subLog_ERROR(String.format(
-                           LOG_RETRIEVE_WEATHER_DATA_010_NO_GPS_DATA_SERIE,
-                           getTourDateTimeShort(tourData)));
+            TourLogManager.subLog_ERROR(String.format(
+                  LOG_RETRIEVE_WEATHER_DATA_010_NO_GPS_DATA_SERIE,
+                  getTourDateTimeShort(tourData)));
 
-                     continue;
-                  }
+            continue;
+         }
+
+         allToursWithGps.add(tourData);
+      }
 
-                  if (TourWeatherRetriever.retrieveWeatherData(tourData, weatherProvider)) {
+      if (allToursWithGps.size() > 0) {
 
-                     modifiedTours.add(tourData);
-                  }
-               }
-            });
+         final IRunnableWithProgress runnable = monitor -> modifiedTours.addAll(
+               TourWeatherRetriever.retrieveWeatherData(allToursWithGps, weatherProvider, monitor));
+
+         if (Display.getCurrent() == null) {
+
+            // not running in the UI thread
+
+            try {
+               runnable.run(new NullProgressMonitor());
+            } catch (final InvocationTargetException | InterruptedException e) {
+               StatusUtil.log(e);
+               Thread.currentThread().interrupt();
+            }
+
+         } else {
+
+            /*
+             * The weather is retrieved in a progress dialog that the UI is not blocked and the
+             * retrieval can be canceled
+             */
+            try {
+
+               new ProgressMonitorDialog(TourbookPlugin.getAppShell()).run(true, true, runnable);
+
+            } catch (final InvocationTargetException | InterruptedException e) {
+               StatusUtil.showStatus(e);
+               Thread.currentThread().interrupt();
+            }
+         }
+      }
 
       TourLogManager.subLog_INFO(String.format(
             LOG_RETRIEVE_WEATHER_DATA_002_END,
@@ -5576,8 +5615,7 @@ public class TourManager {
 
       final ArrayList<TourData> tourDataList = new ArrayList<>();
 
-      for (final Long tourId : tourIds) {
-         final TourData tourData = getTourData(tourId);
+      for (final TourData tourData : getTourData_Multiple(tourIds)) {
          if (tourData != null) {
             tourDataList.add(tourData);
          }
@@ -5594,9 +5632,7 @@ public class TourManager {
     */
    public void getTourData(final List<TourData> allTourData, final List<Long> tourIds) {
 
-      for (final Long tourId : tourIds) {
-         allTourData.add(getTourData(tourId));
-      }
+      allTourData.addAll(Arrays.asList(getTourData_Multiple(tourIds)));
    }
 
    /**
@@ -5616,52 +5652,135 @@ public class TourManager {
       /*
        * get tour from tour editor when it contains the requested tour
        */
-      if (_tourDataEditorInstance != null) {
+      final TourData tourDataInEditor = getTourData_FromEditor(requestedTourId);
+      if (tourDataInEditor != null) {
+         return tourDataInEditor;
+      }
 
-         final TourData tourDataInEditor = _tourDataEditorInstance.getTourData();
-         if (tourDataInEditor != null && tourDataInEditor.getTourId().equals(requestedTourId)) {
+      /*
+       * get tour from cache or database, concurrent requests for the same tour are sharing one load
+       */
+      final TourData existingTourData = _tourDataCache.getOrLoad(requestedTourId, TourDatabase::getTourFromDb);
 
-            // cache tour data
-            _tourDataCache.put(tourDataInEditor.getTourId(), tourDataInEditor);
+      if (existingTourData == null) {
 
-            return tourDataInEditor;
-         }
+         // try to get tour from raw data manager
+         final TourData tourDataFromRawManager = RawDataManager
+               .getInstance()
+               .getImportedTours()
+               .get(requestedTourId);
+
+         return tourDataFromRawManager;
       }
 
-      /*
-       * get tour from cache or database
-       */
-      TourData existingTourData = null;
-      final TourData tourDataInCache = _tourDataCache.get(requestedTourId);
+      replaceTourInTourEditor(existingTourData);
 
-      if (tourDataInCache != null) {
-         existingTourData = tourDataInCache;
-      } else {
+      return existingTourData;
+   }
 
-         final TourData tourDataFromDb = TourDatabase.getTourFromDb(requestedTourId);
+   /**
+    * @return Returns the number of tours which were loaded from the database and the number of
+    *         requests which were waiting for a running load of the same tour
+    */
+   public String getTourDataLoadStatistics() {
+      return _tourDataCache.getStatistics();
+   }
 
-         if (tourDataFromDb == null) {
+   /**
+    * @param requestedTourId
+    * @return Returns the tour from the tour editor or <code>null</code> when the tour editor do
+    *         not contain the requested tour
+    */
+   private TourData getTourData_FromEditor(final Long requestedTourId) {
 
-            // try to get tour from raw data manager
-            final TourData tourDataFromRawManager = RawDataManager
-                  .getInstance()
-                  .getImportedTours()
-                  .get(requestedTourId);
+      if (_tourDataEditorInstance == null) {
+         return null;
+      }
 
-            return tourDataFromRawManager;
-         }
+      final TourData tourDataInEditor = _tourDataEditorInstance.getTourData();
+      if (tourDataInEditor != null && tourDataInEditor.getTourId().equals(requestedTourId)) {
 
          // cache tour data
-         _tourDataCache.put(tourDataFromDb.getTourId(), tourDataFromDb);
+         _tourDataCache.put(tourDataInEditor.getTourId(), tourDataInEditor);
+
+         return tourDataInEditor;
+      }
+
+      return null;
+   }
+
+   /**
+    * Get multiple tours from the tour editor, cache or database. Tours which are not in the cache
+    * are loaded in batches, each batch is loaded with one query and the batches are loaded
+    * concurrently.
+    *
+    * @param allTourIds
+    * @return Returns the tours in the same order as the tour ids, a tour is <code>null</code> when
+    *         it is not available
+    */
+   private TourData[] getTourData_Multiple(final List<Long> allTourIds) {
+
+      final int numTours = allTourIds.size();
+
+      final TourData[] allTourData = new TourData[numTours];
+      final List<Long> allNotCachedTourIds = new ArrayList<>();
+
+      for (int tourIndex = 0; tourIndex < numTours; tourIndex++) {
+
+         final Long tourId = allTourIds.get(tourIndex);
+
+         if (tourId == null) {
+            continue;
+         }
 
-         existingTourData = tourDataFromDb;
+         TourData tourData = getTourData_FromEditor(tourId);
+
+         if (tourData == null) {
+            tourData = _tourDataCache.get(tourId);
+         }
+
+         if (tourData == null) {
+            allNotCachedTourIds.add(tourId);
+         }
+
+         allTourData[tourIndex] = tourData;
       }
 
-      if (existingTourData != null) {
-         replaceTourInTourEditor(existingTourData);
+      if (allNotCachedTourIds.isEmpty()) {
+         return allTourData;
       }
 
-      return existingTourData;
+      // tours which are currently loaded by another thread are not loaded again
+      final Map<Long, TourData> allLoadedTourData = _tourDataCache.getOrLoadAll(allNotCachedTourIds, this::loadTourData_FromDb);
+
+      for (int tourIndex = 0; tourIndex < numTours; tourIndex++) {
+
+         if (allTourData[tourIndex] != null) {
+            continue;
+         }
+
+         final Long tourId = allTourIds.get(tourIndex);
+
+         if (tourId == null) {
+            continue;
+         }
+
+         final TourData tourDataFromDb = allLoadedTourData.get(tourId);
+
+         if (tourDataFromDb == null) {
+
+            // try to get tour from raw data manager
+            allTourData[tourIndex] = RawDataManager.getInstance().getImportedTours().get(tourId);
+
+         } else {
+
+            replaceTourInTourEditor(tourDataFromDb);
+
+            allTourData[tourIndex] = tourDataFromDb;
+         }
+      }
+
+      return allTourData;
    }
 
    /**
@@ -5688,6 +5807,62 @@ public class TourManager {
       return tourDataFromDb;
    }
 
+   /**
+    * Loads tours from the database, each batch of {@link TourDatabase#BATCH_SIZE_TOURS} is loaded
+    * with one query and the batches are loaded concurrently, so that the deserialization of the
+    * tour data is done with all processors.
+    *
+    * @param allTourIds
+    * @return Returns all loaded tours, key is the tour id
+    */
+   private Map<Long, TourData> loadTourData_FromDb(final List<Long> allTourIds) {
+
+      final int numTours = allTourIds.size();
+
+      // use all processors but do not split into too small batches
+      final int batchSize = Math.max(
+            Math.min((numTours + Util.NUMBER_OF_PROCESSORS - 1) / Util.NUMBER_OF_PROCESSORS, TourDatabase.BATCH_SIZE_TOURS),
+            Math.min(numTours, 10));
+
+      if (numTours <= batchSize) {
+         return TourDatabase.getToursFromDb(allTourIds);
+      }
+
+      final ConcurrentHashMap<Long, TourData> allLoadedTourData = new ConcurrentHashMap<>();
+
+      final int numBatches = (numTours + batchSize - 1) / batchSize;
+      final CountDownLatch countDownLatch = new CountDownLatch(numBatches);
+
+      for (int batchStart = 0; batchStart < numTours; batchStart += batchSize) {
+
+         final List<Long> allBatchTourIds = new ArrayList<>(allTourIds.subList(
+               batchStart,
+               Math.min(batchStart + batchSize, numTours)));
+
+         _loadingTour_Executor.submit(() -> {
+
+            try {
+
+               allLoadedTourData.putAll(TourDatabase.getToursFromDb(allBatchTourIds));
+
+            } catch (final Exception e) {
+               StatusUtil.log(e);
+            } finally {
+               countDownLatch.countDown();
+            }
+         });
+      }
+
+      try {
+         countDownLatch.await();
+      } catch (final InterruptedException e) {
+         StatusUtil.log(e);
+         Thread.currentThread().interrupt();
+      }
+
+      return allLoadedTourData;
+   }
+
    /**
     * Opens the tour for the given tour id
     *
@@ -5809,6 +5984,10 @@ public class TourManager {
       }
    }
 
+   public void resetTourDataLoadStatistics() {
+      _tourDataCache.resetStatistics();
+   }
+
    /**
     * Before the application is shut down, the tour save listeners are called to save unsaved data.
     *
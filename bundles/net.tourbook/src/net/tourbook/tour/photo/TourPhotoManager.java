@@ -31,6 +31,12 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import net.tourbook.Messages;
 import net.tourbook.application.TourbookPlugin;
@@ -112,8 +118,22 @@ public class TourPhotoManager implements IPhotoServiceProvider {
    public static final Comparator<? super Photo> AdjustTimeComparatorLink;
    public static final Comparator<? super Photo> AdjustTimeComparatorTour;
 
+   private static final ExecutorService          _tourGpsExecutor;
+
    static {
 
+      final ThreadFactory threadFactory = runnable -> {
+
+         final Thread thread = new Thread(runnable, "Setting tour GPS into photos");//$NON-NLS-1$
+
+         thread.setPriority(Thread.MIN_PRIORITY);
+         thread.setDaemon(true);
+
+         return thread;
+      };
+
+      _tourGpsExecutor = Executors.newFixedThreadPool(Util.NUMBER_OF_PROCESSORS, threadFactory);
+
       AdjustTimeComparatorLink = new Comparator<Photo>() {
 
          @Override
@@ -158,6 +178,38 @@ public class TourPhotoManager implements IPhotoServiceProvider {
       return _instance;
    }
 
+   /**
+    * @param timeSerie
+    *           Time serie in seconds, the values are ascending
+    * @param time
+    *           Relative time in seconds
+    * @return Returns the index of the last time slice which is before or at the time or -1 when
+    *         the time is before the first time slice
+    */
+   private static int getTimeSliceIndex(final int[] timeSerie, final double time) {
+
+      int lowIndex = 0;
+      int highIndex = timeSerie.length - 1;
+      int timeIndex = -1;
+
+      while (lowIndex <= highIndex) {
+
+         final int midIndex = (lowIndex + highIndex) >>> 1;
+
+         if (timeSerie[midIndex] <= time) {
+
+            timeIndex = midIndex;
+            lowIndex = midIndex + 1;
+
+         } else {
+
+            highIndex = midIndex - 1;
+         }
+      }
+
+      return timeIndex;
+   }
+
    public static TourPhotoLinkView openLinkView() {
 
 //      final IWorkbench wb = PlatformUI.getWorkbench();
@@ -953,14 +1005,13 @@ public class TourPhotoManager implements IPhotoServiceProvider {
                   + " NumberOfPhotos," + NL //                       5  //$NON-NLS-1$
                   + " PhotoTimeAdjustment," + NL //                  6  //$NON-NLS-1$
 
-                  + " TblPhoto.ImageFilePath" + NL //                7  //$NON-NLS-1$
+                  // get only one photo path for each tour, joining all photos returns a row for each photo
+                  + " (SELECT MIN(TblPhoto.ImageFilePath)" + NL //   7  //$NON-NLS-1$
+                  + "  FROM " + TourDatabase.TABLE_TOUR_PHOTO + " TblPhoto" + NL //        //$NON-NLS-1$ //$NON-NLS-2$
+                  + "  WHERE TblPhoto.TourData_TourId = TourData.TourId)" + NL //          //$NON-NLS-1$
 
                   + "FROM " + TourDatabase.TABLE_TOUR_DATA + NL //      //$NON-NLS-1$
 
-                  // get marker id's
-                  + "LEFT OUTER JOIN " + TourDatabase.TABLE_TOUR_PHOTO + " TblPhoto" //     //$NON-NLS-1$ //$NON-NLS-2$
-                  + " ON TourData.TourId = TblPhoto.TourData_TourId" + NL //                 //$NON-NLS-1$
-
                   + "WHERE" + NL //                                     //$NON-NLS-1$
                   + " TourStartTime >= ?" + NL //                       //$NON-NLS-1$
                   + " AND TourEndTime <= ?" + NL //                     //$NON-NLS-1$
@@ -979,48 +1030,34 @@ public class TourPhotoManager implements IPhotoServiceProvider {
          _sqlStatement.setLong(1, dbStartDate);
          _sqlStatement.setLong(2, dbEndDate);
 
-         long prevTourId = -1;
-
          final ResultSet result = _sqlStatement.executeQuery();
 
          while (result.next()) {
 
             final long dbTourId = result.getLong(1);
-
-            if (dbTourId == prevTourId) {
-
-               // additional result set's for the same tour: ignore additional photos
-
-            } else {
-
-               // first result set for a new tour
-
-               final long dbTourStart = result.getLong(2);
-               final long dbTourEnd = result.getLong(3);
-               final Object dbTourTypeId = result.getObject(4);
-               final int dbNumberOfPhotos = result.getInt(5);
-               final int dbPhotoTimeAdjustment = result.getInt(6);
-               final Object dbPhotoImageFilePath = result.getObject(7);
-
-               final TourPhotoLink dbPhotoLink = new TourPhotoLink(
-                     dbTourId,
-                     dbTourStart,
-                     dbTourEnd,
-                     dbNumberOfPhotos,
-                     dbPhotoTimeAdjustment);
-
-               dbPhotoLink.tourTypeId = dbTourTypeId == null
-                     ? TourDatabase.ENTITY_IS_NOT_SAVED
-                     : (Long) dbTourTypeId;
-
-               dbPhotoLink.photoFilePath = dbPhotoImageFilePath instanceof String
-                     ? (String) dbPhotoImageFilePath
-                     : null;
-
-               _allDbTourPhotoLinks.add(dbPhotoLink);
-            }
-
-            prevTourId = dbTourId;
+            final long dbTourStart = result.getLong(2);
+            final long dbTourEnd = result.getLong(3);
+            final Object dbTourTypeId = result.getObject(4);
+            final int dbNumberOfPhotos = result.getInt(5);
+            final int dbPhotoTimeAdjustment = result.getInt(6);
+            final Object dbPhotoImageFilePath = result.getObject(7);
+
+            final TourPhotoLink dbPhotoLink = new TourPhotoLink(
+                  dbTourId,
+                  dbTourStart,
+                  dbTourEnd,
+                  dbNumberOfPhotos,
+                  dbPhotoTimeAdjustment);
+
+            dbPhotoLink.tourTypeId = dbTourTypeId == null
+                  ? TourDatabase.ENTITY_IS_NOT_SAVED
+                  : (Long) dbTourTypeId;
+
+            dbPhotoLink.photoFilePath = dbPhotoImageFilePath instanceof String
+                  ? (String) dbPhotoImageFilePath
+                  : null;
+
+            _allDbTourPhotoLinks.add(dbPhotoLink);
          }
 
       } catch (final SQLException e) {
@@ -1650,14 +1687,64 @@ public class TourPhotoManager implements IPhotoServiceProvider {
 
    private void setTourGpsIntoPhotos(final List<TourPhotoLink> tourPhotoLinksWithGps) {
 
+      final List<TourPhotoLink> allLinksWithPhotos = new ArrayList<>();
+      final List<Long> allTourIds = new ArrayList<>();
+
       for (final TourPhotoLink tourPhotoLink : tourPhotoLinksWithGps) {
 
-         // set tour gps into photos
-         setTourGPSIntoPhotos_10(tourPhotoLink);
+         if (tourPhotoLink.linkPhotos.size() > 0) {
+
+            allLinksWithPhotos.add(tourPhotoLink);
+            allTourIds.add(tourPhotoLink.tourId);
+         }
+      }
+
+      // load all tours at once, tours which are not cached are loaded concurrently in batches
+      final List<TourData> allTourData = new ArrayList<>();
+      _tourManager.getTourData(allTourData, allTourIds);
+
+      /*
+       * Set tour gps into the photos of all tours concurrently, a photo is contained only in one
+       * tour
+       */
+      final List<Callable<Object>> allTasks = new ArrayList<>();
+
+      for (int linkIndex = 0; linkIndex < allLinksWithPhotos.size(); linkIndex++) {
+
+         final TourPhotoLink tourPhotoLink = allLinksWithPhotos.get(linkIndex);
+         final TourData tourData = allTourData.get(linkIndex);
+
+         allTasks.add(Executors.callable(() -> setTourGPSIntoPhotos_10(tourData, tourPhotoLink)));
+      }
+
+      if (allTasks.size() == 1) {
+
+         // run in the current thread
+         setTourGPSIntoPhotos_10(allTourData.get(0), allLinksWithPhotos.get(0));
+
+      } else if (allTasks.size() > 1) {
+
+         try {
+
+            for (final Future<Object> future : _tourGpsExecutor.invokeAll(allTasks)) {
+               future.get();
+            }
+
+         } catch (final InterruptedException | ExecutionException e) {
+
+            StatusUtil.log(e);
+
+            if (e instanceof InterruptedException) {
+               Thread.currentThread().interrupt();
+            }
+         }
+      }
+
+      /*
+       * Update number of photos
+       */
+      for (final TourPhotoLink tourPhotoLink : tourPhotoLinksWithGps) {
 
-         /*
-          * update number of photos
-          */
          tourPhotoLink.numGPSPhotos = 0;
          tourPhotoLink.numbNoGPSPhotos = 0;
 
@@ -1674,129 +1761,97 @@ public class TourPhotoManager implements IPhotoServiceProvider {
       }
    }
 
-   private void setTourGPSIntoPhotos_10(final TourPhotoLink tourPhotoLink) {
-
-      final ArrayList<Photo> allPhotos = tourPhotoLink.linkPhotos;
+   /**
+    * Set the tour geo position at the photo time into each photo, the time slice is searched with
+    * a binary search and the position is interpolated between the time slices.
+    *
+    * @param tourData
+    * @param tourPhotoLink
+    */
+   private void setTourGPSIntoPhotos_10(final TourData tourData, final TourPhotoLink tourPhotoLink) {
 
-      final int numberOfPhotos = allPhotos.size();
-      if (numberOfPhotos == 0) {
-         // no photos are available for this tour
+      if (tourData == null) {
          return;
       }
 
-      final TourData tourData = _tourManager.getTourData(tourPhotoLink.tourId);
-
       final double[] latitudeSerie = tourData.latitudeSerie;
       final double[] longitudeSerie = tourData.longitudeSerie;
+      final int[] timeSerie = tourData.timeSerie;
 
-      if (latitudeSerie == null) {
+      if (latitudeSerie == null || longitudeSerie == null || timeSerie == null || timeSerie.length == 0) {
          // no geo positions
          return;
       }
 
-      final int[] timeSerie = tourData.timeSerie;
-      final int numberOfTimeSlices = timeSerie.length;
+      final int lastTimeIndex = timeSerie.length - 1;
 
       final long tourStartSeconds = tourData.getTourStartTime().toInstant().getEpochSecond();
-      long timeSliceEnd;
 
-      if (numberOfTimeSlices > 1) {
-         timeSliceEnd = tourStartSeconds + (long) (timeSerie[1] / 2.0);
-      } else {
-         // tour contains only 1 time slice
-         timeSliceEnd = tourStartSeconds;
-      }
-
-      int timeIndex = 0;
-      int photoIndex = 0;
-
-      // get first photo
-      Photo photo = allPhotos.get(photoIndex);
+      for (final Photo photo : tourPhotoLink.linkPhotos) {
 
-      // loop: time serie
-      while (true) {
+         final long imageAdjustedTime = photo.adjustedTime_Camera;
+         long imageTime = 0;
 
-         // loop: photo serie, check if a photo is in the current time slice
-         while (true) {
-
-            final long imageAdjustedTime = photo.adjustedTime_Camera;
-            long imageTime = 0;
-
-            if (imageAdjustedTime != Long.MIN_VALUE) {
-               imageTime = imageAdjustedTime;
-            } else {
-               imageTime = photo.imageExifTime;
-            }
+         if (imageAdjustedTime != Long.MIN_VALUE) {
+            imageTime = imageAdjustedTime;
+         } else {
+            imageTime = photo.imageExifTime;
+         }
 
-            final long photoTime = imageTime / 1000;
+         // relative time in the tour
+         final double photoTime = imageTime / 1000.0 - tourStartSeconds;
 
-            if (photoTime <= timeSliceEnd) {
+         final int timeIndex = getTimeSliceIndex(timeSerie, photoTime);
 
-               // photo is contained within the current time slice
+         double tourLatitude;
+         double tourLongitude;
 
-               final double tourLatitude = latitudeSerie[timeIndex];
-               final double tourLongitude = longitudeSerie[timeIndex];
+         if (timeIndex < 0) {
 
-               setTourGPSIntoPhotos_20(tourData, photo, tourLatitude, tourLongitude);
+            // photo is before the tour start
 
-               photoIndex++;
+            tourLatitude = latitudeSerie[0];
+            tourLongitude = longitudeSerie[0];
 
-            } else {
+         } else if (timeIndex >= lastTimeIndex) {
 
-               // advance to the next time slice
+            // photo is after the tour end
 
-               break;
-            }
+            tourLatitude = latitudeSerie[lastTimeIndex];
+            tourLongitude = longitudeSerie[lastTimeIndex];
 
-            if (photoIndex < numberOfPhotos) {
-               photo = allPhotos.get(photoIndex);
-            } else {
-               break;
-            }
-         }
-
-         if (photoIndex >= numberOfPhotos) {
-            // no more photos
-            break;
-         }
+         } else {
 
-         /*
-          * photos are still available
-          */
+            final int time1 = timeSerie[timeIndex];
+            final int time2 = timeSerie[timeIndex + 1];
 
-         // advance to the next time slice on the x-axis
-         timeIndex++;
+            final double latitude1 = latitudeSerie[timeIndex];
+            final double latitude2 = latitudeSerie[timeIndex + 1];
+            final double longitude1 = longitudeSerie[timeIndex];
+            final double longitude2 = longitudeSerie[timeIndex + 1];
 
-         if (timeIndex >= numberOfTimeSlices - 1) {
+            final double ratio = time2 == time1
+                  ? 0
+                  : (photoTime - time1) / (time2 - time1);
 
-            /*
-             * end of tour is reached but there are still photos available, set remaining photos
-             * at the end of the tour
-             */
+            final boolean isGeoMissing = latitude1 == 0 && longitude1 == 0
+                  || latitude2 == 0 && longitude2 == 0;
 
-            while (true) {
+            if (isGeoMissing) {
 
-               final double tourLatitude = latitudeSerie[timeIndex];
-               final double tourLongitude = longitudeSerie[timeIndex];
+               // do not interpolate with a missing position, use the nearest time slice
 
-               setTourGPSIntoPhotos_20(tourData, photo, tourLatitude, tourLongitude);
+               tourLatitude = ratio < 0.5 ? latitude1 : latitude2;
+               tourLongitude = ratio < 0.5 ? longitude1 : longitude2;
 
-               photoIndex++;
+            } else {
 
-               if (photoIndex < numberOfPhotos) {
-                  photo = allPhotos.get(photoIndex);
-               } else {
-                  break;
-               }
+               tourLatitude = latitude1 + (latitude2 - latitude1) * ratio;
+               tourLongitude = longitude1 + (longitude2 - longitude1) * ratio;
             }
-
-         } else {
-
-            final long valuePointTime = timeSerie[timeIndex];
-            final long sliceDuration = timeSerie[timeIndex + 1] - valuePointTime;
-
-            timeSliceEnd = tourStartSeconds + valuePointTime + (sliceDuration / 2);
          }
+
+         setTourGPSIntoPhotos_20(tourData, photo, tourLatitude, tourLongitude);
       }
    }
 
@@ -2161,7 +2161,9 @@ public class TourChart extends Chart implements ITourProvider, ITourMarkerUpdate
          int tourSerieIndex = 0;
          int numberOfPauses = 0;
          long tourStartTime = 0;
-         final List<List<Long>> allTourPauses = _tourData.multipleTourPauses;
+         final long[] allPausedTime_Start = _tourData.multipleTourPausedTime_Start;
+         final long[] allPausedTime_End = _tourData.multipleTourPausedTime_End;
+         final long[] allPausedTime_Data = _tourData.multipleTourPausedTime_Data;
          int currentTourPauseIndex = 0;
 
          for (int tourIndex = 0; tourIndex < numTours; ++tourIndex) {
@@ -2174,9 +2176,9 @@ public class TourChart extends Chart implements ITourProvider, ITourMarkerUpdate
 
             for (int relativeTourPauseIndex = 0; relativeTourPauseIndex < numberOfPauses; ++relativeTourPauseIndex) {
 
-               final long pausedTime_Start = allTourPauses.get(currentTourPauseIndex).get(0);
-               final long pausedTime_End = allTourPauses.get(currentTourPauseIndex).get(1);
-               final long pausedTime_Data = allTourPauses.get(currentTourPauseIndex).get(2);
+               final long pausedTime_Start = allPausedTime_Start[currentTourPauseIndex];
+               final long pausedTime_End = allPausedTime_End[currentTourPauseIndex];
+               final long pausedTime_Data = allPausedTime_Data[currentTourPauseIndex];
 
                long previousTourElapsedTime = 0;
                if (tourIndex > 0) {
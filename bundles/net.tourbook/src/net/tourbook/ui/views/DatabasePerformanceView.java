@@ -0,0 +1,322 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package net.tourbook.ui.views;
+
+import net.tourbook.Messages;
+import net.tourbook.common.UI;
+import net.tourbook.database.SQLProfiler;
+import net.tourbook.database.SQLProfiler.SQLStatistic;
+import net.tourbook.tour.TourManager;
+
+import org.eclipse.jface.layout.GridDataFactory;
+import org.eclipse.jface.layout.GridLayoutFactory;
+import org.eclipse.jface.layout.TableColumnLayout;
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.CellLabelProvider;
+import org.eclipse.jface.viewers.ColumnPixelData;
+import org.eclipse.jface.viewers.ColumnWeightData;
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.jface.viewers.TableViewerColumn;
+import org.eclipse.jface.viewers.ViewerCell;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.SashForm;
+import org.eclipse.swt.events.SelectionListener;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.Text;
+import org.eclipse.ui.part.ViewPart;
+
+/**
+ * Displays the slowest SQL statements which are recorded by the {@link SQLProfiler} and the tour
+ * load statistics of the tour data cache
+ */
+public class DatabasePerformanceView extends ViewPart {
+
+   public static final String ID             = "net.tourbook.ui.views.DatabasePerformanceView"; //$NON-NLS-1$
+
+   private static final int   MAX_STATEMENTS = 100;
+
+   private static final char  NL             = UI.NEW_LINE;
+
+   /*
+    * UI controls
+    */
+   private Button      _chkCaptureQueryPlans;
+   private Button      _chkProfiling;
+
+   private Label       _lblPoolStatistics;
+   private Label       _lblTourLoadStatistics;
+
+   private TableViewer _statementViewer;
+   private Text        _txtStatement;
+
+   private abstract class StatisticLabelProvider extends CellLabelProvider {
+
+      abstract String getText(SQLStatistic statistic);
+
+      @Override
+      public void update(final ViewerCell cell) {
+         cell.setText(getText((SQLStatistic) cell.getElement()));
+      }
+   }
+
+   private TableViewerColumn createColumn(final TableColumnLayout tableLayout,
+                                          final String text,
+                                          final int style,
+                                          final int width,
+                                          final StatisticLabelProvider labelProvider) {
+
+      final TableViewerColumn tvc = new TableViewerColumn(_statementViewer, style);
+
+      tvc.getColumn().setText(text);
+      tvc.setLabelProvider(labelProvider);
+
+      tableLayout.setColumnData(tvc.getColumn(), width == 0
+            ? new ColumnWeightData(1, true)
+            : new ColumnPixelData(width, true));
+
+      return tvc;
+   }
+
+   @Override
+   public void createPartControl(final Composite parent) {
+
+      createUI(parent);
+
+      restoreState();
+   }
+
+   private void createUI(final Composite parent) {
+
+      final Composite container = new Composite(parent, SWT.NONE);
+      GridLayoutFactory.swtDefaults().applyTo(container);
+      {
+         createUI_10_Options(container);
+
+         _lblPoolStatistics = new Label(container, SWT.NONE);
+         _lblPoolStatistics.setToolTipText(Messages.Database_Performance_Label_PoolWait_Tooltip);
+         GridDataFactory.fillDefaults().grab(true, false).applyTo(_lblPoolStatistics);
+
+         _lblTourLoadStatistics = new Label(container, SWT.NONE);
+         GridDataFactory.fillDefaults().grab(true, false).applyTo(_lblTourLoadStatistics);
+
+         final SashForm sash = new SashForm(container, SWT.VERTICAL);
+         GridDataFactory.fillDefaults().grab(true, true).applyTo(sash);
+         {
+            createUI_20_Statements(sash);
+
+            _txtStatement = new Text(sash, SWT.READ_ONLY | SWT.MULTI | SWT.BORDER | SWT.V_SCROLL | SWT.H_SCROLL);
+         }
+         sash.setWeights(new int[] { 3, 2 });
+      }
+   }
+
+   private void createUI_10_Options(final Composite parent) {
+
+      final Composite container = new Composite(parent, SWT.NONE);
+      GridDataFactory.fillDefaults().grab(true, false).applyTo(container);
+      GridLayoutFactory.fillDefaults().numColumns(4).applyTo(container);
+      {
+         {
+            /*
+             * Profiling
+             */
+            _chkProfiling = new Button(container, SWT.CHECK);
+            _chkProfiling.setText(Messages.Database_Performance_Checkbox_Profiling);
+            _chkProfiling.addSelectionListener(SelectionListener.widgetSelectedAdapter(selectionEvent -> onSelectOptions()));
+         }
+         {
+            /*
+             * Query plans
+             */
+            _chkCaptureQueryPlans = new Button(container, SWT.CHECK);
+            _chkCaptureQueryPlans.setText(Messages.Database_Performance_Checkbox_CaptureQueryPlans);
+            _chkCaptureQueryPlans.setToolTipText(Messages.Database_Performance_Checkbox_CaptureQueryPlans_Tooltip);
+            _chkCaptureQueryPlans.addSelectionListener(SelectionListener.widgetSelectedAdapter(selectionEvent -> onSelectOptions()));
+            GridDataFactory.fillDefaults().grab(true, false).applyTo(_chkCaptureQueryPlans);
+         }
+         {
+            /*
+             * Refresh
+             */
+            final Button btnRefresh = new Button(container, SWT.PUSH);
+            btnRefresh.setText(Messages.Database_Performance_Button_Refresh);
+            btnRefresh.addSelectionListener(SelectionListener.widgetSelectedAdapter(selectionEvent -> updateUI_Statistics()));
+         }
+         {
+            /*
+             * Reset
+             */
+            final Button btnReset = new Button(container, SWT.PUSH);
+            btnReset.setText(Messages.Database_Performance_Button_Reset);
+            btnReset.addSelectionListener(SelectionListener.widgetSelectedAdapter(selectionEvent -> onReset()));
+         }
+      }
+   }
+
+   private void createUI_20_Statements(final Composite parent) {
+
+      final TableColumnLayout tableLayout = new TableColumnLayout();
+
+      final Composite layoutContainer = new Composite(parent, SWT.NONE);
+      layoutContainer.setLayout(tableLayout);
+
+      final Table table = new Table(layoutContainer, SWT.FULL_SELECTION | SWT.BORDER);
+      table.setHeaderVisible(true);
+      table.setLinesVisible(true);
+
+      _statementViewer = new TableViewer(table);
+      _statementViewer.setContentProvider(ArrayContentProvider.getInstance());
+      _statementViewer.addSelectionChangedListener(selectionChangedEvent -> updateUI_SelectedStatement());
+
+      createColumn(tableLayout, Messages.Database_Performance_Column_Total, SWT.TRAIL, 70, new StatisticLabelProvider() {
+         @Override
+         String getText(final SQLStatistic statistic) {
+            return String.format("%.1f", statistic.getSumMs()); //$NON-NLS-1$
+         }
+      });
+
+      createColumn(tableLayout, Messages.Database_Performance_Column_Executions, SWT.TRAIL, 60, new StatisticLabelProvider() {
+         @Override
+         String getText(final SQLStatistic statistic) {
+            return Long.toString(statistic.getNumExecutions());
+         }
+      });
+
+      createColumn(tableLayout, Messages.Database_Performance_Column_Avg, SWT.TRAIL, 60, new StatisticLabelProvider() {
+         @Override
+         String getText(final SQLStatistic statistic) {
+            return String.format("%.2f", statistic.getAvgMs()); //$NON-NLS-1$
+         }
+      });
+
+      createColumn(tableLayout, Messages.Database_Performance_Column_Max, SWT.TRAIL, 60, new StatisticLabelProvider() {
+         @Override
+         String getText(final SQLStatistic statistic) {
+            return String.format("%.1f", statistic.getMaxMs()); //$NON-NLS-1$
+         }
+      });
+
+      createColumn(tableLayout, Messages.Database_Performance_Column_Rows, SWT.TRAIL, 70, new StatisticLabelProvider() {
+         @Override
+         String getText(final SQLStatistic statistic) {
+            return Long.toString(statistic.getNumRows());
+         }
+      });
+
+      createColumn(tableLayout, Messages.Database_Performance_Column_Histogram, SWT.LEAD, 120, new StatisticLabelProvider() {
+         @Override
+         String getText(final SQLStatistic statistic) {
+            return SQLProfiler.formatHistogram(statistic.getHistogram());
+         }
+      }).getColumn().setToolTipText(Messages.Database_Performance_Column_Histogram_Tooltip);
+
+      createColumn(tableLayout, Messages.Database_Performance_Column_Caller, SWT.LEAD, 200, new StatisticLabelProvider() {
+         @Override
+         String getText(final SQLStatistic statistic) {
+            return statistic.callerClass;
+         }
+      });
+
+      createColumn(tableLayout, Messages.Database_Performance_Column_SQL, SWT.LEAD, 0, new StatisticLabelProvider() {
+         @Override
+         String getText(final SQLStatistic statistic) {
+
+            // display the statement in one line
+            return statistic.sql.replaceAll("\\s+", UI.SPACE1); //$NON-NLS-1$
+         }
+      });
+   }
+
+   @Override
+   public void dispose() {
+
+      // the profiler is used only with this view
+      SQLProfiler.setEnabled(false);
+      SQLProfiler.setCaptureQueryPlans(false);
+
+      super.dispose();
+   }
+
+   private void onReset() {
+
+      SQLProfiler.reset();
+      TourManager.getInstance().resetTourDataLoadStatistics();
+
+      updateUI_Statistics();
+   }
+
+   private void onSelectOptions() {
+
+      SQLProfiler.setEnabled(_chkProfiling.getSelection());
+      SQLProfiler.setCaptureQueryPlans(_chkCaptureQueryPlans.getSelection());
+
+      _chkCaptureQueryPlans.setEnabled(_chkProfiling.getSelection());
+   }
+
+   private void restoreState() {
+
+      _chkProfiling.setSelection(SQLProfiler.isEnabled());
+      _chkCaptureQueryPlans.setSelection(SQLProfiler.isCaptureQueryPlans());
+
+      _chkCaptureQueryPlans.setEnabled(_chkProfiling.getSelection());
+
+      updateUI_Statistics();
+   }
+
+   @Override
+   public void setFocus() {
+      _statementViewer.getTable().setFocus();
+   }
+
+   private void updateUI_SelectedStatement() {
+
+      final Object firstElement = ((IStructuredSelection) _statementViewer.getSelection()).getFirstElement();
+
+      if (firstElement instanceof SQLStatistic == false) {
+
+         _txtStatement.setText(UI.EMPTY_STRING);
+         return;
+      }
+
+      final SQLStatistic statistic = (SQLStatistic) firstElement;
+      final String queryPlan = statistic.getQueryPlan();
+
+      final String text = UI.EMPTY_STRING
+
+            + statistic.callerClass + NL
+            + NL
+            + statistic.sql.trim() + NL
+            + (queryPlan == null ? UI.EMPTY_STRING : NL + queryPlan);
+
+      // the query plan contains also line breaks
+      _txtStatement.setText(text.replaceAll("\\r?\\n", UI.NEW_LINE_TEXT_WIDGET)); //$NON-NLS-1$
+   }
+
+   private void updateUI_Statistics() {
+
+      _lblPoolStatistics.setText(SQLProfiler.getPoolStatistics());
+      _lblTourLoadStatistics.setText(TourManager.getInstance().getTourDataLoadStatistics());
+      _lblPoolStatistics.getParent().layout(true, true);
+
+      _statementViewer.setInput(SQLProfiler.getTopStatistics(MAX_STATEMENTS).toArray());
+
+      updateUI_SelectedStatement();
+   }
+}
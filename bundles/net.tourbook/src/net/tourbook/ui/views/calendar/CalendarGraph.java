@@ -1064,6 +1064,9 @@ public class CalendarGraph extends Canvas implements ITourProviderAll {
 
       _calendarView.updateUI_Title(_calendarFirstDay, _calendarLastDay);
 
+      // load the next tours before they are scrolled into the viewport
+      _dataProvider.prefetch(_calendarFirstDay, _calendarLastDay);
+
       for (int columnIndex = 0; columnIndex < _numYearColumns; columnIndex++) {
 
          _nextWeekDateYPos = 0;
@@ -3206,6 +3209,19 @@ public class CalendarGraph extends Canvas implements ITourProviderAll {
       redraw();
    }
 
+   /**
+    * Reload only the tours which are in the same blocks as the modified tours
+    *
+    * @param allModifiedTours
+    */
+   void refreshCalendar(final List<TourData> allModifiedTours) {
+
+      _dataProvider.invalidateTours(allModifiedTours);
+      _isGraphDirty = true;
+
+      redraw();
+   }
+
    public void removeSelection() {
 
       if (!_selectedItem.equals(_emptyItem)) {
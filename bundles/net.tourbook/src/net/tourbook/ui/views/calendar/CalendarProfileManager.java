@@ -308,6 +308,7 @@ public class CalendarProfileManager {
    private static final DataFormatter _weekFormatter_Time_Paused;
    private static final DataFormatter _weekFormatter_Time_Moving;
    private static final DataFormatter _weekFormatter_Time_Break;
+   private static final DataFormatter _weekFormatter_TrainingStressScore;
 
    static final DataFormatter[]       allTourContentFormatter;
    static final DataFormatter[]       allWeekFormatter;
@@ -390,6 +391,7 @@ public class CalendarProfileManager {
       _weekFormatter_Pace                          = createFormatter_Pace();
       _weekFormatter_Speed                         = createFormatter_Speed();
       _weekFormatter_CadenceZones_TimePercentages  = createFormatter_CadenceZones_TimePercentages();
+      _weekFormatter_TrainingStressScore           = createFormatter_TrainingStressScore();
 
       _weekFormatter_Energy_kcal                   = createFormatter_Energy_kcal();
       _weekFormatter_Energy_MJ                     = createFormatter_Energy_MJ();
@@ -411,6 +413,7 @@ public class CalendarProfileManager {
             _weekFormatter_Speed,
             _weekFormatter_Pace,
             _weekFormatter_CadenceZones_TimePercentages,
+            _weekFormatter_TrainingStressScore,
 
             _weekFormatter_Energy_kcal,
             _weekFormatter_Energy_MJ,
@@ -1771,6 +1774,62 @@ public class CalendarProfileManager {
    /**
     * Weather Icon
     */
+   /**
+    * Training stress score, it is summarized for a week
+    *
+    * @return
+    */
+   private static DataFormatter createFormatter_TrainingStressScore() {
+
+      final DataFormatter dataFormatter = new DataFormatter(
+            FormatterID.TRAINING_STRESS_SCORE,
+            Messages.Calendar_Profile_Value_TrainingStressScore,
+            GraphColorManager.PREF_GRAPH_POWER) {
+
+         @Override
+         String format(final CalendarTourData data, final ValueFormat valueFormat, final boolean isShowValueUnit) {
+
+            if (data.trainingStressScore > 0) {
+
+               final String valueText = valueFormatter.printDouble(data.trainingStressScore);
+
+               return isShowValueUnit
+                     ? valueText + UI.SPACE + net.tourbook.ui.Messages.ColumnFactory_Power_TrainingStressScore_Header + UI.SPACE
+                     : valueText + UI.SPACE;
+
+            } else {
+               return UI.EMPTY_STRING;
+            }
+         }
+
+         @Override
+         public ValueFormat getDefaultFormat() {
+            return ValueFormat.NUMBER_1_0;
+         }
+
+         @Override
+         public ValueFormat[] getValueFormats() {
+
+            return new ValueFormat[] {
+
+                  ValueFormat.NUMBER_1_0,
+                  ValueFormat.NUMBER_1_1 };
+         }
+
+         @Override
+         void setValueFormat(final ValueFormat valueFormat) {
+
+            valueFormatId = valueFormat;
+            valueFormatter = getFormatter_Number(valueFormat.name());
+         }
+      };
+
+      // setup default formatter
+      dataFormatter.setValueFormat(dataFormatter.getDefaultFormat());
+
+      return dataFormatter;
+   }
+
    private static DataFormatter createFormatter_Weather_Icon() {
 
       final DataFormatter dataFormatter = new DataFormatter(
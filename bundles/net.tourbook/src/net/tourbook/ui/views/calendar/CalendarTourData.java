@@ -51,6 +51,8 @@ public class CalendarTourData {
    float           power_Avg;
    float           pulse_Avg;
 
+   float           trainingStressScore;
+
    String          tourTitle;
    String          tourDescription;
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (C) 2011, 2022 Matthias Helmling and Contributors
+ * Copyright (C) 2011, 2023 Matthias Helmling and Contributors
  *
  * This program is free software; you can redistribute it and/or modify it under
  * the terms of the GNU General Public License as published by the Free Software
@@ -21,14 +21,20 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
 import java.time.temporal.WeekFields;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
 
 import net.tourbook.common.UI;
 import net.tourbook.common.time.TimeTools;
@@ -36,24 +42,41 @@ import net.tourbook.common.util.StatusUtil;
 import net.tourbook.data.TourData;
 import net.tourbook.data.TourType;
 import net.tourbook.database.TourDatabase;
+import net.tourbook.database.TourDayAggregates;
+import net.tourbook.database.TourDayAggregates.DayAggregate;
 import net.tourbook.tag.tour.filter.TourTagFilterManager;
 import net.tourbook.tag.tour.filter.TourTagFilterSqlJoinBuilder;
 import net.tourbook.ui.SQLFilter;
 
-import org.eclipse.collections.impl.list.mutable.primitive.FloatArrayList;
-
 public class CalendarTourDataProvider {
 
-   private static final char                            NL                = UI.NEW_LINE;
+   private static final char                NL                = UI.NEW_LINE;
+
+   /**
+    * A year is loaded in 4 blocks, one block contains 3 months or 14 weeks which are loaded with
+    * one SQL statement
+    */
+   private static final int                 BLOCKS_PER_YEAR   = 4;
+   private static final int                 MONTHS_PER_BLOCK  = 3;
+   private static final int                 WEEKS_PER_BLOCK   = 14;
 
-   private static CalendarTourDataProvider              _instance;
+   /**
+    * Max number of cached day or week blocks, 100 blocks are 25 years
+    */
+   private static final int                 MAX_CACHED_BLOCKS = 100;
 
-   private static final AtomicLong                      _weekExecuterId   = new AtomicLong();
-   private static final LinkedBlockingDeque<WeekLoader> _weekWaitingQueue = new LinkedBlockingDeque<>();
+   /**
+    * Returned when the week block is not yet loaded
+    */
+   private static final CalendarTourData    WEEK_DATA_QUEUED  = new CalendarTourData();
 
-   private static ThreadPoolExecutor                    _weekLoadingExecutor;
+   private static CalendarTourDataProvider  _instance;
+
+   private static final ThreadPoolExecutor  _blockLoadingExecutor;
    static {
 
+      WEEK_DATA_QUEUED.loadingState = LoadingState.IS_QUEUED;
+
       final ThreadFactory threadFactoryFolder = runnable -> {
 
          final Thread thread = new Thread(runnable, "LoadingCalendarData");//$NON-NLS-1$
@@ -64,21 +87,75 @@ public class CalendarTourDataProvider {
          return thread;
       };
 
-      _weekLoadingExecutor = (ThreadPoolExecutor) Executors.newFixedThreadPool(10, threadFactoryFolder);
+      _blockLoadingExecutor = (ThreadPoolExecutor) Executors.newFixedThreadPool(10, threadFactoryFolder);
    }
 
-   private CalendarGraph                            _calendarGraph;
+   private CalendarGraph                                                 _calendarGraph;
 
-   private HashMap<Integer, CalendarTourData[][][]> _dayCache  = new HashMap<>();
-   private HashMap<Integer, CalendarTourData[]>     _weekCache = new HashMap<>();
+   /**
+    * Day data of {@link #MONTHS_PER_BLOCK} months, the key is created with
+    * {@link #getBlockKey(int, int)}.
+    * <p>
+    * The cache contains the loading futures, so that a block is loaded only once even when it is
+    * requested by the UI and the prefetching at the same time.
+    */
+   private final Map<Integer, CompletableFuture<CalendarTourData[][][]>> _dayBlockCache       = createBlockCache();
 
-   private LocalDateTime                            _firstTourDateTime;
-   private Long                                     _firstTourId;
+   /**
+    * Week summaries of {@link #WEEKS_PER_BLOCK} weeks
+    */
+   private final Map<Integer, CompletableFuture<CalendarTourData[]>>     _weekBlockCache      = createBlockCache();
+
+   /**
+    * Day and week block key of all loaded tours, they are used to invalidate only the blocks of
+    * modified tours
+    */
+   private final Map<Long, int[]>                                        _allTourBlockKeys    = new ConcurrentHashMap<>();
+
+   /**
+    * First visible day of the previous drawing, it defines the scroll direction for the
+    * prefetching
+    */
+   private LocalDate                                                     _prevFirstVisibleDay;
+
+   /**
+    * Range of the week blocks which are displayed, the calendar is redrawn only when one of these
+    * blocks is loaded but not when a prefetched block is loaded
+    */
+   private volatile int                                                  _firstVisibleWeekBlockKey;
+   private volatile int                                                  _lastVisibleWeekBlockKey;
+
+   private volatile LocalDateTime                                        _firstTourDateTime;
+   private volatile Long                                                 _firstTourId;
 
    private CalendarTourDataProvider() {
       invalidate();
    }
 
+   /**
+    * @return Returns a size bounded cache which removes the least recently used blocks
+    */
+   private static <T> Map<Integer, CompletableFuture<T>> createBlockCache() {
+
+      return Collections.synchronizedMap(new LinkedHashMap<>(MAX_CACHED_BLOCKS, 0.75f, true) {
+
+         private static final long serialVersionUID = 1L;
+
+         @Override
+         protected boolean removeEldestEntry(final Map.Entry<Integer, CompletableFuture<T>> eldest) {
+            return size() > MAX_CACHED_BLOCKS;
+         }
+      });
+   }
+
+   private static int getBlockKey(final int year, final int blockIndex) {
+      return year * BLOCKS_PER_YEAR + blockIndex;
+   }
+
+   private static int getDayBlockKey(final LocalDate date) {
+      return getBlockKey(date.getYear(), (date.getMonthValue() - 1) / MONTHS_PER_BLOCK);
+   }
+
    static CalendarTourDataProvider getInstance() {
 
       if (_instance == null) {
@@ -88,35 +165,108 @@ public class CalendarTourDataProvider {
       return _instance;
    }
 
-   CalendarTourData[] getCalendarDayData(final LocalDate currentDate) {
+   /**
+    * @param date
+    * @return Returns the key of the week block, weeks are from 1..53, yes a year can have more
+    *         than 52 weeks
+    */
+   private static int getWeekBlockKey(final LocalDate date) {
+
+      final WeekFields cw = TimeTools.calendarWeek;
+
+      final int weekYear = date.get(cw.weekBasedYear());
+      final int week = date.get(cw.weekOfWeekBasedYear());
+
+      return getBlockKey(weekYear, (week - 1) / WEEKS_PER_BLOCK);
+   }
 
-      final int year = currentDate.getYear();
-      final int month = currentDate.getMonthValue();
-      final int day = currentDate.getDayOfMonth();
+   /**
+    * Get a block from the cache or start loading it. When the block is already loading, then the
+    * same loading is returned.
+    *
+    * @param blockCache
+    * @param blockKey
+    * @param isLoadAsync
+    *           When <code>true</code> then the block is loaded in the background, otherwise in
+    *           the current thread
+    * @param blockLoader
+    * @param afterLoading
+    *           Is run after the block is successfully loaded, can be <code>null</code>
+    * @return Returns the block which is completed when it is loaded
+    */
+   private <T> CompletableFuture<T> getBlock(final Map<Integer, CompletableFuture<T>> blockCache,
+                                             final int blockKey,
+                                             final boolean isLoadAsync,
+                                             final IntFunction<T> blockLoader,
+                                             final Runnable afterLoading) {
 
-      if (!_dayCache.containsKey(year)) {
+      final CompletableFuture<T> newBlock = new CompletableFuture<>();
+      final CompletableFuture<T> cachedBlock = blockCache.putIfAbsent(blockKey, newBlock);
 
-         // create year data
-         _dayCache.put(year, new CalendarTourData[12][][]);
+      if (cachedBlock != null) {
+         return cachedBlock;
       }
 
-      CalendarTourData[][] monthData = _dayCache.get(year)[month - 1];
+      final Runnable loadingTask = () -> {
+
+         try {
+
+            newBlock.complete(blockLoader.apply(blockKey));
+
+         } catch (final Exception e) {
 
-      if (monthData == null) {
+            // load again with the next request
+            blockCache.remove(blockKey, newBlock);
 
-         // load month data
+            newBlock.completeExceptionally(e);
 
-         final CalendarTourData[][] loadedMonthData = loadFromDb_Month(year, month);
+            StatusUtil.log(e);
 
-         _dayCache.get(year)[month - 1] = loadedMonthData;
+            // a redraw would request the failed block again and again
+            return;
+         }
 
-         monthData = loadedMonthData;
+         if (afterLoading != null) {
+            afterLoading.run();
+         }
+      };
+
+      if (isLoadAsync) {
+         _blockLoadingExecutor.submit(loadingTask);
+      } else {
+         loadingTask.run();
       }
 
-      final CalendarTourData[] dayData = monthData[day - 1];
+      return newBlock;
+   }
+
+   /**
+    * @param currentDate
+    * @return Returns the tours of the day, the day block is loaded in the UI thread when it is not
+    *         yet loaded
+    */
+   CalendarTourData[] getCalendarDayData(final LocalDate currentDate) {
+
+      final CalendarTourData[][][] dayBlock;
+
+      try {
+
+         dayBlock = getBlock(
+               _dayBlockCache,
+               getDayBlockKey(currentDate),
+               false,
+               this::loadFromDb_DayBlock,
+               null).join();
+
+      } catch (final CompletionException e) {
 
-      return dayData;
+         // the block could also be loaded by the prefetching, the day is displayed without tours
+         StatusUtil.log(e.getCause());
 
+         return new CalendarTourData[0];
+      }
+
+      return dayBlock[(currentDate.getMonthValue() - 1) % MONTHS_PER_BLOCK][currentDate.getDayOfMonth() - 1];
    }
 
    LocalDateTime getCalendarTourDateTime(final Long tourId) {
@@ -165,78 +315,22 @@ public class CalendarTourDataProvider {
       return dt;
    }
 
+   /**
+    * @param week1stDay
+    * @return Returns the week summary or {@link #WEEK_DATA_QUEUED} when the week is not yet loaded,
+    *         the calendar is updated when it is loaded
+    */
    public CalendarTourData getCalendarWeekSummaryData(final LocalDate week1stDay) {
 
-      final WeekFields cw = TimeTools.calendarWeek;
-
-      final int year = week1stDay.get(cw.weekBasedYear());
-      final int week = week1stDay.get(cw.weekOfWeekBasedYear());
-
-      if (!_weekCache.containsKey(year)) {
+      final CompletableFuture<CalendarTourData[]> weekBlock = getWeekBlock(getWeekBlockKey(week1stDay));
 
-         /*
-          * Create year, weeks are from 1..53; we simply leave array index 0 unused (yes, a year
-          * can have more than 52 weeks)
-          */
-         _weekCache.put(year, new CalendarTourData[54]);
+      if (weekBlock.isDone() == false || weekBlock.isCompletedExceptionally()) {
+         return WEEK_DATA_QUEUED;
       }
 
-      CalendarTourData weekData;
-
-      final CalendarTourData cachedWeekData = _weekCache.get(year)[week];
-
-      if (cachedWeekData == null) {
-
-         weekData = getCalendarWeekSummaryData_FromDb(week1stDay, year, week);
-
-         _weekCache.get(year)[week] = weekData;
-
-      } else if (cachedWeekData.loadingState == LoadingState.NOT_LOADED) {
-
-         // load again
-
-         weekData = getCalendarWeekSummaryData_FromDb(week1stDay, year, week);
-
-         // update cached data otherwise an endless loop occurs !!!
-         _weekCache.get(year)[week] = weekData;
-
-      } else {
-
-         weekData = cachedWeekData;
-      }
-
-      return weekData;
-
-   }
-
-   private CalendarTourData getCalendarWeekSummaryData_FromDb(final LocalDate week1stDay,
-                                                              final int year,
-                                                              final int week) {
-
-      final CalendarTourData weekData = new CalendarTourData();
-
-      weekData.loadingState = LoadingState.IS_QUEUED;
-
-      _weekWaitingQueue.add(new WeekLoader(week1stDay, year, week, weekData, _weekExecuterId.get()));
-
-      final Runnable executorTask = () -> {
-
-         // get last added loader item
-         final WeekLoader weekLoader = _weekWaitingQueue.pollFirst();
-
-         if (weekLoader == null) {
-            return;
-         }
-
-         if (loadFromDB_Week(weekLoader)) {
-            _calendarGraph.updateUI_AfterDataLoading();
-         }
-      };
-
-      _weekLoadingExecutor.submit(executorTask);
-
-      return weekData;
+      final int week = week1stDay.get(TimeTools.calendarWeek.weekOfWeekBasedYear());
 
+      return weekBlock.join()[(week - 1) % WEEKS_PER_BLOCK];
    }
 
    /**
@@ -363,79 +457,89 @@ public class CalendarTourDataProvider {
       return todayTourId;
    }
 
-   synchronized void invalidate() {
+   private CompletableFuture<CalendarTourData[]> getWeekBlock(final int blockKey) {
+
+      return getBlock(
+            _weekBlockCache,
+            blockKey,
+            true,
+            this::loadFromDb_WeekBlock,
+
+            // the week summaries are drawn when they are loaded
+            () -> updateUI_AfterWeekBlockLoading(blockKey));
+   }
+
+   void invalidate() {
 
-      // reset all cached data
+      // reset all cached data, blocks which are currently loaded are not cached any more
 
-      // stop week downloader
-      _weekExecuterId.incrementAndGet();
+      _dayBlockCache.clear();
+      _weekBlockCache.clear();
 
-      _dayCache.clear();
-      _weekCache.clear();
+      _allTourBlockKeys.clear();
 
       _firstTourDateTime = null;
       _firstTourId = null;
    }
 
    /**
-    * Retrieve data for 1 month from the database
+    * Reset only the cached blocks which contain the modified tours.
     *
-    * @param year
-    * @param month
-    * @param day
-    * @return CalendarTourData
+    * @param allModifiedTours
     */
-   private CalendarTourData[][] loadFromDb_Month(final int year, final int month) {
+   void invalidateTours(final List<TourData> allModifiedTours) {
 
-//      final long start = System.currentTimeMillis();
-
-      CalendarTourData[][] monthData = null;
-      CalendarTourData[] dayData = null;
+      for (final TourData tourData : allModifiedTours) {
 
-      String sql = null;
+         // remove the blocks where the tour was loaded
+         final int[] blockKeys = _allTourBlockKeys.remove(tourData.getTourId());
 
-      try (Connection conn = TourDatabase.getInstance().getConnection()) {
+         if (blockKeys != null) {
 
-         final int colorOffset = 1;
-
-         final ArrayList<TourType> tourTypeList = TourDatabase.getAllTourTypes();
-         final TourType[] tourTypes = tourTypeList.toArray(new TourType[tourTypeList.size()]);
+            _dayBlockCache.remove(blockKeys[0]);
+            _weekBlockCache.remove(blockKeys[1]);
+         }
 
-         ArrayList<String> dbTourTitle = null;
-         ArrayList<String> dbTourDescription = null;
+         // remove the blocks of the tour date, the date could be modified or the tour is new
+         final ZonedDateTime tourStartTime = tourData.getTourStartTime();
 
-         ArrayList<Integer> dbTourYear = null;
-         ArrayList<Integer> dbTourMonth = null;
-         ArrayList<Integer> dbTourDay = null;
+         _dayBlockCache.remove(getBlockKey(tourStartTime.getYear(), (tourStartTime.getMonthValue() - 1) / MONTHS_PER_BLOCK));
+         _weekBlockCache.remove(getBlockKey(tourData.getStartWeekYear(), (tourData.getStartWeek() - 1) / WEEKS_PER_BLOCK));
+      }
 
-         ArrayList<Integer> dbTourStartTime = null;
-         ArrayList<Integer> dbTourEndTime = null;
-         ArrayList<Integer> dbTourStartWeek = null;
+      // a tour could be moved before the first tour
+      _firstTourDateTime = null;
+      _firstTourId = null;
+   }
 
-         ArrayList<Integer> dbDistance = null;
-         ArrayList<Integer> dbElevationGain = null;
-         ArrayList<Integer> dbElevationLoss = null;
-         ArrayList<Integer> dbTourElapsedTime = null;
-         ArrayList<Integer> dbTourDeviceTime_Recorded = null;
-         ArrayList<Integer> dbTourMovingTime = null;
+   /**
+    * Retrieve the tours of {@link #MONTHS_PER_BLOCK} months from the database with one query
+    *
+    * @param blockKey
+    * @return Returns the tours for each month and day of the block
+    */
+   private CalendarTourData[][][] loadFromDb_DayBlock(final int blockKey) {
 
-         ArrayList<String> dbTourWeatherClouds = null;
+//      final long start = System.currentTimeMillis();
 
-         ArrayList<Integer> dbCalories = null;
-         FloatArrayList dbPowerAvg = null;
-         FloatArrayList dbPulseAvg = null;
+      final int year = blockKey / BLOCKS_PER_YEAR;
+      final int firstMonth = blockKey % BLOCKS_PER_YEAR * MONTHS_PER_BLOCK + 1;
+      final int lastMonth = firstMonth + MONTHS_PER_BLOCK - 1;
 
-         ArrayList<Long> dbTypeIds = null;
-         ArrayList<Integer> dbTypeColorIndex = null;
+      // tours of each day in the block
+      final List<List<CalendarTourData>> allDayTours = new ArrayList<>();
+      for (int dayIndex = 0; dayIndex < MONTHS_PER_BLOCK * 31; dayIndex++) {
+         allDayTours.add(new ArrayList<>());
+      }
 
-         ArrayList<Long> tourIds = null;
+      String sql = null;
 
-         ArrayList<Boolean> dbIsManualTour = null;
+      try (Connection conn = TourDatabase.getInstance().getConnection()) {
 
-         HashMap<Long, ArrayList<Long>> dbTagIds = null;
+         final int colorOffset = 1;
 
-         long lastTourId = -1;
-         ArrayList<Long> tagIds = null;
+         final ArrayList<TourType> tourTypeList = TourDatabase.getAllTourTypes();
+         final TourType[] tourTypes = tourTypeList.toArray(new TourType[tourTypeList.size()]);
 
          final SQLFilter sqlAppFilter = new SQLFilter(SQLFilter.TAG_FILTER);
 
@@ -454,7 +558,7 @@ public class CalendarTourDataProvider {
                + "   TourDistance," + NL //                       7  //$NON-NLS-1$
                + "   TourAltUp," + NL //                          8  //$NON-NLS-1$
                + "   TourDeviceTime_Elapsed," + NL //             9  //$NON-NLS-1$
-               + "   TourComputedTime_Moving," + NL //                    10 //$NON-NLS-1$
+               + "   TourComputedTime_Moving," + NL //            10 //$NON-NLS-1$
                + "   TourTitle," + NL //                          11 //$NON-NLS-1$
                + "   TourType_typeId," + NL //                    12 //$NON-NLS-1$
                + "   TourDescription," + NL //                    13 //$NON-NLS-1$
@@ -468,7 +572,8 @@ public class CalendarTourDataProvider {
                + "   AvgPulse," + NL //                           19 //$NON-NLS-1$
                + "   Power_Avg," + NL //                          20 //$NON-NLS-1$
                + "   TourDeviceTime_Recorded," + NL //            21 //$NON-NLS-1$
-               + "   weather_Clouds" + NL //                      22 //$NON-NLS-1$
+               + "   weather_Clouds," + NL //                     22 //$NON-NLS-1$
+               + "   StartWeekYear" + NL //                       23 //$NON-NLS-1$
 
                + NL
 
@@ -481,12 +586,12 @@ public class CalendarTourDataProvider {
                + " ON tourID = jTdataTtag.TourData_tourId" + NL //   //$NON-NLS-1$
 
                + "WHERE  StartYear=?" + NL //                        //$NON-NLS-1$
-               + "   AND StartMonth=?" + NL //                       //$NON-NLS-1$
-               + "   AND StartDay=?" + NL //                         //$NON-NLS-1$
+               + "   AND StartMonth BETWEEN ? AND ?" + NL //         //$NON-NLS-1$
 
                + sqlAppFilter.getWhereClause()
 
-               + "ORDER BY StartYear, StartMonth, StartDay, StartHour, StartMinute"; //$NON-NLS-1$
+               // the tour id keeps the tag rows of a tour together
+               + "ORDER BY StartYear, StartMonth, StartDay, StartHour, StartMinute, TourId"; //$NON-NLS-1$
 
          final PreparedStatement prepStmt = conn.prepareStatement(sql);
 
@@ -496,265 +601,230 @@ public class CalendarTourDataProvider {
 
          // set sql other parameters
          prepStmt.setInt(paramIndex++, year);
-         prepStmt.setInt(paramIndex++, month);
-
-         final int dayParamIndex = paramIndex++;
+         prepStmt.setInt(paramIndex++, firstMonth);
+         prepStmt.setInt(paramIndex++, lastMonth);
 
          sqlAppFilter.setParameters(prepStmt, paramIndex++);
 
-         monthData = new CalendarTourData[31][];
-
-         long tourId = -1;
-
-         for (int day = 0; day < 31; day++) {
-
-            prepStmt.setInt(dayParamIndex, day + 1);
-
-            final ResultSet result = prepStmt.executeQuery();
-
-            boolean firstTourOfDay = true;
-            tourIds = new ArrayList<>();
-
-            while (result.next()) { // all tours of this day
-
-               if (firstTourOfDay) {
-
-                  dbTourTitle = new ArrayList<>();
-                  dbTourDescription = new ArrayList<>();
-
-                  dbTourYear = new ArrayList<>();
-                  dbTourMonth = new ArrayList<>();
-                  dbTourDay = new ArrayList<>();
-
-                  dbTourStartTime = new ArrayList<>();
-                  dbTourEndTime = new ArrayList<>();
-                  dbTourStartWeek = new ArrayList<>();
-
-                  dbDistance = new ArrayList<>();
-                  dbElevationGain = new ArrayList<>();
-                  dbElevationLoss = new ArrayList<>();
-                  dbTourElapsedTime = new ArrayList<>();
-                  dbTourDeviceTime_Recorded = new ArrayList<>();
-                  dbTourMovingTime = new ArrayList<>();
+         final ResultSet result = prepStmt.executeQuery();
 
-                  dbTourWeatherClouds = new ArrayList<>();
+         CalendarTourData data = null;
 
-                  dbCalories = new ArrayList<>();
-                  dbPowerAvg = new FloatArrayList();
-                  dbPulseAvg = new FloatArrayList();
+         while (result.next()) {
 
-                  dbTypeIds = new ArrayList<>();
-                  dbTypeColorIndex = new ArrayList<>();
+            final long tourId = result.getLong(1);
+            final Object dbTagId = result.getObject(17);
 
-                  dbIsManualTour = new ArrayList<>();
-                  dbTagIds = new HashMap<>();
+            if (data != null && data.tourId == tourId) {
 
-                  firstTourOfDay = false;
+               // get additional tags from outer join
+               if (dbTagId instanceof Long) {
+                  data.tagIds.add((Long) dbTagId);
                }
 
-               tourId = result.getLong(1);
-               final Object dbTagId = result.getObject(17);
+               continue;
+            }
 
-               if (tourId == lastTourId) {
+            // get first record for a tour
 
-                  // get additional tags from outer join
-                  if (dbTagId instanceof Long) {
-                     tagIds.add((Long) dbTagId);
-                  }
+            data = new CalendarTourData();
 
-               } else {
+            final int tourYear = result.getShort(2);
+            final int tourMonth = result.getShort(3);
+            final int tourDay = result.getShort(4);
+            final int startHour = result.getShort(5);
+            final int startMinute = result.getShort(6);
+            final int startTime = startHour * 3600 + startMinute * 60;
 
-                  // get first record for a tour
-                  tourIds.add(tourId);
+            final int elapsedTime = result.getInt(9);
 
-                  final int tourYear = result.getShort(2);
-                  final int tourMonth = result.getShort(3) - 1;
-                  final int tourDay = result.getShort(4);
-                  final int startHour = result.getShort(5);
-                  final int startMinute = result.getShort(6);
-                  final int startTime = startHour * 3600 + startMinute * 60;
+            data.tourId = tourId;
 
-                  final int elapsedTime = result.getInt(9);
-                  final int recordedTime = result.getInt(21);
+            data.year = tourYear;
+            data.month = tourMonth - 1;
+            data.day = tourDay;
+            data.week = result.getInt(14);
 
-                  dbTourYear.add(tourYear);
-                  dbTourMonth.add(tourMonth);
-                  dbTourDay.add(tourDay);
+            data.startTime = startTime;
+            data.endTime = startTime + elapsedTime;
 
-                  dbTourStartTime.add(startTime);
-                  dbTourEndTime.add((startTime + elapsedTime));
+            data.distance = result.getInt(7);
+            data.elevationGain = result.getInt(8);
+            data.elevationLoss = result.getInt(18);
 
-                  dbDistance.add(result.getInt(7));
-                  dbElevationGain.add(result.getInt(8));
+            data.elapsedTime = elapsedTime;
+            data.recordedTime = result.getInt(21);
+            data.movingTime = result.getInt(10);
 
-                  dbTourElapsedTime.add(elapsedTime);
-                  dbTourDeviceTime_Recorded.add(recordedTime);
-                  dbTourMovingTime.add(result.getInt(10));
+            data.calories = result.getInt(16);
+            data.power_Avg = result.getFloat(20);
+            data.pulse_Avg = result.getFloat(19);
 
-                  dbTourTitle.add(result.getString(11));
+            data.tourTitle = result.getString(11);
 
-                  final String description = result.getString(13);
-                  dbTourDescription.add(description == null ? UI.EMPTY_STRING : description);
+            final String description = result.getString(13);
+            data.tourDescription = description == null ? UI.EMPTY_STRING : description;
 
-                  dbTourStartWeek.add(result.getInt(14));
+            data.weatherClouds = result.getString(22);
 
-                  // is manual tour
-                  final String devicePluginId = result.getString(15);
-                  final boolean isManualTour = TourData.DEVICE_ID_FOR_MANUAL_TOUR.equals(devicePluginId)
-                        || TourData.DEVICE_ID_CSV_TOUR_DATA_READER.equals(devicePluginId);
-                  dbIsManualTour.add(isManualTour);
+            final LocalDate tourDate = LocalDate.of(tourYear, tourMonth, tourDay);
+            data.tourDate = tourDate;
+            data.dayOfWeek = tourDate.getDayOfWeek().getValue();
 
-                  dbCalories.add(result.getInt(16));
+            // is manual tour
+            final String devicePluginId = result.getString(15);
+            data.isManualTour = TourData.DEVICE_ID_FOR_MANUAL_TOUR.equals(devicePluginId)
+                  || TourData.DEVICE_ID_CSV_TOUR_DATA_READER.equals(devicePluginId);
 
-                  if (dbTagId instanceof Long) {
+            if (dbTagId instanceof Long) {
 
-                     tagIds = new ArrayList<>();
-                     tagIds.add((Long) dbTagId);
+               data.tagIds = new ArrayList<>();
+               data.tagIds.add((Long) dbTagId);
+            }
 
-                     dbTagIds.put(tourId, tagIds);
+            /*
+             * convert type id to the type index in the tour type array, this is also
+             * the color index for the tour type
+             */
+            int tourTypeColorIndex = 0;
+            final Long dbTypeIdObject = (Long) result.getObject(12);
+            if (dbTypeIdObject != null) {
+               final long dbTypeId = result.getLong(12);
+               for (int typeIndex = 0; typeIndex < tourTypes.length; typeIndex++) {
+                  if (tourTypes[typeIndex].getTypeId() == dbTypeId) {
+                     tourTypeColorIndex = colorOffset + typeIndex;
+                     break;
                   }
+               }
+            }
 
-                  dbElevationLoss.add(result.getInt(18));
-                  dbPulseAvg.add(result.getFloat(19));
-                  dbPowerAvg.add(result.getFloat(20));
-
-                  dbTourWeatherClouds.add(result.getString(22));
-
-                  /*
-                   * convert type id to the type index in the tour type array, this is also
-                   * the color index for the tour type
-                   */
-                  int tourTypeColorIndex = 0;
-                  final Long dbTypeIdObject = (Long) result.getObject(12);
-                  if (dbTypeIdObject != null) {
-                     final long dbTypeId = result.getLong(12);
-                     for (int typeIndex = 0; typeIndex < tourTypes.length; typeIndex++) {
-                        if (tourTypes[typeIndex].getTypeId() == dbTypeId) {
-                           tourTypeColorIndex = colorOffset + typeIndex;
-                           break;
-                        }
-                     }
-                  }
+            data.typeColorIndex = tourTypeColorIndex;
+            data.typeId = dbTypeIdObject == null ? TourDatabase.ENTITY_IS_NOT_SAVED : dbTypeIdObject;
 
-                  dbTypeColorIndex.add(tourTypeColorIndex);
-                  dbTypeIds.add(dbTypeIdObject == null ? TourDatabase.ENTITY_IS_NOT_SAVED : dbTypeIdObject);
-               }
+            if (UI.IS_SCRAMBLE_DATA) {
 
-               lastTourId = tourId;
+               data.tourTitle = UI.scrambleText(data.tourTitle);
+               data.tourDescription = UI.scrambleText(data.tourDescription);
 
-            } // while result.next() == all tours of this day
+               data.distance = UI.scrambleNumbers(data.distance);
+               data.elevationGain = UI.scrambleNumbers(data.elevationGain);
+               data.elevationLoss = UI.scrambleNumbers(data.elevationLoss);
+               data.calories = UI.scrambleNumbers(data.calories);
 
-            /*
-             * create data for this day
-             */
-            final int numTours = tourIds.size();
-            dayData = new CalendarTourData[numTours];
+               data.elapsedTime = UI.scrambleNumbers(data.elapsedTime);
+               data.movingTime = UI.scrambleNumbers(data.movingTime);
+               data.recordedTime = UI.scrambleNumbers(data.recordedTime);
+            }
 
-            for (int tourIndex = 0; tourIndex < numTours; tourIndex++) {
+            allDayTours.get((tourMonth - firstMonth) * 31 + tourDay - 1).add(data);
 
-               final CalendarTourData data = new CalendarTourData();
+            // keep the blocks of the tour to invalidate them when the tour is modified
+            _allTourBlockKeys.put(tourId,
+                  new int[] {
+                        blockKey,
+                        getBlockKey(result.getInt(23), (data.week - 1) / WEEKS_PER_BLOCK) });
+         }
 
-               tourId = tourIds.get(tourIndex);
+      } catch (final SQLException e) {
 
-               data.tourId = tourId;
+         StatusUtil.logError(sql);
+         net.tourbook.ui.UI.showSQLException(e);
+      }
 
-               data.typeId = dbTypeIds.get(tourIndex);
-               data.typeColorIndex = dbTypeColorIndex.get(tourIndex);
+      /*
+       * Create data for each day
+       */
+      final CalendarTourData[][][] dayBlock = new CalendarTourData[MONTHS_PER_BLOCK][31][];
 
-               data.tagIds = dbTagIds.get(tourId);
+      for (int monthIndex = 0; monthIndex < MONTHS_PER_BLOCK; monthIndex++) {
+         for (int dayIndex = 0; dayIndex < 31; dayIndex++) {
 
-               data.year = dbTourYear.get(tourIndex);
-               data.month = dbTourMonth.get(tourIndex);
-               data.day = dbTourDay.get(tourIndex);
-               data.week = dbTourStartWeek.get(tourIndex);
+            final List<CalendarTourData> dayTours = allDayTours.get(monthIndex * 31 + dayIndex);
 
-               data.startTime = dbTourStartTime.get(tourIndex);
-               data.endTime = dbTourEndTime.get(tourIndex);
+            dayBlock[monthIndex][dayIndex] = dayTours.toArray(new CalendarTourData[dayTours.size()]);
+         }
+      }
 
-               data.distance = dbDistance.get(tourIndex);
-               data.elevationGain = dbElevationGain.get(tourIndex);
-               data.elevationLoss = dbElevationLoss.get(tourIndex);
+//      System.out.println(
+//            (UI.timeStampNano() + " [" + getClass().getSimpleName() + "] ") +
+//                  "loadFromDb_DayBlock\t\t\t" + (System.currentTimeMillis() - start) + " ms - "
+//                  + "\t" + year + " " + firstMonth);
+//      // TODO remove SYSTEM.OUT.PRINTLN
 
-               data.elapsedTime = dbTourElapsedTime.get(tourIndex);
-               data.recordedTime = dbTourDeviceTime_Recorded.get(tourIndex);
-               data.movingTime = dbTourMovingTime.get(tourIndex);
+      return dayBlock;
+   }
 
-               data.calories = dbCalories.get(tourIndex);
-               data.power_Avg = dbPowerAvg.get(tourIndex);
-               data.pulse_Avg = dbPulseAvg.get(tourIndex);
+   /**
+    * Retrieve the week summaries of {@link #WEEKS_PER_BLOCK} weeks from the database with one
+    * query
+    *
+    * @param blockKey
+    * @return Returns the summary of each week in the block
+    */
+   private CalendarTourData[] loadFromDb_WeekBlock(final int blockKey) {
 
-               data.tourTitle = dbTourTitle.get(tourIndex);
-               data.tourDescription = dbTourDescription.get(tourIndex);
+//      final long start = System.currentTimeMillis();
 
-               data.weatherClouds = dbTourWeatherClouds.get(tourIndex);
+      final int year = blockKey / BLOCKS_PER_YEAR;
+      final int firstWeek = blockKey % BLOCKS_PER_YEAR * WEEKS_PER_BLOCK + 1;
+      final int lastWeek = firstWeek + WEEKS_PER_BLOCK - 1;
 
-               final LocalDate tourDate = LocalDate.of(year, month, data.day);
-               data.tourDate = tourDate;
-               data.dayOfWeek = tourDate.getDayOfWeek().getValue();
+      final CalendarTourData[] weekBlock = new CalendarTourData[WEEKS_PER_BLOCK];
 
-               data.isManualTour = dbIsManualTour.get(tourIndex);
+      for (int weekIndex = 0; weekIndex < WEEKS_PER_BLOCK; weekIndex++) {
 
-               dayData[tourIndex] = data;
+         final CalendarTourData weekData = new CalendarTourData();
 
-               if (UI.IS_SCRAMBLE_DATA) {
+         weekData.year = year;
+         weekData.week = firstWeek + weekIndex;
+         weekData.loadingState = LoadingState.IS_LOADED;
 
-                  data.tourTitle = UI.scrambleText(data.tourTitle);
-                  data.tourDescription = UI.scrambleText(data.tourDescription);
+         weekBlock[weekIndex] = weekData;
+      }
 
-                  data.distance = UI.scrambleNumbers(data.distance);
-                  data.elevationGain = UI.scrambleNumbers(data.elevationGain);
-                  data.elevationLoss = UI.scrambleNumbers(data.elevationLoss);
-                  data.calories = UI.scrambleNumbers(data.calories);
+      if (TourDayAggregates.isAppFilterSupported()) {
 
-                  data.elapsedTime = UI.scrambleNumbers(data.elapsedTime);
-                  data.movingTime = UI.scrambleNumbers(data.movingTime);
-                  data.recordedTime = UI.scrambleNumbers(data.recordedTime);
-               }
+         // the week values can be summarized from the day aggregates without reading all tours
 
-            } // create data for this day
+         try {
 
-            monthData[day] = dayData;
+            for (final DayAggregate weekAggregate : TourDayAggregates.getWeekAggregates(year, firstWeek, lastWeek)) {
 
-         } // for days 0 .. 30
+               final CalendarTourData weekData = weekBlock[weekAggregate.week - firstWeek];
 
-      } catch (final SQLException e) {
+               weekData.numTours = weekAggregate.numTours;
+               weekData.distance = (int) weekAggregate.distance;
 
-         StatusUtil.logError(sql);
-         net.tourbook.ui.UI.showSQLException(e);
+               weekData.elapsedTime = (int) weekAggregate.time_Elapsed;
+               weekData.movingTime = (int) weekAggregate.time_Moving;
 
-      }
+               weekData.elevationGain = (int) weekAggregate.elevationGain;
+               weekData.elevationLoss = (int) weekAggregate.elevationLoss;
 
-//      System.out.println(
-//            (UI.timeStampNano() + " [" + getClass().getSimpleName() + "] ") +
-//                  "getCalendarMonthData_FromDb\t\t\t" + (System.currentTimeMillis() - start) + " ms - "
-//                  + "\t" + year + " " + month);
-//      // TODO remove SYSTEM.OUT.PRINTLN
+               weekData.calories = (int) weekAggregate.calories;
 
-      return monthData;
-   }
+               weekData.cadenceZone_SlowTime = weekAggregate.cadenceZone_SlowTime;
+               weekData.cadenceZone_FastTime = weekAggregate.cadenceZone_FastTime;
 
-   private boolean loadFromDB_Week(final WeekLoader weekLoader) {
+               weekData.recordedTime = (int) weekAggregate.time_Recorded;
 
-      if (weekLoader.executorId < _weekExecuterId.get()) {
+               weekData.trainingStressScore = (float) weekAggregate.trainingStressScore;
 
-         // current executer was invalidated
+               scrambleWeekData(weekData);
+            }
 
-         // reset loading state
-         weekLoader.weekData.loadingState = LoadingState.NOT_LOADED;
+         } catch (final SQLException e) {
 
-         return false;
-      }
+            net.tourbook.ui.UI.showSQLException(e);
+         }
 
-//      final long start = System.currentTimeMillis();
+         return weekBlock;
+      }
 
-      final CalendarTourData weekData = weekLoader.weekData;
       String sql = null;
 
       try (Connection conn = TourDatabase.getInstance().getConnection()) {
 
-         final int year = weekLoader.year;
-         final int week = weekLoader.week;
-
          final SQLFilter sqlAppFilter = new SQLFilter(SQLFilter.TAG_FILTER);
 
          String sqlFromTourData;
@@ -776,6 +846,7 @@ public class CalendarTourDataProvider {
                   // this is necessary otherwise tours can occur multiple times when a tour contains multiple tags !!!
                   + "      DISTINCT TourId," + NL //                                   //$NON-NLS-1$
 
+                  + "      StartWeek," + NL //                                         //$NON-NLS-1$
                   + "      TourDistance," + NL //                                      //$NON-NLS-1$
                   + "      TourDeviceTime_Elapsed," + NL //                            //$NON-NLS-1$
                   + "      TourComputedTime_Moving," + NL //                           //$NON-NLS-1$
@@ -784,7 +855,8 @@ public class CalendarTourDataProvider {
                   + "      calories," + NL //                                          //$NON-NLS-1$
                   + "      cadenceZone_SlowTime," + NL //                              //$NON-NLS-1$
                   + "      cadenceZone_FastTime," + NL //                              //$NON-NLS-1$
-                  + "      TourDeviceTime_Recorded" + NL //                            //$NON-NLS-1$
+                  + "      TourDeviceTime_Recorded," + NL //                           //$NON-NLS-1$
+                  + "      Power_TrainingStressScore" + NL //                          //$NON-NLS-1$
 
                   + "   FROM " + TourDatabase.TABLE_TOUR_DATA + NL //                  //$NON-NLS-1$
 
@@ -795,10 +867,10 @@ public class CalendarTourDataProvider {
                   + "   ON tourId = jTdataTtag.TourData_tourId" + NL //                //$NON-NLS-1$
 
                   + "   WHERE  startWeekYear=?" + NL //                                //$NON-NLS-1$
-                  + "      AND startWeek=?" + NL //                                    //$NON-NLS-1$
+                  + "      AND startWeek BETWEEN ? AND ?" + NL //                      //$NON-NLS-1$
                   + "      " + sqlAppFilter.getWhereClause() + NL //$NON-NLS-1$
 
-                  + ") NecessaryNameOtherwiseItDoNotWork" //                           //$NON-NLS-1$
+                  + ") NecessaryNameOtherwiseItDoNotWork" + NL //                      //$NON-NLS-1$
 
             ;
 
@@ -809,29 +881,35 @@ public class CalendarTourDataProvider {
                   + "FROM " + TourDatabase.TABLE_TOUR_DATA + NL //$NON-NLS-1$
 
                   + "   WHERE  startWeekYear=?" + NL //                                //$NON-NLS-1$
-                  + "      AND startWeek=?" + NL //                                    //$NON-NLS-1$
-                  + "      " + sqlAppFilter.getWhereClause(); //$NON-NLS-1$
+                  + "      AND startWeek BETWEEN ? AND ?" + NL //                      //$NON-NLS-1$
+                  + "      " + sqlAppFilter.getWhereClause() + NL; //$NON-NLS-1$
          }
 
          sql = "SELECT" + NL //                                                        //$NON-NLS-1$
 
-               + " SUM(1)," + NL //                                                 1  //$NON-NLS-1$
-               + " SUM(TourDistance)," + NL //                                      2  //$NON-NLS-1$
+               + " StartWeek," + NL //                                              1  //$NON-NLS-1$
+
+               + " SUM(1)," + NL //                                                 2  //$NON-NLS-1$
+               + " SUM(TourDistance)," + NL //                                      3  //$NON-NLS-1$
+
+               + " SUM(TourDeviceTime_Elapsed)," + NL //                            4  //$NON-NLS-1$
+               + " SUM(TourComputedTime_Moving)," + NL //                           5  //$NON-NLS-1$
+
+               + " SUM(TourAltUp)," + NL //                                         6  //$NON-NLS-1$
+               + " SUM(TourAltDown)," + NL //                                       7  //$NON-NLS-1$
 
-               + " SUM(TourDeviceTime_Elapsed)," + NL //                            3  //$NON-NLS-1$
-               + " SUM(TourComputedTime_Moving)," + NL //                           4  //$NON-NLS-1$
+               + " SUM(calories)," + NL //                                          8  //$NON-NLS-1$
 
-               + " SUM(TourAltUp)," + NL //                                         5  //$NON-NLS-1$
-               + " SUM(TourAltDown)," + NL //                                       6  //$NON-NLS-1$
+               + " SUM(cadenceZone_SlowTime)," + NL //                              9  //$NON-NLS-1$
+               + " SUM(cadenceZone_FastTime)," + NL //                              10 //$NON-NLS-1$
 
-               + " SUM(calories)," + NL //                                          7  //$NON-NLS-1$
+               + " SUM(TourDeviceTime_Recorded)," + NL //                           11 //$NON-NLS-1$
 
-               + " SUM(cadenceZone_SlowTime)," + NL //                              8  //$NON-NLS-1$
-               + " SUM(cadenceZone_FastTime)," + NL //                              9  //$NON-NLS-1$
+               + " SUM(Power_TrainingStressScore)" + NL //                          12 //$NON-NLS-1$
 
-               + " SUM(TourDeviceTime_Recorded)" + NL //                            10 //$NON-NLS-1$
+               + sqlFromTourData
 
-               + sqlFromTourData;
+               + " GROUP BY StartWeek"; //                                             //$NON-NLS-1$
 
          final PreparedStatement prepStmt = conn.prepareStatement(sql);
 
@@ -840,7 +918,8 @@ public class CalendarTourDataProvider {
          paramIndex = tagFilterSqlJoinBuilder.setParameters(prepStmt, paramIndex);
 
          prepStmt.setInt(paramIndex++, year);
-         prepStmt.setInt(paramIndex++, week);
+         prepStmt.setInt(paramIndex++, firstWeek);
+         prepStmt.setInt(paramIndex++, lastWeek);
 
          sqlAppFilter.setParameters(prepStmt, paramIndex);
 
@@ -848,53 +927,89 @@ public class CalendarTourDataProvider {
 
          while (result.next()) {
 
-            weekData.year = year;
-            weekData.week = week;
+            final CalendarTourData weekData = weekBlock[result.getInt(1) - firstWeek];
 
-            weekData.numTours = result.getInt(1);
-            weekData.distance = result.getInt(2);
+            weekData.numTours = result.getInt(2);
+            weekData.distance = result.getInt(3);
 
-            weekData.elapsedTime = result.getInt(3);
-            weekData.movingTime = result.getInt(4);
+            weekData.elapsedTime = result.getInt(4);
+            weekData.movingTime = result.getInt(5);
 
-            weekData.elevationGain = result.getInt(5);
-            weekData.elevationLoss = result.getInt(6);
+            weekData.elevationGain = result.getInt(6);
+            weekData.elevationLoss = result.getInt(7);
 
-            weekData.calories = result.getInt(7);
+            weekData.calories = result.getInt(8);
 
-            weekData.cadenceZone_SlowTime = result.getInt(8);
-            weekData.cadenceZone_FastTime = result.getInt(9);
+            weekData.cadenceZone_SlowTime = result.getInt(9);
+            weekData.cadenceZone_FastTime = result.getInt(10);
 
-            weekData.recordedTime = result.getInt(10);
+            weekData.recordedTime = result.getInt(11);
 
-            if (UI.IS_SCRAMBLE_DATA) {
-
-               weekData.elevationGain = UI.scrambleNumbers(weekData.elevationGain);
-               weekData.elevationLoss = UI.scrambleNumbers(weekData.elevationLoss);
-               weekData.distance = UI.scrambleNumbers(weekData.distance);
+            weekData.trainingStressScore = result.getFloat(12);
 
-               weekData.elapsedTime = UI.scrambleNumbers(weekData.elapsedTime);
-               weekData.movingTime = UI.scrambleNumbers(weekData.movingTime);
-
-               weekData.calories = UI.scrambleNumbers(weekData.calories);
-               weekData.recordedTime = UI.scrambleNumbers(weekData.recordedTime);
-            }
+            scrambleWeekData(weekData);
          }
 
       } catch (final SQLException e) {
 
          StatusUtil.logError(sql);
          net.tourbook.ui.UI.showSQLException(e);
+      }
 
-      } finally {
+//      System.out.println("loadFromDb_WeekBlock\t" + (System.currentTimeMillis() - start) + " ms");
+//      // TODO remove SYSTEM.OUT.PRINTLN
 
-         weekData.loadingState = LoadingState.IS_LOADED;
+      return weekBlock;
+   }
+
+   /**
+    * Load the blocks which are next to the visible days in the scroll direction, so that they are
+    * available when the calendar is scrolled further.
+    *
+    * @param firstVisibleDay
+    * @param lastVisibleDay
+    */
+   void prefetch(final LocalDate firstVisibleDay, final LocalDate lastVisibleDay) {
+
+      _firstVisibleWeekBlockKey = getWeekBlockKey(firstVisibleDay);
+      _lastVisibleWeekBlockKey = getWeekBlockKey(lastVisibleDay);
+
+      final LocalDate prevFirstVisibleDay = _prevFirstVisibleDay;
+
+      _prevFirstVisibleDay = firstVisibleDay;
+
+      if (prevFirstVisibleDay == null || prevFirstVisibleDay.equals(firstVisibleDay)) {
+         return;
       }
 
-//      System.out.println("getCalendarWeekSummaryData_FromDb\t" + (System.currentTimeMillis() - start) + " ms");
-//      // TODO remove SYSTEM.OUT.PRINTLN
+      final boolean isScrollingForward = firstVisibleDay.isAfter(prevFirstVisibleDay);
+
+      final int dayBlockKey = isScrollingForward
+            ? getDayBlockKey(lastVisibleDay) + 1
+            : getDayBlockKey(firstVisibleDay) - 1;
+
+      final int weekBlockKey = isScrollingForward
+            ? _lastVisibleWeekBlockKey + 1
+            : _firstVisibleWeekBlockKey - 1;
+
+      getBlock(_dayBlockCache, dayBlockKey, true, this::loadFromDb_DayBlock, null);
+      getWeekBlock(weekBlockKey);
+   }
 
-      return true;
+   private void scrambleWeekData(final CalendarTourData weekData) {
+
+      if (UI.IS_SCRAMBLE_DATA) {
+
+         weekData.elevationGain = UI.scrambleNumbers(weekData.elevationGain);
+         weekData.elevationLoss = UI.scrambleNumbers(weekData.elevationLoss);
+         weekData.distance = UI.scrambleNumbers(weekData.distance);
+
+         weekData.elapsedTime = UI.scrambleNumbers(weekData.elapsedTime);
+         weekData.movingTime = UI.scrambleNumbers(weekData.movingTime);
+
+         weekData.calories = UI.scrambleNumbers(weekData.calories);
+         weekData.recordedTime = UI.scrambleNumbers(weekData.recordedTime);
+      }
    }
 
    public void setCalendarGraph(final CalendarGraph calendarGraph) {
@@ -902,4 +1017,21 @@ public class CalendarTourDataProvider {
       _calendarGraph = calendarGraph;
    }
 
+   /**
+    * Redraw the calendar when the loaded week block is visible, prefetched blocks are drawn when
+    * they are scrolled into the viewport.
+    *
+    * @param blockKey
+    */
+   private void updateUI_AfterWeekBlockLoading(final int blockKey) {
+
+      if (blockKey < _firstVisibleWeekBlockKey || blockKey > _lastVisibleWeekBlockKey) {
+         return;
+      }
+
+      if (_calendarGraph != null) {
+         _calendarGraph.updateUI_AfterDataLoading();
+      }
+   }
+
 }
@@ -20,6 +20,7 @@ import static org.eclipse.swt.events.SelectionListener.widgetSelectedAdapter;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
 
 import net.tourbook.Images;
 import net.tourbook.Messages;
@@ -37,6 +38,7 @@ import net.tourbook.preferences.ITourbookPreferences;
 import net.tourbook.tour.ITourEventListener;
 import net.tourbook.tour.SelectionDeletedTours;
 import net.tourbook.tour.SelectionTourId;
+import net.tourbook.tour.TourEvent;
 import net.tourbook.tour.TourEventId;
 import net.tourbook.tour.TourManager;
 import net.tourbook.ui.ITourProvider;
@@ -234,11 +236,19 @@ public class CalendarView extends ViewPart implements ITourProvider, ICalendarPr
             return;
          }
 
-         if (tourEventId == TourEventId.TOUR_CHANGED || tourEventId == TourEventId.UPDATE_UI) {
+         if (tourEventId == TourEventId.TOUR_CHANGED
+               && eventData instanceof TourEvent
+               && ((TourEvent) eventData).getModifiedTours().size() > 0) {
+
             /*
-             * it is possible when a tour type was modified, the tour can be hidden or visible in
-             * the viewer because of the tour type filter
+             * It is possible when a tour type was modified, the tour can be hidden or visible in
+             * the viewer because of the tour type filter, the blocks of the modified tours are
+             * reloaded with the filter
              */
+            refreshCalendar(((TourEvent) eventData).getModifiedTours());
+
+         } else if (tourEventId == TourEventId.TOUR_CHANGED || tourEventId == TourEventId.UPDATE_UI) {
+
             refreshCalendar();
 
          } else if ((tourEventId == TourEventId.TOUR_SELECTION //
@@ -607,6 +617,14 @@ public class CalendarView extends ViewPart implements ITourProvider, ICalendarPr
       }
    }
 
+   private void refreshCalendar(final List<TourData> allModifiedTours) {
+
+      if (null != _calendarGraph) {
+
+         BusyIndicator.showWhile(Display.getCurrent(), () -> _calendarGraph.refreshCalendar(allModifiedTours));
+      }
+   }
+
    private void restoreState() {
 
       _stateIsLinked = Util.getStateBoolean(_state, STATE_IS_LINKED, false);
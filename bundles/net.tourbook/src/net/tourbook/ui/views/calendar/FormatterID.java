@@ -34,6 +34,8 @@ public enum FormatterID {
    POWER_AVG, //
    PULSE_AVG, //
 
+   TRAINING_STRESS_SCORE, //
+
    ENERGY_KCAL, //
    ENERGY_MJ, //
 
@@ -16,6 +16,7 @@
 package net.tourbook.ui.views.heartRateVariability;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -43,6 +44,7 @@ import net.tourbook.tour.SelectionDeletedTours;
 import net.tourbook.tour.SelectionTourData;
 import net.tourbook.tour.SelectionTourId;
 import net.tourbook.tour.SelectionTourIds;
+import net.tourbook.tour.TourAnalysisCache;
 import net.tourbook.tour.TourEventId;
 import net.tourbook.tour.TourManager;
 import net.tourbook.ui.UI;
@@ -109,6 +111,11 @@ public class HeartRateVariabilityView extends ViewPart {
    private static final int         HRV_TIME_MIN_BORDER = 0;                                         // ms
    private static final int         HRV_TIME_MAX_BORDER = 9999;                                      //ms
 
+   /**
+    * Number of option sets for which the HRV values of the selected tours are kept
+    */
+   private static final int         MAX_CACHED_OPTIONS  = 2;
+
    private final IPreferenceStore   _prefStore          = TourbookPlugin.getPrefStore();
    private final IPreferenceStore   _prefStore_Common   = CommonActivator.getPrefStore();
    private final IDialogSettings    _state              = TourbookPlugin.getState(ID);
@@ -123,6 +130,12 @@ public class HeartRateVariabilityView extends ViewPart {
 
    private List<TourData>           _hrvTours;
 
+   /**
+    * RR intervals of each tour for the HRV options, they are not recomputed when only the chart
+    * scaling is modified
+    */
+   private final TourAnalysisCache<HrvSeries> _hrvSeriesCache = new TourAnalysisCache<>(MAX_CACHED_OPTIONS);
+
    private ActionToolbarSlideout    _actionHrvOptions;
    private ActionSynchChartScale    _actionSynchChartScaling;
    private ActionShowAllValues      _actionShowAllValues;
@@ -207,6 +220,67 @@ public class HeartRateVariabilityView extends ViewPart {
       }
    }
 
+   /**
+    * RR intervals of one tour
+    */
+   private static class HrvSeries {
+
+      private double[] rr0Values;
+      private float[]  rr1Values;
+
+      private int      fixed2xErrors_0;
+      private int      fixed2xErrors_1;
+   }
+
+   /**
+    * Create the RR intervals of a tour
+    *
+    * @param tourData
+    * @param isFix2xErrors
+    * @param error2xTolerance
+    * @return
+    */
+   private static HrvSeries createHrvSeries(final TourData tourData,
+                                            final boolean isFix2xErrors,
+                                            final int error2xTolerance) {
+
+      final int[] pulseTimeSerie = tourData.pulseTime_Milliseconds;
+      final int numPulseTimes = pulseTimeSerie.length - 1;
+
+      final HrvSeries hrvSeries = new HrvSeries();
+
+      final double[] rr0Values = hrvSeries.rr0Values = new double[numPulseTimes];
+      final float[] rr1Values = hrvSeries.rr1Values = new float[numPulseTimes];
+
+      // loop: all values in the current serie
+      for (int valueIndex = 0; valueIndex < numPulseTimes; valueIndex++) {
+
+         int rr0Value = pulseTimeSerie[valueIndex];
+         int rr1Value = pulseTimeSerie[valueIndex + 1];
+
+         if (isFix2xErrors) {
+
+            final double rr0ValueFixed = rr0Value / 2.0;
+            final double rr1ValueFixed = rr1Value / 2.0;
+
+            if (rr1Value >= rr0ValueFixed - error2xTolerance && rr1Value <= rr0ValueFixed + error2xTolerance) {
+               rr0Value = (int) rr0ValueFixed;
+               hrvSeries.fixed2xErrors_0++;
+            }
+
+            if (rr0Value >= rr1ValueFixed - error2xTolerance && rr0Value <= rr1ValueFixed + error2xTolerance) {
+               rr1Value = (int) rr1ValueFixed;
+               hrvSeries.fixed2xErrors_1++;
+            }
+         }
+
+         rr0Values[valueIndex] = rr0Value;
+         rr1Values[valueIndex] = rr1Value;
+      }
+
+      return hrvSeries;
+   }
+
    private void actionShowAllValues() {
 
       _isShowAllValues = _actionShowAllValues.isChecked();
@@ -434,48 +508,29 @@ public class HeartRateVariabilityView extends ViewPart {
       _fixed2xErrors_0 = 0;
       _fixed2xErrors_1 = 0;
 
+      // the tolerance is not used when 2x errors are not fixed
+      final List<Object> hrvOptions = isFix2xErrors
+            ? Arrays.asList(true, error2xTolerance)
+            : Arrays.asList(false);
+
+      final List<HrvSeries> allHrvSeries = _hrvSeriesCache.getValues(
+            validTourList,
+            hrvOptions,
+            tourData -> createHrvSeries(tourData, isFix2xErrors, error2xTolerance));
+
       /*
        * create data series which contain valid data, reduce data that the highes value for an x
        * value is displayed
        */
       for (int tourIndex = 0; tourIndex < validDataLength; tourIndex++) {
 
-         final TourData tourData = validTours[tourIndex];
-
-         final int[] pulseTimeSerie = tourData.pulseTime_Milliseconds;
-         final int numPulseTimes = pulseTimeSerie.length - 1;
-
-         final double[] rr0Values = new double[numPulseTimes];
-         final float[] rr1Values = new float[numPulseTimes];
-
-         // loop: all values in the current serie
-         for (int valueIndex = 0; valueIndex < numPulseTimes; valueIndex++) {
-
-            int rr0Value = pulseTimeSerie[valueIndex];
-            int rr1Value = pulseTimeSerie[valueIndex + 1];
-
-            if (isFix2xErrors) {
+         final HrvSeries hrvSeries = allHrvSeries.get(tourIndex);
 
-               final double rr0ValueFixed = rr0Value / 2.0;
-               final double rr1ValueFixed = rr1Value / 2.0;
-
-               if (rr1Value >= rr0ValueFixed - error2xTolerance && rr1Value <= rr0ValueFixed + error2xTolerance) {
-                  rr0Value = (int) rr0ValueFixed;
-                  _fixed2xErrors_0++;
-               }
-
-               if (rr0Value >= rr1ValueFixed - error2xTolerance && rr0Value <= rr1ValueFixed + error2xTolerance) {
-                  rr1Value = (int) rr1ValueFixed;
-                  _fixed2xErrors_1++;
-               }
-            }
-
-            rr0Values[valueIndex] = rr0Value;
-            rr1Values[valueIndex] = rr1Value;
-         }
+         rr0Series[tourIndex] = hrvSeries.rr0Values;
+         rr1Series[tourIndex] = hrvSeries.rr1Values;
 
-         rr0Series[tourIndex] = rr0Values;
-         rr1Series[tourIndex] = rr1Values;
+         _fixed2xErrors_0 += hrvSeries.fixed2xErrors_0;
+         _fixed2xErrors_1 += hrvSeries.fixed2xErrors_1;
 
          allRgbLine[tourIndex] = rgbLineColor;
          allRgbDark[tourIndex] = rgbGradient_Dark;
@@ -20,6 +20,10 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import net.tourbook.application.TourbookPlugin;
 import net.tourbook.common.UI;
@@ -32,8 +36,13 @@ import org.eclipse.jface.preference.IPreferenceStore;
 
 public abstract class TVITagViewItem extends TreeViewerItem {
 
-   static final String SQL_SUM_COLUMNS;
-   static final String SQL_SUM_COLUMNS_TOUR;
+   /**
+    * Max number of tag id's in the IN clause of the totals query
+    */
+   private static final int MAX_TAGS_IN_TOTALS_QUERY = 500;
+
+   static final String      SQL_SUM_COLUMNS;
+   static final String      SQL_SUM_COLUMNS_TOUR;
    static {
 
       SQL_SUM_COLUMNS = UI.EMPTY_STRING
@@ -116,34 +125,83 @@ public abstract class TVITagViewItem extends TreeViewerItem {
     */
    public static void readTagTotals(final TVITagView_Tag tagItem) {
 
+      readTagTotals(Arrays.asList(tagItem));
+   }
+
+   /**
+    * Read sum totals from the database for all tag items, the totals are aggregated with one query
+    * for a chunk of tags and not with one query for each tag.
+    *
+    * @param allTagItems
+    */
+   public static void readTagTotals(final List<TVITagView_Tag> allTagItems) {
+
+      if (allTagItems.isEmpty()) {
+         return;
+      }
+
       try (Connection conn = TourDatabase.getInstance().getConnection()) {
 
          final SQLFilter sqlFilter = new SQLFilter();
 
-         /*
-          * get tags
-          */
-         final String sql = UI.EMPTY_STRING
-               //
-               + ("SELECT " + SQL_SUM_COLUMNS) //$NON-NLS-1$
-               + (" FROM " + TourDatabase.JOINTABLE__TOURDATA__TOURTAG + " jtblTagData") //$NON-NLS-1$ //$NON-NLS-2$
+         final int numTags = allTagItems.size();
+
+         for (int chunkStart = 0; chunkStart < numTags; chunkStart += MAX_TAGS_IN_TOTALS_QUERY) {
+
+            final int chunkEnd = Math.min(chunkStart + MAX_TAGS_IN_TOTALS_QUERY, numTags);
+
+            final Map<Long, TVITagView_Tag> allChunkTagItems = new HashMap<>();
+            final StringBuilder sbTagIds = new StringBuilder();
+
+            for (int tagIndex = chunkStart; tagIndex < chunkEnd; tagIndex++) {
 
-               // get data for a tour
-               + (" LEFT OUTER JOIN " + TourDatabase.TABLE_TOUR_DATA + " TourData ON ") //$NON-NLS-1$ //$NON-NLS-2$
-               + (" jtblTagData.TourData_tourId = TourData.tourId") //$NON-NLS-1$
+               final TVITagView_Tag tagItem = allTagItems.get(tagIndex);
 
-               + " WHERE jtblTagData.TourTag_TagId = ?" //$NON-NLS-1$
-               + sqlFilter.getWhereClause();
+               allChunkTagItems.put(tagItem.getTagId(), tagItem);
+
+               if (sbTagIds.length() > 0) {
+                  sbTagIds.append(',');
+               }
+               sbTagIds.append(tagItem.getTagId());
+            }
+
+            /*
+             * get totals for all tags of this chunk
+             */
+            final String sql = UI.EMPTY_STRING
+                  //
+                  + ("SELECT jtblTagData.TourTag_TagId, " + SQL_SUM_COLUMNS) //$NON-NLS-1$
+                  + (" FROM " + TourDatabase.JOINTABLE__TOURDATA__TOURTAG + " jtblTagData") //$NON-NLS-1$ //$NON-NLS-2$
 
-         final PreparedStatement statement = conn.prepareStatement(sql);
-         statement.setLong(1, tagItem.getTagId());
-         sqlFilter.setParameters(statement, 2);
+                  // get data for a tour
+                  + (" LEFT OUTER JOIN " + TourDatabase.TABLE_TOUR_DATA + " TourData ON ") //$NON-NLS-1$ //$NON-NLS-2$
+                  + (" jtblTagData.TourData_tourId = TourData.tourId") //$NON-NLS-1$
 
-         final ResultSet result = statement.executeQuery();
-         while (result.next()) {
-            tagItem.readSumColumnData(result, 1);
+                  + " WHERE jtblTagData.TourTag_TagId IN (" + sbTagIds.toString() + ")" //$NON-NLS-1$ //$NON-NLS-2$
+                  + sqlFilter.getWhereClause()
+
+                  + " GROUP BY jtblTagData.TourTag_TagId"; //$NON-NLS-1$
+
+            final PreparedStatement statement = conn.prepareStatement(sql);
+            sqlFilter.setParameters(statement, 1);
+
+            final ResultSet result = statement.executeQuery();
+            while (result.next()) {
+
+               final TVITagView_Tag tagItem = allChunkTagItems.get(result.getLong(1));
+
+               if (tagItem != null) {
+                  tagItem.readSumColumnData(result, 2);
+               }
+            }
          }
 
+      } catch (final SQLException e) {
+         net.tourbook.ui.UI.showSQLException(e);
+      }
+
+      for (final TVITagView_Tag tagItem : allTagItems) {
+
          if (tagItem.colTourCounter == 0) {
 
             /*
@@ -152,12 +210,20 @@ public abstract class TVITagViewItem extends TreeViewerItem {
              */
             tagItem.setChildren(new ArrayList<>());
          }
-
-      } catch (final SQLException e) {
-         net.tourbook.ui.UI.showSQLException(e);
       }
    }
 
+   /**
+    * Reads the children from the database without setting them, so that they can also be read in
+    * a background thread.
+    *
+    * @return Returns the children or <code>null</code> when the children are not read from the
+    *         database
+    */
+   ArrayList<TreeViewerItem> readChildren() {
+      return null;
+   }
+
    void readDefaultColumnData(final ResultSet result, final int startIndex) throws SQLException {
 
       colDistance = result.getLong(startIndex + 0);
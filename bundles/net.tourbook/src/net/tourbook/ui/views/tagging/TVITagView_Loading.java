@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package net.tourbook.ui.views.tagging;
+
+import net.tourbook.Messages;
+
+/**
+ * Placeholder item which is displayed while the children of the parent item are loaded
+ */
+public class TVITagView_Loading extends TVITagViewItem {
+
+   public TVITagView_Loading(final TVITagViewItem parentItem) {
+
+      setParentItem(parentItem);
+
+      treeColumn = Messages.tag_view_label_loading;
+   }
+
+   @Override
+   protected void fetchChildren() {}
+
+   @Override
+   public boolean hasChildren() {
+      return false;
+   }
+
+   @Override
+   public String toString() {
+      return "TVITagView_Loading " + System.identityHashCode(this); //$NON-NLS-1$
+   }
+}
@@ -106,12 +106,34 @@ public class TVITagView_Month extends TVITagViewItem {
 
    @Override
    protected void fetchChildren() {
+      setChildren(readChildren());
+   }
+
+   public int getMonth() {
+      return _month;
+   }
+
+   public TVITagView_Year getYearItem() {
+      return _yearItem;
+   }
+
+   @Override
+   public int hashCode() {
+      final int prime = 31;
+      int result = 1;
+      result = prime * result + _month;
+      result = prime * result + _year;
+      result = prime * result + ((_yearItem == null) ? 0 : _yearItem.hashCode());
+      return result;
+   }
+
+   /**
+    * Get tour children for the month
+    */
+   @Override
+   ArrayList<TreeViewerItem> readChildren() {
 
-      /*
-       * set tour children for the month
-       */
       final ArrayList<TreeViewerItem> children = new ArrayList<>();
-      setChildren(children);
 
       try (Connection conn = TourDatabase.getInstance().getConnection()) {
 
@@ -186,24 +208,8 @@ public class TVITagView_Month extends TVITagViewItem {
       } catch (final SQLException e) {
          UI.showSQLException(e);
       }
-   }
-
-   public int getMonth() {
-      return _month;
-   }
-
-   public TVITagView_Year getYearItem() {
-      return _yearItem;
-   }
 
-   @Override
-   public int hashCode() {
-      final int prime = 31;
-      int result = 1;
-      result = prime * result + _month;
-      result = prime * result + _year;
-      result = prime * result + ((_yearItem == null) ? 0 : _yearItem.hashCode());
-      return result;
+      return children;
    }
 
    @Override
@@ -69,24 +69,7 @@ public class TVITagView_Tag extends TVITagViewItem {
 
    @Override
    protected void fetchChildren() {
-
-      switch (_expandType) {
-      case TourTag.EXPAND_TYPE_FLAT:
-         setChildren(readTagChildren_Tours(UI.EMPTY_STRING));
-         break;
-
-      case TourTag.EXPAND_TYPE_YEAR_MONTH_DAY:
-         setChildren(readTagChildren_Years(true, UI.EMPTY_STRING));
-         break;
-
-      case TourTag.EXPAND_TYPE_YEAR_DAY:
-         setChildren(readTagChildren_Years(false, UI.EMPTY_STRING));
-         break;
-
-      default:
-         break;
-      }
-
+      setChildren(readChildren());
    }
 
    public int getExpandType() {
@@ -140,6 +123,24 @@ public class TVITagView_Tag extends TVITagViewItem {
       return result;
    }
 
+   @Override
+   ArrayList<TreeViewerItem> readChildren() {
+
+      switch (_expandType) {
+      case TourTag.EXPAND_TYPE_FLAT:
+         return readTagChildren_Tours(UI.EMPTY_STRING);
+
+      case TourTag.EXPAND_TYPE_YEAR_MONTH_DAY:
+         return readTagChildren_Years(true, UI.EMPTY_STRING);
+
+      case TourTag.EXPAND_TYPE_YEAR_DAY:
+         return readTagChildren_Years(false, UI.EMPTY_STRING);
+
+      default:
+         return new ArrayList<>();
+      }
+   }
+
    /**
     * get all tours for the tag Id of this tree item
     */
@@ -20,6 +20,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.List;
 
 import net.tourbook.common.UI;
 import net.tourbook.common.util.TreeViewerItem;
@@ -111,6 +112,8 @@ public class TVITagView_TagCategory extends TVITagViewItem {
          statement.setLong(1, tagCategoryId);
 
          result = statement.executeQuery();
+         final List<TVITagView_Tag> allTagItems = new ArrayList<>();
+
          while (result.next()) {
 
             final TVITagView_Tag tagItem = new TVITagView_Tag(this);
@@ -127,9 +130,12 @@ public class TVITagView_TagCategory extends TVITagViewItem {
                tagItem.treeColumn = tagItem.name = UI.scrambleText(tagItem.name);
             }
 
-            readTagTotals(tagItem);
+            allTagItems.add(tagItem);
          }
 
+         // read totals for all tags with one query
+         readTagTotals(allTagItems);
+
       } catch (final SQLException e) {
          net.tourbook.ui.UI.showSQLException(e);
       }
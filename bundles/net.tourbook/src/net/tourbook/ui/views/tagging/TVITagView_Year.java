@@ -103,12 +103,7 @@ public class TVITagView_Year extends TVITagViewItem {
 
    @Override
    protected void fetchChildren() {
-
-      if (_isMonth) {
-         setChildren(readYearChildrenMonths());
-      } else {
-         setChildren(readYearChildrenTours());
-      }
+      setChildren(readChildren());
    }
 
    public long getTagId() {
@@ -133,6 +128,16 @@ public class TVITagView_Year extends TVITagViewItem {
       return result;
    }
 
+   @Override
+   ArrayList<TreeViewerItem> readChildren() {
+
+      if (_isMonth) {
+         return readYearChildrenMonths();
+      } else {
+         return readYearChildrenTours();
+      }
+   }
+
    private ArrayList<TreeViewerItem> readYearChildrenMonths() {
 
       final ArrayList<TreeViewerItem> children = new ArrayList<>();
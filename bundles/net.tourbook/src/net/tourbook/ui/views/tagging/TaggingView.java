@@ -22,7 +22,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import net.tourbook.Images;
 import net.tourbook.Messages;
@@ -38,6 +43,7 @@ import net.tourbook.common.util.IContextMenuProvider;
 import net.tourbook.common.util.ITourViewer;
 import net.tourbook.common.util.ITreeViewer;
 import net.tourbook.common.util.PostSelectionProvider;
+import net.tourbook.common.util.StatusUtil;
 import net.tourbook.common.util.TreeColumnDefinition;
 import net.tourbook.common.util.TreeViewerItem;
 import net.tourbook.common.util.Util;
@@ -98,9 +104,11 @@ import org.eclipse.jface.viewers.ISelection;
 import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.jface.viewers.ITreeContentProvider;
 import org.eclipse.jface.viewers.ITreeSelection;
+import org.eclipse.jface.viewers.ITreeViewerListener;
 import org.eclipse.jface.viewers.SelectionChangedEvent;
 import org.eclipse.jface.viewers.StructuredSelection;
 import org.eclipse.jface.viewers.StyledString;
+import org.eclipse.jface.viewers.TreeExpansionEvent;
 import org.eclipse.jface.viewers.TreePath;
 import org.eclipse.jface.viewers.TreeSelection;
 import org.eclipse.jface.viewers.TreeViewer;
@@ -166,6 +174,25 @@ public class TaggingView extends ViewPart implements ITourProvider, ITourViewer,
       _nf1.setMaximumFractionDigits(1);
    }
 
+   /**
+    * Loads the children of tag, year and month items in the background
+    */
+   private static final ExecutorService        _childrenLoader_Executor;
+   static {
+
+      final ThreadFactory threadFactory = runnable -> {
+
+         final Thread thread = new Thread(runnable, "TaggingView: Loading tree children");//$NON-NLS-1$
+
+         thread.setPriority(Thread.MIN_PRIORITY);
+         thread.setDaemon(true);
+
+         return thread;
+      };
+
+      _childrenLoader_Executor = Executors.newSingleThreadExecutor(threadFactory);
+   }
+
    private final IPreferenceStore              _prefStore                               = TourbookPlugin.getPrefStore();
    private final IPreferenceStore              _prefStore_Common                        = CommonActivator.getPrefStore();
 
@@ -191,6 +218,23 @@ public class TaggingView extends ViewPart implements ITourProvider, ITourViewer,
 
    private int                                 _numIteratedTours;
 
+   /**
+    * Tree items which children are currently loaded in the background
+    */
+   private final Map<TVITagViewItem, Future<?>> _allChildrenLoaders = new HashMap<>();
+
+   /**
+    * Is incremented when all children loaders are canceled, loaded children from a previous
+    * generation are ignored
+    */
+   private int                                 _childrenLoader_Generation;
+
+   /**
+    * When <code>true</code> then the children are loaded in the UI thread, e.g. to restore the
+    * expanded items
+    */
+   private boolean                             _isLoadChildrenSync;
+
    private TreeViewer                          _tagViewer;
    private TVITagView_Root                     _rootItem;
    private ColumnManager                       _columnManager;
@@ -254,6 +298,9 @@ public class TaggingView extends ViewPart implements ITourProvider, ITourViewer,
       @Override
       public void run() {
 
+         // collapsed items do not need their children
+         cancelChildrenLoaders();
+
          _isInCollapseAll = true;
          {
             super.run();
@@ -294,6 +341,24 @@ public class TaggingView extends ViewPart implements ITourProvider, ITourViewer,
       }
    }
 
+   private class Action_ExpandSelection extends ActionExpandSelection {
+
+      public Action_ExpandSelection() {
+         super(TaggingView.this);
+      }
+
+      @Override
+      public void run() {
+
+         // all selected levels are expanded, this needs the children immediately
+         _isLoadChildrenSync = true;
+         {
+            super.run();
+         }
+         _isLoadChildrenSync = false;
+      }
+   }
+
    private class Action_OnMouseSelect_ExpandCollapse extends Action {
 
       public Action_OnMouseSelect_ExpandCollapse() {
@@ -460,7 +525,18 @@ public class TaggingView extends ViewPart implements ITourProvider, ITourViewer,
       public Object[] getChildren(final Object parentElement) {
 
          if (parentElement instanceof TVITagViewItem) {
-            return ((TVITagViewItem) parentElement).getFetchedChildrenAsArray();
+
+            final TVITagViewItem tviItem = (TVITagViewItem) parentElement;
+
+            if (tviItem.getUnfetchedChildren() == null && isLoadChildrenAsync(tviItem)) {
+
+               // display a placeholder until the children are loaded
+               loadChildren_Async(tviItem);
+
+               return new Object[] { new TVITagView_Loading(tviItem) };
+            }
+
+            return tviItem.getFetchedChildrenAsArray();
          }
 
          return new Object[0];
@@ -509,7 +585,8 @@ public class TaggingView extends ViewPart implements ITourProvider, ITourViewer,
 
             final TVITagView_Tag tviTag = (TVITagView_Tag) element;
 
-            final boolean hasChildren = tviTag.getFetchedChildren().size() > 0;
+            // the tour counter is already read with the tag, fetching the children is not necessary
+            final boolean hasChildren = tviTag.colTourCounter > 0;
 
             if (_tagFilterType == TagFilterType.TAGS_WITH_TOURS && hasChildren) {
 
@@ -722,6 +799,20 @@ public class TaggingView extends ViewPart implements ITourProvider, ITourViewer,
       TourManager.getInstance().addTourEventListener(_tourEventListener);
    }
 
+   /**
+    * Cancel all background loading of tree children
+    */
+   private void cancelChildrenLoaders() {
+
+      for (final Future<?> childrenLoader : _allChildrenLoaders.values()) {
+         childrenLoader.cancel(false);
+      }
+
+      _allChildrenLoaders.clear();
+
+      _childrenLoader_Generation++;
+   }
+
    private void createActions() {
 
       _actionContext_CollapseAll_WithoutSelection = new Action_CollapseAll_WithoutSelection();
@@ -731,7 +822,7 @@ public class TaggingView extends ViewPart implements ITourProvider, ITourViewer,
       _actionContext_EditQuick = new ActionEditQuick(this);
       _actionContext_EditTag = new ActionEditTag(this);
       _actionContext_EditTour = new ActionEditTour(this);
-      _actionContext_ExpandSelection = new ActionExpandSelection(this);
+      _actionContext_ExpandSelection = new Action_ExpandSelection();
       _actionContext_ExportTour = new ActionExport(this);
       _actionContext_OnMouseSelect_ExpandCollapse = new Action_OnMouseSelect_ExpandCollapse();
       _actionContext_OpenTagPrefs = new ActionOpenPrefDialog(Messages.action_tag_open_tagging_structure, PrefPageTags.ID);
@@ -828,6 +919,18 @@ public class TaggingView extends ViewPart implements ITourProvider, ITourViewer,
       _tagViewer.setUseHashlookup(true);
 
       _tagViewer.addSelectionChangedListener(this::onTagViewer_Selection);
+      _tagViewer.addTreeListener(new ITreeViewerListener() {
+
+         @Override
+         public void treeCollapsed(final TreeExpansionEvent event) {
+            onTagViewer_Collapsed(event.getElement());
+         }
+
+         @Override
+         public void treeExpanded(final TreeExpansionEvent event) {
+            onTagViewer_Expanded(event.getElement());
+         }
+      });
       _tagViewer.addDoubleClickListener(doubleClickEvent -> onTagViewer_DoubleClick());
 
       tree.addListener(SWT.MouseDoubleClick, this::onTagTree_DoubleClick);
@@ -1567,6 +1670,8 @@ public class TaggingView extends ViewPart implements ITourProvider, ITourViewer,
       _prefStore.removePropertyChangeListener(_prefChangeListener);
       _prefStore_Common.removePropertyChangeListener(_prefChangeListener_Common);
 
+      cancelChildrenLoaders();
+
       _imgTag.dispose();
       _imgTagRoot.dispose();
       _imgTagCategory.dispose();
@@ -1867,6 +1972,65 @@ public class TaggingView extends ViewPart implements ITourProvider, ITourViewer,
       return _tagViewer;
    }
 
+   /**
+    * @param tviItem
+    * @return Returns <code>true</code> when the children of the item are loaded in the background,
+    *         these are the items which children contain tours
+    */
+   private boolean isLoadChildrenAsync(final TVITagViewItem tviItem) {
+
+      if (_isLoadChildrenSync) {
+         return false;
+      }
+
+      return tviItem instanceof TVITagView_Tag
+            || tviItem instanceof TVITagView_Year
+            || tviItem instanceof TVITagView_Month;
+   }
+
+   /**
+    * Load the children of the tree item in a background thread, the viewer is updated when the
+    * children are loaded.
+    *
+    * @param tviItem
+    */
+   private void loadChildren_Async(final TVITagViewItem tviItem) {
+
+      if (_allChildrenLoaders.containsKey(tviItem)) {
+
+         // children are already loading
+         return;
+      }
+
+      final int generation = _childrenLoader_Generation;
+      final Display display = _tagViewer.getTree().getDisplay();
+
+      final Future<?> childrenLoader = _childrenLoader_Executor.submit(() -> {
+
+         ArrayList<TreeViewerItem> allChildren = null;
+
+         try {
+
+            allChildren = tviItem.readChildren();
+
+         } catch (final RuntimeException e) {
+
+            StatusUtil.log(e);
+
+         } finally {
+
+            // the loader is always removed, the item is displayed without children when loading failed
+            final ArrayList<TreeViewerItem> allLoadedChildren = allChildren == null
+                  ? new ArrayList<>()
+                  : allChildren;
+
+            display.asyncExec(() -> onChildrenLoaded(tviItem, allLoadedChildren, generation));
+         }
+      });
+
+      _allChildrenLoaders.put(tviItem, childrenLoader);
+   }
+
    private void onAction_DeleteTag() {
 
       final ITreeSelection structuredSelection = _tagViewer.getStructuredSelection();
@@ -1981,6 +2145,26 @@ public class TaggingView extends ViewPart implements ITourProvider, ITourViewer,
       reloadViewer();
    }
 
+   private void onChildrenLoaded(final TVITagViewItem tviItem,
+                                 final ArrayList<TreeViewerItem> allChildren,
+                                 final int generation) {
+
+      if (generation != _childrenLoader_Generation || _allChildrenLoaders.remove(tviItem) == null) {
+
+         // loading is canceled or the viewer is reloaded
+         return;
+      }
+
+      if (_tagViewer.getTree().isDisposed()) {
+         return;
+      }
+
+      tviItem.setChildren(allChildren);
+
+      // replace the placeholder with the loaded children
+      _tagViewer.refresh(tviItem);
+   }
+
    private void onSelect_CategoryItem(final TreeSelection treeSelection) {
 
       if (_isInExpandingSelection) {
@@ -2137,6 +2321,17 @@ public class TaggingView extends ViewPart implements ITourProvider, ITourViewer,
       _isMouseContextMenu = event.button == 3;
    }
 
+   private void onTagViewer_Collapsed(final Object element) {
+
+      final Future<?> childrenLoader = _allChildrenLoaders.remove(element);
+
+      if (childrenLoader != null) {
+
+         // children are not needed any more, they will be loaded again when the item is expanded
+         childrenLoader.cancel(false);
+      }
+   }
+
    private void onTagViewer_DoubleClick() {
 
       final Object selection = ((IStructuredSelection) _tagViewer.getSelection()).getFirstElement();
@@ -2155,6 +2350,20 @@ public class TaggingView extends ViewPart implements ITourProvider, ITourViewer,
       }
    }
 
+   private void onTagViewer_Expanded(final Object element) {
+
+      if (element instanceof TVITagViewItem) {
+
+         final TVITagViewItem tviItem = (TVITagViewItem) element;
+
+         if (tviItem.getUnfetchedChildren() == null && isLoadChildrenAsync(tviItem)) {
+
+            // loading was canceled when the item was collapsed, the placeholder is still displayed
+            loadChildren_Async(tviItem);
+         }
+      }
+   }
+
    private void onTagViewer_RenameTag() {
 
       final Object selection = ((IStructuredSelection) _tagViewer.getSelection()).getFirstElement();
@@ -2233,12 +2442,18 @@ public class TaggingView extends ViewPart implements ITourProvider, ITourViewer,
 
          _tagViewer.getTree().dispose();
 
+         cancelChildrenLoaders();
+
          createUI_10_TagViewer(_viewerContainer);
          _viewerContainer.layout();
 
          _tagViewer.setInput(_rootItem = new TVITagView_Root(_tagViewLayout));
 
-         _tagViewer.setExpandedElements(expandedElements);
+         _isLoadChildrenSync = true;
+         {
+            _tagViewer.setExpandedElements(expandedElements);
+         }
+         _isLoadChildrenSync = false;
          _tagViewer.setSelection(selection);
       }
       _viewerContainer.setRedraw(true);
@@ -2257,9 +2472,16 @@ public class TaggingView extends ViewPart implements ITourProvider, ITourViewer,
       {
          final Object[] expandedElements = _tagViewer.getExpandedElements();
 
+         cancelChildrenLoaders();
+
          _tagViewer.setInput(_rootItem = new TVITagView_Root(_tagViewLayout));
 
-         _tagViewer.setExpandedElements(expandedElements);
+         // restore the expanded items synchronously, otherwise only the first level is expanded
+         _isLoadChildrenSync = true;
+         {
+            _tagViewer.setExpandedElements(expandedElements);
+         }
+         _isLoadChildrenSync = false;
       }
       tree.setRedraw(true);
    }
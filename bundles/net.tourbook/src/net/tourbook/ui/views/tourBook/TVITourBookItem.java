@@ -21,6 +21,9 @@ import java.sql.SQLException;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
 
 import net.tourbook.application.TourbookPlugin;
 import net.tourbook.common.UI;
@@ -709,6 +712,98 @@ public abstract class TVITourBookItem extends TreeViewerItem implements ITourIte
       return tourItem;
    }
 
+   /**
+    * Read tour items from a statement which is created with {@link #SQL_ALL_TOUR_FIELDS} and
+    * {@link #SQL_ALL_OTHER_FIELDS}, all rows of a tour must follow each other.
+    *
+    * @param view
+    * @param statement
+    * @param parentProvider
+    *           Provides the parent item for a tour item, tours without a parent are skipped
+    * @return Returns the tour items for each parent item
+    * @throws SQLException
+    */
+   static Map<TVITourBookItem, ArrayList<TreeViewerItem>> fetchTourItems(final TourBookView view,
+                                                                         final PreparedStatement statement,
+                                                                         final Function<TVITourBookTour, TVITourBookItem> parentProvider)
+         throws SQLException {
+
+      final Map<TVITourBookItem, ArrayList<TreeViewerItem>> allParentChildren = new IdentityHashMap<>();
+
+      long prevTourId = -1;
+      HashSet<Long> tagIds = null;
+      HashSet<Long> markerIds = null;
+
+      final ResultSet result = statement.executeQuery();
+      while (result.next()) {
+
+         final long result_TourId = result.getLong(1);
+
+         final Object result_TagId = result.getObject(SQL_ALL_OTHER_FIELDS__COLUMN_START_NUMBER);
+         final Object result_MarkerId = result.getObject(TVITourBookItem.SQL_ALL_OTHER_FIELDS__COLUMN_START_NUMBER + 1);
+
+         if (result_TourId == prevTourId) {
+
+            // these are additional result set's for the same tour
+
+            // get tags from outer join
+            if (result_TagId instanceof Long && tagIds != null) {
+               tagIds.add((Long) result_TagId);
+            }
+
+            // get markers from outer join
+            if (result_MarkerId instanceof Long && markerIds != null) {
+               markerIds.add((Long) result_MarkerId);
+            }
+
+         } else {
+
+            // first resultset for a new tour
+
+            tagIds = null;
+            markerIds = null;
+
+            final TVITourBookTour tourItem = new TVITourBookTour(view, null);
+
+            tourItem.tourId = result_TourId;
+
+            getTourDataFields(result, tourItem);
+
+            final TVITourBookItem parentItem = parentProvider.apply(tourItem);
+
+            if (parentItem != null) {
+
+               tourItem.setParentItem(parentItem);
+               tourItem.tourYearSub = parentItem.tourYearSub;
+
+               allParentChildren.computeIfAbsent(parentItem, key -> new ArrayList<>()).add(tourItem);
+
+               // get first tag id
+               if (result_TagId instanceof Long) {
+
+                  tagIds = new HashSet<>();
+                  tagIds.add((Long) result_TagId);
+
+                  tourItem.setTagIds(tagIds);
+               }
+
+               // get first marker id
+               if (result_MarkerId instanceof Long) {
+
+                  markerIds = new HashSet<>();
+                  markerIds.add((Long) result_MarkerId);
+
+                  tourItem.setMarkerIds(markerIds);
+               }
+            }
+         }
+
+         prevTourId = result_TourId;
+      }
+
+      return allParentChildren;
+   }
+
    void addSumColumns(final ResultSet result, final int startIndex) throws SQLException {
 
 // SET_FORMATTING_OFF
@@ -827,73 +922,6 @@ public abstract class TVITourBookItem extends TreeViewerItem implements ITourIte
       return true;
    }
 
-   protected void fetchTourItems(final PreparedStatement statement) throws SQLException {
-
-      final ArrayList<TreeViewerItem> children = new ArrayList<>();
-      setChildren(children);
-
-      long prevTourId = -1;
-      HashSet<Long> tagIds = null;
-      HashSet<Long> markerIds = null;
-
-      final ResultSet result = statement.executeQuery();
-      while (result.next()) {
-
-         final long result_TourId = result.getLong(1);
-
-         final Object result_TagId = result.getObject(SQL_ALL_OTHER_FIELDS__COLUMN_START_NUMBER);
-         final Object result_MarkerId = result.getObject(TVITourBookItem.SQL_ALL_OTHER_FIELDS__COLUMN_START_NUMBER + 1);
-
-         if (result_TourId == prevTourId) {
-
-            // these are additional result set's for the same tour
-
-            // get tags from outer join
-            if (result_TagId instanceof Long) {
-               tagIds.add((Long) result_TagId);
-            }
-
-            // get markers from outer join
-            if (result_MarkerId instanceof Long) {
-               markerIds.add((Long) result_MarkerId);
-            }
-
-         } else {
-
-            // first resultset for a new tour
-
-            final TVITourBookTour tourItem = new TVITourBookTour(tourBookView, this);
-
-            tourItem.tourId = result_TourId;
-            tourItem.tourYearSub = tourYearSub;
-
-            getTourDataFields(result, tourItem);
-
-            children.add(tourItem);
-
-            // get first tag id
-            if (result_TagId instanceof Long) {
-
-               tagIds = new HashSet<>();
-               tagIds.add((Long) result_TagId);
-
-               tourItem.setTagIds(tagIds);
-            }
-
-            // get first marker id
-            if (result_MarkerId instanceof Long) {
-
-               markerIds = new HashSet<>();
-               markerIds.add((Long) result_MarkerId);
-
-               tourItem.setMarkerIds(markerIds);
-            }
-         }
-
-         prevTourId = result_TourId;
-      }
-   }
-
    @Override
    public Long getTourId() {
       return null;
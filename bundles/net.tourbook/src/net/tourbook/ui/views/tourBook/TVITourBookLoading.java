@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package net.tourbook.ui.views.tourBook;
+
+import net.tourbook.Messages;
+
+/**
+ * Placeholder item which is displayed while the children of the parent item are loaded
+ */
+public class TVITourBookLoading extends TVITourBookItem {
+
+   public TVITourBookLoading(final TourBookView view, final TVITourBookItem parentItem) {
+
+      super(view);
+
+      setParentItem(parentItem);
+
+      treeColumn = Messages.Tour_Book_Label_Loading;
+   }
+
+   @Override
+   protected void fetchChildren() {}
+
+   @Override
+   public boolean hasChildren() {
+      return false;
+   }
+
+   @Override
+   public String toString() {
+      return "TVITourBookLoading " + System.identityHashCode(this); //$NON-NLS-1$
+   }
+}
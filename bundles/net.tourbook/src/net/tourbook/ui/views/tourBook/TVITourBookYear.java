@@ -23,6 +23,10 @@ import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.time.temporal.TemporalField;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 import net.tourbook.common.UI;
 import net.tourbook.common.time.TimeTools;
@@ -51,17 +55,35 @@ public class TVITourBookYear extends TVITourBookItem {
       setParentItem(parentItem);
    }
 
-   @Override
-   protected void fetchChildren() {
+   /**
+    * Read the month/week items of several years with one query, this can be run in a background
+    * thread because the year items are not modified.
+    *
+    * @param view
+    * @param allYearItems
+    * @return Returns the month/week items for each year item
+    */
+   static Map<TVITourBookItem, ArrayList<TreeViewerItem>> readChildren(final TourBookView view,
+                                                                       final List<TVITourBookYear> allYearItems) {
+
+      final Map<TVITourBookItem, ArrayList<TreeViewerItem>> allYearChildren = new IdentityHashMap<>();
+
+      if (allYearItems.isEmpty()) {
+         return allYearChildren;
+      }
+
+      final Map<Integer, TVITourBookYear> allYearItemsByYear = new HashMap<>();
+      for (final TVITourBookYear yearItem : allYearItems) {
+         allYearItemsByYear.put(yearItem.tourYear, yearItem);
+      }
+
+      final TourBookViewLayout subCategory = allYearItems.get(0)._subCategory;
 
       String sql = null;
 
       try (Connection conn = TourDatabase.getInstance().getConnection()) {
 
-         final boolean isWeekDisplayed = _subCategory == TourBookViewLayout.CATEGORY_WEEK;
-
-         final ArrayList<TreeViewerItem> children = new ArrayList<>();
-         setChildren(children);
+         final boolean isWeekDisplayed = subCategory == TourBookViewLayout.CATEGORY_WEEK;
 
          String sqlSumYearField = UI.EMPTY_STRING;
          String sqlSumYearFieldSub = UI.EMPTY_STRING;
@@ -81,6 +103,8 @@ public class TVITourBookYear extends TVITourBookItem {
             sqlSumYearFieldSub = "StartMonth"; //$NON-NLS-1$
          }
 
+         final String sqlYearParameters = SQL.createParameterList(allYearItems.size());
+
          final SQLFilter sqlAppFilter = new SQLFilter(SQLFilter.TAG_FILTER);
          String sqlFromTourData;
 
@@ -111,7 +135,7 @@ public class TVITourBookYear extends TVITourBookItem {
                   + "   AS jTdataTtag" + NL //$NON-NLS-1$
                   + "   ON tourID = jTdataTtag.TourData_tourId" + NL //                //$NON-NLS-1$
 
-                  + "   WHERE " + sqlSumYearField + "=?" + NL //                       //$NON-NLS-1$ //$NON-NLS-2$
+                  + "   WHERE " + sqlSumYearField + " IN (" + sqlYearParameters + ")" + NL //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
                   + "      " + sqlAppFilter.getWhereClause() //$NON-NLS-1$
 
                   + ") NecessaryNameOtherwiseItDoNotWork" + NL //                      //$NON-NLS-1$
@@ -125,7 +149,7 @@ public class TVITourBookYear extends TVITourBookItem {
 
                   + "FROM " + TourDatabase.TABLE_TOUR_DATA + NL //                     //$NON-NLS-1$
 
-                  + "WHERE " + sqlSumYearField + "=?" + NL //                          //$NON-NLS-1$ //$NON-NLS-2$
+                  + "WHERE " + sqlSumYearField + " IN (" + sqlYearParameters + ")" + NL //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
                   + "   " + sqlAppFilter.getWhereClause() + NL; //$NON-NLS-1$
          }
 
@@ -140,7 +164,7 @@ public class TVITourBookYear extends TVITourBookItem {
                + sqlFromTourData
 
                + "GROUP BY " + sqlSumYearField + "," + sqlSumYearFieldSub + NL //      //$NON-NLS-1$ //$NON-NLS-2$
-               + "ORDER BY " + sqlSumYearFieldSub + NL //                              //$NON-NLS-1$
+               + "ORDER BY " + sqlSumYearField + "," + sqlSumYearFieldSub + NL //      //$NON-NLS-1$ //$NON-NLS-2$
          ;
 
          final ZonedDateTime tourWeek = calendar8.with(
@@ -154,19 +178,24 @@ public class TVITourBookYear extends TVITourBookItem {
          paramIndex = tagFilterSqlJoinBuilder.setParameters(prepStmt, paramIndex);
 
          // set sql parameters
-         prepStmt.setInt(paramIndex++, tourYear);
+         for (final TVITourBookYear yearItem : allYearItems) {
+            prepStmt.setInt(paramIndex++, yearItem.tourYear);
+         }
+
          sqlAppFilter.setParameters(prepStmt, paramIndex++);
 
          final ResultSet result = prepStmt.executeQuery();
          while (result.next()) {
 
-            final TVITourBookItem tourItem = new TVITourBookYearCategorized(tourBookView, this, _subCategory);
-
-            children.add(tourItem);
-
             final int dbYear = result.getInt(1);
             final int dbYearSub = result.getInt(2);
 
+            final TVITourBookYear yearItem = allYearItemsByYear.get(dbYear);
+
+            final TVITourBookItem tourItem = new TVITourBookYearCategorized(view, yearItem, subCategory);
+
+            allYearChildren.computeIfAbsent(yearItem, key -> new ArrayList<>()).add(tourItem);
+
             String columnText;
 
             /*
@@ -218,6 +247,16 @@ public class TVITourBookYear extends TVITourBookItem {
       } catch (final SQLException e) {
          SQL.showException(e, sql);
       }
+
+      return allYearChildren;
+   }
+
+   @Override
+   protected void fetchChildren() {
+
+      final ArrayList<TreeViewerItem> allYearSubItems = readChildren(tourBookView, List.of(this)).get(this);
+
+      setChildren(allYearSubItems == null ? new ArrayList<>() : allYearSubItems);
    }
 
    @Override
@@ -18,7 +18,14 @@ package net.tourbook.ui.views.tourBook;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.tourbook.common.util.SQL;
+import net.tourbook.common.util.TreeViewerItem;
 import net.tourbook.database.TourDatabase;
 import net.tourbook.tag.tour.filter.TourTagFilterSqlJoinBuilder;
 import net.tourbook.ui.SQLFilter;
@@ -40,18 +47,28 @@ public class TVITourBookYearCategorized extends TVITourBookItem {
    }
 
    /**
-    * Fetch all tour data within a month/week category.
+    * Read the tours of several month/week items with one query, this can be run in a background
+    * thread because the items are not modified.
+    *
+    * @param view
+    * @param allYearSubItems
+    *           Month/week items which must all belong to the same year item
+    * @return Returns the tour items for each month/week item
     */
-   @Override
-   protected void fetchChildren() {
+   static Map<TVITourBookItem, ArrayList<TreeViewerItem>> readChildren(final TourBookView view,
+                                                                       final List<TVITourBookYearCategorized> allYearSubItems) {
+
+      if (allYearSubItems.isEmpty()) {
+         return new IdentityHashMap<>();
+      }
+
+      final TVITourBookYearCategorized firstItem = allYearSubItems.get(0);
+      final boolean isWeekCategory = firstItem._category == TourBookViewLayout.CATEGORY_WEEK;
 
-      /*
-       * Set the children for the yearSub (month,week,...) item, these are tour items
-       */
       String sumYear = UI.EMPTY_STRING;
       String sumYearSub = UI.EMPTY_STRING;
 
-      if (_category == TourBookViewLayout.CATEGORY_WEEK) {
+      if (isWeekCategory) {
 
          // categorize by week
 
@@ -66,6 +83,11 @@ public class TVITourBookYearCategorized extends TVITourBookItem {
          sumYearSub = "startMonth"; //$NON-NLS-1$
       }
 
+      final Map<Integer, TVITourBookYearCategorized> allYearSubItemsByValue = new HashMap<>();
+      for (final TVITourBookYearCategorized yearSubItem : allYearSubItems) {
+         allYearSubItemsByValue.put(yearSubItem.tourYearSub, yearSubItem);
+      }
+
       final SQLFilter sqlAppFilter = new SQLFilter(SQLFilter.TAG_FILTER);
 
       final TourTagFilterSqlJoinBuilder tagFilterSqlJoinBuilder = new TourTagFilterSqlJoinBuilder();
@@ -88,37 +110,55 @@ public class TVITourBookYearCategorized extends TVITourBookItem {
             + " ON TourData.tourId = Tmarker.TourData_tourId" + NL //               //$NON-NLS-1$
 
             + "WHERE  " + sumYear + "=?" + NL //                                    //$NON-NLS-1$ //$NON-NLS-2$
-            + "   AND " + sumYearSub + "=?" + NL //                                 //$NON-NLS-1$ //$NON-NLS-2$
+            + "   AND " + sumYearSub + " IN (" + SQL.createParameterList(allYearSubItems.size()) + ")" + NL //$NON-NLS-1$ //$NON-NLS-2$
             + "   " + sqlAppFilter.getWhereClause() //$NON-NLS-1$
 
             + "ORDER BY TourStartTime" + NL; //                                     //$NON-NLS-1$
 
       try (Connection conn = TourDatabase.getInstance().getConnection()) {
 
-//         TourDatabase.enableRuntimeStatistics(conn);
-
          final PreparedStatement prepStmt = conn.prepareStatement(sql);
 
          int paramIndex = 1;
 
          // set sql tag parameters
          paramIndex = tagFilterSqlJoinBuilder.setParameters(prepStmt, paramIndex);
-//         }
 
          // set sql other parameters
-         prepStmt.setInt(paramIndex++, tourYear);
-         prepStmt.setInt(paramIndex++, tourYearSub);
-         sqlAppFilter.setParameters(prepStmt, paramIndex++);
+         prepStmt.setInt(paramIndex++, firstItem.tourYear);
+
+         for (final TVITourBookYearCategorized yearSubItem : allYearSubItems) {
+            prepStmt.setInt(paramIndex++, yearSubItem.tourYearSub);
+         }
 
-         fetchTourItems(prepStmt);
+         sqlAppFilter.setParameters(prepStmt, paramIndex++);
 
-//       TourDatabase.disableRuntimeStatistic(conn);
+         return fetchTourItems(view, prepStmt, tourItem -> allYearSubItemsByValue.get(isWeekCategory
+               ? tourItem.colWeekNo
+               : tourItem.tourMonth));
 
       } catch (final SQLException e) {
-         UI.showSQLException(e);
+
+         SQL.showException(e, sql);
+
+         return new IdentityHashMap<>();
       }
    }
 
+   /**
+    * Fetch all tour data within a month/week category.
+    */
+   @Override
+   protected void fetchChildren() {
+
+      /*
+       * Set the children for the yearSub (month,week,...) item, these are tour items
+       */
+      final ArrayList<TreeViewerItem> allTourItems = readChildren(tourBookView, List.of(this)).get(this);
+
+      setChildren(allTourItems == null ? new ArrayList<>() : allTourItems);
+   }
+
    public TourBookViewLayout getCategory() {
       return _category;
    }
@@ -20,10 +20,17 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
 
 import net.tourbook.Images;
 import net.tourbook.Messages;
@@ -200,6 +207,7 @@ import org.eclipse.swt.widgets.Menu;
 import org.eclipse.swt.widgets.ScrollBar;
 import org.eclipse.swt.widgets.ToolBar;
 import org.eclipse.swt.widgets.Tree;
+import org.eclipse.swt.widgets.Widget;
 import org.eclipse.ui.IPartListener2;
 import org.eclipse.ui.ISelectionListener;
 import org.eclipse.ui.IWorkbenchPartReference;
@@ -265,6 +273,25 @@ public class TourBookView extends ViewPart implements
     */
    private static final String HEADER_COLUMN_ID_POSTFIX = "_HEADER"; //$NON-NLS-1$
 
+   /**
+    * Loads the children of year and month/week items in the background
+    */
+   private static final ExecutorService _childrenLoader_Executor;
+   static {
+
+      final ThreadFactory threadFactory = runnable -> {
+
+         final Thread thread = new Thread(runnable, "TourBookView: Loading tree children");//$NON-NLS-1$
+
+         thread.setPriority(Thread.MIN_PRIORITY);
+         thread.setDaemon(true);
+
+         return thread;
+      };
+
+      _childrenLoader_Executor = Executors.newSingleThreadExecutor(threadFactory);
+   }
+
    //
    private static TourBookViewLayout       _viewLayout;
    //
@@ -361,6 +388,37 @@ public class TourBookView extends ViewPart implements
    private ActionUpload                    _actionUploadTour;
    //
    private PixelConverter                  _pc;
+
+   /**
+    * Tree items which children are currently loaded in the background, the children of several
+    * items are loaded with the same loader
+    */
+   private final Map<TVITourBookItem, Future<?>>   _allChildrenLoaders      = new IdentityHashMap<>();
+
+   /**
+    * Tree items which are displaying a placeholder until their children are loaded
+    */
+   private final Set<TVITourBookItem>              _allLoadingItems         = Collections.newSetFromMap(new IdentityHashMap<>());
+
+   /**
+    * Number of tree levels which are expanded when the children of an item are loaded, e.g. for
+    * "Expand selection"
+    */
+   private final Map<TVITourBookItem, Integer>     _allExpandLevels         = new IdentityHashMap<>();
+
+   /**
+    * Is incremented when all children loaders are canceled, loaded children from a previous
+    * generation are ignored
+    */
+   private int                                     _childrenLoader_Generation;
+
+   /**
+    * Expanded and selected elements of the previous viewer content, they are restored when their
+    * parent items are loaded
+    */
+   private final List<Object>                      _restoreExpandedElements = new ArrayList<>();
+   private final List<Object>                      _restoreSelectedElements = new ArrayList<>();
+
    /*
     * UI controls
     */
@@ -465,7 +523,23 @@ public class TourBookView extends ViewPart implements
 
       @Override
       public Object[] getChildren(final Object parentElement) {
-         return ((TreeViewerItem) parentElement).getFetchedChildrenAsArray();
+
+         final TreeViewerItem treeItem = (TreeViewerItem) parentElement;
+
+         if (treeItem.getUnfetchedChildren() == null
+               && (treeItem instanceof TVITourBookYear || treeItem instanceof TVITourBookYearCategorized)) {
+
+            final TVITourBookItem tviItem = (TVITourBookItem) treeItem;
+
+            // display a placeholder until the children are loaded
+            loadChildren_Async(tviItem);
+
+            _allLoadingItems.add(tviItem);
+
+            return new Object[] { new TVITourBookLoading(TourBookView.this, tviItem) };
+         }
+
+         return treeItem.getFetchedChildrenAsArray();
       }
 
       @Override
@@ -1283,6 +1357,25 @@ public class TourBookView extends ViewPart implements
       TourManager.getInstance().addTourEventListener(_tourPropertyListener);
    }
 
+   /**
+    * Cancel all background loading of tree children
+    */
+   private void cancelChildrenLoaders() {
+
+      for (final Future<?> childrenLoader : _allChildrenLoaders.values()) {
+         childrenLoader.cancel(false);
+      }
+
+      _allChildrenLoaders.clear();
+      _allLoadingItems.clear();
+      _allExpandLevels.clear();
+
+      _restoreExpandedElements.clear();
+      _restoreSelectedElements.clear();
+
+      _childrenLoader_Generation++;
+   }
+
    /**
     * Close all opened dialogs except the opening dialog.
     *
@@ -1662,7 +1755,22 @@ public class TourBookView extends ViewPart implements
       tree.setHeaderVisible(true);
       tree.setLinesVisible(_prefStore.getBoolean(ITourbookPreferences.VIEW_LAYOUT_DISPLAY_LINES));
 
-      _tourViewer_Tree = new TreeViewer(tree);
+      _tourViewer_Tree = new TreeViewer(tree) {
+
+         @Override
+         protected void internalExpandToLevel(final Widget widget, final int level) {
+
+            super.internalExpandToLevel(widget, level);
+
+            final Object element = widget.getData();
+
+            if ((level == ALL_LEVELS || level > 1) && _allLoadingItems.contains(element)) {
+
+               // children are not yet loaded, expand them when they are available
+               _allExpandLevels.put((TVITourBookItem) element, level == ALL_LEVELS ? ALL_LEVELS : level - 1);
+            }
+         }
+      };
       _columnManager_Tree.createColumns(_tourViewer_Tree);
 
       _tourViewer_Tree.setComparer(new ItemComparer_Tree());
@@ -1754,6 +1862,8 @@ public class TourBookView extends ViewPart implements
          _natTable_DataLoader.resetTourItems();
          _natTable_DataLoader = null;
       }
+      cancelChildrenLoaders();
+
       if (_rootItem_Tree != null) {
          _rootItem_Tree.clearChildren();
          _rootItem_Tree = null;
@@ -2372,6 +2482,101 @@ public class TourBookView extends ViewPart implements
       return Util.getStateBoolean(_state, TourBookView.STATE_IS_SHOW_SUMMARY_ROW, TourBookView.STATE_IS_SHOW_SUMMARY_ROW_DEFAULT);
    }
 
+   /**
+    * Load the children of the tree item in a background thread, the viewer is updated when the
+    * children are loaded.
+    * <p>
+    * The children of all years or of all months/weeks of a year are loaded together with one
+    * query, expanding other items or restoring the expanded items do not need more queries.
+    *
+    * @param tviItem
+    */
+   private void loadChildren_Async(final TVITourBookItem tviItem) {
+
+      if (_allChildrenLoaders.containsKey(tviItem)) {
+
+         // children are already loading
+         return;
+      }
+
+      final List<TVITourBookItem> allLoadedItems = new ArrayList<>();
+      final Supplier<Map<TVITourBookItem, ArrayList<TreeViewerItem>>> childrenReader;
+
+      if (tviItem instanceof TVITourBookYear) {
+
+         // load months/weeks of all years
+
+         final List<TVITourBookYear> allYearItems = new ArrayList<>();
+         allYearItems.add((TVITourBookYear) tviItem);
+
+         for (final TreeViewerItem treeItem : _rootItem_Tree.getChildren()) {
+
+            if (treeItem instanceof TVITourBookYear
+                  && treeItem != tviItem
+                  && ((TVITourBookYear) treeItem).isRowSummary == false
+                  && treeItem.getUnfetchedChildren() == null
+                  && _allChildrenLoaders.containsKey(treeItem) == false) {
+
+               allYearItems.add((TVITourBookYear) treeItem);
+            }
+         }
+
+         allLoadedItems.addAll(allYearItems);
+         childrenReader = () -> TVITourBookYear.readChildren(this, allYearItems);
+
+      } else {
+
+         // load tours of all months/weeks of the year
+
+         final List<TVITourBookYearCategorized> allYearSubItems = new ArrayList<>();
+         allYearSubItems.add((TVITourBookYearCategorized) tviItem);
+
+         for (final TreeViewerItem treeItem : tviItem.getParentItem().getChildren()) {
+
+            if (treeItem instanceof TVITourBookYearCategorized
+                  && treeItem != tviItem
+                  && treeItem.getUnfetchedChildren() == null
+                  && _allChildrenLoaders.containsKey(treeItem) == false) {
+
+               allYearSubItems.add((TVITourBookYearCategorized) treeItem);
+            }
+         }
+
+         allLoadedItems.addAll(allYearSubItems);
+         childrenReader = () -> TVITourBookYearCategorized.readChildren(this, allYearSubItems);
+      }
+
+      final int generation = _childrenLoader_Generation;
+      final Display display = _tourViewer_Tree.getTree().getDisplay();
+
+      final Future<?> childrenLoader = _childrenLoader_Executor.submit(() -> {
+
+         Map<TVITourBookItem, ArrayList<TreeViewerItem>> allChildren = null;
+
+         try {
+
+            allChildren = childrenReader.get();
+
+         } catch (final RuntimeException e) {
+
+            StatusUtil.log(e);
+
+         } finally {
+
+            // the loaders are always removed, items without loaded children are displayed without children
+            final Map<TVITourBookItem, ArrayList<TreeViewerItem>> allLoadedChildren = allChildren == null
+                  ? Collections.emptyMap()
+                  : allChildren;
+
+            display.asyncExec(() -> onChildrenLoaded(allLoadedItems, allLoadedChildren, generation));
+         }
+      });
+
+      for (final TVITourBookItem loadedItem : allLoadedItems) {
+         _allChildrenLoaders.put(loadedItem, childrenLoader);
+      }
+   }
+
    /**
     * Set the context menu position when it's opened with the keyboard.
     *
@@ -2630,6 +2835,85 @@ public class TourBookView extends ViewPart implements
       }
    }
 
+   private void onChildrenLoaded(final List<TVITourBookItem> allLoadedItems,
+                                 final Map<TVITourBookItem, ArrayList<TreeViewerItem>> allChildren,
+                                 final int generation) {
+
+      if (generation != _childrenLoader_Generation) {
+
+         // loading is canceled or the viewer is reloaded
+         return;
+      }
+
+      final Tree tree = _tourViewer_Tree.getTree();
+      if (tree.isDisposed()) {
+         return;
+      }
+
+      final List<TVITourBookItem> allDisplayedItems = new ArrayList<>();
+
+      for (final TVITourBookItem loadedItem : allLoadedItems) {
+
+         _allChildrenLoaders.remove(loadedItem);
+
+         // children can be fetched synchronously in the meantime, e.g. when a tour is selected
+         if (loadedItem.getUnfetchedChildren() == null) {
+
+            final ArrayList<TreeViewerItem> allItemChildren = allChildren.get(loadedItem);
+
+            loadedItem.setChildren(allItemChildren == null ? new ArrayList<>() : allItemChildren);
+         }
+
+         if (_allLoadingItems.remove(loadedItem)) {
+            allDisplayedItems.add(loadedItem);
+         }
+      }
+
+      if (allDisplayedItems.isEmpty()) {
+         return;
+      }
+
+      tree.setRedraw(false);
+      _isInSelection = true;
+      {
+         final List<Object> allSelectedItems = new ArrayList<>();
+
+         for (final TVITourBookItem displayedItem : allDisplayedItems) {
+
+            // replace the placeholder with the loaded children
+            _tourViewer_Tree.refresh(displayedItem);
+
+            final Integer expandLevel = _allExpandLevels.remove(displayedItem);
+
+            for (final TreeViewerItem childItem : displayedItem.getChildren()) {
+
+               if (expandLevel != null) {
+
+                  _tourViewer_Tree.expandToLevel(childItem, expandLevel);
+
+               } else if (removeElement(_restoreExpandedElements, childItem)) {
+
+                  _tourViewer_Tree.setExpandedState(childItem, true);
+               }
+
+               if (removeElement(_restoreSelectedElements, childItem)) {
+                  allSelectedItems.add(childItem);
+               }
+            }
+         }
+
+         if (allSelectedItems.size() > 0) {
+
+            // keep the already restored selection
+            allSelectedItems.addAll(0, _tourViewer_Tree.getStructuredSelection().toList());
+
+            _tourViewer_Tree.setSelection(new StructuredSelection(allSelectedItems), true);
+         }
+      }
+      _isInSelection = false;
+      tree.setRedraw(true);
+   }
+
    private void onSelect_NatTableItem(final SelectionChangedEvent event) {
 
       if (_isInSelection) {
@@ -2904,8 +3188,7 @@ public class TourBookView extends ViewPart implements
 
          setupTourViewerContent();
 
-         _tourViewer_Tree.setExpandedElements(expandedElements);
-         _tourViewer_Tree.setSelection(selection);
+         restoreViewerState_Tree(expandedElements, selection);
       }
       _viewerContainer_Tree.setRedraw(true);
 
@@ -2944,14 +3227,36 @@ public class TourBookView extends ViewPart implements
 
             setupTourViewerContent();
 
-            _tourViewer_Tree.setExpandedElements(expandedElements);
-            _tourViewer_Tree.setSelection(selection, true);
+            restoreViewerState_Tree(expandedElements, selection);
          }
          _isInSelection = false;
          tree.setRedraw(true);
       }
    }
 
+   /**
+    * @param allElements
+    * @param element
+    * @return Returns <code>true</code> when an element, which is equal to the element for the
+    *         tree viewer, was removed from the list
+    */
+   private boolean removeElement(final List<Object> allElements, final Object element) {
+
+      final IElementComparer comparer = _tourViewer_Tree.getComparer();
+
+      for (int elementIndex = 0; elementIndex < allElements.size(); elementIndex++) {
+
+         if (comparer.equals(allElements.get(elementIndex), element)) {
+
+            allElements.remove(elementIndex);
+
+            return true;
+         }
+      }
+
+      return false;
+   }
+
    void reopenFirstSelectedTour() {
 
       if (_isLayoutNatTable) {
@@ -2993,6 +3298,9 @@ public class TourBookView extends ViewPart implements
 
                selectedTourItem = (TVITourBookTour) selection;
 
+               // do not expand the previous items when they are loaded
+               _restoreExpandedElements.clear();
+
                _tourViewer_Tree.collapseAll();
                _tourViewer_Tree.expandToLevel(selectedTourItem, 0);
                _tourViewer_Tree.setSelection(new StructuredSelection(selectedTourItem), false);
@@ -3263,6 +3571,34 @@ public class TourBookView extends ViewPart implements
       _natTable_DataLoader.setupSortColumns(allSortColumnIds, allSortDirections);
    }
 
+   /**
+    * Expand and select the elements of the previous viewer content, elements which children are
+    * loaded in the background are restored when their parent is loaded.
+    *
+    * @param allExpandedElements
+    * @param selection
+    */
+   private void restoreViewerState_Tree(final Object[] allExpandedElements, final ISelection selection) {
+
+      _restoreExpandedElements.addAll(Arrays.asList(allExpandedElements));
+
+      if (selection instanceof IStructuredSelection) {
+         _restoreSelectedElements.addAll(((IStructuredSelection) selection).toList());
+      }
+
+      // the year items are available immediately
+      _tourViewer_Tree.setExpandedElements(allExpandedElements);
+      _tourViewer_Tree.setSelection(selection, true);
+
+      // remove the restored elements
+      for (final Object expandedElement : _tourViewer_Tree.getExpandedElements()) {
+         removeElement(_restoreExpandedElements, expandedElement);
+      }
+      for (final Object selectedElement : _tourViewer_Tree.getStructuredSelection().toList()) {
+         removeElement(_restoreSelectedElements, selectedElement);
+      }
+   }
+
    @PersistState
    private void saveState() {
 
@@ -3549,6 +3885,9 @@ public class TourBookView extends ViewPart implements
 
       } else {
 
+         // children of the previous items are not needed any more
+         cancelChildrenLoaders();
+
          if (_rootItem_Tree != null) {
             _rootItem_Tree.clearChildren();
          }
@@ -340,6 +340,12 @@ class TourBook_ColumnFactory {
                // show day only
                cell.setText(tourItem.treeColumn);
 
+            } else if (element instanceof TVITourBookLoading) {
+
+               // placeholder while the children are loaded
+
+               cell.setText(tviItem.treeColumn);
+
             } else {
 
                // year/month or week item
@@ -15,6 +15,7 @@
  *******************************************************************************/
 package net.tourbook.ui.views.tourMarker;
 
+import static org.eclipse.swt.events.SelectionListener.widgetDefaultSelectedAdapter;
 import static org.eclipse.swt.events.SelectionListener.widgetSelectedAdapter;
 
 import net.tourbook.Messages;
@@ -31,6 +32,7 @@ import org.eclipse.jface.layout.GridLayoutFactory;
 import org.eclipse.jface.resource.JFaceResources;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.MouseTrackListener;
+import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.events.SelectionListener;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.Rectangle;
@@ -42,6 +44,7 @@ import org.eclipse.swt.widgets.Group;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.swt.widgets.Spinner;
+import org.eclipse.swt.widgets.Text;
 import org.eclipse.swt.widgets.ToolBar;
 
 /**
@@ -80,6 +83,8 @@ public class SlideoutTourMarkerFilter extends AnimatedToolTipShell {
    private Spinner   _spinnerGeoFilter;
    private Spinner   _spinnerLatLonDigits;
 
+   private Text      _txtTextFilter;
+
    private final class WaitTimer implements Runnable {
       @Override
       public void run() {
@@ -153,6 +158,7 @@ public class SlideoutTourMarkerFilter extends AnimatedToolTipShell {
 //         container.setBackground(Display.getCurrent().getSystemColor(SWT.COLOR_RED));
          {
             createUI_10_Title(container);
+            createUI_15_TextFilter(container);
             createUI_20_GeoFilter(container);
             createUI_30_LatLonDigits(container);
          }
@@ -174,6 +180,31 @@ public class SlideoutTourMarkerFilter extends AnimatedToolTipShell {
       MTFont.setBannerFont(label);
    }
 
+   private void createUI_15_TextFilter(final Composite parent) {
+
+      /*
+       * Text filter
+       */
+      {
+         // label
+         final Label label = new Label(parent, SWT.NONE);
+         label.setText(Messages.Slideout_TourMarkerFilter_Label_TextFilter);
+         label.setToolTipText(Messages.Slideout_TourMarkerFilter_Label_TextFilter_Tooltip);
+         GridDataFactory.fillDefaults()
+               .align(SWT.FILL, SWT.CENTER)
+               .applyTo(label);
+
+         // text
+         _txtTextFilter = new Text(parent, SWT.SEARCH | SWT.ICON_SEARCH | SWT.ICON_CANCEL);
+         _txtTextFilter.setToolTipText(Messages.Slideout_TourMarkerFilter_Label_TextFilter_Tooltip);
+         _txtTextFilter.addSelectionListener(widgetDefaultSelectedAdapter(this::onSelect_TextFilter));
+         GridDataFactory.fillDefaults()
+               .grab(true, false)
+               .span(2, 1)
+               .applyTo(_txtTextFilter);
+      }
+   }
+
    private void createUI_20_GeoFilter(final Composite parent) {
 
       /*
@@ -352,6 +383,17 @@ public class SlideoutTourMarkerFilter extends AnimatedToolTipShell {
       enableControls();
    }
 
+   private void onSelect_TextFilter(final SelectionEvent selectionEvent) {
+
+      if (selectionEvent.detail == SWT.ICON_CANCEL) {
+         _txtTextFilter.setText(UI.EMPTY_STRING);
+      }
+
+      _state.put(TourMarkerAllView.STATE_TEXT_FILTER, _txtTextFilter.getText().trim());
+
+      _tourMarkerAllView.updateUI_TextFilter();
+   }
+
    /**
     * @param toolTipItemBounds
     * @param isOpenDelayed
@@ -406,6 +448,11 @@ public class SlideoutTourMarkerFilter extends AnimatedToolTipShell {
 
    private void restoreState() {
 
+      /*
+       * Text filter
+       */
+      _txtTextFilter.setText(Util.getStateString(_state, TourMarkerAllView.STATE_TEXT_FILTER, UI.EMPTY_STRING));
+
       /*
        * Geo filter
        */
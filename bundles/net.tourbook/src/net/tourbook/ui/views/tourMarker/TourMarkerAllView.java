@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (C) 2005, 2021 Wolfgang Schramm and Contributors
+ * Copyright (C) 2005, 2023 Wolfgang Schramm and Contributors
  *
  * This program is free software; you can redistribute it and/or modify it under
  * the terms of the GNU General Public License as published by the Free Software
@@ -15,14 +15,13 @@
  *******************************************************************************/
 package net.tourbook.ui.views.tourMarker;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.text.DateFormat;
 import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import net.tourbook.application.TourbookPlugin;
 import net.tourbook.common.CommonActivator;
@@ -33,7 +32,7 @@ import net.tourbook.common.util.ColumnManager;
 import net.tourbook.common.util.IContextMenuProvider;
 import net.tourbook.common.util.ITourViewer;
 import net.tourbook.common.util.PostSelectionProvider;
-import net.tourbook.common.util.SQL;
+import net.tourbook.common.util.SQLData;
 import net.tourbook.common.util.TableColumnDefinition;
 import net.tourbook.common.util.Util;
 import net.tourbook.data.TourData;
@@ -70,15 +69,11 @@ import org.eclipse.jface.viewers.CellLabelProvider;
 import org.eclipse.jface.viewers.CheckStateChangedEvent;
 import org.eclipse.jface.viewers.CheckboxTableViewer;
 import org.eclipse.jface.viewers.ColumnViewer;
-import org.eclipse.jface.viewers.ISelection;
-import org.eclipse.jface.viewers.IStructuredContentProvider;
+import org.eclipse.jface.viewers.ILazyContentProvider;
 import org.eclipse.jface.viewers.StructuredSelection;
 import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.jface.viewers.ViewerCell;
-import org.eclipse.jface.viewers.ViewerComparator;
-import org.eclipse.jface.viewers.ViewerFilter;
 import org.eclipse.swt.SWT;
-import org.eclipse.swt.custom.BusyIndicator;
 import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.widgets.Composite;
@@ -119,6 +114,7 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
    private static final String         STATE_SELECTED_MARKER_ITEM        = "STATE_SELECTED_MARKER_ITEM";                //$NON-NLS-1$
    private static final String         STATE_SORT_COLUMN_DIRECTION       = "STATE_SORT_COLUMN_DIRECTION";               //$NON-NLS-1$
    private static final String         STATE_SORT_COLUMN_ID              = "STATE_SORT_COLUMN_ID";                      //$NON-NLS-1$
+   static final String                 STATE_TEXT_FILTER                 = "STATE_TEXT_FILTER";                         //$NON-NLS-1$
 
    static final double                 DEFAULT_GEO_FILTER_AREA           = 0.05;
    static final boolean                DEFAULT_IS_LAT_LON_DIGITS_ENABLED = true;
@@ -151,14 +147,20 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
    private ActionMarkerFilterWithNoGPS _actionTourFilterWithoutGPS;
    //
    private CheckboxTableViewer         _markerViewer;
-   private MarkerComparator            _markerComparator                 = new MarkerComparator();
+   private MarkerSorting               _markerSorting                    = new MarkerSorting();
    private ColumnManager               _columnManager;
    private SelectionAdapter            _columnSortListener;
 
-   private ArrayList<TourMarkerItem>   _allMarkerItems                   = new ArrayList<>();
+   private TourMarkerAllView_DataLoader _markerLoader                   = new TourMarkerAllView_DataLoader(this);
 
    private int                         _gpsMarkerFilter                  = GPS_MARKER_FILTER_IS_DISABLED;
 
+   /**
+    * When not empty, then only markers which contain this text are displayed, they are searched in
+    * the full-text index
+    */
+   private String                      _markerTextFilter                 = UI.EMPTY_STRING;
+
    /**
     * Number of digits for the lat/lon columns.
     */
@@ -198,7 +200,33 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
 
    private Menu           _tableContextMenu;
 
-   private class MarkerComparator extends ViewerComparator {
+   private class MarkerContentProvider implements ILazyContentProvider {
+
+      @Override
+      public void dispose() {}
+
+      @Override
+      public void inputChanged(final Viewer viewer, final Object oldInput, final Object newInput) {}
+
+      @Override
+      public void updateElement(final int index) {
+
+         final TourMarkerItem markerItem = _markerLoader.getMarkerItem(index);
+
+         if (markerItem != null) {
+
+            // marker is loaded, otherwise the item is updated when the marker page is loaded
+
+            updateUI_MarkerItem(markerItem, index);
+         }
+      }
+   }
+
+   /**
+    * The markers are sorted in the database, a viewer comparator cannot be used with a virtual
+    * table.
+    */
+   private class MarkerSorting {
 
       private static final int ASCENDING       = 0;
       private static final int DESCENDING      = 1;
@@ -206,85 +234,70 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
       private String           __sortColumnId  = COLUMN_TOUR_ID;
       private int              __sortDirection = ASCENDING;
 
-      @Override
-      public int compare(final Viewer viewer, final Object e1, final Object e2) {
-
-         final TourMarkerItem m1 = (TourMarkerItem) e1;
-         final TourMarkerItem m2 = (TourMarkerItem) e2;
+      /**
+       * @return Returns the fields for the SQL ORDER BY clause, the marker ID is always appended
+       *         that the sort order is unique
+       */
+      private String getSqlOrderBy() {
 
-         boolean _isSortByTime = false;
-         double rc = 0;
+         final List<String> allSortFields = new ArrayList<>();
 
-         // Determine which column and do the appropriate sort
          switch (__sortColumnId) {
          case COLUMN_ALTITUDE:
-            rc = m1.altitude - m2.altitude;
+            allSortFields.add("altitude"); //$NON-NLS-1$
             break;
 
          case COLUMN_DESCRIPTION:
-            rc = m1.description.compareTo(m2.description);
+            allSortFields.add("description"); //$NON-NLS-1$
             break;
 
          case COLUMN_LATITUDE:
-            rc = m1.latitude - m2.latitude;
-            if (rc == 0) {
-               rc = m1.longitude - m2.longitude;
-            }
-            _isSortByTime = true;
+            allSortFields.add("latitude"); //$NON-NLS-1$
+            allSortFields.add("longitude"); //$NON-NLS-1$
+            allSortFields.add("tourTime"); //$NON-NLS-1$
             break;
 
          case COLUMN_LONGITUDE:
-            rc = m1.longitude - m2.longitude;
-            if (rc == 0) {
-               rc = m1.latitude - m2.latitude;
-            }
-            _isSortByTime = true;
+            allSortFields.add("longitude"); //$NON-NLS-1$
+            allSortFields.add("latitude"); //$NON-NLS-1$
+            allSortFields.add("tourTime"); //$NON-NLS-1$
             break;
 
          case COLUMN_MARKER_ID:
-            rc = m1.markerId - m2.markerId;
             break;
 
          case COLUMN_TOUR_ID:
-            rc = m1.tourId - m2.tourId;
+            allSortFields.add(TourDatabase.KEY_TOUR);
             break;
 
          case COLUMN_DATE:
          case COLUMN_TIME:
-            rc = m1.time - m2.time;
+            allSortFields.add("tourTime"); //$NON-NLS-1$
             break;
 
          case COLUMN_URL_ADDRESS:
-            rc = m1.urlAddress.compareTo(m2.urlAddress);
+            allSortFields.add("urlAddress"); //$NON-NLS-1$
             break;
 
          case COLUMN_URL_LABEL:
-            rc = m1.urlLabel.compareTo(m2.urlLabel);
+            allSortFields.add("urlText"); //$NON-NLS-1$
             break;
 
          case COLUMN_NAME:
          default:
-            rc = m1.label.compareTo(m2.label);
-            _isSortByTime = true;
+            allSortFields.add("Label"); //$NON-NLS-1$
+            allSortFields.add("tourTime"); //$NON-NLS-1$
          }
 
-         if (rc == 0 && _isSortByTime) {
-            rc = m1.time - m2.time;
-         }
+         allSortFields.add("MarkerID"); //$NON-NLS-1$
 
-         // If descending order, flip the direction
-         if (__sortDirection == DESCENDING) {
-            rc = -rc;
-         }
+         final String sqlSortDirection = __sortDirection == DESCENDING
+               ? " DESC" //$NON-NLS-1$
+               : " ASC"; //$NON-NLS-1$
 
-         /*
-          * MUST return 1 or -1 otherwise long values are not sorted correctly.
-          */
-         return rc > 0 //
-               ? 1
-               : rc < 0 //
-                     ? -1
-                     : 0;
+         return allSortFields.stream()
+               .map(sortField -> sortField + sqlSortDirection)
+               .collect(Collectors.joining(UI.COMMA_SPACE));
       }
 
       public void setSortColumn(final Widget widget) {
@@ -310,94 +323,6 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
       }
    }
 
-   private class MarkerContentProvider implements IStructuredContentProvider {
-
-      @Override
-      public void dispose() {}
-
-      @Override
-      public Object[] getElements(final Object inputElement) {
-         return _allMarkerItems.toArray();
-      }
-
-      @Override
-      public void inputChanged(final Viewer viewer, final Object oldInput, final Object newInput) {}
-   }
-
-   public class MarkerItemFilter extends ViewerFilter {
-
-      @Override
-      public boolean select(final Viewer viewer, final Object parentElement, final Object element) {
-
-         final TourMarkerItem markerItem = (TourMarkerItem) element;
-
-         final boolean isTourWithGPS = markerItem.latitude != TourDatabase.DEFAULT_DOUBLE;
-         final boolean isTourWithoutGPS = markerItem.latitude == TourDatabase.DEFAULT_DOUBLE;
-
-         boolean isVisible;
-
-         /*
-          * Check GPS filter
-          */
-         if (_gpsMarkerFilter == GPS_MARKER_FILTER_IS_DISABLED) {
-
-            isVisible = true;
-
-         } else {
-
-            isVisible = _gpsMarkerFilter == GPS_MARKER_FILTER_WITH_GPS ? isTourWithGPS : isTourWithoutGPS;
-         }
-
-         if (isVisible == false) {
-            return false;
-         }
-
-         /*
-          * Check geo filter
-          */
-         if (_isGeoFilterActive == false) {
-            return true;
-         }
-
-         if (isTourWithoutGPS) {
-            return false;
-         }
-
-         // Lat filter
-         final double lat = markerItem.latitude;
-         final double latDiff = _geoFilterLat - lat;
-         if (latDiff > 0) {
-
-            if (latDiff > _geoFilterMaxDiff) {
-               return false;
-            }
-
-         } else {
-
-            if (-latDiff > _geoFilterMaxDiff) {
-               return false;
-            }
-         }
-
-         // Lon filter
-         final double lon = markerItem.longitude;
-         final double lonDiff = _geoFilterLon - lon;
-         if (lonDiff > 0) {
-
-            if (lonDiff > _geoFilterMaxDiff) {
-               return false;
-            }
-         } else {
-
-            if (-lonDiff > _geoFilterMaxDiff) {
-               return false;
-            }
-         }
-
-         return true;
-      }
-   }
-
    public class TableContextMenuProvider implements IContextMenuProvider {
 
       @Override
@@ -425,7 +350,7 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
 
    }
 
-   class TourMarkerItem {
+   static class TourMarkerItem {
 
       public long   markerId;
 
@@ -451,24 +376,16 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
             return false;
          }
          final TourMarkerItem other = (TourMarkerItem) obj;
-         if (!getOuterType().equals(other.getOuterType())) {
-            return false;
-         }
          if (markerId != other.markerId) {
             return false;
          }
          return true;
       }
 
-      private TourMarkerAllView getOuterType() {
-         return TourMarkerAllView.this;
-      }
-
       @Override
       public int hashCode() {
          final int prime = 31;
          int result = 1;
-         result = prime * result + getOuterType().hashCode();
          result = prime * result + (int) (markerId ^ (markerId >>> 32));
          return result;
       }
@@ -518,7 +435,7 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
          _actionTourFilterWithGPS.setChecked(false);
       }
 
-      refilterViewer();
+      reloadViewer();
 
       _markerViewer.getTable().setFocus();
    }
@@ -565,7 +482,8 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
 
             _markerViewer.getTable().setLinesVisible(_prefStore.getBoolean(ITourbookPreferences.VIEW_LAYOUT_DISPLAY_LINES));
 
-            _markerViewer.refresh();
+            // update all loaded items
+            _markerViewer.getTable().clearAll();
 
             /*
              * the tree must be redrawn because the styled text does not show with the new color
@@ -674,20 +592,48 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
       createActions();
       fillToolbar();
 
-      // load marker and display them
-//      parent.getDisplay().asyncExec(new Runnable() {
-//         public void run() {
-//
-//         }
-//      });
-      BusyIndicator.showWhile(parent.getDisplay(), () -> {
+      restoreState_WithUI();
 
-         loadAllMarker();
+      // load markers in the background and select the previously selected marker
+      loadAllMarker(Util.getStateLong(_state, STATE_SELECTED_MARKER_ITEM, TourDatabase.ENTITY_IS_NOT_SAVED));
+   }
 
-         updateUI_SetViewerInput();
+   /**
+    * @return Returns the WHERE clause for the GPS and geo filter or an empty clause when these
+    *         filters are not active
+    */
+   private SQLData createSqlFilter() {
 
-         restoreState_WithUI();
-      });
+      final StringBuilder sqlWhere = new StringBuilder();
+      final ArrayList<Object> allParameters = new ArrayList<>();
+
+      if (_gpsMarkerFilter == GPS_MARKER_FILTER_WITH_GPS) {
+
+         sqlWhere.append(" AND latitude <> ?" + UI.NEW_LINE); //$NON-NLS-1$
+         allParameters.add(TourDatabase.DEFAULT_DOUBLE);
+
+      } else if (_gpsMarkerFilter == GPS_MARKER_FILTER_WITHOUT_GPS) {
+
+         sqlWhere.append(" AND latitude = ?" + UI.NEW_LINE); //$NON-NLS-1$
+         allParameters.add(TourDatabase.DEFAULT_DOUBLE);
+      }
+
+      if (_isGeoFilterActive) {
+
+         sqlWhere.append(" AND latitude BETWEEN ? AND ?" + UI.NEW_LINE); //$NON-NLS-1$
+         sqlWhere.append(" AND longitude BETWEEN ? AND ?" + UI.NEW_LINE); //$NON-NLS-1$
+
+         allParameters.add(_geoFilterLat - _geoFilterMaxDiff);
+         allParameters.add(_geoFilterLat + _geoFilterMaxDiff);
+         allParameters.add(_geoFilterLon - _geoFilterMaxDiff);
+         allParameters.add(_geoFilterLon + _geoFilterMaxDiff);
+      }
+
+      if (sqlWhere.length() == 0) {
+         return new SQLData();
+      }
+
+      return new SQLData("WHERE 1=1" + UI.NEW_LINE + sqlWhere, allParameters); //$NON-NLS-1$
    }
 
    private void createUI(final Composite parent) {
@@ -704,7 +650,7 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
       /*
        * create table
        */
-      final Table table = new Table(parent, SWT.FULL_SELECTION | SWT.MULTI | SWT.CHECK);
+      final Table table = new Table(parent, SWT.FULL_SELECTION | SWT.MULTI | SWT.CHECK | SWT.VIRTUAL);
       GridDataFactory.fillDefaults().grab(true, true).applyTo(table);
 
       table.setHeaderVisible(true);
@@ -725,16 +671,14 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
 
       _markerViewer.setUseHashlookup(true);
       _markerViewer.setContentProvider(new MarkerContentProvider());
-      _markerViewer.addFilter(new MarkerItemFilter());
-      _markerViewer.setComparator(_markerComparator);
 
       _markerViewer.addDoubleClickListener(doubleClickEvent -> onTourMarker_DoubleClick());
 
       _markerViewer.addCheckStateListener(this::onTourMarker_StateChanged);
 
       updateUI_SetSortDirection(//
-            _markerComparator.__sortColumnId,
-            _markerComparator.__sortDirection);
+            _markerSorting.__sortColumnId,
+            _markerSorting.__sortDirection);
 
       createUI_20_ContextMenu();
    }
@@ -1064,6 +1008,8 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
    @Override
    public void dispose() {
 
+      _markerLoader.cancelLoading();
+
       TourManager.getInstance().removeTourEventListener(_tourEventListener);
 
       getViewSite().getPage().removePartListener(_partListener);
@@ -1328,119 +1274,81 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
       return _isLatLonDigitsEnabled;
    }
 
-   private void loadAllMarker() {
-
-//      final long start = System.nanoTime();
+   /**
+    * Load markers in the background, the viewer is updated when loading is finished.
+    *
+    * @param selectedMarkerId
+    *           Marker which is selected after loading
+    */
+   private void loadAllMarker(final long selectedMarkerId) {
 
-      _allMarkerItems.clear();
+      _markerLoader.loadMarkers(
+            createSqlFilter(),
+            _markerSorting.getSqlOrderBy(),
+            _markerTextFilter,
+            selectedMarkerId);
+   }
 
-//      final double latLonFactor = Math.pow(10, _latLonDigits);
+   /**
+    * Is called when the sorted marker ID's are loaded.
+    *
+    * @param selectedMarkerId
+    */
+   void onMarkerIds_Loaded(final long selectedMarkerId) {
 
-      PreparedStatement statement = null;
-      ResultSet result = null;
+      if (_markerViewer.getTable().isDisposed()) {
+         return;
+      }
 
-      try (Connection conn = TourDatabase.getInstance().getConnection()) {
+      _viewerContainer.setRedraw(false);
+      {
+         updateUI_SetViewerInput();
 
-         final String tblTourMarker = TourDatabase.TABLE_TOUR_MARKER;
-         final String tourKey = TourDatabase.KEY_TOUR;
+         updateUI_SelectTourMarker(selectedMarkerId);
+      }
+      _viewerContainer.setRedraw(true);
 
-         final String sql = "SELECT " // //$NON-NLS-1$
-               + "MarkerID, " //                  // 1 //$NON-NLS-1$
-               + (tourKey + ", ") //               // 2 //$NON-NLS-1$
-               + "Label, " //                     // 3 //$NON-NLS-1$
-               + "description, " //               // 4 //$NON-NLS-1$
-               + "urlText, " //                  // 5 //$NON-NLS-1$
-               + "urlAddress, " //                  // 6 //$NON-NLS-1$
-               + "latitude, " //                  // 7 //$NON-NLS-1$
-               + "longitude, " //                  // 8 //$NON-NLS-1$
-               + "altitude, " //                  // 9 //$NON-NLS-1$
-               + "tourTime " //                  // 10 //$NON-NLS-1$
-               //
-               + UI.NEW_LINE
-               //
-               + (" FROM " + tblTourMarker + UI.NEW_LINE) //$NON-NLS-1$
-         //
-         ;
+      enableActions();
+   }
 
-         statement = conn.prepareStatement(sql);
-         result = statement.executeQuery();
+   /**
+    * Is called when a page of marker items is loaded.
+    *
+    * @param allMarkerItems
+    *           Loaded marker items, key is the row index
+    * @param allRequestedIndices
+    *           Row indices which were requested by the viewer
+    */
+   void onMarkerItems_Loaded(final Map<Integer, TourMarkerItem> allMarkerItems, final List<Integer> allRequestedIndices) {
 
-         while (result.next()) {
+      final Table table = _markerViewer.getTable();
 
-            final TourMarkerItem markerItem = new TourMarkerItem();
-            _allMarkerItems.add(markerItem);
+      if (table.isDisposed()) {
+         return;
+      }
 
-            final String dbLabel = result.getString(3);
-            final String dbDescription = result.getString(4);
-            final String dbUrlLabel = result.getString(5);
-            final String dbUrlAddress = result.getString(6);
+      final int numItems = table.getItemCount();
 
-            /*
-             * Reduce accuracy that markers sorted by lat/lon are near together
-             */
-            final double dbLatitude = result.getDouble(7);
-            final double dbLongitude = result.getDouble(8);
-            if (dbLatitude == TourDatabase.DEFAULT_DOUBLE) {
-
-               markerItem.latitude = dbLatitude;
-               markerItem.longitude = dbLongitude;
+      _isInUpdate = true;
+      {
+         for (final Integer rowIndex : allRequestedIndices) {
 
-            } else {
+            final TourMarkerItem markerItem = allMarkerItems.get(rowIndex);
 
-//               if (_isLatLonDigitsEnabled) {
-//
-//                  // set lat/lon accuracy
-//
-//                  final long longLat = (long) (dbLatitude * latLonFactor);
-//                  final long longLon = (long) (dbLongitude * latLonFactor);
-//
-//                  markerItem.latitude = longLat / latLonFactor;
-//                  markerItem.longitude = longLon / latLonFactor;
-//
-//               } else {
-//
-               markerItem.latitude = dbLatitude;
-               markerItem.longitude = dbLongitude;
-//
-//               }
+            if (markerItem != null && rowIndex < numItems) {
+               updateUI_MarkerItem(markerItem, rowIndex);
             }
-
-            markerItem.markerId = result.getLong(1);
-            markerItem.tourId = result.getLong(2);
-            markerItem.label = dbLabel == null ? UI.EMPTY_STRING : dbLabel;
-            markerItem.description = dbDescription == null ? UI.EMPTY_STRING : dbDescription;
-            markerItem.urlLabel = dbUrlLabel == null ? UI.EMPTY_STRING : dbUrlLabel;
-            markerItem.urlAddress = dbUrlAddress == null ? UI.EMPTY_STRING : dbUrlAddress;
-            markerItem.altitude = result.getFloat(9);
-            markerItem.time = result.getLong(10);
          }
-
-      } catch (final SQLException e) {
-         SQL.showException(e);
-      } finally {
-         Util.closeSql(statement);
-         Util.closeSql(result);
       }
-
-//      System.out.println((UI.timeStampNano() + " " + this.getClass().getName() + " \t")
-//            + (((float) (System.nanoTime() - start) / 1000000) + " ms"));
-//      // TODO remove SYSTEM.OUT.PRINTLN
+      _isInUpdate = false;
    }
 
    private void onSelect_SortColumn(final SelectionEvent e) {
 
-      _viewerContainer.setRedraw(false);
-      {
-         // keep selection
-         final ISelection selectionBackup = getViewerSelection();
-         {
-            // update viewer with new sorting
-            _markerComparator.setSortColumn(e.widget);
-            _markerViewer.refresh();
-         }
-         updateUI_SelectTourMarker(selectionBackup, null);
-      }
-      _viewerContainer.setRedraw(true);
+      // update sorting, the markers are sorted when they are loaded
+      _markerSorting.setSortColumn(e.widget);
+
+      reloadViewer();
    }
 
    private void onSelect_TourMarker(final Event event) {
@@ -1487,21 +1395,7 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
 
          final long selectedTourMarkerId = allTourMarker.get(0).getMarkerId();
 
-         // find tour marker in marker items
-         TourMarkerItem selectedMarkerItem = null;
-         for (final TourMarkerItem tourMarker : _allMarkerItems) {
-            if (tourMarker.markerId == selectedTourMarkerId) {
-               selectedMarkerItem = tourMarker;
-               break;
-            }
-         }
-
-         if (selectedMarkerItem != null) {
-
-            final StructuredSelection markerViewerSelection = new StructuredSelection(selectedMarkerItem);
-
-            updateUI_SelectTourMarker(markerViewerSelection, null);
-         }
+         updateUI_SelectTourMarker(selectedTourMarkerId);
       }
    }
 
@@ -1520,78 +1414,43 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
    private void onTourMarker_StateChanged(final CheckStateChangedEvent event) {
 
       final boolean isChecked = event.getChecked();
-      final Object checkedElement = event.getElement();
-      final Object[] checkedElements = _markerViewer.getCheckedElements();
-
-      final TourMarkerItem markerItem = (TourMarkerItem) checkedElement;
+      final TourMarkerItem markerItem = (TourMarkerItem) event.getElement();
       final boolean isMarkerWithGPS = markerItem.latitude != TourDatabase.DEFAULT_DOUBLE;
 
-      Object checkedMarker = null;
-
-      _isGeoFilterActive = false;
-      _markerFilter = null;
-
-      if (isMarkerWithGPS) {
-
-         if (isChecked) {
-
-            _isGeoFilterActive = true;
-            _markerFilter = markerItem;
-
-            /*
-             * Ensure that the checked marker is also selected. It is possible that a selected and
-             * checked marker gets unchecked and another marker is checked that it is not selected.
-             */
-
-            boolean isCheckAndSelected = false;
-
-            final TableItem[] seletedItems = _markerViewer.getTable().getSelection();
-            for (final TableItem tableItem : seletedItems) {
-               if (tableItem.getData() == checkedElement) {
-                  isCheckAndSelected = true;
-                  break;
-               }
-            }
-
-            if (isCheckAndSelected == false) {
-
-               updateUI_SelectTourMarker(new StructuredSelection(checkedElement), null);
-            }
-         }
-
-      } else {
+      if (isChecked && isMarkerWithGPS == false) {
 
          // prevent to check tour marker without GPS
 
-         _markerViewer.setGrayed(checkedElement, true);
+         _markerViewer.setChecked(markerItem, false);
 
-         checkedMarker = checkedElement;
+         return;
       }
 
-      if (isChecked && checkedElements.length > 1) {
+      if (_markerFilter != null && _markerFilter.equals(markerItem) == false) {
 
          // only 1 marker can be checked
 
-         checkedMarker = checkedElement;
+         _markerViewer.setChecked(_markerFilter, false);
       }
 
-      if (checkedMarker != null) {
+      if (isChecked) {
 
-         for (final Object element : checkedElements) {
-            if (element != checkedMarker) {
-               _markerViewer.setChecked(element, false);
-            }
-         }
+         _isGeoFilterActive = true;
+         _markerFilter = markerItem;
 
-         updateUI_SelectTourMarker(new StructuredSelection(checkedMarker), null);
+         _geoFilterLat = markerItem.latitude;
+         _geoFilterLon = markerItem.longitude;
 
-      }
+      } else {
 
-      if (isMarkerWithGPS) {
-         updateUI_GeoFilter(markerItem);
+         _isGeoFilterActive = false;
+         _markerFilter = null;
       }
 
       enableActions();
+
+      // filter markers and select the checked marker
+      loadAllMarker(markerItem.markerId);
    }
 
    @Override
@@ -1600,8 +1459,7 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
       _viewerContainer.setRedraw(false);
       {
          // keep selection
-         final ISelection selectionBackup = getViewerSelection();
-         final Object[] checkedElements = _markerViewer.getCheckedElements();
+         final TourMarkerItem selectedMarkerItem = getSelectedTourMarkerItem();
          {
             _markerViewer.getTable().dispose();
 
@@ -1610,10 +1468,13 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
             // update UI
             _viewerContainer.layout();
 
-            // update the viewer
+            // update the viewer, the markers are already loaded
             updateUI_SetViewerInput();
          }
-         updateUI_SelectTourMarker(selectionBackup, checkedElements);
+
+         if (selectedMarkerItem != null) {
+            updateUI_SelectTourMarker(selectedMarkerItem.markerId);
+         }
       }
       _viewerContainer.setRedraw(true);
 
@@ -1622,40 +1483,15 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
       return _markerViewer;
    }
 
-   private void refilterViewer() {
-
-      BusyIndicator.showWhile(_viewerContainer.getDisplay(), () -> {
-
-         _viewerContainer.setRedraw(false);
-         {
-            // keep selection
-            final ISelection selectionBackup = getViewerSelection();
-            final Object[] checkedElements = _markerViewer.getCheckedElements();
-            {
-               _markerViewer.refresh(false);
-            }
-            updateUI_SelectTourMarker(selectionBackup, checkedElements);
-         }
-         _viewerContainer.setRedraw(true);
-      });
-   }
-
    @Override
    public void reloadViewer() {
 
-      loadAllMarker();
+      // keep selection
+      final TourMarkerItem selectedMarkerItem = getSelectedTourMarkerItem();
 
-      _viewerContainer.setRedraw(false);
-      {
-         // keep selection
-         final ISelection selectionBackup = getViewerSelection();
-         final Object[] checkedElements = _markerViewer.getCheckedElements();
-         {
-            updateUI_SetViewerInput();
-         }
-         updateUI_SelectTourMarker(selectionBackup, checkedElements);
-      }
-      _viewerContainer.setRedraw(true);
+      loadAllMarker(selectedMarkerItem == null
+            ? TourDatabase.ENTITY_IS_NOT_SAVED
+            : selectedMarkerItem.markerId);
    }
 
    private void restoreState_BeforeUI() {
@@ -1678,13 +1514,16 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
       // geo filter accuracy
       _geoFilterMaxDiff = Util.getStateDouble(_state, STATE_GEO_FILTER_AREA, DEFAULT_GEO_FILTER_AREA);
 
+      // text filter
+      _markerTextFilter = Util.getStateString(_state, STATE_TEXT_FILTER, UI.EMPTY_STRING);
+
       // sorting
       final String sortColumnId = Util.getStateString(_state, STATE_SORT_COLUMN_ID, COLUMN_NAME);
-      final int sortDirection = Util.getStateInt(_state, STATE_SORT_COLUMN_DIRECTION, MarkerComparator.ASCENDING);
+      final int sortDirection = Util.getStateInt(_state, STATE_SORT_COLUMN_DIRECTION, MarkerSorting.ASCENDING);
 
-      // update comparator
-      _markerComparator.__sortColumnId = sortColumnId;
-      _markerComparator.__sortDirection = sortDirection;
+      // update sorting
+      _markerSorting.__sortColumnId = sortColumnId;
+      _markerSorting.__sortDirection = sortDirection;
    }
 
    private void restoreState_WithUI() {
@@ -1693,26 +1532,6 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
       _actionTourFilterWithGPS.setChecked(_gpsMarkerFilter == GPS_MARKER_FILTER_WITH_GPS);
       _actionTourFilterWithoutGPS.setChecked(_gpsMarkerFilter == GPS_MARKER_FILTER_WITHOUT_GPS);
 
-      /*
-       * select marker item
-       */
-      final long stateMarkerId = Util.getStateLong(_state, //
-            STATE_SELECTED_MARKER_ITEM,
-            TourDatabase.ENTITY_IS_NOT_SAVED);
-
-      if (stateMarkerId != TourDatabase.ENTITY_IS_NOT_SAVED) {
-
-         // select marker item by it's ID
-         for (final TourMarkerItem markerItem : _allMarkerItems) {
-            if (markerItem.markerId == stateMarkerId) {
-
-               updateUI_SelectTourMarker(new StructuredSelection(markerItem), null);
-
-               return;
-            }
-         }
-      }
-
       enableActions();
    }
 
@@ -1721,8 +1540,8 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
 
       _columnManager.saveState(_state);
 
-      _state.put(STATE_SORT_COLUMN_ID, _markerComparator.__sortColumnId);
-      _state.put(STATE_SORT_COLUMN_DIRECTION, _markerComparator.__sortDirection);
+      _state.put(STATE_SORT_COLUMN_ID, _markerSorting.__sortColumnId);
+      _state.put(STATE_SORT_COLUMN_DIRECTION, _markerSorting.__sortDirection);
 
       _state.put(STATE_GPS_FILTER, _gpsMarkerFilter);
 
@@ -1765,39 +1584,9 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
       // geo filter accuracy
       _geoFilterMaxDiff = Util.getStateDouble(_state, STATE_GEO_FILTER_AREA, DEFAULT_GEO_FILTER_AREA);
 
-      refilterViewer();
-   }
-
-   private void updateUI_GeoFilter(final TourMarkerItem markerItem) {
-
-      _geoFilterLat = markerItem.latitude;
-      _geoFilterLon = markerItem.longitude;
-
-      _viewerContainer.setRedraw(false);
-      {
-         _markerViewer.refresh(false);
-
-         /*
-          * Select and reveal marker item
-          */
-         final Table table = _markerViewer.getTable();
-         final TableItem[] tableItems = table.getItems();
-
-         int checkedIndex = 0;
-
-         for (; checkedIndex < tableItems.length; checkedIndex++) {
-            if (tableItems[checkedIndex].getData() == markerItem) {
-               break;
-            }
-         }
-
-         if (checkedIndex < tableItems.length) {
-            table.setSelection(checkedIndex);
-         }
-
+      if (_isGeoFilterActive) {
+         reloadViewer();
       }
-      _viewerContainer.setRedraw(true);
-
    }
 
    void updateUI_LatLonDigits(final boolean isEnabled, final int selectedDigits) {
@@ -1812,37 +1601,44 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
 
       setup_LatLonDigits();
 
-      _viewerContainer.setRedraw(false);
-      {
-         // keep selection
-         final ISelection selectionBackup = getViewerSelection();
-         final Object[] checkedElements = _markerViewer.getCheckedElements();
-         {
-            _markerViewer.refresh();
-         }
-         updateUI_SelectTourMarker(selectionBackup, checkedElements);
-      }
-      _viewerContainer.setRedraw(true);
+      // update all loaded items, the selection is kept
+      _markerViewer.getTable().clearAll();
+   }
+
+   /**
+    * Set the marker item into the virtual table.
+    *
+    * @param markerItem
+    * @param rowIndex
+    */
+   private void updateUI_MarkerItem(final TourMarkerItem markerItem, final int rowIndex) {
+
+      _markerViewer.replace(markerItem, rowIndex);
 
+      // only the marker of the geo filter is checked
+      _markerViewer.setChecked(markerItem, markerItem.equals(_markerFilter));
    }
 
    /**
     * Select and reveal tour marker item.
     *
-    * @param selection
-    * @param checkedElements
+    * @param markerId
     */
-   private void updateUI_SelectTourMarker(final ISelection selection, final Object[] checkedElements) {
+   private void updateUI_SelectTourMarker(final long markerId) {
 
-      _isInUpdate = true;
-      {
-         _markerViewer.setSelection(selection, true);
+      final int rowIndex = _markerLoader.getRowIndex(markerId);
 
-         if (checkedElements != null && checkedElements.length > 0) {
-            _markerViewer.setCheckedElements(checkedElements);
-         }
+      if (rowIndex < 0) {
+
+         // marker is not displayed
+         return;
+      }
 
+      _isInUpdate = true;
+      {
          final Table table = _markerViewer.getTable();
+
+         table.setSelection(rowIndex);
          table.showSelection();
       }
       _isInUpdate = false;
@@ -1860,7 +1656,7 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
       final TableColumn tc = getSortColumn(sortColumnId);
 
       table.setSortColumn(tc);
-      table.setSortDirection(sortDirection == MarkerComparator.ASCENDING ? SWT.UP : SWT.DOWN);
+      table.setSortDirection(sortDirection == MarkerSorting.ASCENDING ? SWT.UP : SWT.DOWN);
    }
 
    private void updateUI_SetViewerInput() {
@@ -1868,8 +1664,22 @@ public class TourMarkerAllView extends ViewPart implements ITourProvider, ITourV
       _isInUpdate = true;
       {
          _markerViewer.setInput(new Object[0]);
+         _markerViewer.setItemCount(_markerLoader.getNumMarkers());
       }
       _isInUpdate = false;
    }
 
+   void updateUI_TextFilter() {
+
+      final String textFilter = Util.getStateString(_state, STATE_TEXT_FILTER, UI.EMPTY_STRING);
+
+      if (textFilter.equals(_markerTextFilter)) {
+         return;
+      }
+
+      _markerTextFilter = textFilter;
+
+      reloadViewer();
+   }
+
 }
@@ -0,0 +1,427 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package net.tourbook.ui.views.tourMarker;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.tourbook.common.UI;
+import net.tourbook.common.util.SQL;
+import net.tourbook.common.util.SQLData;
+import net.tourbook.common.util.StringUtils;
+import net.tourbook.database.TourDatabase;
+import net.tourbook.search.FTSearchManager;
+import net.tourbook.ui.views.tourMarker.TourMarkerAllView.TourMarkerItem;
+
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Loads the tour markers for the {@link TourMarkerAllView} in a background thread.
+ * <p>
+ * At first only the ID's of the filtered and sorted markers are loaded, the marker items are
+ * fetched page by page when they are displayed in the virtual table.
+ */
+class TourMarkerAllView_DataLoader {
+
+   private static final char                  NL                   = UI.NEW_LINE;
+
+   private static final int                   FETCH_SIZE           = 1_000;
+
+   private static final long[]                NO_MARKER_IDS        = new long[0];
+
+   private static final ExecutorService       _loadingExecutor     = createExecuter_MarkerLoading();
+
+   private TourMarkerAllView                  _tourMarkerAllView;
+
+   /**
+    * Sorted ID's of all markers which are displayed in the viewer
+    */
+   private volatile long[]                    _allMarkerIds        = NO_MARKER_IDS;
+
+   /**
+    * Is incremented when the markers are reloaded, marker ID's from a previous generation are
+    * ignored
+    */
+   private final AtomicInteger                _loaderGeneration    = new AtomicInteger();
+
+   /*
+    * These fields are accessed only in the UI thread
+    */
+   private final Map<Integer, TourMarkerItem> _fetchedMarkerItems  = new HashMap<>();
+   private final Map<Integer, MarkerPage>     _pageNumbers_Loading = new HashMap<>();
+   private final Map<Integer, Integer>        _pageNumbers_Fetched = new HashMap<>();
+
+   private static class MarkerPage {
+
+      private int           fetchKey;
+
+      /**
+       * Row indices which were requested by the viewer while the page is loading
+       */
+      private List<Integer> requestedIndices = new ArrayList<>();
+   }
+
+   TourMarkerAllView_DataLoader(final TourMarkerAllView tourMarkerAllView) {
+
+      _tourMarkerAllView = tourMarkerAllView;
+   }
+
+   private static ExecutorService createExecuter_MarkerLoading() {
+
+      final ThreadFactory threadFactory = runnable -> {
+
+         final Thread thread = new Thread(runnable, "TourMarkerAllView_DataLoader: Loading markers");//$NON-NLS-1$
+
+         thread.setPriority(Thread.MIN_PRIORITY);
+         thread.setDaemon(true);
+
+         return thread;
+      };
+
+      return Executors.newSingleThreadExecutor(threadFactory);
+   }
+
+   /**
+    * Ignore all markers which are currently loading
+    */
+   void cancelLoading() {
+
+      _loaderGeneration.incrementAndGet();
+   }
+
+   /**
+    * @param allMarkerIds
+    * @param fetchKey
+    * @return Returns the marker items of the page, key is the row index
+    */
+   private Map<Integer, TourMarkerItem> fetchPagedMarkerItems(final long[] allMarkerIds, final int fetchKey) {
+
+      final Map<Integer, TourMarkerItem> allMarkerItems = new HashMap<>();
+
+      final int firstRowIndex = fetchKey * FETCH_SIZE;
+      final int numRows = Math.min(FETCH_SIZE, allMarkerIds.length - firstRowIndex);
+
+      if (numRows <= 0) {
+         return allMarkerItems;
+      }
+
+      final Map<Long, Integer> allRowIndices = new HashMap<>();
+      final StringBuilder sqlMarkerIds = new StringBuilder();
+
+      for (int rowIndex = firstRowIndex; rowIndex < firstRowIndex + numRows; rowIndex++) {
+
+         allRowIndices.put(allMarkerIds[rowIndex], rowIndex);
+
+         if (sqlMarkerIds.length() > 0) {
+            sqlMarkerIds.append(UI.COMMA_SPACE);
+         }
+
+         sqlMarkerIds.append(allMarkerIds[rowIndex]);
+      }
+
+      final String sql = NL
+
+            + "SELECT" + NL //                                          //$NON-NLS-1$
+
+            + "   MarkerID," + NL //                                 1  //$NON-NLS-1$
+            + "   " + TourDatabase.KEY_TOUR + "," + NL //            2  //$NON-NLS-1$ //$NON-NLS-2$
+            + "   Label," + NL //                                    3  //$NON-NLS-1$
+            + "   description," + NL //                              4  //$NON-NLS-1$
+            + "   urlText," + NL //                                  5  //$NON-NLS-1$
+            + "   urlAddress," + NL //                               6  //$NON-NLS-1$
+            + "   latitude," + NL //                                 7  //$NON-NLS-1$
+            + "   longitude," + NL //                                8  //$NON-NLS-1$
+            + "   altitude," + NL //                                 9  //$NON-NLS-1$
+            + "   tourTime" + NL //                                  10 //$NON-NLS-1$
+
+            + "FROM " + TourDatabase.TABLE_TOUR_MARKER + NL //          //$NON-NLS-1$
+            + "WHERE MarkerID IN (" + sqlMarkerIds + ")" + NL //        //$NON-NLS-1$ //$NON-NLS-2$
+      ;
+
+      try (Connection conn = TourDatabase.getInstance().getConnection();
+            PreparedStatement statement = conn.prepareStatement(sql)) {
+
+         final ResultSet result = statement.executeQuery();
+
+         while (result.next()) {
+
+            final TourMarkerItem markerItem = new TourMarkerItem();
+
+            final String dbLabel = result.getString(3);
+            final String dbDescription = result.getString(4);
+            final String dbUrlLabel = result.getString(5);
+            final String dbUrlAddress = result.getString(6);
+
+            markerItem.markerId = result.getLong(1);
+            markerItem.tourId = result.getLong(2);
+            markerItem.label = dbLabel == null ? UI.EMPTY_STRING : dbLabel;
+            markerItem.description = dbDescription == null ? UI.EMPTY_STRING : dbDescription;
+            markerItem.urlLabel = dbUrlLabel == null ? UI.EMPTY_STRING : dbUrlLabel;
+            markerItem.urlAddress = dbUrlAddress == null ? UI.EMPTY_STRING : dbUrlAddress;
+            markerItem.latitude = result.getDouble(7);
+            markerItem.longitude = result.getDouble(8);
+            markerItem.altitude = result.getFloat(9);
+            markerItem.time = result.getLong(10);
+
+            final Integer rowIndex = allRowIndices.get(markerItem.markerId);
+            if (rowIndex != null) {
+               allMarkerItems.put(rowIndex, markerItem);
+            }
+         }
+
+      } catch (final SQLException e) {
+
+         SQL.showException(e, sql);
+      }
+
+      return allMarkerItems;
+   }
+
+   /**
+    * @param sqlFilter
+    * @param sqlOrderBy
+    * @param textFilter
+    * @param generation
+    * @return Returns the sorted ID's of all markers which are passing the filters or
+    *         <code>null</code> when loading is canceled
+    */
+   private long[] fetchSortedMarkerIds(final SQLData sqlFilter,
+                                       final String sqlOrderBy,
+                                       final String textFilter,
+                                       final int generation) {
+
+      Set<Long> allTextFilterMarkerIds = null;
+
+      if (StringUtils.hasContent(textFilter)) {
+
+         // the text filter is searched in the full-text index, this is much faster than a LIKE
+
+         allTextFilterMarkerIds = FTSearchManager.searchMarkerIds(textFilter);
+
+         if (allTextFilterMarkerIds.isEmpty()) {
+            return NO_MARKER_IDS;
+         }
+      }
+
+      final String sql = NL
+
+            + "SELECT MarkerID" + NL //                                 //$NON-NLS-1$
+            + "FROM " + TourDatabase.TABLE_TOUR_MARKER + NL //          //$NON-NLS-1$
+            + sqlFilter.getSqlString()
+            + "ORDER BY " + sqlOrderBy + NL //                          //$NON-NLS-1$
+      ;
+
+      final LongArrayList allMarkerIds = new LongArrayList();
+
+      try (Connection conn = TourDatabase.getInstance().getConnection();
+            PreparedStatement statement = conn.prepareStatement(sql)) {
+
+         sqlFilter.setParameters(statement, 1);
+
+         final ResultSet result = statement.executeQuery();
+
+         while (result.next()) {
+
+            if (generation != _loaderGeneration.get()) {
+
+               // markers are reloaded
+               return null;
+            }
+
+            final long markerId = result.getLong(1);
+
+            if (allTextFilterMarkerIds == null || allTextFilterMarkerIds.contains(markerId)) {
+               allMarkerIds.add(markerId);
+            }
+         }
+
+      } catch (final SQLException e) {
+
+         SQL.showException(e, sql);
+      }
+
+      return allMarkerIds.toArray();
+   }
+
+   /**
+    * @param rowIndex
+    * @return Returns the marker item at the requested row index or <code>null</code> when not yet
+    *         available. When the marker is not yet loaded, then its page will be fetched in the
+    *         background and the viewer is updated with
+    *         {@link TourMarkerAllView#onMarkerItems_Loaded(Map, List)}.
+    */
+   TourMarkerItem getMarkerItem(final int rowIndex) {
+
+      final TourMarkerItem markerItem = _fetchedMarkerItems.get(rowIndex);
+
+      if (markerItem != null) {
+
+         // marker is loaded
+
+         return markerItem;
+      }
+
+      final int fetchKey = rowIndex / FETCH_SIZE;
+
+      if (_pageNumbers_Fetched.containsKey(fetchKey)) {
+
+         // marker was deleted after the marker ID's were loaded
+
+         return null;
+      }
+
+      MarkerPage markerPage = _pageNumbers_Loading.get(fetchKey);
+
+      if (markerPage != null) {
+
+         // marker is currently being loading -> update viewer when finished loading
+
+         markerPage.requestedIndices.add(rowIndex);
+
+         return null;
+      }
+
+      /*
+       * Marker is not yet loaded or not yet loading -> load it now
+       */
+      markerPage = new MarkerPage();
+      markerPage.fetchKey = fetchKey;
+      markerPage.requestedIndices.add(rowIndex);
+
+      _pageNumbers_Loading.put(fetchKey, markerPage);
+
+      final MarkerPage loadingPage = markerPage;
+      final long[] allMarkerIds = _allMarkerIds;
+      final Display display = Display.getCurrent();
+
+      _loadingExecutor.submit(() -> {
+
+         if (allMarkerIds != _allMarkerIds) {
+
+            // markers are reloaded
+            return;
+         }
+
+         final Map<Integer, TourMarkerItem> allPageItems = fetchPagedMarkerItems(allMarkerIds, loadingPage.fetchKey);
+
+         display.asyncExec(() -> {
+
+            if (allMarkerIds != _allMarkerIds) {
+               return;
+            }
+
+            _fetchedMarkerItems.putAll(allPageItems);
+
+            _pageNumbers_Fetched.put(loadingPage.fetchKey, loadingPage.fetchKey);
+            _pageNumbers_Loading.remove(loadingPage.fetchKey);
+
+            _tourMarkerAllView.onMarkerItems_Loaded(allPageItems, loadingPage.requestedIndices);
+         });
+      });
+
+      return null;
+   }
+
+   /**
+    * @return Returns the number of markers which are displayed in the viewer
+    */
+   int getNumMarkers() {
+      return _allMarkerIds.length;
+   }
+
+   /**
+    * @param markerId
+    * @return Returns the row index of the marker or -1 when the marker is not displayed
+    */
+   int getRowIndex(final long markerId) {
+
+      final long[] allMarkerIds = _allMarkerIds;
+
+      for (int rowIndex = 0; rowIndex < allMarkerIds.length; rowIndex++) {
+         if (allMarkerIds[rowIndex] == markerId) {
+            return rowIndex;
+         }
+      }
+
+      return -1;
+   }
+
+   /**
+    * Load the sorted ID's of all markers in the background, the viewer is updated with
+    * {@link TourMarkerAllView#onMarkerIds_Loaded(long)} when loading is finished. Markers which are
+    * currently loading are ignored.
+    *
+    * @param sqlFilter
+    *           WHERE clause with the marker filters, can be empty
+    * @param sqlOrderBy
+    *           Fields for the ORDER BY clause
+    * @param textFilter
+    *           When not empty, then only markers which contain this text in the label or
+    *           description are loaded
+    * @param selectedMarkerId
+    *           Marker which should be selected after loading
+    */
+   void loadMarkers(final SQLData sqlFilter,
+                    final String sqlOrderBy,
+                    final String textFilter,
+                    final long selectedMarkerId) {
+
+      final int generation = _loaderGeneration.incrementAndGet();
+      final Display display = Display.getCurrent();
+
+      _loadingExecutor.submit(() -> {
+
+         if (generation != _loaderGeneration.get()) {
+
+            // markers are reloaded
+            return;
+         }
+
+         final long[] allMarkerIds = fetchSortedMarkerIds(sqlFilter, sqlOrderBy, textFilter, generation);
+
+         if (allMarkerIds == null) {
+            return;
+         }
+
+         display.asyncExec(() -> {
+
+            if (generation != _loaderGeneration.get()) {
+               return;
+            }
+
+            _allMarkerIds = allMarkerIds;
+
+            _fetchedMarkerItems.clear();
+            _pageNumbers_Loading.clear();
+            _pageNumbers_Fetched.clear();
+
+            _tourMarkerAllView.onMarkerIds_Loaded(selectedMarkerId);
+         });
+      });
+   }
+}
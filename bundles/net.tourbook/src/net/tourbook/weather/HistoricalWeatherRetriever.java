@@ -25,6 +25,9 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
 import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import net.tourbook.Messages;
 import net.tourbook.common.UI;
@@ -40,12 +43,25 @@ import org.eclipse.swt.widgets.Display;
 
 public abstract class HistoricalWeatherRetriever {
 
-   private static HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(20)).build();
-   public TourData           tour;
-   public LatLng             searchAreaCenter;
-   public long               tourEndTime;
-   public long               tourMiddleTime;
-   public long               tourStartTime;
+   /**
+    * Responses for a time which is more recent are not cached because they could be incomplete
+    */
+   private static final long                                   CACHE_MIN_AGE    = Duration.ofDays(2).getSeconds();
+
+   private static HttpClient                                   httpClient       = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(20)).build();
+
+   /**
+    * Key is the weather provider ID
+    */
+   private static final Map<String, WeatherRequestRateLimiter> _allRateLimiters = new ConcurrentHashMap<>();
+
+   public TourData                                             tour;
+   public LatLng                                               searchAreaCenter;
+   public long                                                 tourEndTime;
+   public long                                                 tourMiddleTime;
+   public long                                                 tourStartTime;
+
+   private WeatherResponseCache                                _responseCache;
 
    protected HistoricalWeatherRetriever(final TourData tourData) {
       tour = tourData;
@@ -94,7 +110,9 @@ public abstract class HistoricalWeatherRetriever {
                   Messages.Pref_Weather_CheckHTTPConnection_Message,
                   message);
 
-         } catch (final IOException | InterruptedException e) {
+         } catch (final IOException e) {
+            StatusUtil.log(e);
+         } catch (final InterruptedException e) {
             StatusUtil.log(e);
             Thread.currentThread().interrupt();
          }
@@ -112,6 +130,45 @@ public abstract class HistoricalWeatherRetriever {
     */
    protected abstract String buildDetailedWeatherLog(final boolean isCompressed);
 
+   /**
+    * @param request
+    *           Identifies the requested data and time
+    * @param requestedTime
+    *           Latest requested time in seconds since 1970
+    * @return Returns a key for the response cache or <code>null</code> when the response should
+    *         not be cached
+    */
+   protected String createCacheKey(final String request, final long requestedTime) {
+
+      if (requestedTime > System.currentTimeMillis() / 1000 - CACHE_MIN_AGE) {
+         return null;
+      }
+
+      // round location to 0.01° which is about 1 km
+      final long latitude = Math.round(searchAreaCenter.getLatitude() * 100);
+      final long longitude = Math.round(searchAreaCenter.getLongitude() * 100);
+
+      return getWeatherProviderId()
+            + UI.SYMBOL_UNDERSCORE + latitude
+            + UI.SYMBOL_UNDERSCORE + longitude
+            + UI.SYMBOL_UNDERSCORE + Locale.getDefault().getLanguage()
+            + UI.SYMBOL_UNDERSCORE + request;
+   }
+
+   /**
+    * @return Returns the maximum number of requests which are sent to the weather provider within
+    *         one second
+    */
+   protected int getMaxRequestsPerSecond() {
+      return 5;
+   }
+
+   /**
+    * @return Returns the ID of the weather provider, one of the IDs in
+    *         {@link net.tourbook.ui.views.IWeatherProvider}
+    */
+   protected abstract String getWeatherProviderId();
+
    private void logVendorError(final String exceptionMessage) {
 
       TourLogManager.subLog_ERROR(NLS.bind(
@@ -124,9 +181,34 @@ public abstract class HistoricalWeatherRetriever {
 
    public String sendWeatherApiRequest(final String weatherRequestWithParameters) {
 
+      return sendWeatherApiRequest(weatherRequestWithParameters, null);
+   }
+
+   /**
+    * @param weatherRequestWithParameters
+    * @param cacheKey
+    *           Key for the response cache, see {@link #createCacheKey(String, long)}, when
+    *           <code>null</code> then the response is not cached
+    * @return Returns the response or an empty string when the request failed
+    */
+   public String sendWeatherApiRequest(final String weatherRequestWithParameters, final String cacheKey) {
+
+      if (_responseCache == null || cacheKey == null) {
+         return sendWeatherApiRequest_Http(weatherRequestWithParameters);
+      }
+
+      return _responseCache.get(cacheKey, () -> sendWeatherApiRequest_Http(weatherRequestWithParameters));
+   }
+
+   private String sendWeatherApiRequest_Http(final String weatherRequestWithParameters) {
+
       String weatherHistoryData = UI.EMPTY_STRING;
 
       try {
+
+         _allRateLimiters
+               .computeIfAbsent(getWeatherProviderId(), providerId -> new WeatherRequestRateLimiter(getMaxRequestsPerSecond()))
+               .acquire();
          // NOTE :
          // This error below keeps popping up RANDOMLY and as of today, I haven't found a solution:
          // java.lang.NoClassDefFoundError: Could not initialize class sun.security.ssl.SSLContextImpl$CustomizedTLSContext
@@ -144,14 +226,29 @@ public abstract class HistoricalWeatherRetriever {
             return UI.EMPTY_STRING;
          }
 
-      } catch (final Exception ex) {
+      } catch (final InterruptedException ex) {
 
          logVendorError(ex.getMessage());
          Thread.currentThread().interrupt();
 
+         return UI.EMPTY_STRING;
+
+      } catch (final Exception ex) {
+
+         logVendorError(ex.getMessage());
+
          return UI.EMPTY_STRING;
       }
 
       return weatherHistoryData;
    }
+
+   /**
+    * @param responseCache
+    *           Cache for the responses or <code>null</code> when responses should not be cached
+    */
+   public void setResponseCache(final WeatherResponseCache responseCache) {
+
+      _responseCache = responseCache;
+   }
 }
@@ -15,9 +15,19 @@
  *******************************************************************************/
 package net.tourbook.weather;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
 import net.tourbook.Messages;
 import net.tourbook.application.TourbookPlugin;
 import net.tourbook.common.UI;
+import net.tourbook.common.util.StatusUtil;
 import net.tourbook.common.util.StringUtils;
 import net.tourbook.data.TourData;
 import net.tourbook.preferences.ITourbookPreferences;
@@ -28,11 +38,36 @@ import net.tourbook.weather.openweathermap.OpenWeatherMapRetriever;
 import net.tourbook.weather.weatherapi.WeatherApiRetriever;
 import net.tourbook.weather.worldweatheronline.WorldWeatherOnlineRetriever;
 
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.osgi.util.NLS;
 
 public final class TourWeatherRetriever {
 
-   private static final IPreferenceStore _prefStore = TourbookPlugin.getPrefStore();
+   /**
+    * Number of tours for which the weather is retrieved at the same time, the number of requests
+    * is also limited by the rate limit of each weather provider
+    */
+   private static final int              MAX_CONCURRENT_TOURS = 4;
+
+   private static final IPreferenceStore _prefStore           = TourbookPlugin.getPrefStore();
+
+   private static final ExecutorService  _retrievalExecutor;
+
+   static {
+
+      final ThreadFactory threadFactory = runnable -> {
+
+         final Thread thread = new Thread(runnable, "Retrieving weather data");//$NON-NLS-1$
+
+         thread.setPriority(Thread.MIN_PRIORITY);
+         thread.setDaemon(true);
+
+         return thread;
+      };
+
+      _retrievalExecutor = Executors.newFixedThreadPool(MAX_CONCURRENT_TOURS, threadFactory);
+   }
 
    public static boolean retrieveWeatherData(final TourData tourData,
                                              final String weatherProvider) {
@@ -61,6 +96,8 @@ public final class TourWeatherRetriever {
          return false;
       }
 
+      historicalWeatherRetriever.setResponseCache(WeatherResponseCache.getInstance());
+
       final boolean isWeatherRetrieved = historicalWeatherRetriever.retrieveHistoricalWeatherData();
       if (isWeatherRetrieved) {
 
@@ -93,4 +130,76 @@ public final class TourWeatherRetriever {
 
       return isWeatherRetrieved;
    }
+
+   /**
+    * Retrieves the weather data for all tours, the weather for several tours is retrieved
+    * concurrently.
+    *
+    * @param allTourData
+    * @param weatherProvider
+    * @param monitor
+    * @return Returns all tours for which the weather data are retrieved, in the same order as
+    *         <code>allTourData</code>
+    */
+   public static List<TourData> retrieveWeatherData(final List<TourData> allTourData,
+                                                    final String weatherProvider,
+                                                    final IProgressMonitor monitor) {
+
+      final int numTours = allTourData.size();
+
+      final boolean[] allIsRetrieved = new boolean[numTours];
+      final List<Future<?>> allRetrievals = new ArrayList<>(numTours);
+
+      monitor.beginTask(NLS.bind(Messages.Log_RetrieveWeatherData_001_Start, weatherProvider), numTours);
+
+      for (int tourIndex = 0; tourIndex < numTours; tourIndex++) {
+
+         final int retrievalIndex = tourIndex;
+         final TourData tourData = allTourData.get(tourIndex);
+
+         allRetrievals.add(_retrievalExecutor.submit(() -> {
+
+            if (monitor.isCanceled()) {
+               return;
+            }
+
+            allIsRetrieved[retrievalIndex] = retrieveWeatherData(tourData, weatherProvider);
+         }));
+      }
+
+      final List<TourData> allModifiedTours = new ArrayList<>();
+
+      for (int tourIndex = 0; tourIndex < numTours; tourIndex++) {
+
+         final Future<?> retrieval = allRetrievals.get(tourIndex);
+
+         if (monitor.isCanceled()) {
+
+            // tours which are currently retrieved are finished, all other are skipped
+            retrieval.cancel(false);
+         }
+
+         try {
+
+            retrieval.get();
+
+            if (allIsRetrieved[tourIndex]) {
+               allModifiedTours.add(allTourData.get(tourIndex));
+            }
+
+         } catch (final CancellationException e) {
+            // tour is skipped
+         } catch (final ExecutionException e) {
+            StatusUtil.log(e);
+         } catch (final InterruptedException e) {
+            StatusUtil.log(e);
+            Thread.currentThread().interrupt();
+            break;
+         }
+
+         monitor.worked(1);
+      }
+
+      return allModifiedTours;
+   }
 }
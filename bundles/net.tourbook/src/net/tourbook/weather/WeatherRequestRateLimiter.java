@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package net.tourbook.weather;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of requests which are sent to a weather provider, requests are delayed until
+ * the next time slot is available.
+ */
+class WeatherRequestRateLimiter {
+
+   private final long _requestInterval;
+
+   private long       _nextRequestTime = System.nanoTime();
+
+   /**
+    * @param maxRequestsPerSecond
+    */
+   WeatherRequestRateLimiter(final int maxRequestsPerSecond) {
+
+      _requestInterval = TimeUnit.SECONDS.toNanos(1) / Math.max(1, maxRequestsPerSecond);
+   }
+
+   /**
+    * Waits until a request can be sent
+    *
+    * @throws InterruptedException
+    */
+   void acquire() throws InterruptedException {
+
+      final long waitingTime = reserveRequestTime();
+
+      if (waitingTime > 0) {
+         TimeUnit.NANOSECONDS.sleep(waitingTime);
+      }
+   }
+
+   /**
+    * @return Returns the time in ns which must be waited until the reserved request time
+    */
+   private synchronized long reserveRequestTime() {
+
+      final long now = System.nanoTime();
+      final long requestTime = Math.max(now, _nextRequestTime);
+
+      _nextRequestTime = requestTime + _requestInterval;
+
+      return requestTime - now;
+   }
+}
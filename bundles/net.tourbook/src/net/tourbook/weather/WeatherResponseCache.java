@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright (C) 2023 Wolfgang Schramm and Contributors
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *******************************************************************************/
+package net.tourbook.weather;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import net.tourbook.application.TourbookPlugin;
+import net.tourbook.common.util.StatusUtil;
+import net.tourbook.common.util.StringUtils;
+
+/**
+ * Persistent cache for the responses of the weather providers.
+ * <p>
+ * A response is cached with a key which contains the weather provider, the rounded location and
+ * the requested time, so that re-retrieving the weather or retrieving the weather for tours at the
+ * same location and time is not sending a request again. Only successful responses are cached.
+ * <p>
+ * The number of cached responses is limited, the least recently used responses are removed and
+ * responses which were not used for {@link #MAX_UNUSED_AGE} are removed.
+ */
+public class WeatherResponseCache {
+
+   private static final String         CACHE_FOLDER_NAME      = "weather-responses"; //$NON-NLS-1$
+   private static final String         FILE_EXTENSION         = ".json";             //$NON-NLS-1$
+
+   /**
+    * Maximum number of cached responses, the least recently used responses are removed
+    */
+   private static final int            MAX_CACHED_RESPONSES   = 5000;
+
+   /**
+    * Responses which were not used for this duration are removed
+    */
+   private static final Duration       MAX_UNUSED_AGE         = Duration.ofDays(90);
+
+   /**
+    * Number of written responses after which the cache size is checked again
+    */
+   private static final int            CLEANUP_WRITE_INTERVAL = 100;
+
+   private static WeatherResponseCache _instance;
+
+   private final Path                  _cacheFolder;
+
+   /**
+    * Lock for each cache key, that the same response is not requested concurrently, a lock is
+    * removed when it is not used by any thread
+    */
+   private final ConcurrentHashMap<String, KeyLock> _allKeyLocks         = new ConcurrentHashMap<>();
+
+   private final AtomicInteger                      _numWrittenResponses = new AtomicInteger();
+
+   private static final class KeyLock {
+
+      /**
+       * Number of threads which are holding or waiting for this lock, it is modified only when the
+       * lock map entry is computed
+       */
+      private int numUsers;
+   }
+
+   public WeatherResponseCache(final Path cacheFolder) {
+
+      _cacheFolder = cacheFolder;
+   }
+
+   /**
+    * @return Returns the cache in the plugin state location
+    */
+   public static synchronized WeatherResponseCache getInstance() {
+
+      if (_instance == null) {
+
+         final Path stateLocation = TourbookPlugin.getDefault().getStateLocation().toFile().toPath();
+
+         _instance = new WeatherResponseCache(stateLocation.resolve(CACHE_FOLDER_NAME));
+      }
+
+      return _instance;
+   }
+
+   /**
+    * @param cacheKey
+    * @return Returns the file name for the cache key, all characters which could be invalid in a
+    *         file name are replaced
+    */
+   private static String getFileName(final String cacheKey) {
+
+      return cacheKey.replaceAll("[^a-zA-Z0-9.\\-]", "_") + FILE_EXTENSION; //$NON-NLS-1$ //$NON-NLS-2$
+   }
+
+   /**
+    * Get a response from the cache or request it when it is not cached.
+    *
+    * @param cacheKey
+    * @param responseSupplier
+    *           Sends the request, returns an empty string when the request failed
+    * @return Returns the cached or requested response
+    */
+   public String get(final String cacheKey, final Supplier<String> responseSupplier) {
+
+      final KeyLock keyLock = _allKeyLocks.compute(cacheKey, (key, existingLock) -> {
+
+         final KeyLock lock = existingLock == null ? new KeyLock() : existingLock;
+
+         lock.numUsers++;
+
+         return lock;
+      });
+
+      try {
+
+         synchronized (keyLock) {
+
+            final Path cacheFile = _cacheFolder.resolve(getFileName(cacheKey));
+
+            final String cachedResponse = readResponse(cacheFile);
+            if (cachedResponse != null) {
+               return cachedResponse;
+            }
+
+            final String response = responseSupplier.get();
+
+            if (StringUtils.hasContent(response)) {
+               writeResponse(cacheFile, response);
+            }
+
+            return response;
+         }
+
+      } finally {
+
+         // remove the lock after it is released and when no other thread is waiting for it
+         _allKeyLocks.computeIfPresent(cacheKey, (key, lock) -> --lock.numUsers == 0 ? null : lock);
+      }
+   }
+
+   private String readResponse(final Path cacheFile) {
+
+      if (Files.exists(cacheFile) == false) {
+         return null;
+      }
+
+      try {
+
+         final String response = Files.readString(cacheFile, StandardCharsets.UTF_8);
+
+         // the modified time is used to remove the least recently used responses
+         Files.setLastModifiedTime(cacheFile, FileTime.fromMillis(System.currentTimeMillis()));
+
+         return response;
+
+      } catch (final IOException e) {
+         StatusUtil.log(e);
+      }
+
+      return null;
+   }
+
+   /**
+    * Remove responses which were not used for {@link #MAX_UNUSED_AGE} and the least recently used
+    * responses when there are more than {@link #MAX_CACHED_RESPONSES}
+    */
+   private void removeOldResponses() {
+
+      final List<Path> allCacheFiles;
+
+      try (Stream<Path> allFiles = Files.list(_cacheFolder)) {
+
+         allCacheFiles = allFiles
+               .filter(path -> path.getFileName().toString().endsWith(FILE_EXTENSION))
+               .collect(Collectors.toCollection(ArrayList::new));
+
+      } catch (final IOException e) {
+         StatusUtil.log(e);
+         return;
+      }
+
+      allCacheFiles.sort(Comparator.comparingLong(path -> path.toFile().lastModified()));
+
+      final long oldestUsedTime = System.currentTimeMillis() - MAX_UNUSED_AGE.toMillis();
+      final int numExceededFiles = allCacheFiles.size() - MAX_CACHED_RESPONSES;
+
+      for (int fileIndex = 0; fileIndex < allCacheFiles.size(); fileIndex++) {
+
+         final Path cacheFile = allCacheFiles.get(fileIndex);
+
+         if (fileIndex >= numExceededFiles && cacheFile.toFile().lastModified() >= oldestUsedTime) {
+
+            // all other files are used more recently
+            break;
+         }
+
+         try {
+            Files.deleteIfExists(cacheFile);
+         } catch (final IOException e) {
+            StatusUtil.log(e);
+         }
+      }
+   }
+
+   private void writeResponse(final Path cacheFile, final String response) {
+
+      try {
+
+         Files.createDirectories(_cacheFolder);
+
+         // write into a temp file that a partly written response is never read
+         final Path tempFile = Files.createTempFile(_cacheFolder, null, null);
+
+         Files.writeString(tempFile, response, StandardCharsets.UTF_8);
+         Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+      } catch (final IOException e) {
+         StatusUtil.log(e);
+      }
+
+      // check the cache size with the first written response and then periodically
+      if (_numWrittenResponses.getAndIncrement() % CLEANUP_WRITE_INTERVAL == 0) {
+         removeOldResponses();
+      }
+   }
+}
@@ -38,6 +38,7 @@ import net.tourbook.common.util.StatusUtil;
 import net.tourbook.common.util.StringUtils;
 import net.tourbook.common.weather.IWeather;
 import net.tourbook.data.TourData;
+import net.tourbook.ui.views.IWeatherProvider;
 import net.tourbook.weather.HistoricalWeatherRetriever;
 import net.tourbook.weather.WeatherUtils;
 
@@ -277,6 +278,11 @@ public class OpenWeatherMapRetriever extends HistoricalWeatherRetriever {
       return newTimeMachineResult;
    }
 
+   @Override
+   protected String getWeatherProviderId() {
+      return IWeatherProvider.WEATHER_PROVIDER_OPENWEATHERMAP_ID;
+   }
+
    /**
     * Determines if the tour start time is within the current hour
     *
@@ -307,7 +313,9 @@ public class OpenWeatherMapRetriever extends HistoricalWeatherRetriever {
 
       final String airPollutionRequestWithParameters = buildAirPollutionApiRequest();
 
-      final String rawAirPollutionData = sendWeatherApiRequest(airPollutionRequestWithParameters);
+      final String rawAirPollutionData = sendWeatherApiRequest(
+            airPollutionRequestWithParameters,
+            createCacheKey("airpollution-" + tourStartTime / 3600 + "-" + tourEndTime / 3600, tourEndTime)); //$NON-NLS-1$ //$NON-NLS-2$
       if (StringUtils.isNullOrEmpty(rawAirPollutionData)) {
          return null;
       }
@@ -404,7 +412,9 @@ public class OpenWeatherMapRetriever extends HistoricalWeatherRetriever {
 
       final String weatherRequestWithParameters = buildWeatherApiRequest(requestedTime);
 
-      final String rawWeatherData = sendWeatherApiRequest(weatherRequestWithParameters);
+      final String rawWeatherData = sendWeatherApiRequest(
+            weatherRequestWithParameters,
+            createCacheKey("timemachine-" + requestedTime / 3600, requestedTime)); //$NON-NLS-1$
       if (StringUtils.isNullOrEmpty(rawWeatherData)) {
          return null;
       }
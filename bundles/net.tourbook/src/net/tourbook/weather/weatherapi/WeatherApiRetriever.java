@@ -20,6 +20,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -31,6 +32,7 @@ import net.tourbook.common.util.StatusUtil;
 import net.tourbook.common.util.StringUtils;
 import net.tourbook.common.weather.IWeather;
 import net.tourbook.data.TourData;
+import net.tourbook.ui.views.IWeatherProvider;
 import net.tourbook.weather.HistoricalWeatherRetriever;
 import net.tourbook.weather.WeatherUtils;
 
@@ -212,6 +214,11 @@ public class WeatherApiRetriever extends HistoricalWeatherRetriever {
       return newHistoryResult;
    }
 
+   @Override
+   protected String getWeatherProviderId() {
+      return IWeatherProvider.WEATHER_PROVIDER_WEATHERAPI_ID;
+   }
+
    @Override
    public boolean retrieveHistoricalWeatherData() {
 
@@ -227,7 +234,9 @@ public class WeatherApiRetriever extends HistoricalWeatherRetriever {
 
          final String weatherRequestWithParameters = buildWeatherApiRequest(requestedDate);
 
-         final String rawWeatherData = sendWeatherApiRequest(weatherRequestWithParameters);
+         final String rawWeatherData = sendWeatherApiRequest(
+               weatherRequestWithParameters,
+               createCacheKey("history-" + requestedDate, requestedDate.plusDays(1).atStartOfDay(ZoneOffset.UTC).toEpochSecond())); //$NON-NLS-1$
          if (StringUtils.isNullOrEmpty(rawWeatherData)) {
             return false;
          }
@@ -39,6 +39,7 @@ import net.tourbook.common.util.Util;
 import net.tourbook.common.weather.IWeather;
 import net.tourbook.data.TourData;
 import net.tourbook.preferences.ITourbookPreferences;
+import net.tourbook.ui.views.IWeatherProvider;
 import net.tourbook.ui.views.calendar.CalendarProfile;
 import net.tourbook.weather.HistoricalWeatherRetriever;
 import net.tourbook.weather.WeatherUtils;
@@ -330,12 +331,24 @@ public class WorldWeatherOnlineRetriever extends HistoricalWeatherRetriever {
       return serializedWeatherData;
    }
 
+   @Override
+   protected int getMaxRequestsPerSecond() {
+      return 2;
+   }
+
+   @Override
+   protected String getWeatherProviderId() {
+      return IWeatherProvider.WEATHER_PROVIDER_WORLDWEATHERONLINE_ID;
+   }
+
    @Override
    public boolean retrieveHistoricalWeatherData() {
 
       final String weatherRequestWithParameters = buildWeatherApiRequest();
 
-      final String rawWeatherData = sendWeatherApiRequest(weatherRequestWithParameters);
+      final String rawWeatherData = sendWeatherApiRequest(
+            weatherRequestWithParameters,
+            createCacheKey("pastweather-" + startDate + "-" + endDate, tourEndTime)); //$NON-NLS-1$ //$NON-NLS-2$
       if (StringUtils.isNullOrEmpty(rawWeatherData)) {
          return false;
       }